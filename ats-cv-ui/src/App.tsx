@@ -96,7 +96,7 @@ function App() {
                 link.remove();
 
                 setIsLoading(false);
-            } else if (update.stage === 'ERROR') {
+            } else if (update.stage === 'ERROR' || update.stage === 'BUSY') {
                 throw new Error(update.message);
             }
         } catch (e: any) {
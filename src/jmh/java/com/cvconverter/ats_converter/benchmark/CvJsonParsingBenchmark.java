@@ -0,0 +1,35 @@
+package com.cvconverter.ats_converter.benchmark;
+
+import com.cvconverter.ats_converter.dto.CvDataDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Gemini'den gelen yapılandırılmış JSON'un CvDataDto'ya dönüştürülmesi.
+ */
+@State(Scope.Benchmark)
+public class CvJsonParsingBenchmark {
+
+    @Param({"2", "8", "20"})
+    private int sectionCount;
+
+    @Param({"0.0", "1.0"})
+    private double turkishDensity;
+
+    private ObjectMapper objectMapper;
+    private String structuredJson;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Spring'in uygulamada kullandığı ayarlarla aynı ObjectMapper.
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        structuredJson = new SyntheticCvCorpus(42, turkishDensity).cvJson(sectionCount, objectMapper);
+    }
+
+    @Benchmark
+    public CvDataDto parseCvData() throws JsonProcessingException {
+        return objectMapper.readValue(structuredJson, CvDataDto.class);
+    }
+}
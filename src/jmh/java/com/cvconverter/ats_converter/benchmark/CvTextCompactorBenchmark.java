@@ -0,0 +1,35 @@
+package com.cvconverter.ats_converter.benchmark;
+
+import com.cvconverter.ats_converter.service.CvTextCompactor;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * CvTextCompactor.compact: çıkarılan CV metninin Gemini'ye gönderilmeden önce sadeleştirilmesi.
+ * Sıkıştırma, Gemini çağrısının yanında ihmal edilebilir sürede kalmalıdır.
+ */
+@State(Scope.Benchmark)
+public class CvTextCompactorBenchmark {
+
+    @Param({"1", "4", "12"})
+    private int pageCount;
+
+    @Param({"0.0", "0.3"})
+    private double turkishDensity;
+
+    private CvTextCompactor compactor;
+    private String rawText;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        compactor = new CvTextCompactor(true);
+        rawText = new SyntheticCvCorpus(42, turkishDensity).noisyExtractedText(pageCount);
+        CvTextCompactor.CompactedText result = compactor.compact(rawText);
+        System.out.printf("%n[%d sayfa] %d -> %d karakter, ~%d -> ~%d token%n", pageCount, rawText.length(),
+                result.text().length(), result.estimatedTokensBefore(), result.estimatedTokensAfter());
+    }
+
+    @Benchmark
+    public CvTextCompactor.CompactedText compact() {
+        return compactor.compact(rawText);
+    }
+}
@@ -0,0 +1,34 @@
+package com.cvconverter.ats_converter.benchmark;
+
+import com.cvconverter.ats_converter.service.LocalCvParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * LocalCvParser.parse: Gemini çağrısının yerine geçen yerel ayrıştırma. Yapay zeka ile saniyeler süren
+ * yapılandırma adımının, yerel ayrıştırıcı ile milisaniyenin altında kalması beklenir.
+ */
+@State(Scope.Benchmark)
+public class LocalCvParserBenchmark {
+
+    @Param({"2", "8", "24"})
+    private int sectionCount;
+
+    @Param({"0.0", "0.3"})
+    private double turkishDensity;
+
+    private LocalCvParser parser;
+    private String cvText;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        parser = new LocalCvParser(new ObjectMapper(), true, 0.85, 0.4);
+        cvText = new SyntheticCvCorpus(42, turkishDensity).cvText(sectionCount);
+        System.out.printf("%n[%d bölüm] güven = %.2f%n", sectionCount, parser.parse(cvText).confidence());
+    }
+
+    @Benchmark
+    public LocalCvParser.ParseResult parse() {
+        return parser.parse(cvText);
+    }
+}
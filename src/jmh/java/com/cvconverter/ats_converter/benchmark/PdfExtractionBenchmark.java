@@ -0,0 +1,46 @@
+package com.cvconverter.ats_converter.benchmark;
+
+import com.cvconverter.ats_converter.service.CvProcessingService;
+import com.cvconverter.ats_converter.service.CvTextCompactor;
+import com.cvconverter.ats_converter.service.LocalCvParser;
+import com.cvconverter.ats_converter.service.PdfTextExtractor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockMultipartFile;
+
+/**
+ * CvProcessingService.extractTextFromPdf: yüklenen PDF'ten metin çıkarma.
+ */
+@State(Scope.Benchmark)
+public class PdfExtractionBenchmark {
+
+    @Param({"1", "4", "12"})
+    private int pageCount;
+
+    @Param({"0.0", "0.3"})
+    private double turkishDensity;
+
+    private PdfTextExtractor pdfTextExtractor;
+    private CvProcessingService cvProcessingService;
+    private MockMultipartFile file;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        byte[] pdf = new SyntheticCvCorpus(42, turkishDensity).sourcePdf(pageCount);
+        file = new MockMultipartFile("file", "cv.pdf", "application/pdf", pdf);
+        pdfTextExtractor = new PdfTextExtractor(true, 4, 8, 0, 60, 20000, false);
+        // Metin çıkarma Gemini'ye ihtiyaç duymaz.
+        cvProcessingService = new CvProcessingService(null, pdfTextExtractor, new CvTextCompactor(true),
+                new LocalCvParser(new ObjectMapper(), true, 0.85, 0.4), new ObjectMapper());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pdfTextExtractor.shutdown();
+    }
+
+    @Benchmark
+    public String extractTextFromPdf() {
+        return cvProcessingService.extractTextFromPdf(file);
+    }
+}
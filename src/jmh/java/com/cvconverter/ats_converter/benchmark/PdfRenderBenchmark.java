@@ -0,0 +1,34 @@
+package com.cvconverter.ats_converter.benchmark;
+
+import com.cvconverter.ats_converter.service.PdfGenerationService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * PdfGenerationService.createAtsFriendlyPdf: yapılandırılmış JSON'dan ATS uyumlu PDF üretimi.
+ */
+@State(Scope.Benchmark)
+public class PdfRenderBenchmark {
+
+    @Param({"2", "8", "20"})
+    private int sectionCount;
+
+    @Param({"0.0", "0.3", "1.0"})
+    private double turkishDensity;
+
+    private PdfGenerationService pdfGenerationService;
+    private String structuredJson;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        pdfGenerationService = new PdfGenerationService(objectMapper, "PERSONAL_INFO,EXPERIENCE,EDUCATION,SKILLS", true, 0);
+        structuredJson = new SyntheticCvCorpus(42, turkishDensity).cvJson(sectionCount, objectMapper);
+    }
+
+    @Benchmark
+    public byte[] createAtsFriendlyPdf() {
+        return pdfGenerationService.createAtsFriendlyPdf(structuredJson);
+    }
+}
@@ -0,0 +1,198 @@
+package com.cvconverter.ats_converter.benchmark;
+
+import com.cvconverter.ats_converter.dto.CvDataDto;
+import com.cvconverter.ats_converter.dto.EducationDto;
+import com.cvconverter.ats_converter.dto.ExperienceDto;
+import com.cvconverter.ats_converter.dto.PersonalInfoDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lowagie.text.Document;
+import com.lowagie.text.DocumentException;
+import com.lowagie.text.Font;
+import com.lowagie.text.PageSize;
+import com.lowagie.text.Paragraph;
+import com.lowagie.text.pdf.BaseFont;
+import com.lowagie.text.pdf.PdfWriter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Benchmark'lar için tekrarlanabilir (sabit tohumlu) sentetik CV verisi üretir.
+ * <p>
+ * Üretilen verinin boyutu üç eksende değiştirilebilir: kaynak PDF'in sayfa sayısı, CV'deki bölüm
+ * (deneyim/eğitim kaydı) sayısı ve metindeki Türkçe karakter yoğunluğu (0.0 - 1.0).
+ */
+public final class SyntheticCvCorpus {
+
+    private static final String[] SYLLABLES = {
+            "yaz", "lim", "mu", "hen", "dis", "pro", "je", "ta", "sa", "rim", "ge", "lis", "tir", "me",
+            "ek", "ip", "yo", "ne", "tim", "an", "ka", "li", "te", "sis", "tem", "da", "gi", "tik", "ver", "i"
+    };
+    private static final String TURKISH_LETTERS = "çğıöşüÇĞİÖŞÜ";
+    private static final int LINES_PER_PAGE = 38;
+
+    private final Random random;
+    private final double turkishDensity;
+
+    public SyntheticCvCorpus(long seed, double turkishDensity) {
+        this.random = new Random(seed);
+        this.turkishDensity = turkishDensity;
+    }
+
+    /**
+     * Gemini'nin döndürdüğü yapıda bir CV. Her bölüm bir iş deneyimi kaydıdır; her üç bölüme bir
+     * eğitim kaydı ve her bölüme iki yetenek eklenir.
+     */
+    public CvDataDto cvData(int sectionCount) {
+        PersonalInfoDto personalInfo = new PersonalInfoDto();
+        personalInfo.setIsim(words(2));
+        personalInfo.setEmail("aday" + random.nextInt(1000) + "@example.com");
+        personalInfo.setTelefon("+90 5" + (10 + random.nextInt(89)) + " " + (100 + random.nextInt(899)) + " 00 00");
+        personalInfo.setAdres(words(2));
+
+        List<ExperienceDto> experiences = new ArrayList<>();
+        List<EducationDto> educations = new ArrayList<>();
+        List<String> skills = new ArrayList<>();
+        for (int i = 0; i < sectionCount; i++) {
+            ExperienceDto experience = new ExperienceDto();
+            experience.setUnvan(words(3));
+            experience.setSirket(words(2) + " A.Ş.");
+            experience.setTarihler((2000 + i) + " - " + (2001 + i));
+            experience.setAciklama(sentence(25 + random.nextInt(30)));
+            experiences.add(experience);
+            if (i % 3 == 0) {
+                EducationDto education = new EducationDto();
+                education.setOkul(words(3) + " Üniversitesi");
+                education.setBolum(words(2));
+                education.setDerece("Lisans");
+                education.setTarihler((1990 + i) + " - " + (1994 + i));
+                educations.add(education);
+            }
+            skills.add(words(1));
+            skills.add(words(2));
+        }
+
+        CvDataDto cvData = new CvDataDto();
+        cvData.setKisiselBilgiler(personalInfo);
+        cvData.setIsDeneyimleri(experiences);
+        cvData.setEgitimBilgileri(educations);
+        cvData.setYetenekler(skills);
+        return cvData;
+    }
+
+    public String cvJson(int sectionCount, ObjectMapper objectMapper) {
+        try {
+            return objectMapper.writeValueAsString(cvData(sectionCount));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * {@link #cvData(int)} ile üretilen CV'nin, CvTextCompactor çıktısına benzeyen düz metin hali:
+     * ad ve iletişim satırları, ardından "Deneyim", "Eğitim" ve "Yetenekler" bölümleri.
+     */
+    public String cvText(int sectionCount) {
+        CvDataDto cvData = cvData(sectionCount);
+        PersonalInfoDto personalInfo = cvData.getKisiselBilgiler();
+        StringBuilder builder = new StringBuilder()
+                .append(personalInfo.getIsim()).append('\n')
+                .append(personalInfo.getEmail()).append(" | ").append(personalInfo.getTelefon()).append("\n\nDeneyim\n");
+        for (ExperienceDto experience : cvData.getIsDeneyimleri()) {
+            builder.append(experience.getUnvan()).append(" Mühendisi | ").append(experience.getSirket()).append('\n')
+                    .append(experience.getTarihler()).append("\n- ").append(experience.getAciklama()).append('\n');
+        }
+        builder.append("\nEğitim\n");
+        for (EducationDto education : cvData.getEgitimBilgileri()) {
+            builder.append(education.getOkul()).append('\n')
+                    .append(education.getBolum()).append(", ").append(education.getDerece()).append('\n')
+                    .append(education.getTarihler()).append('\n');
+        }
+        return builder.append("\nYetenekler\n").append(String.join(", ", cvData.getYetenekler())).toString();
+    }
+
+    /**
+     * Metin çıkarma benchmark'ı için verilen sayıda sayfadan oluşan, metin içeren bir PDF.
+     */
+    public byte[] sourcePdf(int pageCount) {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        Document document = new Document(PageSize.A4, 40, 40, 40, 40);
+        try {
+            PdfWriter.getInstance(document, baos);
+            document.open();
+            Font font = new Font(BaseFont.createFont(BaseFont.HELVETICA, "Cp1254", BaseFont.NOT_EMBEDDED), 10);
+            for (int page = 0; page < pageCount; page++) {
+                if (page > 0) {
+                    document.newPage();
+                }
+                for (int line = 0; line < LINES_PER_PAGE; line++) {
+                    document.add(new Paragraph(sentence(12), font));
+                }
+            }
+            document.close();
+        } catch (DocumentException | IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return baos.toByteArray();
+    }
+
+    /**
+     * PDFTextStripper çıktısına benzeyen ham metin: her sayfada tekrar eden üst bilgi, sayfa numarası,
+     * satır sonunda tireyle bölünmüş kelimeler ve fazla boşluklar içerir. Sayfalar form feed ile ayrılır.
+     */
+    public String noisyExtractedText(int pageCount) {
+        String header = words(2) + "  |  aday" + random.nextInt(1000) + "@example.com  |  +90 532 000 00 00";
+        StringBuilder builder = new StringBuilder();
+        for (int page = 1; page <= pageCount; page++) {
+            builder.append(header).append('\n');
+            for (int line = 0; line < LINES_PER_PAGE; line++) {
+                String text = sentence(12);
+                if (line % 5 == 4) {
+                    // Son kelimeyi satır sonunda böl: "geliştir-" / "me ..."
+                    int split = text.lastIndexOf(' ') + 3;
+                    builder.append(text, 0, split).append("-\n").append(text.substring(split));
+                } else {
+                    builder.append(text.replace(" ", line % 3 == 0 ? "   " : " "));
+                }
+                builder.append('\n');
+            }
+            builder.append("Sayfa ").append(page).append(" / ").append(pageCount).append("\n\f");
+        }
+        return builder.toString();
+    }
+
+    public String coverLetter(int paragraphs) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < paragraphs; i++) {
+            builder.append(sentence(60)).append("\n\n");
+        }
+        return builder.toString();
+    }
+
+    private String sentence(int wordCount) {
+        String sentence = words(wordCount);
+        return Character.toUpperCase(sentence.charAt(0)) + sentence.substring(1) + ".";
+    }
+
+    private String words(int count) {
+        StringBuilder builder = new StringBuilder();
+        for (int w = 0; w < count; w++) {
+            if (w > 0) {
+                builder.append(' ');
+            }
+            int syllables = 1 + random.nextInt(3);
+            for (int s = 0; s < syllables; s++) {
+                for (char c : SYLLABLES[random.nextInt(SYLLABLES.length)].toCharArray()) {
+                    builder.append(random.nextDouble() < turkishDensity
+                            ? TURKISH_LETTERS.charAt(random.nextInt(TURKISH_LETTERS.length()))
+                            : c);
+                }
+            }
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,50 @@
+package com.cvconverter.ats_converter.benchmark;
+
+import com.cvconverter.ats_converter.service.PdfGenerationService;
+import com.cvconverter.ats_converter.service.ZipService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ZipService: ATS uyumlu CV ve ön yazının paketlenmesi. Hem byte dizisi döndüren eski API hem de
+ * doğrudan bir akışa yazan API ölçülür.
+ */
+@State(Scope.Benchmark)
+public class ZipBenchmark {
+
+    @Param({"2", "20"})
+    private int sectionCount;
+
+    private ZipService zipService;
+    private byte[] pdf;
+    private byte[] coverLetter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        SyntheticCvCorpus corpus = new SyntheticCvCorpus(42, 0.3);
+        pdf = new PdfGenerationService(objectMapper, "PERSONAL_INFO,EXPERIENCE,EDUCATION,SKILLS", true, 0)
+                .createAtsFriendlyPdf(corpus.cvJson(sectionCount, objectMapper));
+        coverLetter = corpus.coverLetter(5).getBytes(StandardCharsets.UTF_8);
+        zipService = new ZipService(6, "pdf,zip");
+    }
+
+    @Benchmark
+    public byte[] createZipFile() {
+        return zipService.createZipFile(Map.of("ATS_Uyumlu_CV.pdf", pdf, "On_Yazi.txt", coverLetter));
+    }
+
+    @Benchmark
+    public void writeZipToStream() throws IOException {
+        zipService.writeZip(List.of(
+                zipService.item("ATS_Uyumlu_CV.pdf", pdf),
+                zipService.item("On_Yazi.txt", coverLetter)), OutputStream.nullOutputStream());
+    }
+}
@@ -0,0 +1,240 @@
+package com.cvconverter.ats_converter.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Dönüştürme endpoint'ine {@code concurrency} kadar eşzamanlı kullanıcıyla (kapalı döngü: her kullanıcı bir
+ * dönüştürme bitince sıradakini başlatır) toplam {@code requests} adet multipart yükleme gönderen sürücü.
+ * <p>
+ * Her yüklemenin SSE akışı sonuna kadar okunur; {@code DOWNLOAD_READY} olayı gelince dosya
+ * {@code /api/v1/cv/download} üzerinden indirilir. Uçtan uca süre, yüklemenin başlamasından indirmenin son
+ * byte'ına kadar ölçülür. Her yükleme farklı bir PDF ve farklı bir API anahtarı kullanır: analiz/PDF önbellekleri
+ * ve anahtar başına hız sınırı, her dönüştürmeyi tek bir kullanıcıdan geliyormuş gibi görür.
+ */
+class ConversionDriver {
+
+    private static final String DOWNLOAD_PATH = "/api/v1/cv/download";
+    private static final Duration REQUEST_TIMEOUT = Duration.ofMinutes(5);
+    private static final String JOB_DESCRIPTION = "Spring Boot ve PostgreSQL deneyimli kıdemli Java geliştirici arıyoruz.";
+
+    // Serbest metin: başlıksız ve tarih biçimleri düzensiz; yerel ayrıştırıcı bunu yüksek güvenle yapılandıramaz.
+    // Standart 14 yazı tipleri (WinAnsi) Türkçe karakterleri kodlayamadığı için metin ASCII'dir.
+    private static final List<String> SAMPLE_CV_LINES = List.of(
+            "Ayse Yilmaz, Istanbul - ayse.yilmaz@example.com - +90 555 123 45 67",
+            "Bes yili askin suredir Acme Yazilim'da kidemli Java gelistirici olarak odeme servisleri uzerinde calisiyorum;",
+            "bu servisleri Spring Boot ile yeniden yazarak gecikmeyi yuzde kirk azalttim. Daha once dort yil boyunca",
+            "Initech'te faturalama sistemi icin REST API'ler ve PostgreSQL semalari gelistirdim.",
+            "ODTU Bilgisayar Muhendisligi bolumunden 2016 yilinda mezun oldum.",
+            "Java, Spring Boot, PostgreSQL, Kubernetes ve Kafka ile gunluk olarak calisiyorum.");
+
+    /** Tek bir dönüştürmenin sonucu. */
+    enum Outcome { COMPLETED, BUSY, ERROR, FAILED }
+
+    record Sample(Outcome outcome, long latencyNanos, String detail) {
+    }
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final String baseUrl;
+    private final String endpoint;
+    private final boolean generateCoverLetter;
+
+    ConversionDriver(ObjectMapper objectMapper, String baseUrl, String endpoint, boolean generateCoverLetter) {
+        this.objectMapper = objectMapper;
+        this.baseUrl = baseUrl;
+        this.endpoint = endpoint;
+        this.generateCoverLetter = generateCoverLetter;
+        // HTTP/1.1: JDK istemcisinin h2c yükseltme denemesi Tomcat tarafında gereksiz bir tur yaratır.
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    /**
+     * Yüklenecek PDF'leri ölçüm başlamadan önce üretir; her belge sıra numarasıyla diğerlerinden ayrılır.
+     */
+    static List<byte[]> samplePdfs(int count) throws IOException {
+        List<byte[]> pdfs = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            pdfs.add(samplePdf("Basvuru no: " + (i + 1) + " / " + UUID.randomUUID()));
+        }
+        return pdfs;
+    }
+
+    /**
+     * Verilen PDF'leri {@code concurrency} eşzamanlı kullanıcıyla dönüştürür ve tamamlanma sırasına göre sonuçları döner.
+     */
+    List<Sample> run(List<byte[]> pdfs, int concurrency, String apiKeyPrefix) throws InterruptedException {
+        List<Sample> samples = Collections.synchronizedList(new ArrayList<>(pdfs.size()));
+        AtomicInteger next = new AtomicInteger();
+        ExecutorService users = Executors.newFixedThreadPool(concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "load-user");
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int user = 0; user < concurrency; user++) {
+            users.execute(() -> {
+                int index;
+                while ((index = next.getAndIncrement()) < pdfs.size()) {
+                    samples.add(convert(pdfs.get(index), apiKeyPrefix + "-" + index));
+                }
+            });
+        }
+        users.shutdown();
+        if (!users.awaitTermination(1, TimeUnit.HOURS)) {
+            users.shutdownNow();
+            throw new IllegalStateException("Yük testi bir saat içinde tamamlanamadı.");
+        }
+        return samples;
+    }
+
+    private Sample convert(byte[] pdf, String apiKey) {
+        long start = System.nanoTime();
+        try {
+            String boundary = "----loadtest" + UUID.randomUUID();
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + endpoint))
+                    .timeout(REQUEST_TIMEOUT)
+                    .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                    .header("Accept", "text/event-stream")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(multipartBody(boundary, pdf, apiKey)))
+                    .build();
+            HttpResponse<InputStream> response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+            JsonNode last = readEvents(response);
+            if (last == null) {
+                return new Sample(Outcome.FAILED, elapsed(start), "HTTP " + response.statusCode() + ", olay yok");
+            }
+            switch (last.path("stage").asText()) {
+                case "DOWNLOAD_READY" -> {
+                    download(last.path("data").asText(), last.path("message").asText());
+                    return new Sample(Outcome.COMPLETED, elapsed(start), null);
+                }
+                case "BUSY" -> {
+                    return new Sample(Outcome.BUSY, elapsed(start), last.path("message").asText());
+                }
+                case "ERROR" -> {
+                    return new Sample(Outcome.ERROR, elapsed(start), last.path("message").asText());
+                }
+                default -> {
+                    return new Sample(Outcome.FAILED, elapsed(start), "Akış " + last.path("stage").asText() + " olayında kesildi");
+                }
+            }
+        } catch (IOException e) {
+            return new Sample(Outcome.FAILED, elapsed(start), e.toString());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new Sample(Outcome.FAILED, elapsed(start), "Kesildi");
+        }
+    }
+
+    /**
+     * SSE akışını sonuna kadar okur ve son aşama olayını döner. Olay adları (connection_established, busy) dikkate
+     * alınmaz; aşama, frontend'de olduğu gibi {@code data:} satırındaki JSON'dan okunur.
+     */
+    private JsonNode readEvents(HttpResponse<InputStream> response) throws IOException {
+        JsonNode last = null;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(response.body(), StandardCharsets.UTF_8))) {
+            if (response.statusCode() != 200) {
+                return null;
+            }
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.startsWith("data:")) {
+                    continue;
+                }
+                JsonNode event = objectMapper.readTree(line.substring("data:".length()).trim());
+                String stage = event.path("stage").asText();
+                if (!"COVER_LETTER_CHUNK".equals(stage) && !"CV_SECTION_READY".equals(stage)) {
+                    last = event;
+                }
+                if ("DOWNLOAD_READY".equals(stage) || "ERROR".equals(stage) || "BUSY".equals(stage)) {
+                    break;
+                }
+            }
+        }
+        return last;
+    }
+
+    private void download(String fileId, String filename) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + DOWNLOAD_PATH
+                        + "?fileId=" + URLEncoder.encode(fileId, StandardCharsets.UTF_8)
+                        + "&filename=" + URLEncoder.encode(filename, StandardCharsets.UTF_8)))
+                .timeout(REQUEST_TIMEOUT)
+                .GET()
+                .build();
+        HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200 || response.body().length == 0) {
+            throw new IOException("İndirme başarısız: HTTP " + response.statusCode() + ", " + response.body().length + " byte");
+        }
+    }
+
+    private byte[] multipartBody(String boundary, byte[] pdf, String apiKey) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream(pdf.length + 1024);
+        body.write(("--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"load-test-cv.pdf\"\r\n"
+                + "Content-Type: application/pdf\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+        body.write(pdf);
+        body.write(("\r\n" + field(boundary, "apiKey", apiKey)
+                + field(boundary, "jobDescription", generateCoverLetter ? JOB_DESCRIPTION : "")
+                + field(boundary, "generateCoverLetter", String.valueOf(generateCoverLetter))
+                + field(boundary, "streamCoverLetter", String.valueOf(generateCoverLetter))
+                + "--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
+        return body.toByteArray();
+    }
+
+    private static String field(String boundary, String name, String value) {
+        return "--" + boundary + "\r\nContent-Disposition: form-data; name=\"" + name + "\"\r\n\r\n" + value + "\r\n";
+    }
+
+    private static long elapsed(long startNanos) {
+        return System.nanoTime() - startNanos;
+    }
+
+    private static byte[] samplePdf(String uniqueLine) throws IOException {
+        try (PDDocument document = new PDDocument(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            PDPage page = new PDPage();
+            document.addPage(page);
+            try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                content.beginText();
+                content.setFont(new PDType1Font(Standard14Fonts.FontName.HELVETICA), 10);
+                content.setLeading(14);
+                content.newLineAtOffset(50, 740);
+                for (String line : SAMPLE_CV_LINES) {
+                    content.showText(line);
+                    content.newLine();
+                }
+                content.showText(uniqueLine);
+                content.endText();
+            }
+            document.save(out);
+            return out.toByteArray();
+        }
+    }
+}
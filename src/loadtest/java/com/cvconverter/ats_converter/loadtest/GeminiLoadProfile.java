@@ -0,0 +1,110 @@
+package com.cvconverter.ats_converter.loadtest;
+
+import com.cvconverter.ats_converter.client.GeminiStubServer;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Yük testinde {@link GeminiStubServer}'ın cevaplarını üreten profil.
+ * <p>
+ * {@code generateContent} tek parçalık, {@code streamGenerateContent} ise {@code alt=sse} formatında parçalara
+ * bölünmüş bir cevap döner. İlk byte'a kadar geçen süre ve akıştaki parçalar arası süre ayrı dağılımlardan seçilir.
+ * İsteklerin {@code errorRate} oranında bir kısmı {@code errorStatus} ile reddedilir; 429 ve 503 gibi geçici
+ * hatalar uygulamanın tekrar deneme ve devre kesici yollarını da yük altında çalıştırır.
+ * CV yapılandırma isteklerine hazır (canned) CV JSON'u, ön yazı isteklerine sabit bir metin döner.
+ */
+class GeminiLoadProfile implements GeminiStubServer.Responder {
+
+    static final String DEFAULT_CV_JSON = """
+            {"kisisel_bilgiler":{"isim":"Ayşe Yılmaz","email":"ayse.yilmaz@example.com","telefon":"+90 555 123 45 67"},
+            "is_deneyimleri":[
+            {"unvan":"Kıdemli Java Geliştirici","sirket":"Acme Yazılım","tarihler":"2020 - Günümüz","aciklama":"Ödeme servislerini Spring Boot ile yeniden yazdı; gecikmeyi %40 azalttı."},
+            {"unvan":"Yazılım Geliştirici","sirket":"Initech","tarihler":"2016 - 2020","aciklama":"Faturalama sistemi için REST API'ler ve PostgreSQL şemaları geliştirdi."}],
+            "egitim_bilgileri":[
+            {"okul":"Orta Doğu Teknik Üniversitesi","bolum":"Bilgisayar Mühendisliği","derece":"Lisans","tarihler":"2012 - 2016"}],
+            "yetenekler":["Java","Spring Boot","PostgreSQL","Kubernetes","Kafka"]}""";
+
+    static final String COVER_LETTER = "Sayın Yetkili,\n\nİlanınızdaki Java geliştirici pozisyonu için başvurmak istiyorum. "
+            + "Son beş yılda Spring Boot ile yüksek trafikli ödeme servisleri geliştirdim ve bu servislerin gecikmesini "
+            + "önemli ölçüde azalttım. Ekibinize aynı deneyimi taşıyabileceğime inanıyorum.\n\nSaygılarımla,\nAyşe Yılmaz";
+
+    // Ön yazı komutunda bulunan, CV yapılandırma komutunda bulunmayan ifade.
+    private static final String COVER_LETTER_MARKER = "İş İlanı Metni";
+    private static final String STREAM_METHOD = ":streamGenerateContent";
+
+    private final LatencyDistribution latency;
+    private final LatencyDistribution chunkLatency;
+    private final int chunkCount;
+    private final double errorRate;
+    private final int errorStatus;
+    private final String cvJson;
+
+    private final AtomicLong generateRequests = new AtomicLong();
+    private final AtomicLong streamRequests = new AtomicLong();
+    private final AtomicLong injectedErrors = new AtomicLong();
+
+    GeminiLoadProfile(LatencyDistribution latency, LatencyDistribution chunkLatency, int chunkCount,
+                      double errorRate, int errorStatus, String cvJson) {
+        this.latency = latency;
+        this.chunkLatency = chunkLatency;
+        this.chunkCount = Math.max(1, chunkCount);
+        this.errorRate = errorRate;
+        this.errorStatus = errorStatus;
+        this.cvJson = cvJson;
+    }
+
+    @Override
+    public GeminiStubServer.StubResponse respond(String path, String requestBody) {
+        boolean stream = path.contains(STREAM_METHOD);
+        (stream ? streamRequests : generateRequests).incrementAndGet();
+        long delay = latency.sampleMillis();
+
+        if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+            injectedErrors.incrementAndGet();
+            String body = "{\"error\":{\"code\":" + errorStatus + ",\"message\":\"Yük testi stub'ı tarafından üretilen hata\"}}";
+            Map<String, String> headers = errorStatus == 429 ? Map.of("Retry-After", "1") : Map.of();
+            return new GeminiStubServer.StubResponse(errorStatus, headers, delay, List.of(body), 0);
+        }
+
+        String text = requestBody.contains(COVER_LETTER_MARKER) ? COVER_LETTER : cvJson;
+        if (!stream) {
+            return new GeminiStubServer.StubResponse(200, Map.of(), delay, List.of(GeminiStubServer.textResponse(text)), 0);
+        }
+        List<String> events = new ArrayList<>();
+        for (String piece : split(text, chunkCount)) {
+            events.add(GeminiStubServer.sseResponse(piece));
+        }
+        // Parçalar arası bekleme her cevap için bir kez seçilir; aynı akıştaki parçalar eşit aralıklarla gelir.
+        return new GeminiStubServer.StubResponse(200, Map.of("Content-Type", "text/event-stream"), delay, events,
+                chunkLatency.sampleMillis());
+    }
+
+    /** Isınma turunun istek sayılarını ölçümden ayırmak için sayaçları sıfırlar. */
+    void reset() {
+        generateRequests.set(0);
+        streamRequests.set(0);
+        injectedErrors.set(0);
+    }
+
+    Map<String, Object> summary() {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("generateContentRequests", generateRequests.get());
+        summary.put("streamGenerateContentRequests", streamRequests.get());
+        summary.put("injectedErrors", injectedErrors.get());
+        return summary;
+    }
+
+    private static List<String> split(String text, int count) {
+        List<String> pieces = new ArrayList<>(count);
+        int size = (text.length() + count - 1) / count;
+        for (int start = 0; start < text.length(); start += size) {
+            pieces.add(text.substring(start, Math.min(text.length(), start + size)));
+        }
+        return pieces;
+    }
+}
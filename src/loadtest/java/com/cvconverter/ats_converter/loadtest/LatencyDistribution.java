@@ -0,0 +1,51 @@
+package com.cvconverter.ats_converter.loadtest;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Stub Gemini cevaplarının gecikme dağılımı (ms). Metin olarak tanımlanır:
+ * <ul>
+ *     <li>{@code fixed:<ms>}: her istek aynı süre bekler.</li>
+ *     <li>{@code uniform:<min>:<max>}: [min, max] aralığında düzgün dağılım.</li>
+ *     <li>{@code lognormal:<medyan>:<p99>}: medyanı ve 99. yüzdeliği verilen log-normal dağılım; gerçek LLM
+ *     gecikmeleri gibi sağa çarpık, uzun kuyruklu bir dağılım üretir.</li>
+ * </ul>
+ */
+@FunctionalInterface
+interface LatencyDistribution {
+
+    // Standart normal dağılımın 99. yüzdeliği.
+    double Z_99 = 2.3263;
+
+    long sampleMillis();
+
+    static LatencyDistribution parse(String spec) {
+        String[] parts = spec.trim().split(":");
+        try {
+            switch (parts[0]) {
+                case "fixed" -> {
+                    long millis = Long.parseLong(parts[1]);
+                    return () -> millis;
+                }
+                case "uniform" -> {
+                    long min = Long.parseLong(parts[1]);
+                    long max = Long.parseLong(parts[2]);
+                    return () -> ThreadLocalRandom.current().nextLong(min, max + 1);
+                }
+                case "lognormal" -> {
+                    double median = Double.parseDouble(parts[1]);
+                    double p99 = Double.parseDouble(parts[2]);
+                    if (median <= 0 || p99 < median) {
+                        throw new IllegalArgumentException("Medyan pozitif ve p99 değerinden küçük olmalı: " + spec);
+                    }
+                    double sigma = Math.log(p99 / median) / Z_99;
+                    return () -> Math.round(median * Math.exp(sigma * ThreadLocalRandom.current().nextGaussian()));
+                }
+                default -> throw new IllegalArgumentException("Bilinmeyen gecikme dağılımı: " + spec);
+            }
+        } catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+            throw new IllegalArgumentException("Geçersiz gecikme dağılımı: " + spec
+                    + " (beklenen: fixed:<ms> | uniform:<min>:<max> | lognormal:<medyan>:<p99>)", e);
+        }
+    }
+}
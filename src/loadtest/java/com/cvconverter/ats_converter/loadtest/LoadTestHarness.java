@@ -0,0 +1,257 @@
+package com.cvconverter.ats_converter.loadtest;
+
+import com.cvconverter.ats_converter.AtsConverterApplication;
+import com.cvconverter.ats_converter.client.GeminiStubServer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Uçtan uca yük testi ({@code load-test} Maven profili tarafından çalıştırılır).
+ * <p>
+ * Gerçek Gemini kotası harcamadan {@code /generate-stream} hattını yük altında ölçer: süreç içi
+ * {@link GeminiStubServer} ({@link GeminiLoadProfile} ile gecikme dağılımı, hata oranı ve hazır CV JSON'u) ve
+ * uygulamanın kendisi aynı JVM'de başlatılır, {@link ConversionDriver} eşzamanlı yüklemeleri gönderir. Sonuçta
+ * işlem hacmi (dönüştürme/sn), uçtan uca gecikmenin p50/p95/p99 değerleri ve en yüksek heap kullanımı yazdırılır
+ * ve JSON olarak kaydedilir. Heap ölçümü stub ve sürücüyü de içerir; ikisi de ölçümün yanında küçük kalır.
+ * <p>
+ * Ayarlar {@code -Dload.*} sistem özellikleriyle verilir (bkz. pom.xml'deki profil); program argümanları
+ * ({@code --anahtar=değer}) uygulamaya iletilir ve harness'ın varsayılanlarını ezer.
+ */
+public final class LoadTestHarness {
+
+    private static final long HEAP_SAMPLE_INTERVAL_MILLIS = 10;
+
+    private LoadTestHarness() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int requests = Integer.getInteger("load.requests", 200);
+        int concurrency = Integer.getInteger("load.concurrency", 16);
+        int warmup = Integer.getInteger("load.warmup", 10);
+        String endpoint = System.getProperty("load.endpoint", "/api/v1/cv/generate-stream");
+        boolean coverLetter = Boolean.getBoolean("load.cover-letter");
+        Path resultFile = Path.of(System.getProperty("load.result", "target/load-test-result.json"));
+
+        String cvJsonPath = System.getProperty("load.gemini.cv-json", "");
+        GeminiLoadProfile profile = new GeminiLoadProfile(
+                LatencyDistribution.parse(System.getProperty("load.gemini.latency", "lognormal:800:4000")),
+                LatencyDistribution.parse(System.getProperty("load.gemini.chunk-latency", "fixed:40")),
+                Integer.getInteger("load.gemini.chunks", 8),
+                Double.parseDouble(System.getProperty("load.gemini.error-rate", "0.02")),
+                Integer.getInteger("load.gemini.error-status", 503),
+                cvJsonPath.isBlank() ? GeminiLoadProfile.DEFAULT_CV_JSON : Files.readString(Path.of(cvJsonPath)));
+
+        ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        try (GeminiStubServer stub = new GeminiStubServer()) {
+            stub.setResponder(profile);
+            try (ConfigurableApplicationContext context = new SpringApplicationBuilder(AtsConverterApplication.class)
+                    .run(applicationArgs(stub.baseUrl(), args))) {
+                int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+                ConversionDriver driver = new ConversionDriver(objectMapper, "http://127.0.0.1:" + port, endpoint, coverLetter);
+
+                // Isınma: JIT derlemesi ve bağlantı havuzları ölçüme dahil edilmez.
+                if (warmup > 0) {
+                    driver.run(ConversionDriver.samplePdfs(warmup), Math.min(concurrency, warmup), "warmup");
+                    profile.reset();
+                }
+
+                List<byte[]> pdfs = ConversionDriver.samplePdfs(requests);
+                System.gc();
+                HeapSampler heap = new HeapSampler();
+                long gcCountBefore = gcCount();
+                long gcMillisBefore = gcMillis();
+                long start = System.nanoTime();
+                List<ConversionDriver.Sample> samples = driver.run(pdfs, concurrency, "load");
+                long wallNanos = System.nanoTime() - start;
+                heap.stop();
+
+                Map<String, Object> result = new LinkedHashMap<>();
+                result.put("endpoint", endpoint);
+                result.put("requests", requests);
+                result.put("concurrency", concurrency);
+                result.put("coverLetter", coverLetter);
+                result.put("wallClockMillis", TimeUnit.NANOSECONDS.toMillis(wallNanos));
+                result.putAll(summarize(samples, wallNanos));
+                result.put("peakHeapUsedBytes", heap.peakUsed());
+                result.put("peakHeapCommittedBytes", heap.peakCommitted());
+                result.put("maxHeapBytes", ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getMax());
+                result.put("gcCount", gcCount() - gcCountBefore);
+                result.put("gcMillis", gcMillis() - gcMillisBefore);
+                result.put("gemini", profile.summary());
+                result.put("errors", errorDetails(samples));
+
+                Files.createDirectories(resultFile.toAbsolutePath().getParent());
+                objectMapper.writeValue(resultFile.toFile(), result);
+                System.out.printf("%nYük testi sonuçları:%n%s%nSonuçlar: %s%n",
+                        objectMapper.writeValueAsString(result), resultFile.toAbsolutePath());
+            }
+        }
+    }
+
+    /**
+     * Uygulamanın yük testi ayarları: rastgele port, Gemini adresi olarak stub ve her dönüştürmenin stub'a gitmesi
+     * için kapalı yerel ayrıştırıcı. Stub her CV için aynı JSON'u döndüğünden ön yazı ve PDF önbellekleri de
+     * kapatılır; aksi halde ilk dönüştürmeden sonra ön yazı ve PDF oluşturma hiç ölçülmez. Aynı anahtar iki kez
+     * verilirse Spring değerleri birleştirdiği için kullanıcının argümanları varsayılanların üzerine yazılır.
+     */
+    private static String[] applicationArgs(String geminiBaseUrl, String[] overrides) {
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("server.port", "0");
+        properties.put("gemini.api.base-url", geminiBaseUrl);
+        properties.put("cv.local-parser.enabled", "false");
+        properties.put("cv.cover-letter-cache.enabled", "false");
+        properties.put("cv.pdf.render-cache.max-bytes", "0");
+        properties.put("logging.level.com.cvconverter", "WARN");
+        for (String override : overrides) {
+            if (!override.startsWith("--") || !override.contains("=")) {
+                throw new IllegalArgumentException("Uygulama argümanları --anahtar=değer biçiminde olmalı: " + override);
+            }
+            int separator = override.indexOf('=');
+            properties.put(override.substring(2, separator), override.substring(separator + 1));
+        }
+        return properties.entrySet().stream()
+                .map(property -> "--" + property.getKey() + "=" + property.getValue())
+                .toArray(String[]::new);
+    }
+
+    private static Map<String, Object> summarize(List<ConversionDriver.Sample> samples, long wallNanos) {
+        Map<ConversionDriver.Outcome, Long> outcomes = new EnumMap<>(ConversionDriver.Outcome.class);
+        for (ConversionDriver.Outcome outcome : ConversionDriver.Outcome.values()) {
+            outcomes.put(outcome, 0L);
+        }
+        samples.forEach(sample -> outcomes.merge(sample.outcome(), 1L, Long::sum));
+
+        // Yüzdelikler yalnızca tamamlanan (dosyası indirilen) dönüştürmeler üzerinden hesaplanır.
+        long[] latencies = samples.stream()
+                .filter(sample -> sample.outcome() == ConversionDriver.Outcome.COMPLETED)
+                .mapToLong(sample -> TimeUnit.NANOSECONDS.toMillis(sample.latencyNanos()))
+                .sorted()
+                .toArray();
+        double seconds = wallNanos / 1e9;
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        outcomes.forEach((outcome, count) -> summary.put(outcome.name().toLowerCase(), count));
+        summary.put("throughputPerSecond", round(outcomes.get(ConversionDriver.Outcome.COMPLETED) / seconds));
+        summary.put("attemptsPerSecond", round(samples.size() / seconds));
+        Map<String, Object> latency = new LinkedHashMap<>();
+        latency.put("p50", percentile(latencies, 50));
+        latency.put("p95", percentile(latencies, 95));
+        latency.put("p99", percentile(latencies, 99));
+        latency.put("max", latencies.length == 0 ? null : latencies[latencies.length - 1]);
+        latency.put("mean", latencies.length == 0 ? null : round(Arrays.stream(latencies).average().orElse(0)));
+        summary.put("latencyMillis", latency);
+        return summary;
+    }
+
+    /**
+     * En yakın sıra (nearest-rank) yöntemiyle yüzdelik; örnek yoksa null.
+     */
+    static Long percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return null;
+        }
+        int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+        return sorted[Math.max(0, Math.min(sorted.length, rank) - 1)];
+    }
+
+    /**
+     * Başarısız dönüştürmelerin nedenleri ve sayıları (en sık görülen ilk on).
+     */
+    private static Map<String, Long> errorDetails(List<ConversionDriver.Sample> samples) {
+        Map<String, Long> counts = samples.stream()
+                .filter(sample -> sample.outcome() != ConversionDriver.Outcome.COMPLETED)
+                .collect(Collectors.groupingBy(sample -> sample.outcome() + ": " + sample.detail(), Collectors.counting()));
+        Map<String, Long> top = new LinkedHashMap<>();
+        counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .limit(10)
+                .forEach(entry -> top.put(entry.getKey(), entry.getValue()));
+        return top;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+
+    private static long gcCount() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .mapToLong(GarbageCollectorMXBean::getCollectionCount).filter(count -> count > 0).sum();
+    }
+
+    private static long gcMillis() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .mapToLong(GarbageCollectorMXBean::getCollectionTime).filter(time -> time > 0).sum();
+    }
+
+    /**
+     * Ölçüm süresince toplam heap kullanımını düzenli aralıklarla örnekler. Havuzların kendi tepe değerleri farklı
+     * anlarda oluştuğu için toplanmaz; en yüksek tek havuz tepesi yalnızca alt sınır olarak kullanılır.
+     */
+    private static final class HeapSampler {
+        private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        private final List<MemoryPoolMXBean> heapPools = new ArrayList<>();
+        private final AtomicLong peakUsed = new AtomicLong();
+        private final AtomicLong peakCommitted = new AtomicLong();
+        private final Thread thread;
+        private volatile boolean running = true;
+
+        HeapSampler() {
+            for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+                if (pool.getType() == MemoryType.HEAP) {
+                    pool.resetPeakUsage();
+                    heapPools.add(pool);
+                }
+            }
+            thread = new Thread(() -> {
+                while (running) {
+                    sample();
+                    try {
+                        Thread.sleep(HEAP_SAMPLE_INTERVAL_MILLIS);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+            }, "load-heap-sampler");
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        private void sample() {
+            peakUsed.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max);
+            peakCommitted.accumulateAndGet(memory.getHeapMemoryUsage().getCommitted(), Math::max);
+        }
+
+        void stop() throws InterruptedException {
+            running = false;
+            thread.join();
+            sample();
+            // Örnekleme aralığında GC'den hemen önce oluşan tepe kaçabilir.
+            for (MemoryPoolMXBean pool : heapPools) {
+                peakUsed.accumulateAndGet(pool.getPeakUsage().getUsed(), Math::max);
+            }
+        }
+
+        long peakUsed() { return peakUsed.get(); }
+        long peakCommitted() { return peakCommitted.get(); }
+    }
+}
@@ -0,0 +1,72 @@
+package com.cvconverter.ats_converter.client;
+
+import java.time.Duration;
+
+/**
+ * Gemini API çağrısı başarısız olduğunda fırlatılan istisna.
+ * HTTP durum kodu, cevap gövdesi ve varsa {@code Retry-After} süresini taşır.
+ * Bağlantı hataları ve zaman aşımlarında durum kodu {@value #NO_STATUS} olur. İsteğin oluşturulamaması veya
+ * cevabın okunamaması gibi uygulama tarafındaki hatalarda durum kodu {@value #LOCAL_ERROR} olur; bunlar
+ * upstream'in sağlığı hakkında bilgi vermez ve tekrar denemekle düzelmez.
+ */
+public class GeminiApiException extends RuntimeException {
+
+    public static final int NO_STATUS = 0;
+    public static final int LOCAL_ERROR = -1;
+
+    private final int statusCode;
+    private final String responseBody;
+    private final Duration retryAfter;
+    private final boolean rejected;
+
+    public GeminiApiException(int statusCode, String responseBody, Duration retryAfter) {
+        super("Yapay zeka servisi bir hata döndürdü: " + responseBody);
+        this.statusCode = statusCode;
+        this.responseBody = responseBody;
+        this.retryAfter = retryAfter;
+        this.rejected = false;
+    }
+
+    /**
+     * İstek gönderilmeden reddedildiğinde (hız sınırı, devre kesici, dolu bağlantı havuzu) kullanılır.
+     */
+    public GeminiApiException(String message, int statusCode, Duration retryAfter) {
+        super(message);
+        this.statusCode = statusCode;
+        this.responseBody = null;
+        this.retryAfter = retryAfter;
+        this.rejected = true;
+    }
+
+    public GeminiApiException(String message, Throwable cause) {
+        this(message, NO_STATUS, cause);
+    }
+
+    /**
+     * Durum kodu alınamayan hatalar için kullanılır: {@link #NO_STATUS} (bağlantı hatası, zaman aşımı) veya
+     * {@link #LOCAL_ERROR} (istek oluşturulamadı, cevap okunamadı).
+     */
+    public GeminiApiException(String message, int statusCode, Throwable cause) {
+        super(message, cause);
+        this.statusCode = statusCode;
+        this.responseBody = null;
+        this.retryAfter = null;
+        this.rejected = false;
+    }
+
+    public int getStatusCode() { return statusCode; }
+    public String getResponseBody() { return responseBody; }
+    public Duration getRetryAfter() { return retryAfter; }
+
+    /**
+     * İstek upstream'e hiç gönderilmeden reddedildiyse true. Bu hatalar upstream'in sağlığını göstermez.
+     */
+    public boolean isRejected() { return rejected; }
+
+    /**
+     * Hatanın geçici olup olmadığını belirtir (429, 5xx, bağlantı hatası veya zaman aşımı).
+     */
+    public boolean isTransient() {
+        return statusCode == NO_STATUS || statusCode == 429 || statusCode >= 500;
+    }
+}
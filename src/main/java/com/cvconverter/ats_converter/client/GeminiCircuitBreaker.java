@@ -0,0 +1,76 @@
+package com.cvconverter.ats_converter.client;
+
+/**
+ * Gemini için basit bir devre kesici. Art arda belirli sayıda sunucu hatası (5xx, zaman aşımı,
+ * bağlantı hatası) alındığında devre açılır ve istekler bir süre boyunca hiç gönderilmeden reddedilir.
+ * Süre dolunca tek bir deneme isteğine izin verilir (yarı açık); başarılı olursa devre kapanır.
+ * <p>
+ * 429 ve diğer 4xx hataları upstream'in ayakta olduğunu gösterir; bunlar devreyi açmaz.
+ */
+final class GeminiCircuitBreaker {
+
+    // Sıra, metriklerde yayımlanan sayısal değerle aynıdır (0, 1, 2).
+    enum State { CLOSED, HALF_OPEN, OPEN }
+
+    private final int failureThreshold;
+    private final long openNanos;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean trialInFlight;
+
+    GeminiCircuitBreaker(int failureThreshold, long openNanos) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openNanos = openNanos;
+    }
+
+    /**
+     * İsteğe izin verilip verilmediğini belirtir.
+     * @return İzin verildiyse 0, aksi halde devrenin tekrar denenebileceği ana kadar kalan süre (ns).
+     */
+    synchronized long tryAcquire(long now) {
+        if (state == State.OPEN) {
+            long remaining = openedAt + openNanos - now;
+            if (remaining > 0) {
+                return remaining;
+            }
+            state = State.HALF_OPEN;
+            trialInFlight = false;
+        }
+        if (state == State.HALF_OPEN) {
+            if (trialInFlight) {
+                // Deneme isteğinin sonucu beklenirken diğer istekler reddedilir.
+                return openNanos;
+            }
+            trialInFlight = true;
+        }
+        return 0;
+    }
+
+    synchronized void onSuccess() {
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        trialInFlight = false;
+    }
+
+    synchronized void onFailure(long now) {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openedAt = now;
+            trialInFlight = false;
+        }
+    }
+
+    /**
+     * İstek, sonucu belli olmadan iptal edildiğinde (thread kesildiğinde) çağrılır.
+     */
+    synchronized void onCancelled() {
+        trialInFlight = false;
+    }
+
+    synchronized State state() {
+        return state;
+    }
+}
@@ -0,0 +1,47 @@
+package com.cvconverter.ats_converter.client;
+
+import com.cvconverter.ats_converter.dto.gemini.GeminiRequest;
+import com.cvconverter.ats_converter.dto.gemini.GeminiResponse;
+
+import java.util.function.Consumer;
+
+/**
+ * Gemini API'si ile konuşan istemci katmanı.
+ * Servisler URL, header veya HTTP detaylarıyla uğraşmaz; sadece istek/cevap DTO'larıyla çalışır.
+ */
+public interface GeminiClient {
+
+    /**
+     * Gemini'nin {@code generateContent} endpoint'ini çağırır.
+     * @param request Gönderilecek istek gövdesi.
+     * @param apiKey Kullanıcının arayüzden girdiği Gemini API anahtarı.
+     * @return Gemini'den dönen cevap.
+     * @throws GeminiApiException API bir hata döndürdüğünde veya çağrı zaman aşımına uğradığında.
+     */
+    GeminiResponse generateContent(GeminiRequest request, String apiKey);
+
+    /**
+     * Gemini'nin {@code streamGenerateContent} endpoint'ini SSE modunda çağırır.
+     * Model metni üretirken her gelen parça için {@code chunkConsumer} çağrılır; metot,
+     * akış tamamlandığında döner.
+     * @throws GeminiApiException API bir hata döndürdüğünde veya çağrı zaman aşımına uğradığında.
+     */
+    void streamGenerateContent(GeminiRequest request, String apiKey, Consumer<GeminiResponse> chunkConsumer);
+
+    /**
+     * {@link #generateContent(GeminiRequest, String)} ile aynıdır; istemci çağrıyı tekrar denerse
+     * {@code retryListener} bilgilendirilir. Tekrar deneme yapmayan istemciler dinleyiciyi yok sayar.
+     */
+    default GeminiResponse generateContent(GeminiRequest request, String apiKey, GeminiRetryListener retryListener) {
+        return generateContent(request, apiKey);
+    }
+
+    /**
+     * {@link #streamGenerateContent(GeminiRequest, String, Consumer)} ile aynıdır; istemci çağrıyı
+     * tekrar denerse {@code retryListener} bilgilendirilir.
+     */
+    default void streamGenerateContent(GeminiRequest request, String apiKey, Consumer<GeminiResponse> chunkConsumer,
+                                       GeminiRetryListener retryListener) {
+        streamGenerateContent(request, apiKey, chunkConsumer);
+    }
+}
@@ -0,0 +1,21 @@
+package com.cvconverter.ats_converter.client;
+
+import java.time.Duration;
+
+/**
+ * Bir Gemini çağrısı geçici bir hata nedeniyle tekrar denenmeden önce çağrılır; kullanıcıya
+ * "X sn sonra tekrar denenecek" gibi bir ilerleme mesajı göstermek için kullanılır.
+ */
+@FunctionalInterface
+public interface GeminiRetryListener {
+
+    GeminiRetryListener NONE = (attempt, maxAttempts, delay, cause) -> { };
+
+    /**
+     * @param attempt Bekleme sonrasında yapılacak denemenin numarası (ilk tekrar için 2).
+     * @param maxAttempts Toplam deneme hakkı.
+     * @param delay Bir sonraki denemeden önce beklenecek süre.
+     * @param cause Tekrar denemeye yol açan hata.
+     */
+    void onRetry(int attempt, int maxAttempts, Duration delay, GeminiApiException cause);
+}
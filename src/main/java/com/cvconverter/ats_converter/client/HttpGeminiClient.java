@@ -0,0 +1,385 @@
+package com.cvconverter.ats_converter.client;
+
+import com.cvconverter.ats_converter.config.GeminiClientConfig;
+import com.cvconverter.ats_converter.dto.gemini.GeminiRequest;
+import com.cvconverter.ats_converter.dto.gemini.GeminiResponse;
+import com.cvconverter.ats_converter.metrics.CvMetrics;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * {@link GeminiClient} arayüzünün JDK {@link HttpClient} üzerine kurulu uygulaması.
+ * <p>
+ * Aynı anda Gemini'ye gönderilebilecek istek sayısı havuz boyutuyla sınırlıdır; havuz doluysa
+ * istek belirli bir süre bekler, süre dolarsa hata fırlatılır. Her isteğin bir okuma zaman aşımı
+ * vardır, böylece cevap vermeyen bir upstream worker thread'ini süresiz olarak meşgul edemez. Aynı süre,
+ * header'lardan sonra gövdede iki okuma arasındaki en uzun bekleme olarak da uygulanır.
+ */
+@Component
+public class HttpGeminiClient implements GeminiClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(HttpGeminiClient.class);
+
+    private static final String METHOD_GENERATE = "generateContent";
+    private static final String METHOD_STREAM = "streamGenerateContent";
+    // HTTP durum kodu alınamayan çağrılar için metrik etiketleri
+    private static final String STATUS_IO_ERROR = "IO_ERROR";
+    private static final String STATUS_TIMEOUT = "TIMEOUT";
+    private static final int SERVICE_UNAVAILABLE = 503;
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final String baseUrl;
+    private final String model;
+    private final Duration readTimeout;
+    private final Semaphore permits;
+    private final long acquireTimeoutMillis;
+    private final CvMetrics cvMetrics;
+
+    public HttpGeminiClient(@Qualifier(GeminiClientConfig.GEMINI_HTTP_CLIENT) HttpClient httpClient,
+                            ObjectMapper objectMapper,
+                            @Value("${gemini.api.base-url:https://generativelanguage.googleapis.com/v1beta}") String baseUrl,
+                            @Value("${gemini.api.model:gemini-2.5-pro}") String model,
+                            @Value("${gemini.http.read-timeout-ms:120000}") long readTimeoutMillis,
+                            @Value("${gemini.http.pool-size:20}") int maxConcurrentRequests,
+                            @Value("${gemini.http.acquire-timeout-ms:30000}") long acquireTimeoutMillis,
+                            CvMetrics cvMetrics) {
+        this.httpClient = httpClient;
+        this.objectMapper = objectMapper;
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.model = model;
+        this.readTimeout = Duration.ofMillis(readTimeoutMillis);
+        this.permits = new Semaphore(maxConcurrentRequests, true);
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+        this.cvMetrics = cvMetrics;
+    }
+
+    @Override
+    public GeminiResponse generateContent(GeminiRequest request, String apiKey) {
+        HttpRequest httpRequest = buildRequest(METHOD_GENERATE, request, apiKey);
+        acquirePermit();
+        long start = System.nanoTime();
+        String status = STATUS_IO_ERROR;
+        ResponseBody body = new ResponseBody();
+        try {
+            HttpResponse<Flow.Publisher<List<ByteBuffer>>> response = send(httpRequest, HttpResponse.BodyHandlers.ofPublisher());
+            status = String.valueOf(response.statusCode());
+            response.body().subscribe(body);
+            byte[] content = body.readAllBytes(readTimeout);
+            if (response.statusCode() >= 400) {
+                throw apiError(response, new String(content, StandardCharsets.UTF_8));
+            }
+            return objectMapper.readValue(content, GeminiResponse.class);
+        } catch (HttpTimeoutException e) {
+            logger.error("Gemini cevabının gövdesinde {} ms boyunca yeni veri gelmedi.", readTimeout.toMillis());
+            status = STATUS_TIMEOUT;
+            throw new GeminiApiException("Yapay zeka servisi zamanında cevap vermedi.", e);
+        } catch (JsonProcessingException e) {
+            throw new GeminiApiException("Yapay zeka servisinden gelen cevap okunamadı.", GeminiApiException.LOCAL_ERROR, e);
+        } catch (IOException e) {
+            logger.error("Gemini cevabı okunurken bağlantı koptu: {}", e.getMessage());
+            status = STATUS_IO_ERROR;
+            throw new GeminiApiException("Yapay zeka servisi ile bağlantı cevap okunurken koptu.", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GeminiApiException("Yapay zeka servisi çağrısı kesintiye uğradı.", e);
+        } catch (GeminiApiException e) {
+            status = failureStatus(e, status);
+            throw e;
+        } finally {
+            body.cancel();
+            permits.release();
+            cvMetrics.recordGeminiCall(METHOD_GENERATE, status, Duration.ofNanos(System.nanoTime() - start));
+        }
+    }
+
+    @Override
+    public void streamGenerateContent(GeminiRequest request, String apiKey, Consumer<GeminiResponse> chunkConsumer) {
+        // alt=sse: Gemini her parçayı "data: {...}" satırı olarak gönderir.
+        HttpRequest httpRequest = buildRequest(METHOD_STREAM + "?alt=sse", request, apiKey);
+        acquirePermit();
+        long start = System.nanoTime();
+        String status = STATUS_IO_ERROR;
+        // HttpRequest zaman aşımı yalnızca header'ları kapsar; gövdede her okuma için ayrıca readTimeout kadar beklenir.
+        ResponseBody body = new ResponseBody();
+        try {
+            HttpResponse<Flow.Publisher<List<ByteBuffer>>> response = send(httpRequest, HttpResponse.BodyHandlers.ofPublisher());
+            status = String.valueOf(response.statusCode());
+            response.body().subscribe(body);
+            if (response.statusCode() >= 400) {
+                StringJoiner errorBody = new StringJoiner("\n");
+                for (String line = body.nextLine(readTimeout); line != null; line = body.nextLine(readTimeout)) {
+                    errorBody.add(line);
+                }
+                throw apiError(response, errorBody.toString());
+            }
+            for (String line = body.nextLine(readTimeout); line != null; line = body.nextLine(readTimeout)) {
+                if (!line.startsWith("data:")) {
+                    continue;
+                }
+                String data = line.substring(5).trim();
+                if (!data.isEmpty()) {
+                    chunkConsumer.accept(readChunk(data));
+                }
+            }
+        } catch (HttpTimeoutException e) {
+            logger.error("Gemini akışında {} ms boyunca yeni veri gelmedi.", readTimeout.toMillis());
+            status = STATUS_TIMEOUT;
+            throw new GeminiApiException("Yapay zeka servisi akış sırasında zamanında cevap vermedi.", e);
+        } catch (IOException e) {
+            logger.error("Gemini akışı okunurken bağlantı koptu: {}", e.getMessage());
+            status = STATUS_IO_ERROR;
+            throw new GeminiApiException("Yapay zeka servisi ile bağlantı akış sırasında koptu.", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GeminiApiException("Yapay zeka servisi çağrısı kesintiye uğradı.", e);
+        } catch (GeminiApiException e) {
+            status = failureStatus(e, status);
+            throw e;
+        } finally {
+            // Akış yarıda bırakıldıysa (zaman aşımı, hata) istek iptal edilir ve bağlantı serbest kalır.
+            body.cancel();
+            permits.release();
+            // Akışta süre, son parça alınana kadar geçen süredir.
+            cvMetrics.recordGeminiCall(METHOD_STREAM, status, Duration.ofNanos(System.nanoTime() - start));
+        }
+    }
+
+    private GeminiResponse readChunk(String data) {
+        try {
+            return objectMapper.readValue(data, GeminiResponse.class);
+        } catch (IOException e) {
+            throw new GeminiApiException("Yapay zeka servisinden gelen akış parçası okunamadı.", GeminiApiException.LOCAL_ERROR, e);
+        }
+    }
+
+    private HttpRequest buildRequest(String method, GeminiRequest request, String apiKey) {
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(request);
+        } catch (IOException e) {
+            throw new GeminiApiException("Gemini isteği oluşturulamadı.", GeminiApiException.LOCAL_ERROR, e);
+        }
+
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/models/" + model + ":" + method))
+                .timeout(readTimeout)
+                .header("Content-Type", "application/json")
+                // Anahtar URL yerine header'da gönderilir; böylece erişim loglarına düşmez.
+                .header("x-goog-api-key", apiKey)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build();
+    }
+
+    private <T> HttpResponse<T> send(HttpRequest httpRequest, HttpResponse.BodyHandler<T> bodyHandler) {
+        try {
+            return httpClient.send(httpRequest, bodyHandler);
+        } catch (HttpTimeoutException e) {
+            logger.error("Gemini API {} ms içinde cevap vermedi.", readTimeout.toMillis());
+            throw new GeminiApiException("Yapay zeka servisi zamanında cevap vermedi.", e);
+        } catch (IOException e) {
+            logger.error("Gemini API'ye bağlanılamadı: {}", e.getMessage());
+            throw new GeminiApiException("Yapay zeka servisine bağlanılamadı.", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GeminiApiException("Yapay zeka servisi çağrısı kesintiye uğradı.", e);
+        }
+    }
+
+    private static String failureStatus(GeminiApiException e, String currentStatus) {
+        if (e.getCause() instanceof HttpTimeoutException) {
+            return STATUS_TIMEOUT;
+        }
+        return currentStatus;
+    }
+
+    private GeminiApiException apiError(HttpResponse<?> response, String responseBody) {
+        logger.error("Gemini API hatası. Status: {}, Body: {}", response.statusCode(), responseBody);
+        return new GeminiApiException(response.statusCode(), responseBody,
+                parseRetryAfter(response.headers().firstValue("Retry-After").orElse(null)));
+    }
+
+    private void acquirePermit() {
+        try {
+            if (!permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                // Yerel geri basınç: istek gönderilmedi, upstream'in sağlığı hakkında bilgi vermez.
+                throw new GeminiApiException("Yapay zeka servisine giden bağlantı havuzu dolu.", SERVICE_UNAVAILABLE,
+                        Duration.ofMillis(acquireTimeoutMillis));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GeminiApiException("Yapay zeka servisi çağrısı kesintiye uğradı.", e);
+        }
+    }
+
+    /**
+     * {@code Retry-After} header'ını saniye veya HTTP tarihi olarak yorumlar.
+     */
+    static Duration parseRetryAfter(String headerValue) {
+        if (headerValue == null || headerValue.isBlank()) {
+            return null;
+        }
+        try {
+            return Duration.ofSeconds(Long.parseLong(headerValue.trim()));
+        } catch (NumberFormatException ignored) {
+            // Saniye değilse HTTP tarihi olabilir.
+        }
+        try {
+            ZonedDateTime retryAt = ZonedDateTime.parse(headerValue.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+            Duration delay = Duration.between(ZonedDateTime.now(retryAt.getZone()), retryAt);
+            return delay.isNegative() ? Duration.ZERO : delay;
+        } catch (DateTimeParseException e) {
+            logger.warn("Geçersiz Retry-After değeri yok sayıldı: {}", headerValue);
+            return null;
+        }
+    }
+
+    /**
+     * Cevap gövdesini okuyan abone. HTTP istemcisinin thread'leri gelen byte'ları kuyruğa bırakır; gövde
+     * çağıran thread'de, her okuma için ayrı bir bekleme süresiyle (tamamı veya satır satır) okunur. Süre
+     * dolarsa istek iptal edilir. {@code HttpRequest.timeout} yalnızca header'ları kapsadığı için, header'ları
+     * gönderip duran bir cevap aksi halde thread'i ve havuz iznini süresiz tutardı.
+     */
+    private static final class ResponseBody implements Flow.Subscriber<List<ByteBuffer>> {
+
+        private static final Object END = new Object();
+
+        private final BlockingQueue<Object> items = new LinkedBlockingQueue<>();
+        private final Deque<String> lines = new ArrayDeque<>();
+        private final ByteArrayOutputStream partialLine = new ByteArrayOutputStream();
+        private volatile Flow.Subscription subscription;
+        private boolean finished;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(1);
+        }
+
+        @Override
+        public void onNext(List<ByteBuffer> buffers) {
+            items.add(buffers);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            items.add(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            items.add(END);
+        }
+
+        /**
+         * Gövdenin tamamını okur. Her okuma için ayrı bekleme süresi uygulanır; {@code idleTimeout} içinde yeni
+         * veri gelmezse {@link HttpTimeoutException} fırlatılır.
+         */
+        byte[] readAllBytes(Duration idleTimeout) throws IOException, InterruptedException {
+            ByteArrayOutputStream content = new ByteArrayOutputStream();
+            for (List<ByteBuffer> buffers = nextBuffers(idleTimeout); buffers != null; buffers = nextBuffers(idleTimeout)) {
+                for (ByteBuffer buffer : buffers) {
+                    byte[] bytes = new byte[buffer.remaining()];
+                    buffer.get(bytes);
+                    content.write(bytes);
+                }
+            }
+            return content.toByteArray();
+        }
+
+        /**
+         * Sıradaki satırı döner; gövde bittiyse {@code null}. {@code idleTimeout} içinde yeni veri gelmezse
+         * {@link HttpTimeoutException} fırlatılır.
+         */
+        String nextLine(Duration idleTimeout) throws IOException, InterruptedException {
+            while (lines.isEmpty() && !finished) {
+                List<ByteBuffer> buffers = nextBuffers(idleTimeout);
+                if (buffers == null) {
+                    if (partialLine.size() > 0) {
+                        completeLine();
+                    }
+                    break;
+                }
+                for (ByteBuffer buffer : buffers) {
+                    split(buffer);
+                }
+            }
+            return lines.poll();
+        }
+
+        @SuppressWarnings("unchecked")
+        private List<ByteBuffer> nextBuffers(Duration idleTimeout) throws IOException, InterruptedException {
+            if (finished) {
+                return null;
+            }
+            Object item = items.poll(idleTimeout.toNanos(), TimeUnit.NANOSECONDS);
+            if (item == null) {
+                cancel();
+                throw new HttpTimeoutException("Cevap gövdesinde " + idleTimeout.toMillis() + " ms boyunca veri gelmedi");
+            }
+            if (item instanceof Throwable failure) {
+                finished = true;
+                throw failure instanceof IOException io ? io : new IOException(failure);
+            }
+            if (item == END) {
+                finished = true;
+                return null;
+            }
+            subscription.request(1);
+            return (List<ByteBuffer>) item;
+        }
+
+        void cancel() {
+            Flow.Subscription current = subscription;
+            if (current != null) {
+                current.cancel();
+            }
+        }
+
+        // UTF-8'de '\n' byte'ı çok byte'lı bir karakterin parçası olamaz; satırlar byte düzeyinde bölünebilir.
+        private void split(ByteBuffer buffer) {
+            while (buffer.hasRemaining()) {
+                byte next = buffer.get();
+                if (next == '\n') {
+                    completeLine();
+                } else {
+                    partialLine.write(next);
+                }
+            }
+        }
+
+        private void completeLine() {
+            String line = partialLine.toString(StandardCharsets.UTF_8);
+            partialLine.reset();
+            lines.add(line.endsWith("\r") ? line.substring(0, line.length() - 1) : line);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.cvconverter.ats_converter.client;
+
+import com.cvconverter.ats_converter.dto.gemini.GeminiRequest;
+import com.cvconverter.ats_converter.dto.gemini.GeminiResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link GeminiClient}'ın bloklamayan karşılığı. Çağrılar abone olunduğunda gönderilir; cevap beklenirken
+ * hiçbir thread meşgul edilmez. Abonelik iptal edilirse (örn. istemcinin bağlantısı koptuysa) istek de kesilir.
+ */
+public interface ReactiveGeminiClient {
+
+    /**
+     * Gemini'nin {@code generateContent} endpoint'ini çağırır.
+     * @param retryListener Çağrı tekrar denenecekse bilgilendirilir.
+     * @return Cevabı yayan Mono; hata durumunda {@link GeminiApiException} ile sonlanır.
+     */
+    Mono<GeminiResponse> generateContent(GeminiRequest request, String apiKey, GeminiRetryListener retryListener);
+
+    /**
+     * Gemini'nin {@code streamGenerateContent} endpoint'ini SSE modunda çağırır ve gelen her parçayı yayar.
+     * @return Parçaları yayan Flux; hata durumunda {@link GeminiApiException} ile sonlanır.
+     */
+    Flux<GeminiResponse> streamGenerateContent(GeminiRequest request, String apiKey, GeminiRetryListener retryListener);
+}
@@ -0,0 +1,342 @@
+package com.cvconverter.ats_converter.client;
+
+import com.cvconverter.ats_converter.dto.gemini.GeminiRequest;
+import com.cvconverter.ats_converter.dto.gemini.GeminiResponse;
+import com.cvconverter.ats_converter.metrics.CvMetrics;
+import com.cvconverter.ats_converter.util.HashUtils;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * {@link HttpGeminiClient}'ın önüne konan dayanıklılık katmanı:
+ * <ul>
+ *     <li>API anahtarı başına token bucket hız sınırlayıcı: kota aşılacaksa istek kısa bir süre bekletilir,
+ *     bekleme çok uzunsa hiç gönderilmeden reddedilir.</li>
+ *     <li>Geçici hatalarda (429, 5xx, zaman aşımı) jitter'lı üstel geri çekilme ile tekrar deneme;
+ *     {@code Retry-After} varsa ona uyulur.</li>
+ *     <li>Upstream sağlıksızken istekleri hemen reddeden bir devre kesici.</li>
+ * </ul>
+ * Uygulama tarafındaki hatalar (dolu bağlantı havuzu, oluşturulamayan istek, okunamayan cevap) tekrar denenmez
+ * ve devre kesicide hata sayılmaz; aksi halde yerel bir yük artışı tüm API anahtarları için devreyi açardı.
+ * Tekrar denemeler {@link GeminiRetryListener} ile çağırana bildirilir; böylece kullanıcı
+ * "3 sn sonra tekrar denenecek" gibi bir mesaj görür.
+ */
+@Primary
+@Component
+public class ResilientGeminiClient implements GeminiClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResilientGeminiClient.class);
+
+    private static final int TOO_MANY_REQUESTS = 429;
+    private static final int SERVICE_UNAVAILABLE = 503;
+
+    private final GeminiClient delegate;
+    private final CvMetrics cvMetrics;
+    private final int maxAttempts;
+    private final long baseDelayMillis;
+    private final long maxDelayMillis;
+    private final long maxWaitNanos;
+    private final double permitsPerNano;
+    private final int burst;
+    private final GeminiCircuitBreaker circuitBreaker;
+    // Anahtarın kendisi değil SHA-256 özeti tutulur; kullanılmayan anahtarların kovaları silinir.
+    private final Cache<String, TokenBucket> buckets;
+
+    public ResilientGeminiClient(HttpGeminiClient delegate,
+                                 CvMetrics cvMetrics,
+                                 @Value("${gemini.resilience.rate-limit.requests-per-minute:15}") double requestsPerMinute,
+                                 @Value("${gemini.resilience.rate-limit.burst:5}") int burst,
+                                 @Value("${gemini.resilience.rate-limit.max-wait-ms:30000}") long maxWaitMillis,
+                                 @Value("${gemini.resilience.retry.max-attempts:4}") int maxAttempts,
+                                 @Value("${gemini.resilience.retry.base-delay-ms:1000}") long baseDelayMillis,
+                                 @Value("${gemini.resilience.retry.max-delay-ms:30000}") long maxDelayMillis,
+                                 @Value("${gemini.resilience.circuit.failure-threshold:5}") int failureThreshold,
+                                 @Value("${gemini.resilience.circuit.open-ms:30000}") long openMillis) {
+        this.delegate = delegate;
+        this.cvMetrics = cvMetrics;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.baseDelayMillis = Math.max(1, baseDelayMillis);
+        this.maxDelayMillis = maxDelayMillis;
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+        this.permitsPerNano = requestsPerMinute / TimeUnit.MINUTES.toNanos(1);
+        this.burst = Math.max(1, burst);
+        this.circuitBreaker = new GeminiCircuitBreaker(failureThreshold, TimeUnit.MILLISECONDS.toNanos(openMillis));
+        this.buckets = Caffeine.newBuilder()
+                .expireAfterAccess(Duration.ofMinutes(10))
+                .build();
+        cvMetrics.gaugeGeminiCircuitState(() -> circuitBreaker.state().ordinal());
+        logger.info("Gemini dayanıklılık katmanı: anahtar başına {} istek/dk (burst {}), en fazla {} deneme, devre eşiği {} hata",
+                requestsPerMinute, this.burst, this.maxAttempts, failureThreshold);
+    }
+
+    @Override
+    public GeminiResponse generateContent(GeminiRequest request, String apiKey) {
+        return generateContent(request, apiKey, GeminiRetryListener.NONE);
+    }
+
+    @Override
+    public GeminiResponse generateContent(GeminiRequest request, String apiKey, GeminiRetryListener retryListener) {
+        return execute(apiKey, retryListener, () -> delegate.generateContent(request, apiKey), () -> true);
+    }
+
+    @Override
+    public void streamGenerateContent(GeminiRequest request, String apiKey, Consumer<GeminiResponse> chunkConsumer) {
+        streamGenerateContent(request, apiKey, chunkConsumer, GeminiRetryListener.NONE);
+    }
+
+    @Override
+    public void streamGenerateContent(GeminiRequest request, String apiKey, Consumer<GeminiResponse> chunkConsumer,
+                                      GeminiRetryListener retryListener) {
+        // Kullanıcıya parça gönderildikten sonra tekrar denemek metni tekrarlar; bu durumda hata olduğu gibi fırlatılır.
+        AtomicBoolean delivered = new AtomicBoolean();
+        execute(apiKey, retryListener, () -> {
+            delegate.streamGenerateContent(request, apiKey, chunk -> {
+                delivered.set(true);
+                chunkConsumer.accept(chunk);
+            });
+            return null;
+        }, () -> !delivered.get());
+    }
+
+    private <T> T execute(String apiKey, GeminiRetryListener retryListener, Supplier<T> call, BooleanSupplier retryable) {
+        for (int attempt = 1; ; attempt++) {
+            long wait = admit(apiKey);
+            // Deneme sonucu devre kesiciye işlenmeden biterse (kesilen bekleme, çağıranın tüketicisinden gelen
+            // beklenmeyen bir hata) yarı açık devrenin deneme hakkı finally bloğunda serbest bırakılır.
+            boolean settled = false;
+            try {
+                if (wait > 0) {
+                    sleep(Duration.ofNanos(wait));
+                }
+                T result = call.get();
+                onSuccess();
+                settled = true;
+                return result;
+            } catch (GeminiApiException e) {
+                if (e.getCause() instanceof InterruptedException) {
+                    throw e;
+                }
+                Duration delay = onFailure(apiKey, attempt, e, retryable.getAsBoolean());
+                settled = true;
+                if (delay == null) {
+                    throw e;
+                }
+                retryListener.onRetry(attempt + 1, maxAttempts, delay, e);
+                sleep(delay);
+            } finally {
+                if (!settled) {
+                    onCancelled();
+                }
+            }
+        }
+    }
+
+    /**
+     * Bir denemeden önce devre kesiciyi ve anahtarın hız sınırını kontrol eder; jeton ayrılır ama beklenmez.
+     * Bloklamayan istemciler ({@link WebClientGeminiClient}) beklemeyi kendi zamanlayıcılarıyla yapar.
+     * @return Denemeden önce beklenmesi gereken süre (ns); 0 ise hemen gönderilebilir.
+     * @throws GeminiApiException Devre açıksa veya bekleme izin verilen en uzun süreyi aşıyorsa.
+     */
+    long admit(String apiKey) {
+        acquireCircuit();
+        try {
+            return reserveRateLimit(bucket(apiKey));
+        } catch (GeminiApiException e) {
+            // İstek gönderilmeyecek; yarı açık devrede alınan deneme hakkı başka bir isteğe bırakılır.
+            circuitBreaker.onCancelled();
+            throw e;
+        }
+    }
+
+    void onSuccess() {
+        circuitBreaker.onSuccess();
+    }
+
+    /**
+     * Deneme, sonucu belli olmadan iptal edildiğinde (thread kesildiğinde, abonelik iptal edildiğinde) çağrılır.
+     */
+    void onCancelled() {
+        circuitBreaker.onCancelled();
+    }
+
+    /**
+     * Başarısız bir denemeyi devre kesiciye ve hız sınırlayıcıya işler ve tekrar denenip denenmeyeceğine karar verir.
+     * @param retryable Çağıranın tekrar denemeye izin verip vermediği (örn. akışta parça gönderilmediyse).
+     * @return Bir sonraki denemeden önce beklenecek süre; hata olduğu gibi fırlatılmalıysa null.
+     */
+    Duration onFailure(String apiKey, int attempt, GeminiApiException e, boolean retryable) {
+        recordOutcome(e);
+        if (e.getStatusCode() == TOO_MANY_REQUESTS) {
+            // Anahtarın kotası doldu: aynı anahtarla gelen diğer istekler de bu süre boyunca bekler.
+            Duration block = e.getRetryAfter() != null ? e.getRetryAfter() : Duration.ofMillis(backoffMillis(attempt));
+            bucket(apiKey).blockUntil(System.nanoTime() + block.toNanos());
+        }
+        // Yerel hatalar (dolu bağlantı havuzu, okunamayan cevap) tekrar denemekle düzelmez.
+        if (isLocal(e) || !e.isTransient() || attempt >= maxAttempts || !retryable) {
+            return null;
+        }
+        Duration delay = retryDelay(attempt, e);
+        if (delay == null) {
+            logger.warn("Gemini {} sn sonra tekrar denenmesini istedi; bu, izin verilen en uzun beklemeden fazla.",
+                    e.getRetryAfter().toSeconds());
+            return null;
+        }
+        logger.warn("Gemini çağrısı başarısız oldu (durum: {}), {} ms sonra tekrar denenecek ({}/{}).",
+                statusTag(e), delay.toMillis(), attempt + 1, maxAttempts);
+        cvMetrics.recordGeminiRetry(statusTag(e));
+        return delay;
+    }
+
+    int maxAttempts() {
+        return maxAttempts;
+    }
+
+    private TokenBucket bucket(String apiKey) {
+        return buckets.get(bucketKey(apiKey), key -> new TokenBucket(burst, permitsPerNano));
+    }
+
+    private void acquireCircuit() {
+        long remaining = circuitBreaker.tryAcquire(System.nanoTime());
+        if (remaining > 0) {
+            cvMetrics.recordGeminiRejected("circuit_open");
+            long seconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(remaining));
+            throw new GeminiApiException("Yapay zeka servisi şu anda yanıt vermiyor. Lütfen " + seconds
+                    + " saniye sonra tekrar deneyin.", SERVICE_UNAVAILABLE, Duration.ofSeconds(seconds));
+        }
+    }
+
+    private long reserveRateLimit(TokenBucket bucket) {
+        long wait = bucket.reserve(System.nanoTime(), maxWaitNanos);
+        if (wait > maxWaitNanos) {
+            cvMetrics.recordGeminiRejected("rate_limit");
+            long seconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(wait));
+            throw new GeminiApiException("Bu API anahtarı için istek sınırına ulaşıldı. Lütfen " + seconds
+                    + " saniye sonra tekrar deneyin.", TOO_MANY_REQUESTS, Duration.ofSeconds(seconds));
+        }
+        if (wait > 0) {
+            cvMetrics.recordGeminiRateLimitWait(Duration.ofNanos(wait));
+        }
+        return wait;
+    }
+
+    private void recordOutcome(GeminiApiException e) {
+        if (isLocal(e)) {
+            // Upstream hakkında bir sonuç yok; yarı açık devrenin deneme hakkı başka bir isteğe bırakılır.
+            circuitBreaker.onCancelled();
+            return;
+        }
+        // 429 ve diğer 4xx hataları upstream'in ayakta olduğunu gösterir.
+        if (e.getStatusCode() == GeminiApiException.NO_STATUS || e.getStatusCode() >= 500) {
+            circuitBreaker.onFailure(System.nanoTime());
+        } else {
+            circuitBreaker.onSuccess();
+        }
+    }
+
+    /**
+     * İstek upstream'e hiç gönderilmeden reddedildiyse veya hata uygulama tarafında oluştuysa true. Yalnızca
+     * gerçek zaman aşımları, bağlantı hataları ve 5xx cevapları devre kesicide hata sayılır.
+     */
+    private static boolean isLocal(GeminiApiException e) {
+        return e.isRejected() || e.getStatusCode() == GeminiApiException.LOCAL_ERROR;
+    }
+
+    /**
+     * Bir sonraki denemeden önceki bekleme. {@code Retry-After} varsa ona küçük bir jitter eklenir; yoksa
+     * üstel geri çekilmenin yarısı sabit, yarısı rastgeledir (equal jitter), böylece aynı anda hata alan
+     * istekler aynı anda tekrar denenmez.
+     * @return Bekleme süresi; sunucunun istediği süre izin verilen en uzun beklemeyi aşıyorsa null.
+     */
+    private Duration retryDelay(int attempt, GeminiApiException e) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (e.getRetryAfter() != null) {
+            long retryAfterMillis = e.getRetryAfter().toMillis();
+            if (retryAfterMillis > maxDelayMillis) {
+                return null;
+            }
+            return Duration.ofMillis(retryAfterMillis + random.nextLong(baseDelayMillis / 2 + 1));
+        }
+        long backoff = backoffMillis(attempt);
+        return Duration.ofMillis(backoff / 2 + random.nextLong(backoff / 2 + 1));
+    }
+
+    private long backoffMillis(int attempt) {
+        long backoff = baseDelayMillis << Math.min(attempt - 1, 20);
+        return Math.min(maxDelayMillis, backoff);
+    }
+
+    private static String statusTag(GeminiApiException e) {
+        if (e.getStatusCode() != GeminiApiException.NO_STATUS) {
+            return String.valueOf(e.getStatusCode());
+        }
+        return e.getCause() instanceof HttpTimeoutException || e.getCause() instanceof TimeoutException ? "TIMEOUT" : "IO_ERROR";
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis(), (int) (duration.toNanos() % 1_000_000));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GeminiApiException("Yapay zeka isteği iptal edildi.", e);
+        }
+    }
+
+    private static String bucketKey(String apiKey) {
+        return HashUtils.sha256Hex((apiKey == null ? "" : apiKey).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Tek bir API anahtarının token bucket'ı. Jeton yoksa bir sonraki jeton önceden ayrılır (rezervasyon)
+     * ve çağırana beklemesi gereken süre döndürülür; böylece bekleyen istekler sırayla uyanır.
+     */
+    private static final class TokenBucket {
+        private final double capacity;
+        private final double permitsPerNano;
+        private double tokens;
+        private long lastRefill;
+        private long blockedUntil;
+
+        TokenBucket(int capacity, double permitsPerNano) {
+            this.capacity = capacity;
+            this.permitsPerNano = permitsPerNano;
+            this.tokens = capacity;
+            this.lastRefill = System.nanoTime();
+            this.blockedUntil = lastRefill;
+        }
+
+        /**
+         * Bir jeton ayırır ve beklenmesi gereken süreyi döndürür. Süre {@code maxWait}'i aşıyorsa jeton
+         * ayrılmaz; çağıran bu durumda isteği reddetmelidir.
+         */
+        synchronized long reserve(long now, long maxWait) {
+            tokens = Math.min(capacity, tokens + (now - lastRefill) * permitsPerNano);
+            lastRefill = now;
+            long wait = tokens >= 1 ? 0 : (long) Math.ceil((1 - tokens) / permitsPerNano);
+            wait = Math.max(wait, blockedUntil - now);
+            if (wait <= maxWait) {
+                tokens -= 1;
+            }
+            return wait;
+        }
+
+        synchronized void blockUntil(long until) {
+            blockedUntil = Math.max(blockedUntil, until);
+        }
+    }
+}
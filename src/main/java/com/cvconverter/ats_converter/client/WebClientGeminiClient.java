@@ -0,0 +1,179 @@
+package com.cvconverter.ats_converter.client;
+
+import com.cvconverter.ats_converter.config.ReactiveConfig;
+import com.cvconverter.ats_converter.dto.gemini.GeminiRequest;
+import com.cvconverter.ats_converter.dto.gemini.GeminiResponse;
+import com.cvconverter.ats_converter.metrics.CvMetrics;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * {@link ReactiveGeminiClient} arayüzünün {@link WebClient} (Reactor Netty) üzerine kurulu uygulaması.
+ * <p>
+ * Hız sınırı, tekrar deneme ve devre kesici kararları {@link ResilientGeminiClient} ile paylaşılır; böylece
+ * bloklayan ve reaktif endpoint'ler aynı API anahtarı kotasını ve aynı devre durumunu görür. Fark, beklemelerin
+ * thread uyutularak değil Reactor zamanlayıcısıyla yapılmasıdır.
+ */
+@Component
+@ConditionalOnProperty(name = ReactiveConfig.ENABLED_PROPERTY, havingValue = "true")
+public class WebClientGeminiClient implements ReactiveGeminiClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(WebClientGeminiClient.class);
+
+    private static final String METHOD_GENERATE = "generateContent";
+    private static final String METHOD_STREAM = "streamGenerateContent";
+    private static final String STATUS_IO_ERROR = "IO_ERROR";
+    private static final String STATUS_TIMEOUT = "TIMEOUT";
+    private static final ParameterizedTypeReference<ServerSentEvent<String>> SSE_TYPE = new ParameterizedTypeReference<>() { };
+
+    private final WebClient webClient;
+    private final ObjectMapper objectMapper;
+    private final String model;
+    private final Duration readTimeout;
+    private final ResilientGeminiClient resilience;
+    private final CvMetrics cvMetrics;
+
+    public WebClientGeminiClient(@Qualifier(ReactiveConfig.GEMINI_WEB_CLIENT) WebClient webClient,
+                                 ObjectMapper objectMapper,
+                                 @Value("${gemini.api.model:gemini-2.5-pro}") String model,
+                                 @Value("${gemini.http.read-timeout-ms:120000}") long readTimeoutMillis,
+                                 ResilientGeminiClient resilience,
+                                 CvMetrics cvMetrics) {
+        this.webClient = webClient;
+        this.objectMapper = objectMapper;
+        this.model = model;
+        this.readTimeout = Duration.ofMillis(readTimeoutMillis);
+        this.resilience = resilience;
+        this.cvMetrics = cvMetrics;
+    }
+
+    @Override
+    public Mono<GeminiResponse> generateContent(GeminiRequest request, String apiKey, GeminiRetryListener retryListener) {
+        return withResilience(apiKey, retryListener, () -> exchange(METHOD_GENERATE, request, apiKey)).single();
+    }
+
+    @Override
+    public Flux<GeminiResponse> streamGenerateContent(GeminiRequest request, String apiKey, GeminiRetryListener retryListener) {
+        return withResilience(apiKey, retryListener, () -> exchange(METHOD_STREAM, request, apiKey));
+    }
+
+    private Flux<GeminiResponse> withResilience(String apiKey, GeminiRetryListener retryListener,
+                                                Supplier<Flux<GeminiResponse>> call) {
+        return attempt(1, apiKey, retryListener, call);
+    }
+
+    /**
+     * Tek bir deneme. Başarısız olursa ve tekrar denenebiliyorsa bekleme sonrasında bir sonraki deneme zincire eklenir.
+     * Kullanıcıya parça iletildikten sonra tekrar denemek metni tekrarlayacağı için akışta hata olduğu gibi iletilir.
+     * {@link ResilientGeminiClient#admit} hız sınırı reddinde deneme hakkını kendisi bırakır; abonelik iptalinde
+     * (aşağı akıştaki bir operatörün hatası dahil) {@code doOnCancel} bırakır.
+     */
+    private Flux<GeminiResponse> attempt(int attempt, String apiKey, GeminiRetryListener retryListener,
+                                         Supplier<Flux<GeminiResponse>> call) {
+        return Flux.defer(() -> {
+            long wait = resilience.admit(apiKey);
+            AtomicBoolean delivered = new AtomicBoolean();
+            Flux<GeminiResponse> response = Flux.defer(call)
+                    .doOnNext(chunk -> delivered.set(true))
+                    .doOnComplete(resilience::onSuccess)
+                    // Sonucu devre kesiciye işlenmeyen hatalar yarı açık devrenin deneme hakkını serbest bırakır.
+                    .doOnError(e -> !(e instanceof GeminiApiException), e -> resilience.onCancelled())
+                    .onErrorResume(GeminiApiException.class, e -> {
+                        Duration delay = resilience.onFailure(apiKey, attempt, e, !delivered.get());
+                        if (delay == null) {
+                            return Flux.error(e);
+                        }
+                        retryListener.onRetry(attempt + 1, resilience.maxAttempts(), delay, e);
+                        return Mono.delay(delay).thenMany(attempt(attempt + 1, apiKey, retryListener, call));
+                    });
+            return (wait > 0 ? Mono.delay(Duration.ofNanos(wait)).thenMany(response) : response)
+                    .doOnCancel(resilience::onCancelled);
+        });
+    }
+
+    private Flux<GeminiResponse> exchange(String method, GeminiRequest request, String apiKey) {
+        boolean stream = METHOD_STREAM.equals(method);
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(request);
+        } catch (IOException e) {
+            return Flux.error(new GeminiApiException("Gemini isteği oluşturulamadı.", GeminiApiException.LOCAL_ERROR, e));
+        }
+
+        long start = System.nanoTime();
+        AtomicReference<String> status = new AtomicReference<>(STATUS_IO_ERROR);
+        return webClient.post()
+                // alt=sse: Gemini her parçayı "data: {...}" satırı olarak gönderir.
+                .uri("/models/{model}:" + method + (stream ? "?alt=sse" : ""), model)
+                .contentType(MediaType.APPLICATION_JSON)
+                // Anahtar URL yerine header'da gönderilir; böylece erişim loglarına düşmez.
+                .header("x-goog-api-key", apiKey)
+                .bodyValue(body)
+                .exchangeToFlux(response -> {
+                    status.set(String.valueOf(response.statusCode().value()));
+                    if (response.statusCode().isError()) {
+                        return response.bodyToMono(String.class).defaultIfEmpty("")
+                                .flatMapMany(errorBody -> Flux.error(apiError(response, errorBody)));
+                    }
+                    if (stream) {
+                        return response.bodyToFlux(SSE_TYPE)
+                                .mapNotNull(ServerSentEvent::data)
+                                .filter(data -> !data.isBlank())
+                                .map(this::read);
+                    }
+                    return response.bodyToMono(String.class).map(this::read).flux();
+                })
+                // Akışta süre, iki parça arasındaki en uzun bekleme için geçerlidir.
+                .timeout(readTimeout)
+                .onErrorMap(e -> !(e instanceof GeminiApiException), e -> {
+                    if (e instanceof TimeoutException) {
+                        status.set(STATUS_TIMEOUT);
+                        logger.error("Gemini API {} ms içinde cevap vermedi.", readTimeout.toMillis());
+                        return new GeminiApiException("Yapay zeka servisi zamanında cevap vermedi.", e);
+                    }
+                    status.set(STATUS_IO_ERROR);
+                    logger.error("Gemini API'ye bağlanılamadı: {}", e.getMessage());
+                    return new GeminiApiException("Yapay zeka servisine bağlanılamadı.", e);
+                })
+                // Süre, sonuç aşağı akışa iletilmeden önce kaydedilir; iptal edilen çağrılar da sayılır.
+                .doOnTerminate(() -> recordCall(method, status.get(), start))
+                .doOnCancel(() -> recordCall(method, status.get(), start));
+    }
+
+    private void recordCall(String method, String status, long startNanos) {
+        cvMetrics.recordGeminiCall(method, status, Duration.ofNanos(System.nanoTime() - startNanos));
+    }
+
+    private GeminiResponse read(String json) {
+        try {
+            return objectMapper.readValue(json, GeminiResponse.class);
+        } catch (IOException e) {
+            throw new GeminiApiException("Yapay zeka servisinden gelen cevap okunamadı.", GeminiApiException.LOCAL_ERROR, e);
+        }
+    }
+
+    private static GeminiApiException apiError(ClientResponse response, String responseBody) {
+        logger.error("Gemini API hatası. Status: {}, Body: {}", response.statusCode().value(), responseBody);
+        return new GeminiApiException(response.statusCode().value(), responseBody,
+                HttpGeminiClient.parseRetryAfter(response.headers().asHttpHeaders().getFirst("Retry-After")));
+    }
+}
@@ -0,0 +1,140 @@
+package com.cvconverter.ats_converter.config;
+
+import com.cvconverter.ats_converter.metrics.CvMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * CV işleme hattı (pipeline) için özel, sınırlı bir executor tanımlar.
+ * Spring'in varsayılan async executor'ı yerine bu executor kullanılır; böylece
+ * eş zamanlı iş sayısı ve kuyruk uzunluğu sınırlanır, kapasite dolduğunda
+ * yeni işler beklemeye alınmadan hemen reddedilir.
+ */
+@Configuration
+public class AsyncConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(AsyncConfig.class);
+
+    public static final String CV_PIPELINE_EXECUTOR = "cvPipelineExecutor";
+    public static final String CV_STAGE_EXECUTOR = "cvStageExecutor";
+    public static final String CV_BATCH_EXECUTOR = "cvBatchExecutor";
+    public static final String SSE_DISPATCH_EXECUTOR = "sseDispatchExecutor";
+
+    @Value("${cv.pipeline.max-concurrent-jobs:4}")
+    private int maxConcurrentJobs;
+
+    @Value("${cv.pipeline.queue-capacity:20}")
+    private int queueCapacity;
+
+    @Value("${cv.pipeline.stage-threads-per-job:2}")
+    private int stageThreadsPerJob;
+
+    @Value("${cv.pipeline.virtual-threads:false}")
+    private boolean virtualThreads;
+
+    @Value("${cv.batch.threads:${cv.batch.parallelism:4}}")
+    private int batchThreads;
+
+    @Value("${cv.batch.parallelism:4}")
+    private int batchParallelism;
+
+    @Value("${cv.sse.dispatch-threads:4}")
+    private int sseDispatchThreads;
+
+    @Bean(name = CV_PIPELINE_EXECUTOR)
+    public ThreadPoolTaskExecutor cvPipelineExecutor(CvMetrics cvMetrics) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxConcurrentJobs);
+        executor.setMaxPoolSize(maxConcurrentJobs);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("cv-pipeline-");
+        // Kapasite dolduğunda TaskRejectedException fırlatılır; controller bunu "meşgul" olayına çevirir.
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(60);
+        // İşin kuyrukta ne kadar beklediği ölçülür; executor doygunluğa yaklaştığında ilk artan değer budur.
+        executor.setTaskDecorator(task -> {
+            long submittedAt = System.nanoTime();
+            return () -> {
+                cvMetrics.recordQueueWait(System.nanoTime() - submittedAt);
+                task.run();
+            };
+        });
+
+        // İşlerin neredeyse tamamı bloklayan HTTP çağrılarında beklediği için sanal thread'ler
+        // idealdir; ancak bunlar Java 21 gerektirir. Daha eski bir JVM'de platform thread'lerine dönülür.
+        if (virtualThreads) {
+            if (Runtime.version().feature() >= 21) {
+                executor.setVirtualThreads(true);
+            } else {
+                logger.warn("Sanal thread'ler Java 21 gerektirir (mevcut: {}). Platform thread'leri kullanılacak.",
+                        Runtime.version().feature());
+            }
+        }
+
+        logger.info("CV pipeline executor oluşturuldu: eş zamanlı iş = {}, kuyruk kapasitesi = {}",
+                maxConcurrentJobs, queueCapacity);
+        return executor;
+    }
+
+    /**
+     * Bir işin içindeki bağımsız aşamaları (örn. PDF oluşturma ve ön yazı) paralel çalıştıran executor.
+     * İşler zaten pipeline executor'ında sınırlandığı için burada reddetme yapılmaz; havuz dolarsa
+     * aşama, çağıran thread'de çalıştırılır.
+     */
+    @Bean(name = CV_STAGE_EXECUTOR)
+    public ThreadPoolTaskExecutor cvStageExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        int poolSize = maxConcurrentJobs * stageThreadsPerJob;
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(poolSize * 4);
+        executor.setThreadNamePrefix("cv-stage-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(60);
+        return executor;
+    }
+
+    /**
+     * Toplu dönüştürmedeki dosyaları işleyen executor. Aşama executor'ından ayrıdır; böylece yüzlerce CV'lik
+     * bir toplu iş, tekli işlerin aşamalarına thread bırakmayacak kadar havuzu doldurmaz. Tüm toplu işler
+     * {@code cv.batch.threads} thread'i paylaşır. Her toplu iş en fazla {@code cv.batch.parallelism} dosyayı
+     * aynı anda gönderdiği için kuyruk, pipeline'da aynı anda çalışabilecek toplu işlerin hepsine yeter.
+     */
+    @Bean(name = CV_BATCH_EXECUTOR)
+    public ThreadPoolTaskExecutor cvBatchExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        int poolSize = Math.max(1, batchThreads);
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(Math.max(1, maxConcurrentJobs * batchParallelism));
+        executor.setThreadNamePrefix("cv-batch-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(60);
+        logger.info("CV batch executor oluşturuldu: thread sayısı = {}", poolSize);
+        return executor;
+    }
+
+    /**
+     * SSE bağlantılarına yazan thread'ler. Pipeline thread'leri olayları yalnızca kuyruğa bırakır; yavaş bir
+     * istemcinin soketinde bu thread'ler bekler. Bağlantı başına aynı anda en fazla bir görev çalışır.
+     */
+    @Bean(name = SSE_DISPATCH_EXECUTOR)
+    public ThreadPoolTaskExecutor sseDispatchExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(sseDispatchThreads);
+        executor.setMaxPoolSize(sseDispatchThreads);
+        executor.setThreadNamePrefix("sse-dispatch-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        return executor;
+    }
+}
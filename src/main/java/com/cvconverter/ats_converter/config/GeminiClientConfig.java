@@ -0,0 +1,56 @@
+package com.cvconverter.ats_converter.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+/**
+ * Gemini çağrıları için paylaşılan, bağlantı havuzlu ve HTTP/2 destekli HTTP istemcisini tanımlar.
+ * Tek bir {@link HttpClient} örneği tüm istekler tarafından kullanıldığı için TLS bağlantıları
+ * yeniden kullanılır; HTTP/2'de istekler aynı bağlantı üzerinden çoğullanır (multiplexing).
+ */
+@Configuration
+public class GeminiClientConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(GeminiClientConfig.class);
+
+    public static final String GEMINI_HTTP_CLIENT = "geminiHttpClient";
+
+    // JDK HttpClient'ın HTTP/1.1 bağlantı havuzu ayarları yalnızca sistem özellikleriyle yapılabilir
+    // ve havuz sınıfı ilk yüklendiğinde okunur.
+    private static final String POOL_SIZE_PROPERTY = "jdk.httpclient.connectionPoolSize";
+    private static final String KEEP_ALIVE_PROPERTY = "jdk.httpclient.keepalive.timeout";
+
+    @Value("${gemini.http.pool-size:20}")
+    private int poolSize;
+
+    @Value("${gemini.http.keep-alive-seconds:60}")
+    private long keepAliveSeconds;
+
+    @Value("${gemini.http.connect-timeout-ms:5000}")
+    private long connectTimeoutMillis;
+
+    @Bean(name = GEMINI_HTTP_CLIENT)
+    public HttpClient geminiHttpClient() {
+        // Kullanıcı JVM parametresiyle bir değer verdiyse ona dokunma.
+        if (System.getProperty(POOL_SIZE_PROPERTY) == null) {
+            System.setProperty(POOL_SIZE_PROPERTY, String.valueOf(poolSize));
+        }
+        if (System.getProperty(KEEP_ALIVE_PROPERTY) == null) {
+            System.setProperty(KEEP_ALIVE_PROPERTY, String.valueOf(keepAliveSeconds));
+        }
+
+        logger.info("Gemini HTTP istemcisi oluşturuluyor: havuz = {}, keep-alive = {} sn, bağlantı zaman aşımı = {} ms",
+                poolSize, keepAliveSeconds, connectTimeoutMillis);
+        return HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMillis))
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+    }
+}
@@ -0,0 +1,137 @@
+package com.cvconverter.ats_converter.config;
+
+import com.cvconverter.ats_converter.service.CoverLetterCache;
+import com.cvconverter.ats_converter.service.CvAnalysisCache;
+import com.cvconverter.ats_converter.service.FileStorageService;
+import com.cvconverter.ats_converter.service.JobRegistry;
+import com.cvconverter.ats_converter.service.PdfGenerationService;
+import com.cvconverter.ats_converter.service.SseEventDispatcher;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Geçici dosya deposu, CV analiz önbelleği, ön yazı önbelleği, PDF önbelleği, iş kaydı ve SSE bağlantıları için Micrometer göstergelerini tanımlar.
+ * Executor metrikleri (executor.active, executor.queued ...) Spring Boot tarafından
+ * ThreadPoolTaskExecutor bean'leri için otomatik olarak yayımlanır.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder fileStorageMetrics(FileStorageService fileStorageService) {
+        return registry -> {
+            Gauge.builder("cv.storage.entries", fileStorageService, storage -> storage.stats().getEntries())
+                    .description("Depodaki indirilmeyi bekleyen dosya sayısı")
+                    .register(registry);
+            Gauge.builder("cv.storage.resident", fileStorageService, storage -> storage.stats().getResidentBytes())
+                    .description("Bellekte (heap veya off-heap) tutulan dosyaların toplam boyutu")
+                    .baseUnit("bytes")
+                    .register(registry);
+            Gauge.builder("cv.storage.spilled", fileStorageService, storage -> storage.stats().getSpilledBytes())
+                    .description("Diske taşırılan dosyaların toplam boyutu")
+                    .baseUnit("bytes")
+                    .register(registry);
+            FunctionCounter.builder("cv.storage.expired", fileStorageService, storage -> storage.stats().getExpiredCount())
+                    .description("Süresi dolduğu için silinen dosya sayısı")
+                    .register(registry);
+            FunctionCounter.builder("cv.storage.evicted", fileStorageService, storage -> storage.stats().getEvictedCount())
+                    .description("Depo bütçesi aşıldığı için silinen dosya sayısı")
+                    .register(registry);
+            Gauge.builder("cv.storage.blobs", fileStorageService, storage -> storage.stats().getBlobs())
+                    .description("Depodaki farklı içerik sayısı; aynı içerikli dosyalar tek kaydı paylaşır")
+                    .register(registry);
+            FunctionCounter.builder("cv.storage.deduplicated", fileStorageService, storage -> storage.stats().getDeduplicatedCount())
+                    .description("İçeriği depoda zaten bulunduğu için yeniden saklanmayan dosya sayısı")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder cvAnalysisCacheMetrics(CvAnalysisCache cvAnalysisCache) {
+        return registry -> {
+            Gauge.builder("cv.cache.entries", cvAnalysisCache, cache -> cache.stats().getEntries())
+                    .description("CV analiz önbelleğindeki girdi sayısı")
+                    .register(registry);
+            Gauge.builder("cv.cache.weighted", cvAnalysisCache, cache -> cache.stats().getWeightedBytes())
+                    .description("CV analiz önbelleğinin tahmini toplam boyutu")
+                    .baseUnit("bytes")
+                    .register(registry);
+            FunctionCounter.builder("cv.cache.requests", cvAnalysisCache, cache -> cache.stats().getHitCount())
+                    .description("CV analiz önbelleği istekleri")
+                    .tag("result", "hit")
+                    .register(registry);
+            FunctionCounter.builder("cv.cache.requests", cvAnalysisCache, cache -> cache.stats().getMissCount())
+                    .description("CV analiz önbelleği istekleri")
+                    .tag("result", "miss")
+                    .register(registry);
+            FunctionCounter.builder("cv.cache.evictions", cvAnalysisCache, cache -> cache.stats().getEvictionCount())
+                    .description("Boyut veya TTL nedeniyle silinen önbellek girdileri")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder coverLetterCacheMetrics(CoverLetterCache coverLetterCache) {
+        return registry -> {
+            Gauge.builder("cv.cover-letter.cache.weighted", coverLetterCache, cache -> cache.stats().getWeightedBytes())
+                    .description("Ön yazı önbelleğinin tahmini toplam boyutu")
+                    .baseUnit("bytes")
+                    .register(registry);
+            FunctionCounter.builder("cv.cover-letter.cache.requests", coverLetterCache,
+                            cache -> cache.stats().getHitCount() - cache.nearHitCount())
+                    .description("Ön yazı önbelleği istekleri")
+                    .tag("result", "hit")
+                    .register(registry);
+            FunctionCounter.builder("cv.cover-letter.cache.requests", coverLetterCache, CoverLetterCache::nearHitCount)
+                    .description("Ön yazı önbelleği istekleri")
+                    .tag("result", "near_hit")
+                    .register(registry);
+            FunctionCounter.builder("cv.cover-letter.cache.requests", coverLetterCache, cache -> cache.stats().getMissCount())
+                    .description("Ön yazı önbelleği istekleri")
+                    .tag("result", "miss")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder pdfRenderCacheMetrics(PdfGenerationService pdfGenerationService) {
+        return registry -> {
+            FunctionCounter.builder("cv.pdf.cache.requests", pdfGenerationService, pdf -> pdf.renderCacheStats().hitCount())
+                    .description("PDF önbelleği istekleri")
+                    .tag("result", "hit")
+                    .register(registry);
+            FunctionCounter.builder("cv.pdf.cache.requests", pdfGenerationService, pdf -> pdf.renderCacheStats().missCount())
+                    .description("PDF önbelleği istekleri")
+                    .tag("result", "miss")
+                    .register(registry);
+            FunctionCounter.builder("cv.pdf.cache.evictions", pdfGenerationService, pdf -> pdf.renderCacheStats().evictionCount())
+                    .description("Boyut bütçesi nedeniyle PDF önbelleğinden silinen belgeler")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder jobRegistryMetrics(JobRegistry jobRegistry) {
+        return registry -> Gauge.builder("cv.jobs.active", jobRegistry, JobRegistry::activeJobCount)
+                .description("Henüz bitmemiş (kuyrukta veya çalışan) dönüştürme işi sayısı")
+                .register(registry);
+    }
+
+    @Bean
+    public MeterBinder sseDispatcherMetrics(SseEventDispatcher sseEventDispatcher) {
+        return registry -> {
+            Gauge.builder("cv.sse.connections", sseEventDispatcher, SseEventDispatcher::openConnectionCount)
+                    .description("Açık SSE bağlantısı sayısı")
+                    .register(registry);
+            FunctionCounter.builder("cv.sse.coalesced", sseEventDispatcher, SseEventDispatcher::coalescedEventCount)
+                    .description("Yavaş istemcilere gönderilmeden önce yenisiyle değiştirilen ilerleme olayları")
+                    .register(registry);
+            FunctionCounter.builder("cv.sse.dropped", sseEventDispatcher, SseEventDispatcher::droppedConnectionCount)
+                    .description("Kuyruk sınırını aştığı için kapatılan SSE bağlantıları")
+                    .register(registry);
+        };
+    }
+}
@@ -0,0 +1,103 @@
+package com.cvconverter.ats_converter.config;
+
+import io.netty.channel.ChannelOption;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+/**
+ * Reaktif dönüştürme endpoint'i ({@code /api/v1/cv/reactive/generate-stream}) için gereken bileşenleri tanımlar;
+ * yalnızca {@value #ENABLED_PROPERTY}{@code =true} ise yüklenir.
+ * <ul>
+ *     <li>Gemini çağrıları için Reactor Netty üzerine kurulu bir {@link WebClient}: istekler birkaç event-loop
+ *     thread'i üzerinden gönderilir, cevap beklenirken thread tutulmaz.</li>
+ *     <li>PDFBox/OpenPDF işleri (metin çıkarma, PDF yazma, ZIP) için sınırlı bir bounded elastic zamanlayıcı;
+ *     bu bloklayan işler event-loop thread'lerinde çalıştırılmaz.</li>
+ * </ul>
+ */
+@Configuration
+@ConditionalOnProperty(name = ReactiveConfig.ENABLED_PROPERTY, havingValue = "true")
+public class ReactiveConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveConfig.class);
+
+    public static final String ENABLED_PROPERTY = "cv.reactive.enabled";
+    public static final String GEMINI_WEB_CLIENT = "geminiWebClient";
+    public static final String GEMINI_CONNECTION_PROVIDER = "geminiConnectionProvider";
+    public static final String CV_DOCUMENT_SCHEDULER = "cvDocumentScheduler";
+
+    // Gemini cevapları ve SSE parçaları bellekte tek parça olarak çözülür; varsayılan 256 KB sınırı dar kalabilir.
+    private static final int MAX_IN_MEMORY_BYTES = 16 * 1024 * 1024;
+
+    @Value("${gemini.api.base-url:https://generativelanguage.googleapis.com/v1beta}")
+    private String baseUrl;
+
+    @Value("${gemini.reactive.max-connections:500}")
+    private int maxConnections;
+
+    @Value("${gemini.http.keep-alive-seconds:60}")
+    private long keepAliveSeconds;
+
+    @Value("${gemini.http.connect-timeout-ms:5000}")
+    private int connectTimeoutMillis;
+
+    @Value("${gemini.http.acquire-timeout-ms:30000}")
+    private long acquireTimeoutMillis;
+
+    @Value("${cv.reactive.document-threads:0}")
+    private int documentThreads;
+
+    @Value("${cv.reactive.document-queue-capacity:10000}")
+    private int documentQueueCapacity;
+
+    /**
+     * Gemini bağlantı havuzu. HTTP/1.1'de akış halindeki her çağrı bir bağlantıyı meşgul ettiği için havuz,
+     * bloklayan istemcinin havuzundan ({@code gemini.http.pool-size}) çok daha büyüktür; bağlantı beklemek
+     * thread beklemek anlamına gelmez.
+     */
+    @Bean(name = GEMINI_CONNECTION_PROVIDER, destroyMethod = "dispose")
+    public ConnectionProvider geminiConnectionProvider() {
+        return ConnectionProvider.builder("gemini")
+                .maxConnections(maxConnections)
+                .pendingAcquireTimeout(Duration.ofMillis(acquireTimeoutMillis))
+                .maxIdleTime(Duration.ofSeconds(keepAliveSeconds))
+                .build();
+    }
+
+    @Bean(name = GEMINI_WEB_CLIENT)
+    public WebClient geminiWebClient(WebClient.Builder builder,
+                                     @Qualifier(GEMINI_CONNECTION_PROVIDER) ConnectionProvider connectionProvider) {
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMillis);
+        logger.info("Gemini WebClient oluşturuluyor: en fazla {} bağlantı, bağlantı zaman aşımı = {} ms",
+                maxConnections, connectTimeoutMillis);
+        return builder.baseUrl(baseUrl)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(MAX_IN_MEMORY_BYTES))
+                .build();
+    }
+
+    /**
+     * PDF işlerini çalıştıran zamanlayıcı. Thread sayısı sınırlıdır; tüm thread'ler meşgulken gelen işler
+     * kuyrukta bekler, kuyruk da doluysa iş reddedilir ve dönüştürme hata olayıyla sonlanır.
+     */
+    @Bean(name = CV_DOCUMENT_SCHEDULER, destroyMethod = "dispose")
+    public Scheduler cvDocumentScheduler() {
+        int threads = documentThreads > 0 ? documentThreads : Schedulers.DEFAULT_BOUNDED_ELASTIC_SIZE;
+        logger.info("PDF işleri için bounded elastic zamanlayıcı oluşturuldu: {} thread, kuyruk kapasitesi = {}",
+                threads, documentQueueCapacity);
+        return Schedulers.newBoundedElastic(threads, documentQueueCapacity, "cv-document");
+    }
+}
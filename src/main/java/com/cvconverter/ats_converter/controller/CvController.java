@@ -1,12 +1,21 @@
 package com.cvconverter.ats_converter.controller;
 
+import com.cvconverter.ats_converter.dto.JobStatusDto;
+import com.cvconverter.ats_converter.dto.ProgressUpdate;
 import com.cvconverter.ats_converter.service.AsyncDocumentService;
+import com.cvconverter.ats_converter.service.BatchDocumentService;
 import com.cvconverter.ats_converter.service.FileStorageService;
+import com.cvconverter.ats_converter.service.JobRegistry;
+import com.cvconverter.ats_converter.service.SseEventDispatcher;
+import com.cvconverter.ats_converter.service.UploadSpoolService;
+import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.core.io.ByteArrayResource;
-import org.springframework.core.io.Resource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -14,70 +23,240 @@ import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.io.IOException;
+import java.nio.channels.Channels;
+import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/v1/cv")
 public class CvController {
     private static final Logger logger = LoggerFactory.getLogger(CvController.class);
+    static final String JOB_ID_HEADER = "X-Job-Id";
 
     private final AsyncDocumentService asyncDocumentService;
     private final FileStorageService fileStorageService;
+    private final BatchDocumentService batchDocumentService;
+    private final JobRegistry jobRegistry;
+    private final SseEventDispatcher sseEventDispatcher;
+    private final UploadSpoolService uploadSpoolService;
 
-    public CvController(AsyncDocumentService asyncDocumentService, FileStorageService fileStorageService) {
+    @Value("${cv.pipeline.busy-retry-after-seconds:30}")
+    private long busyRetryAfterSeconds;
+
+    @Value("${cv.batch.emitter-timeout-ms:1800000}")
+    private long batchEmitterTimeoutMillis;
+
+    @Value("${cv.jobs.emitter-timeout-ms:180000}")
+    private long jobEmitterTimeoutMillis;
+
+    public CvController(AsyncDocumentService asyncDocumentService, FileStorageService fileStorageService,
+                        BatchDocumentService batchDocumentService, JobRegistry jobRegistry,
+                        SseEventDispatcher sseEventDispatcher, UploadSpoolService uploadSpoolService) {
         this.asyncDocumentService = asyncDocumentService;
         this.fileStorageService = fileStorageService;
+        this.batchDocumentService = batchDocumentService;
+        this.jobRegistry = jobRegistry;
+        this.sseEventDispatcher = sseEventDispatcher;
+        this.uploadSpoolService = uploadSpoolService;
     }
 
     // Gerçek endpoint'i testlerden arındırıp eski, temiz haline geri getiriyoruz.
     @PostMapping(value = "/generate-stream", consumes = "multipart/form-data")
-    public SseEmitter generateDocumentsStream(
+    public ResponseEntity<SseEmitter> generateDocumentsStream(
             @RequestParam("file") MultipartFile file,
             @RequestParam("apiKey") String apiKey,
             @RequestParam(value = "jobDescription", required = false, defaultValue = "") String jobDescription,
-            @RequestParam(value = "generateCoverLetter", defaultValue = "false") boolean generateCoverLetter) {
+            @RequestParam(value = "generateCoverLetter", defaultValue = "false") boolean generateCoverLetter,
+            @RequestParam(value = "streamCoverLetter", defaultValue = "false") boolean streamCoverLetter) {
 
-        SseEmitter emitter = new SseEmitter(180000L); // 3 dakika
+        SseEmitter emitter = new SseEmitter(jobEmitterTimeoutMillis);
 
         emitter.onCompletion(() -> logger.info("SseEmitter (main) tamamlandı."));
         emitter.onError(ex -> logger.error("SseEmitter (main) hatası!", ex));
         emitter.onTimeout(() -> logger.warn("SseEmitter (main) zaman aşımına uğradı."));
 
-        // --- ÇÖZÜM BURADA ---
+        JobRegistry.Job job = jobRegistry.create("cv");
+        SseEventDispatcher.Connection connection = sseEventDispatcher.open(emitter);
         // Düz metin yerine, frontend'in beklediği JSON formatında bir bağlantı mesajı gönder.
+        // "data" alanındaki iş kimliğiyle bağlantı koparsa /jobs/{jobId}/events üzerinden devam edilebilir.
+        sendConnectionEstablished(connection, job);
+        job.subscribe(connection, 0);
+
+        // Dosya bu thread'de diske alınır ve ön kontrolden geçirilir; geçersiz dosyalar kuyruğa hiç girmez.
+        UploadSpoolService.SpooledUpload upload;
         try {
-            String connectionMessage = "{\"stage\":\"CONNECTION_ESTABLISHED\", \"message\":\"Sunucuya başarıyla bağlanıldı...\", \"data\":null}";
-            emitter.send(SseEmitter.event().name("connection_established").data(connectionMessage));
-        } catch (IOException e) {
-            logger.error("İlk SSE 'connection_established' mesajı gönderilemedi.", e);
+            upload = uploadSpoolService.spool(file);
+        } catch (IllegalArgumentException | IOException e) {
+            job.fail(new ProgressUpdate("ERROR", e.getMessage(), null));
+            return ResponseEntity.ok().header(JOB_ID_HEADER, job.getId()).body(emitter);
         }
-        // --- ÇÖZÜM SONU ---
 
-        logger.info("SSE bağlantısı oluşturuldu. Asenkron servise devrediliyor.");
-        asyncDocumentService.processAndGenerateDocumentsStream(emitter, file, apiKey, jobDescription, generateCoverLetter);
+        logger.info("SSE bağlantısı oluşturuldu, iş {} asenkron servise devrediliyor.", job.getId());
+        try {
+            asyncDocumentService.processAndGenerateDocumentsStream(job, upload, apiKey, jobDescription,
+                    generateCoverLetter, streamCoverLetter);
+        } catch (TaskRejectedException e) {
+            // Executor dolu: işi kuyruğa almak yerine istemciye hemen "meşgul" bilgisini dön.
+            logger.warn("CV pipeline kapasitesi dolu, istek reddedildi.");
+            uploadSpoolService.discard(upload);
+            jobRegistry.remove(job);
+            sendBusyAndComplete(connection);
+        }
 
-        return emitter;
+        return ResponseEntity.ok().header(JOB_ID_HEADER, job.getId()).body(emitter);
     }
 
-    @GetMapping("/download")
-    public ResponseEntity<Resource> downloadFile(@RequestParam String fileId, @RequestParam String filename) {
-        byte[] fileContent = fileStorageService.getFile(fileId);
-        if (fileContent == null) {
+    /**
+     * Birden çok CV'yi (PDF listesi veya PDF içeren ZİP) tek istekte dönüştürür. Her dosyanın durumu aynı
+     * SSE bağlantısından bildirilir; sonunda tüm CV'leri ve hata manifestini içeren ZİP'in kimliği gönderilir.
+     */
+    @PostMapping(value = "/batch-stream", consumes = "multipart/form-data")
+    public ResponseEntity<SseEmitter> generateBatchStream(@RequestParam("files") List<MultipartFile> files,
+                                          @RequestParam("apiKey") String apiKey) {
+        SseEmitter emitter = new SseEmitter(batchEmitterTimeoutMillis);
+        emitter.onCompletion(() -> logger.info("SseEmitter (batch) tamamlandı."));
+        emitter.onError(ex -> logger.error("SseEmitter (batch) hatası!", ex));
+        emitter.onTimeout(() -> logger.warn("SseEmitter (batch) zaman aşımına uğradı."));
+
+        JobRegistry.Job job = jobRegistry.create("batch");
+        ResponseEntity<SseEmitter> response = ResponseEntity.ok().header(JOB_ID_HEADER, job.getId()).body(emitter);
+        SseEventDispatcher.Connection connection = sseEventDispatcher.open(emitter);
+        sendConnectionEstablished(connection, job);
+        job.subscribe(connection, 0);
+
+        BatchDocumentService.SpooledBatch batch;
+        try {
+            batch = batchDocumentService.spool(files);
+        } catch (IllegalArgumentException | IOException e) {
+            logger.warn("Toplu dönüştürme isteği reddedildi: {}", e.getMessage());
+            batchDocumentService.failBatch(job, e.getMessage());
+            return response;
+        }
+
+        try {
+            batchDocumentService.processBatch(job, batch, apiKey);
+        } catch (TaskRejectedException e) {
+            logger.warn("CV pipeline kapasitesi dolu, toplu dönüştürme isteği reddedildi.");
+            batchDocumentService.discard(batch);
+            jobRegistry.remove(job);
+            sendBusyAndComplete(connection);
+        }
+        return response;
+    }
+
+    /**
+     * Kopan bir SSE bağlantısını sürdürür: {@code Last-Event-ID} başlığından (veya EventSource kullanamayan
+     * istemciler için {@code lastEventId} parametresinden) sonraki olaylar geçmişten gönderilir, ardından iş
+     * bitene kadar yeni olaylar iletilir. İş bitmişse geçmiş gönderilip bağlantı kapatılır.
+     */
+    @GetMapping(value = "/jobs/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> resumeJobStream(@PathVariable String jobId,
+                                                      @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventIdHeader,
+                                                      @RequestParam(value = "lastEventId", required = false) Long lastEventIdParam) {
+        Optional<JobRegistry.Job> job = jobRegistry.find(jobId);
+        if (job.isEmpty()) {
             return ResponseEntity.notFound().build();
         }
+        long lastEventId = lastEventIdHeader != null ? lastEventIdHeader
+                : lastEventIdParam != null ? lastEventIdParam : 0;
+        SseEmitter emitter = new SseEmitter(jobEmitterTimeoutMillis);
+        emitter.onTimeout(() -> logger.warn("SseEmitter (job {}) zaman aşımına uğradı.", jobId));
+        job.get().subscribe(sseEventDispatcher.open(emitter), lastEventId);
+        logger.info("İş {} için SSE bağlantısı {}. olaydan sonrasından sürdürülüyor.", jobId, lastEventId);
+        return ResponseEntity.ok().body(emitter);
+    }
+
+    /**
+     * Bağlantı kurmadan işin durumunu döner; iş bittiyse indirme kimliği de yanıttadır.
+     */
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<JobStatusDto> getJobStatus(@PathVariable String jobId) {
+        return jobRegistry.find(jobId)
+                .map(job -> ResponseEntity.ok(job.status()))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    private void sendConnectionEstablished(SseEventDispatcher.Connection connection, JobRegistry.Job job) {
+        String connectionMessage = "{\"stage\":\"CONNECTION_ESTABLISHED\", \"message\":\"Sunucuya başarıyla bağlanıldı...\", \"data\":\""
+                + job.getId() + "\"}";
+        connection.send(SseEmitter.event().name("connection_established").data(connectionMessage));
+    }
+
+    private void sendBusyAndComplete(SseEventDispatcher.Connection connection) {
+        String busyMessage = "{\"stage\":\"BUSY\", \"message\":\"Sunucu şu anda çok yoğun. Lütfen "
+                + busyRetryAfterSeconds + " saniye sonra tekrar deneyin.\", \"data\":\"" + busyRetryAfterSeconds + "\"}";
+        connection.send(SseEmitter.event()
+                .name("busy")
+                .reconnectTime(busyRetryAfterSeconds * 1000)
+                .data(busyMessage));
+        connection.complete();
+    }
+
+    /**
+     * Oluşturulan dosyayı indirir. Dosya bellekte tutulmadan doğrudan depodan (disk ise FileChannel.transferTo ile)
+     * yanıta aktarılır. Tek aralıklı "Range" istekleri desteklenir; böylece yarıda kalan büyük indirmeler
+     * devam ettirilebilir. Dosya, gönderilen aralıklar tüm içeriği kapsadığında depodan silinir.
+     */
+    @GetMapping("/download")
+    public void downloadFile(@RequestParam String fileId,
+                             @RequestParam String filename,
+                             @RequestHeader(value = HttpHeaders.RANGE, required = false) String rangeHeader,
+                             @RequestHeader(value = HttpHeaders.IF_RANGE, required = false) String ifRange,
+                             HttpServletResponse response) throws IOException {
+        Optional<FileStorageService.StoredFile> storedFile = fileStorageService.openFile(fileId);
+        if (storedFile.isEmpty()) {
+            response.setStatus(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+        // Tutamaç açık kaldığı sürece içerik silinmez: süre dolması, bütçe aşımı veya paralel bir indirmenin
+        // dosyayı tamamlaması aktarımı yarıda kesmez.
+        try (FileStorageService.StoredFile file = storedFile.get()) {
+            long size = file.size();
+            String etag = "\"" + file.etag() + "\"";
+
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"");
+            response.setHeader("Cache-Control", "no-cache, no-store, must-revalidate");
+            response.setHeader("Pragma", "no-cache");
+            response.setHeader("Expires", "0");
+            response.setHeader(HttpHeaders.ETAG, etag);
+            response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+            response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
 
-        ByteArrayResource resource = new ByteArrayResource(fileContent);
+            long start = 0;
+            long end = size - 1;
+            // If-Range farklı bir ETag taşıyorsa dosya değişmiş demektir; aralık yok sayılıp dosyanın tamamı gönderilir.
+            boolean rangeApplies = rangeHeader != null && (ifRange == null || ifRange.equals(etag));
+            if (rangeApplies) {
+                try {
+                    List<HttpRange> ranges = HttpRange.parseRanges(rangeHeader);
+                    // Çoklu aralıklar (multipart/byteranges) desteklenmez; bu durumda dosyanın tamamı gönderilir.
+                    if (ranges.size() == 1) {
+                        start = ranges.get(0).getRangeStart(size);
+                        end = ranges.get(0).getRangeEnd(size);
+                        if (start >= size || end < start) {
+                            throw new IllegalArgumentException("Aralık dosya boyutunun dışında: " + rangeHeader);
+                        }
+                        response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                        response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+                    }
+                } catch (IllegalArgumentException e) {
+                    response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                    return;
+                }
+            }
 
-        HttpHeaders headers = new HttpHeaders();
-        headers.add(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"");
-        headers.add("Cache-Control", "no-cache, no-store, must-revalidate");
-        headers.add("Pragma", "no-cache");
-        headers.add("Expires", "0");
+            long length = end - start + 1;
+            response.setContentLengthLong(length);
+            file.transferTo(start, length, Channels.newChannel(response.getOutputStream()));
+            response.flushBuffer();
 
-        return ResponseEntity.ok()
-                .headers(headers)
-                .contentLength(fileContent.length)
-                .contentType(MediaType.APPLICATION_OCTET_STREAM)
-                .body(resource);
+            // Son byte'ı içeren bir aralık (örn. "bytes=-1" yoklaması) dosyanın indirildiği anlamına gelmez;
+            // dosya ancak bu kimliğe gönderilen aralıklar tüm içeriği kapsayınca silinir.
+            if (fileStorageService.recordDelivered(fileId, file, start, end)) {
+                logger.info("Dosya indirildi ve depodan silindi: {}", fileId);
+            }
+        }
     }
 
     // Test endpoint'ini artık kaldırabiliriz, görevini tamamladı.
@@ -0,0 +1,85 @@
+package com.cvconverter.ats_converter.controller;
+
+import com.cvconverter.ats_converter.config.ReactiveConfig;
+import com.cvconverter.ats_converter.dto.ProgressUpdate;
+import com.cvconverter.ats_converter.service.ReactiveDocumentService;
+import com.cvconverter.ats_converter.service.UploadSpoolService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@code /api/v1/cv/generate-stream}'in reaktif karşılığı; {@code cv.reactive.enabled=true} ile
+ * {@link CvController}'ın yanında açılır. İstemciye giden olaylar (aşama adları, {@code data:} satırındaki JSON)
+ * aynıdır; frontend yalnızca adresi değiştirerek bu endpoint'i kullanabilir.
+ * <p>
+ * Yanıt bir {@link Flux} olarak döner: Spring MVC isteği asenkron moda alır ve istek thread'i hemen serbest kalır.
+ * Olaylar, Gemini cevabını taşıyan event-loop thread'inden veya PDF işini yapan zamanlayıcıdan yazılır; böylece
+ * binlerce açık dönüştürme için bağlantı başına bir thread gerekmez. İşler {@code JobRegistry}'ye kaydedilmez;
+ * kopan bağlantı sürdürülemez, dönüştürme iptal edilir.
+ */
+@RestController
+@RequestMapping("/api/v1/cv/reactive")
+@ConditionalOnProperty(name = ReactiveConfig.ENABLED_PROPERTY, havingValue = "true")
+public class ReactiveCvController {
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveCvController.class);
+
+    private final ReactiveDocumentService reactiveDocumentService;
+    private final UploadSpoolService uploadSpoolService;
+
+    @Value("${cv.pipeline.busy-retry-after-seconds:30}")
+    private long busyRetryAfterSeconds;
+
+    public ReactiveCvController(ReactiveDocumentService reactiveDocumentService, UploadSpoolService uploadSpoolService) {
+        this.reactiveDocumentService = reactiveDocumentService;
+        this.uploadSpoolService = uploadSpoolService;
+    }
+
+    @PostMapping(value = "/generate-stream", consumes = "multipart/form-data", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<ProgressUpdate>> generateDocumentsStream(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam("apiKey") String apiKey,
+            @RequestParam(value = "jobDescription", required = false, defaultValue = "") String jobDescription,
+            @RequestParam(value = "generateCoverLetter", defaultValue = "false") boolean generateCoverLetter,
+            @RequestParam(value = "streamCoverLetter", defaultValue = "false") boolean streamCoverLetter) {
+
+        // Dosya bu thread'de diske alınır ve ön kontrolden geçirilir; geçersiz dosyalar pipeline'a hiç girmez.
+        Flux<ProgressUpdate> updates;
+        try {
+            UploadSpoolService.SpooledUpload upload = uploadSpoolService.spool(file);
+            updates = reactiveDocumentService.process(upload, apiKey, jobDescription, generateCoverLetter, streamCoverLetter);
+            logger.info("Reaktif SSE bağlantısı oluşturuldu, CV pipeline'a devredildi.");
+        } catch (IllegalArgumentException | IOException e) {
+            updates = Flux.just(new ProgressUpdate("ERROR", e.getMessage(), null));
+        }
+
+        AtomicLong eventIds = new AtomicLong();
+        ProgressUpdate connectionEstablished = new ProgressUpdate("CONNECTION_ESTABLISHED", "Sunucuya başarıyla bağlanıldı...", null);
+        return Flux.concat(Flux.just(connectionEstablished), updates)
+                .map(update -> toEvent(update, eventIds.incrementAndGet()))
+                .doOnCancel(() -> logger.info("Reaktif SSE bağlantısı istemci tarafından kapatıldı, dönüştürme iptal edildi."));
+    }
+
+    /**
+     * Olay adları MVC endpoint'iyle aynıdır: bağlantı ve "meşgul" olaylarının adı vardır, diğerleri adsız gönderilir.
+     */
+    private ServerSentEvent<ProgressUpdate> toEvent(ProgressUpdate update, long id) {
+        ServerSentEvent.Builder<ProgressUpdate> event = ServerSentEvent.builder(update).id(String.valueOf(id));
+        switch (update.getStage()) {
+            case "CONNECTION_ESTABLISHED" -> event.event("connection_established");
+            case "BUSY" -> event.event("busy").retry(Duration.ofSeconds(busyRetryAfterSeconds));
+            default -> { }
+        }
+        return event.build();
+    }
+}
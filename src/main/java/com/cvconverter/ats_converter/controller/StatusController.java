@@ -0,0 +1,62 @@
+package com.cvconverter.ats_converter.controller;
+
+import com.cvconverter.ats_converter.config.AsyncConfig;
+import com.cvconverter.ats_converter.dto.CacheStatsDto;
+import com.cvconverter.ats_converter.dto.ExecutorStatusDto;
+import com.cvconverter.ats_converter.dto.StorageStatsDto;
+import com.cvconverter.ats_converter.service.CoverLetterCache;
+import com.cvconverter.ats_converter.service.CvAnalysisCache;
+import com.cvconverter.ats_converter.service.FileStorageService;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Servisin iç durumunu (kuyruk derinliği, aktif iş sayısı vb.) izlemek için kullanılan endpoint'ler.
+ */
+@RestController
+@RequestMapping("/api/v1/status")
+public class StatusController {
+
+    private final ThreadPoolTaskExecutor cvPipelineExecutor;
+    private final CvAnalysisCache cvAnalysisCache;
+    private final CoverLetterCache coverLetterCache;
+    private final FileStorageService fileStorageService;
+
+    public StatusController(@Qualifier(AsyncConfig.CV_PIPELINE_EXECUTOR) ThreadPoolTaskExecutor cvPipelineExecutor,
+                            CvAnalysisCache cvAnalysisCache,
+                            CoverLetterCache coverLetterCache,
+                            FileStorageService fileStorageService) {
+        this.cvPipelineExecutor = cvPipelineExecutor;
+        this.cvAnalysisCache = cvAnalysisCache;
+        this.coverLetterCache = coverLetterCache;
+        this.fileStorageService = fileStorageService;
+    }
+
+    @GetMapping("/executor")
+    public ExecutorStatusDto executorStatus() {
+        return new ExecutorStatusDto(
+                cvPipelineExecutor.getActiveCount(),
+                cvPipelineExecutor.getQueueSize(),
+                cvPipelineExecutor.getMaxPoolSize(),
+                cvPipelineExecutor.getQueueCapacity()
+        );
+    }
+
+    @GetMapping("/cache")
+    public CacheStatsDto cacheStatus() {
+        return cvAnalysisCache.stats();
+    }
+
+    @GetMapping("/cover-letter-cache")
+    public CacheStatsDto coverLetterCacheStatus() {
+        return coverLetterCache.stats();
+    }
+
+    @GetMapping("/storage")
+    public StorageStatsDto storageStatus() {
+        return fileStorageService.stats();
+    }
+}
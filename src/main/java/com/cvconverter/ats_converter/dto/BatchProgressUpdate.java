@@ -0,0 +1,18 @@
+package com.cvconverter.ats_converter.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchProgressUpdate implements StageUpdate {
+    private String stage; // Örn: "BATCH_STARTED", "FILE_COMPLETED", "FILE_FAILED", "DOWNLOAD_READY", "ERROR"
+    private String message; // Kullanıcıya gösterilecek mesaj
+    private String fileName; // İlgili CV dosyası; toplu olaylarda null
+    private int completed; // Başarıyla dönüştürülen dosya sayısı
+    private int failed; // Dönüştürülemeyen dosya sayısı
+    private int total; // Toplam dosya sayısı
+    private String data; // DOWNLOAD_READY için dosya kimliği, FILE_FAILED için hata detayı
+}
@@ -0,0 +1,18 @@
+package com.cvconverter.ats_converter.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheStatsDto {
+    private long entries;
+    private long weightedBytes; // Önbellekteki girdilerin tahmini toplam boyutu
+    private long maxBytes;
+    private long hitCount;
+    private long missCount;
+    private long evictionCount; // Boyut veya TTL nedeniyle silinen girdi sayısı
+    private double hitRate;
+}
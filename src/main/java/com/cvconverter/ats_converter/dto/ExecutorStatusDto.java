@@ -0,0 +1,15 @@
+package com.cvconverter.ats_converter.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExecutorStatusDto {
+    private int activeJobs; // Şu anda çalışan iş sayısı
+    private int queuedJobs; // Kuyrukta bekleyen iş sayısı
+    private int maxConcurrentJobs;
+    private int queueCapacity;
+}
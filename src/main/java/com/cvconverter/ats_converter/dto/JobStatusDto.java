@@ -0,0 +1,23 @@
+package com.cvconverter.ats_converter.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobStatusDto {
+    private String jobId;
+    private String type; // "cv" veya "batch"
+    private String state; // QUEUED, RUNNING, SUCCEEDED, FAILED
+    private String stage; // Son gönderilen olayın aşaması
+    private String message; // Son gönderilen olayın mesajı
+    private String fileId; // İş başarıyla bittiyse indirilecek dosyanın kimliği
+    private String fileName;
+    private long lastEventId; // Son olayın kimliği; SSE'ye yeniden bağlanırken Last-Event-ID olarak kullanılabilir
+    private Instant createdAt;
+    private Instant updatedAt;
+}
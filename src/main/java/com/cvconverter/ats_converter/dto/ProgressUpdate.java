@@ -7,7 +7,7 @@ import lombok.NoArgsConstructor;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-public class ProgressUpdate {
+public class ProgressUpdate implements StageUpdate {
     private String stage; // Örn: "PROCESSING_CV", "GENERATING_COVER_LETTER", "COMPLETE", "ERROR"
     private String message; // Kullanıcıya gösterilecek mesaj
     private String data; // Tamamlandığında dosya verisi (Base64) veya hata detayı
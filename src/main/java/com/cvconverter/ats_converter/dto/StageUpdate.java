@@ -0,0 +1,11 @@
+package com.cvconverter.ats_converter.dto;
+
+/**
+ * İstemciye SSE ile gönderilen durum güncellemelerinin ortak alanları. İş kaydı (JobRegistry),
+ * durum sorgusunda son aşamayı ve mesajı bu alanlardan gösterir.
+ */
+public interface StageUpdate {
+    String getStage();
+
+    String getMessage();
+}
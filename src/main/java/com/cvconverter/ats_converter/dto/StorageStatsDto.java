@@ -0,0 +1,20 @@
+package com.cvconverter.ats_converter.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StorageStatsDto {
+    private int entries;
+    private long residentBytes; // Heap'te tutulan toplam byte
+    private long spilledBytes; // Diske veya heap dışına taşan toplam byte
+    private long maxMemoryBytes;
+    private long maxTotalBytes;
+    private long expiredCount; // TTL süresi dolduğu için silinen dosya sayısı
+    private long evictedCount; // Toplam bütçe aşıldığı için çıkarılan dosya sayısı
+    private int blobs; // Birden fazla indirme kimliğinin paylaşabildiği, farklı içerik sayısı
+    private long deduplicatedCount; // İçeriği depoda zaten bulunduğu için yeniden saklanmayan dosya sayısı
+}
@@ -0,0 +1,187 @@
+package com.cvconverter.ats_converter.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * CV işleme hattının Micrometer metrikleri. Tüm zamanlayıcılar ve dağılımlar histogram olarak
+ * yayımlanır; böylece Prometheus tarafında yüzdelikler (p50, p95, p99) hesaplanabilir.
+ * <p>
+ * Metrikler /actuator/prometheus adresinden toplanır.
+ */
+@Component
+public class CvMetrics {
+
+    public static final String OUTCOME_SUCCESS = "success";
+    public static final String OUTCOME_FAILURE = "failure";
+
+    private static final double MIN_EXPECTED_BYTES = 1024;
+    private static final double MAX_EXPECTED_BYTES = 64.0 * 1024 * 1024;
+
+    private final MeterRegistry registry;
+    private final Timer queueWaitTimer;
+    private final DistributionSummary inputSize;
+    private final DistributionSummary extractedTextLength;
+    private final Timer rateLimitWaitTimer;
+
+    public CvMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.queueWaitTimer = Timer.builder("cv.pipeline.queue.wait")
+                .description("Bir işin pipeline executor kuyruğunda beklediği süre")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.inputSize = bytesSummary("cv.input.size", "Yüklenen PDF dosyalarının boyutu").register(registry);
+        this.extractedTextLength = DistributionSummary.builder("cv.extracted.text.length")
+                .description("PDF'ten çıkarılan metnin karakter sayısı")
+                .baseUnit("characters")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(100.0)
+                .maximumExpectedValue(1_000_000.0)
+                .register(registry);
+        this.rateLimitWaitTimer = Timer.builder("gemini.ratelimit.wait")
+                .description("Bir Gemini çağrısının API anahtarı hız sınırı nedeniyle beklediği süre")
+                .register(registry);
+    }
+
+    /**
+     * Bir aşamanın süresini kaydeder (EXTRACTING_TEXT, PROCESSING_CV, RENDERING_PDF ...).
+     */
+    public void recordStage(String stage, long millis, boolean success) {
+        Timer.builder("cv.pipeline.stage")
+                .description("Belge üretim hattındaki aşamaların süresi")
+                .tag("stage", stage)
+                .tag("outcome", success ? OUTCOME_SUCCESS : OUTCOME_FAILURE)
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(millis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Bir işin baştan sona süresini kaydeder.
+     */
+    public void recordJob(long millis, boolean success, boolean cacheHit) {
+        Timer.builder("cv.pipeline.job")
+                .description("Bir CV işinin toplam süresi")
+                .tag("outcome", success ? OUTCOME_SUCCESS : OUTCOME_FAILURE)
+                .tag("cache", cacheHit ? "hit" : "miss")
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(millis, TimeUnit.MILLISECONDS);
+    }
+
+    public void recordQueueWait(long nanos) {
+        queueWaitTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Gemini'ye yapılan tek bir HTTP isteğinin süresini ve sonucunu kaydeder.
+     * @param status HTTP durum kodu; cevap alınamadıysa "IO_ERROR", "TIMEOUT" gibi bir değer.
+     */
+    public void recordGeminiCall(String method, String status, Duration duration) {
+        Timer.builder("gemini.requests")
+                .description("Gemini API isteklerinin süresi ve sonucu")
+                .tag("method", method)
+                .tag("status", status)
+                .tag("outcome", outcomeOf(status))
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(duration);
+    }
+
+    /**
+     * Gemini çağrısının tekrar denendiğini kaydeder.
+     * @param status Tekrar denemeye yol açan hatanın durumu (örn. "429", "503", "TIMEOUT").
+     */
+    public void recordGeminiRetry(String status) {
+        Counter.builder("gemini.retries")
+                .description("Geçici hatalar nedeniyle tekrar denenen Gemini çağrıları")
+                .tag("status", status)
+                .register(registry)
+                .increment();
+    }
+
+    /**
+     * Gemini'ye gönderilmeden reddedilen bir çağrıyı kaydeder.
+     * @param reason "rate_limit" (anahtarın kotası) veya "circuit_open" (devre kesici açık).
+     */
+    public void recordGeminiRejected(String reason) {
+        Counter.builder("gemini.rejected")
+                .description("Hız sınırı veya devre kesici nedeniyle gönderilmeyen Gemini çağrıları")
+                .tag("reason", reason)
+                .register(registry)
+                .increment();
+    }
+
+    public void recordGeminiRateLimitWait(Duration wait) {
+        rateLimitWaitTimer.record(wait);
+    }
+
+    /**
+     * Devre kesicinin durumunu gösterge olarak yayımlar (0: kapalı, 1: yarı açık, 2: açık).
+     */
+    public void gaugeGeminiCircuitState(Supplier<Number> state) {
+        Gauge.builder("gemini.circuit.state", state)
+                .description("Gemini devre kesicisinin durumu (0: kapalı, 1: yarı açık, 2: açık)")
+                .register(registry);
+    }
+
+    /**
+     * Ön kontrolde reddedilen bir yüklemeyi kaydeder.
+     * @param reason "too_large", "not_pdf", "encrypted", "too_many_pages" veya "invalid".
+     */
+    public void recordUploadRejected(String reason) {
+        Counter.builder("cv.upload.rejected")
+                .description("Kuyruğa alınmadan önce ön kontrolde reddedilen yüklemeler")
+                .tag("reason", reason)
+                .register(registry)
+                .increment();
+    }
+
+    public void recordInputSize(long bytes) {
+        inputSize.record(bytes);
+    }
+
+    public void recordExtractedTextLength(int characters) {
+        extractedTextLength.record(characters);
+    }
+
+    /**
+     * Üretilen dosyanın boyutunu kaydeder.
+     * @param type "pdf" veya "zip"
+     */
+    public void recordOutputSize(String type, long bytes) {
+        bytesSummary("cv.output.size", "Üretilen dosyaların boyutu")
+                .tag("type", type)
+                .register(registry)
+                .record(bytes);
+    }
+
+    private static DistributionSummary.Builder bytesSummary(String name, String description) {
+        return DistributionSummary.builder(name)
+                .description(description)
+                .baseUnit("bytes")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(MIN_EXPECTED_BYTES)
+                .maximumExpectedValue(MAX_EXPECTED_BYTES);
+    }
+
+    private static String outcomeOf(String status) {
+        if (status.length() != 3 || !Character.isDigit(status.charAt(0))) {
+            return "ERROR";
+        }
+        return switch (status.charAt(0)) {
+            case '2' -> "SUCCESS";
+            case '4' -> "CLIENT_ERROR";
+            case '5' -> "SERVER_ERROR";
+            default -> "UNKNOWN";
+        };
+    }
+}
@@ -1,70 +1,178 @@
 package com.cvconverter.ats_converter.service;
 
+import com.cvconverter.ats_converter.client.GeminiRetryListener;
+import com.cvconverter.ats_converter.config.AsyncConfig;
+import com.cvconverter.ats_converter.dto.EducationDto;
+import com.cvconverter.ats_converter.dto.ExperienceDto;
+import com.cvconverter.ats_converter.dto.PersonalInfoDto;
 import com.cvconverter.ats_converter.dto.ProgressUpdate;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.cvconverter.ats_converter.metrics.CvMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
-import org.springframework.web.multipart.MultipartFile;
-import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.util.Map;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 
 @Service
 public class AsyncDocumentService {
     private static final Logger logger = LoggerFactory.getLogger(AsyncDocumentService.class);
 
+    // Aşama adları, istemciye gönderilen ProgressUpdate "stage" değerleriyle aynıdır.
+    static final String STAGE_EXTRACT = "EXTRACTING_TEXT";
+    static final String STAGE_STRUCTURE = "PROCESSING_CV";
+    static final String STAGE_RENDER = "RENDERING_PDF";
+    static final String STAGE_COVER_LETTER = "GENERATING_COVER_LETTER";
+    static final String STAGE_ZIP = "ZIPPING_FILES";
+    static final String STAGE_SAVE = "SAVING_FILE";
+    static final String STAGE_RETRYING = "RETRYING";
+    static final String STAGE_SECTION_READY = "CV_SECTION_READY";
+
     private final CvProcessingService cvProcessingService;
     private final PdfGenerationService pdfGenerationService;
     private final ZipService zipService;
-    private final ObjectMapper objectMapper;
     private final FileStorageService fileStorageService;
-
+    private final CvAnalysisCache cvAnalysisCache;
+    private final CoverLetterCache coverLetterCache;
+    private final UploadSpoolService uploadSpoolService;
+    private final Executor cvStageExecutor;
+    private final CvMetrics cvMetrics;
+    private final boolean streamingStructuring;
 
     public AsyncDocumentService(CvProcessingService cvProcessingService,
                                 PdfGenerationService pdfGenerationService,
                                 ZipService zipService,
-                                ObjectMapper objectMapper,
-                                FileStorageService fileStorageService) {
+                                FileStorageService fileStorageService,
+                                CvAnalysisCache cvAnalysisCache,
+                                CoverLetterCache coverLetterCache,
+                                UploadSpoolService uploadSpoolService,
+                                @Qualifier(AsyncConfig.CV_STAGE_EXECUTOR) Executor cvStageExecutor,
+                                CvMetrics cvMetrics,
+                                @Value("${cv.structuring.streaming.enabled:true}") boolean streamingStructuring) {
         this.cvProcessingService = cvProcessingService;
         this.pdfGenerationService = pdfGenerationService;
         this.zipService = zipService;
-        this.objectMapper = objectMapper;
         this.fileStorageService = fileStorageService;
+        this.cvAnalysisCache = cvAnalysisCache;
+        this.coverLetterCache = coverLetterCache;
+        this.uploadSpoolService = uploadSpoolService;
+        this.cvStageExecutor = cvStageExecutor;
+        this.cvMetrics = cvMetrics;
+        this.streamingStructuring = streamingStructuring;
     }
 
-    @Async
-    public void processAndGenerateDocumentsStream(SseEmitter emitter, MultipartFile file, String apiKey, String jobDescription, boolean generateCoverLetter) {
+    @Async(AsyncConfig.CV_PIPELINE_EXECUTOR)
+    public void processAndGenerateDocumentsStream(JobRegistry.Job job, UploadSpoolService.SpooledUpload upload, String apiKey,
+                                                  String jobDescription, boolean generateCoverLetter, boolean streamCoverLetter) {
+        long jobStart = System.nanoTime();
+        boolean cacheHit = false;
+        // Akış modunda PDF, yapılandırma aşamasında Gemini'nin cevabı geldikçe bölüm bölüm yazılır;
+        // PDF aşaması sadece belgeyi tamamlar.
+        AtomicReference<PdfGenerationService.IncrementalPdf> incrementalPdf = new AtomicReference<>();
         try {
-            sendProgress(emitter, "EXTRACTING_TEXT", "CV'den metin çıkarılıyor...", null);
-            String extractedCvText = cvProcessingService.extractTextFromPdf(file);
+            cvMetrics.recordInputSize(upload.size());
+            // Aynı PDF daha önce işlendiyse, metin çıkarma ve Gemini adımları önbellekten karşılanır.
+            // Özet, dosya diske alınırken hesaplandı.
+            String contentHash = upload.sha256();
+            CvAnalysisCache.CachedAnalysis cached = cvAnalysisCache.get(contentHash);
+            cacheHit = cached != null;
 
-            sendProgress(emitter, "PROCESSING_CV", "Yapay zeka CV'nizi analiz ediyor...", null);
-            String structuredCvData = cvProcessingService.getStructuredDataFromGemini(extractedCvText, apiKey);
-            byte[] atsCvPdfBytes = pdfGenerationService.createAtsFriendlyPdf(structuredCvData);
+            // Aşama grafiği: ön yazı sadece yapılandırılmış JSON'a ihtiyaç duyar, bu yüzden PDF oluşturma ile
+            // aynı anda çalışır. Mesajı olmayan aşamalar (PDF oluşturma) istemciye ayrı bir olay göndermez.
+            StageGraph graph = new StageGraph()
+                    .addStage(STAGE_EXTRACT, "CV'den metin çıkarılıyor...", results -> {
+                        if (cached != null) {
+                            logger.info("CV metni önbellekten alındı (hash: {}).", contentHash);
+                            return cached.extractedText();
+                        }
+                        String extractedCvText = cvProcessingService.extractTextFromPdf(upload.path());
+                        cvMetrics.recordExtractedTextLength(extractedCvText.length());
+                        cvAnalysisCache.putExtractedText(contentHash, extractedCvText);
+                        return extractedCvText;
+                    })
+                    .addStage(STAGE_STRUCTURE, "Yapay zeka CV'nizi analiz ediyor...", results -> {
+                        if (cached != null && cached.structuredJson() != null) {
+                            logger.info("Yapılandırılmış CV verisi önbellekten alındı (hash: {}).", contentHash);
+                            return CvProcessingService.StructuredCv.of(cached.structuredJson());
+                        }
+                        if (streamingStructuring) {
+                            PdfGenerationService.IncrementalPdf pdf = pdfGenerationService.startIncrementalPdf();
+                            incrementalPdf.set(pdf);
+                            return cvProcessingService.getStructuredDataStreaming(results.get(STAGE_EXTRACT), apiKey,
+                                    sectionProgress(job::publishProgress, pdf), retryListener(job));
+                        }
+                        return cvProcessingService.getStructuredDataFromGemini(results.get(STAGE_EXTRACT), apiKey,
+                                retryListener(job));
+                    }, STAGE_EXTRACT)
+                    .addStage(STAGE_RENDER, null, results -> {
+                        CvProcessingService.StructuredCv structured = results.get(STAGE_STRUCTURE);
+                        PdfGenerationService.IncrementalPdf pdf = incrementalPdf.get();
+                        byte[] atsCvPdfBytes = pdf != null ? pdf.finish() : pdfGenerationService.createAtsFriendlyPdf(structured.json());
+                        if ((cached == null || cached.structuredJson() == null) && structured.cacheable()) {
+                            // Sadece PDF'e başarıyla dönüştürülebilen JSON önbelleğe alınır; Gemini'ye ulaşılamadığında
+                            // kullanılan yerel yedek sonuç alınmaz.
+                            cvAnalysisCache.putStructuredJson(contentHash, results.get(STAGE_EXTRACT), structured.json());
+                        }
+                        return atsCvPdfBytes;
+                    }, STAGE_STRUCTURE);
 
-            byte[] finalFileBytes;
             String finalFileName;
-
             if (generateCoverLetter) {
-                sendProgress(emitter, "GENERATING_COVER_LETTER", "Ön yazı oluşturuluyor, bu son adım...", null);
-                String coverLetterText = cvProcessingService.generateCoverLetter(structuredCvData, jobDescription, apiKey);
-
-                sendProgress(emitter, "ZIPPING_FILES", "Dosyalar paketleniyor...", null);
-                Map<String, byte[]> filesToZip = Map.of(
-                        "ATS_Uyumlu_CV.pdf", atsCvPdfBytes,
-                        "On_Yazi.txt", coverLetterText.getBytes()
-                );
-                finalFileBytes = zipService.createZipFile(filesToZip);
+                graph.addStage(STAGE_COVER_LETTER, "Ön yazı oluşturuluyor, bu son adım...", results -> {
+                            String structuredCvData = results.<CvProcessingService.StructuredCv>get(STAGE_STRUCTURE).json();
+                            // Aynı CV için aynı (veya çok benzer) ilana daha önce yazılmış ön yazı varsa Gemini çağrılmaz.
+                            String cachedCoverLetter = coverLetterCache.get(structuredCvData, jobDescription);
+                            if (cachedCoverLetter != null) {
+                                logger.info("Ön yazı önbellekten alındı.");
+                                if (streamCoverLetter) {
+                                    sendChunk(job, new ProgressUpdate("COVER_LETTER_CHUNK", null, cachedCoverLetter));
+                                }
+                                return cachedCoverLetter;
+                            }
+                            String coverLetter = streamCoverLetter
+                                    // Üretilen her metin parçası anında istemciye iletilir.
+                                    ? cvProcessingService.generateCoverLetterStreaming(structuredCvData, jobDescription, apiKey,
+                                            chunk -> sendChunk(job, new ProgressUpdate("COVER_LETTER_CHUNK", null, chunk)),
+                                            retryListener(job))
+                                    : cvProcessingService.generateCoverLetter(structuredCvData, jobDescription, apiKey,
+                                            retryListener(job));
+                            coverLetterCache.put(structuredCvData, jobDescription, coverLetter);
+                            return coverLetter;
+                        }, STAGE_STRUCTURE)
+                        .addStage(STAGE_ZIP, "Dosyalar paketleniyor...", results -> {
+                            String coverLetterText = results.get(STAGE_COVER_LETTER);
+                            List<ZipService.ZipItem> filesToZip = List.of(
+                                    zipService.item("ATS_Uyumlu_CV.pdf", results.<byte[]>get(STAGE_RENDER)),
+                                    zipService.item("On_Yazi.txt", coverLetterText.getBytes())
+                            );
+                            // Arşiv ayrı bir byte dizisinde biriktirilmeden doğrudan depoya yazılır; indirme kimliği
+                            // kaydetme aşamasında oluşturulur.
+                            return fileStorageService.writeFile(out -> zipService.writeZip(filesToZip, out));
+                        }, STAGE_RENDER, STAGE_COVER_LETTER)
+                        .addStage(STAGE_SAVE, "Dosya indirmeye hazırlanıyor...",
+                                results -> fileStorageService.saveFile(results.<FileStorageService.PendingFile>get(STAGE_ZIP)),
+                                STAGE_ZIP);
                 finalFileName = "CV_ve_On_Yazi.zip";
             } else {
-                finalFileBytes = atsCvPdfBytes;
+                graph.addStage(STAGE_SAVE, "Dosya indirmeye hazırlanıyor...",
+                        results -> fileStorageService.saveFile(results.<byte[]>get(STAGE_RENDER)), STAGE_RENDER);
                 finalFileName = "ATS_Uyumlu_CV.pdf";
             }
 
-            sendProgress(emitter, "SAVING_FILE", "Dosya indirmeye hazırlanıyor...", null);
-            String fileId = fileStorageService.saveFile(finalFileBytes);
+            StageGraph.Execution execution = graph.execute(cvStageExecutor,
+                    (stage, message) -> sendProgress(job, stage, message, null),
+                    (stage, millis, failure) -> cvMetrics.recordStage(stage, millis, failure == null));
+            logger.info("Belgeler {} ms içinde oluşturuldu. Aşama süreleri (ms): {}", execution.totalMillis(), execution.stageMillis());
+            String fileId = execution.results().get(STAGE_SAVE);
+            String outputType = generateCoverLetter ? "zip" : "pdf";
+            fileStorageService.fileSize(fileId).ifPresent(size -> cvMetrics.recordOutputSize(outputType, size));
+            cvMetrics.recordJob(elapsedMillis(jobStart), true, cacheHit);
 
             // --- YENİ EKLENEN MANUEL TEST LOGU ---
             // Bu log, sorunun frontend mi backend mi olduğunu kesinleştirecek.
@@ -75,65 +183,102 @@ public class AsyncDocumentService {
             System.out.println("=====================================================================");
             // --- TEST LOGU SONU ---
 
-            ProgressUpdate finalUpdate = new ProgressUpdate("DOWNLOAD_READY", finalFileName, fileId);
-            sendProgressObject(emitter, finalUpdate);
-
-            try {
-                Thread.sleep(200);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                logger.warn("İndirmeye hazırlık beklemesi sırasında kesinti oluştu.", e);
-            }
-
-            emitter.complete();
+            // DOWNLOAD_READY birleştirilmez; bağlantılar bu olay yazıldıktan sonra kapanır (bkz. SseEventDispatcher).
+            job.publish(new ProgressUpdate("DOWNLOAD_READY", finalFileName, fileId));
+            job.succeed(fileId, finalFileName);
 
         } catch (Exception e) {
+            cvMetrics.recordJob(elapsedMillis(jobStart), false, cacheHit);
             logger.error("Asenkron akış sırasında bir hata oluştu.", e);
-            try {
-                String userFriendlyError = e.getCause() != null ? e.getCause().getMessage() : e.getMessage();
-                sendProgress(emitter, "ERROR", userFriendlyError, null);
-                emitter.completeWithError(e);
-            } catch (Exception ex) {
-                logger.error("SSE Emitter'a hata durumu gönderilemedi.", ex);
+            String userFriendlyError = e.getCause() != null ? e.getCause().getMessage() : e.getMessage();
+            job.fail(new ProgressUpdate("ERROR", userFriendlyError, null));
+        } finally {
+            // Bir aşama başarısız olduysa yarım kalan PDF kapatılır; tamamlanmış belgede etkisizdir.
+            PdfGenerationService.IncrementalPdf pdf = incrementalPdf.get();
+            if (pdf != null) {
+                pdf.discard();
             }
+            uploadSpoolService.discard(upload);
         }
     }
 
-    private void sendProgressObject(SseEmitter emitter, ProgressUpdate update) {
-        try {
-            logger.info("İstemciye durum güncellemesi gönderiliyor: {}", update.getMessage());
-            emitter.send(SseEmitter.event().data(objectMapper.writeValueAsString(update)));
+    /**
+     * Gemini çağrısı tekrar denenecekse kullanıcıya ne kadar bekleneceğini bildirir.
+     */
+    private GeminiRetryListener retryListener(JobRegistry.Job job) {
+        return retryListener(job::publishProgress);
+    }
 
-            Thread.sleep(50);
+    static GeminiRetryListener retryListener(Consumer<ProgressUpdate> events) {
+        return (attempt, maxAttempts, delay, cause) -> {
+            long seconds = Math.max(1, Math.round(delay.toMillis() / 1000.0));
+            events.accept(new ProgressUpdate(STAGE_RETRYING, "Yapay zeka servisi yoğun, " + seconds
+                    + " sn sonra tekrar denenecek (" + attempt + "/" + maxAttempts + ")...", String.valueOf(delay.toMillis())));
+        };
+    }
 
-        } catch (Exception e) {
-            logger.warn("İstemciye SSE mesajı gönderilemedi (bağlantı kopmuş olabilir): {}", e.getMessage());
-        }
+    /**
+     * Akışla gelen her CV bölümünü PDF'e iletir ve istemciye o bölümün işlendiğini bildirir.
+     */
+    static CvSectionListener sectionProgress(Consumer<ProgressUpdate> events, PdfGenerationService.IncrementalPdf pdf) {
+        return new CvSectionListener() {
+            @Override
+            public void onPersonalInfo(PersonalInfoDto personalInfo) {
+                pdf.onPersonalInfo(personalInfo);
+                sendSection(events, PdfGenerationService.Section.PERSONAL_INFO, "Kişisel bilgiler işlendi.");
+            }
+
+            @Override
+            public void onExperience(ExperienceDto experience) {
+                pdf.onExperience(experience);
+                sendSection(events, PdfGenerationService.Section.EXPERIENCE, "İş deneyimi işlendi: " + experience.getUnvan());
+            }
+
+            @Override
+            public void onEducation(EducationDto education) {
+                pdf.onEducation(education);
+                sendSection(events, PdfGenerationService.Section.EDUCATION, "Eğitim bilgisi işlendi: " + education.getOkul());
+            }
+
+            @Override
+            public void onSkills(List<String> skills) {
+                pdf.onSkills(skills);
+                sendSection(events, PdfGenerationService.Section.SKILLS, "Yetenekler işlendi.");
+            }
+
+            @Override
+            public void onSectionComplete(PdfGenerationService.Section section) {
+                pdf.onSectionComplete(section);
+            }
+        };
     }
 
-    private void sendProgress(SseEmitter emitter, String stage, String message, String data) {
-        sendProgressObject(emitter, new ProgressUpdate(stage, message, data));
+    private static void sendSection(Consumer<ProgressUpdate> events, PdfGenerationService.Section section, String message) {
+        events.accept(new ProgressUpdate(STAGE_SECTION_READY, message, section.name()));
     }
 
-    @Async
-    public void executeTestStream(SseEmitter emitter) {
-        try {
-            logger.info(">>> ASYNC TEST: Spring tarafından yönetilen test akışı başladı.");
-            emitter.send(SseEmitter.event().data("{\"stage\":\"TEST_1\", \"message\":\"Test Adım 1: Bağlantı kuruldu.\"}"));
-            Thread.sleep(1500);
+    private static long elapsedMillis(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
 
-            logger.info(">>> ASYNC TEST: İkinci mesaj gönderiliyor.");
-            emitter.send(SseEmitter.event().data("{\"stage\":\"TEST_2\", \"message\":\"İşlem devam ediyor...\"}"));
-            Thread.sleep(1500);
+    /**
+     * İlerleme olayını işin geçmişine ekler ve bağlı istemcilerin kuyruğuna bırakır; thread beklemez.
+     * İstemcinin bağlantısı kopmuşsa iş yine de devam eder; istemci yeniden bağlandığında olay geçmişten
+     * gönderilir.
+     */
+    private void sendProgressObject(JobRegistry.Job job, ProgressUpdate update) {
+        logger.info("İstemciye durum güncellemesi gönderiliyor: {}", update.getMessage());
+        job.publishProgress(update);
+    }
 
-            logger.info(">>> ASYNC TEST: Son mesaj gönderiliyor.");
-            emitter.send(SseEmitter.event().data("{\"stage\":\"TEST_COMPLETE\", \"message\":\"Test başarıyla tamamlandı!\"}"));
+    /**
+     * Ön yazı parçalarını gönderir. Parçalar birleştirilmez; istemci metni parçaları art arda ekleyerek oluşturur.
+     */
+    private void sendChunk(JobRegistry.Job job, ProgressUpdate update) {
+        job.publish(update);
+    }
 
-            logger.info(">>> ASYNC TEST: Akış tamamlandı.");
-            emitter.complete();
-        } catch (Exception e) {
-            logger.error(">>> ASYNC TEST HATA:", e);
-            emitter.completeWithError(e);
-        }
+    private void sendProgress(JobRegistry.Job job, String stage, String message, String data) {
+        sendProgressObject(job, new ProgressUpdate(stage, message, data));
     }
 }
\ No newline at end of file
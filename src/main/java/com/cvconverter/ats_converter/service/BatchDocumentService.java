@@ -0,0 +1,383 @@
+package com.cvconverter.ats_converter.service;
+
+import com.cvconverter.ats_converter.config.AsyncConfig;
+import com.cvconverter.ats_converter.dto.BatchProgressUpdate;
+import com.cvconverter.ats_converter.metrics.CvMetrics;
+import com.cvconverter.ats_converter.util.HashUtils;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Çok sayıda CV'yi tek istekte dönüştürür. Yüklenen PDF'ler (veya PDF içeren ZİP arşivleri) önce diske
+ * alınır ve tekli yüklemelerle aynı ön kontrolden ({@link UploadSpoolService#check(Path)}) geçirilir. Ardından
+ * toplu iş executor'ında en fazla {@code cv.batch.parallelism} dosya aynı anda işlenir.
+ * Her dosyanın sonucu işin kaydına ({@link JobRegistry.Job}) yazılır ve bağlı SSE istemcilerine iletilir;
+ * bağlantı koparsa iş devam eder. Dönüştürülen PDF'ler bittikleri sırayla tek bir ZİP arşivine yazılır.
+ * Hatalı bir dosya toplu işi durdurmaz, arşivdeki manifest.json'a eklenir.
+ */
+@Service
+public class BatchDocumentService {
+    private static final Logger logger = LoggerFactory.getLogger(BatchDocumentService.class);
+
+    static final String STAGE_BATCH_STARTED = "BATCH_STARTED";
+    static final String STAGE_FILE_COMPLETED = "FILE_COMPLETED";
+    static final String STAGE_FILE_FAILED = "FILE_FAILED";
+    static final String STAGE_DOWNLOAD_READY = "DOWNLOAD_READY";
+    static final String STAGE_ERROR = "ERROR";
+    static final String MANIFEST_NAME = "manifest.json";
+    public static final String RESULT_FILE_NAME = "ATS_Uyumlu_CVler.zip";
+
+    /**
+     * Diske alınmış tek bir CV. {@code rejection} doluysa dosya işlenmeden başarısız sayılır
+     * (örn. ZİP içindeki girdi boyut sınırını aşıyorsa).
+     */
+    public record BatchFile(String fileName, Path path, String rejection) {
+    }
+
+    /**
+     * Diske alınmış toplu iş: geçici dizin ve içindeki dosyalar. İş bittiğinde dizin silinir.
+     */
+    public record SpooledBatch(Path directory, List<BatchFile> files) {
+    }
+
+    /**
+     * Arşive eklenen manifest: kaç dosyanın dönüştürüldüğü ve hangilerinin neden başarısız olduğu.
+     */
+    record BatchManifest(int total, int converted, List<FailedFile> failures) {
+    }
+
+    record FailedFile(String fileName, String error) {
+    }
+
+    private record FileResult(BatchFile file, byte[] pdf, String error) {
+    }
+
+    private final CvProcessingService cvProcessingService;
+    private final PdfGenerationService pdfGenerationService;
+    private final ZipService zipService;
+    private final ObjectMapper objectMapper;
+    private final FileStorageService fileStorageService;
+    private final CvAnalysisCache cvAnalysisCache;
+    private final UploadSpoolService uploadSpoolService;
+    private final Executor cvBatchExecutor;
+    private final CvMetrics cvMetrics;
+    private final int parallelism;
+    private final int maxFiles;
+    private final long maxFileBytes;
+
+    public BatchDocumentService(CvProcessingService cvProcessingService,
+                                PdfGenerationService pdfGenerationService,
+                                ZipService zipService,
+                                ObjectMapper objectMapper,
+                                FileStorageService fileStorageService,
+                                CvAnalysisCache cvAnalysisCache,
+                                UploadSpoolService uploadSpoolService,
+                                @Qualifier(AsyncConfig.CV_BATCH_EXECUTOR) Executor cvBatchExecutor,
+                                CvMetrics cvMetrics,
+                                @Value("${cv.batch.parallelism:4}") int parallelism,
+                                @Value("${cv.batch.max-files:500}") int maxFiles,
+                                @Value("${cv.batch.max-file-bytes:20971520}") long maxFileBytes) {
+        this.cvProcessingService = cvProcessingService;
+        this.pdfGenerationService = pdfGenerationService;
+        this.zipService = zipService;
+        this.objectMapper = objectMapper;
+        this.fileStorageService = fileStorageService;
+        this.cvAnalysisCache = cvAnalysisCache;
+        this.uploadSpoolService = uploadSpoolService;
+        this.cvBatchExecutor = cvBatchExecutor;
+        this.cvMetrics = cvMetrics;
+        this.parallelism = Math.max(1, parallelism);
+        this.maxFiles = maxFiles;
+        this.maxFileBytes = maxFileBytes;
+    }
+
+    /**
+     * Yüklenen dosyaları istek thread'inde geçici bir dizine kopyalar; multipart dosyaları istek bittikten
+     * sonra silinebileceği için bu adım asenkron işten önce yapılır. ZİP dosyalarının içindeki PDF'ler açılır.
+     * @throws IllegalArgumentException Dosya yoksa veya dosya sayısı sınırı aşıldıysa.
+     */
+    public SpooledBatch spool(List<MultipartFile> uploads) throws IOException {
+        Path directory = Files.createTempDirectory("cv-batch-");
+        try {
+            List<BatchFile> files = new ArrayList<>();
+            for (MultipartFile upload : uploads) {
+                String fileName = baseName(upload.getOriginalFilename());
+                try (InputStream inputStream = upload.getInputStream()) {
+                    if (fileName.toLowerCase(Locale.ROOT).endsWith(".zip")) {
+                        expandZip(inputStream, directory, files);
+                    } else {
+                        files.add(copy(inputStream, fileName, directory, files.size()));
+                    }
+                }
+                checkFileCount(files.size());
+            }
+            if (files.isEmpty()) {
+                throw new IllegalArgumentException("Dönüştürülecek bir PDF dosyası bulunamadı.");
+            }
+            logger.info("Toplu dönüştürme için {} dosya diske alındı: {}", files.size(), directory);
+            return new SpooledBatch(directory, files);
+        } catch (IOException | RuntimeException e) {
+            deleteDirectory(directory);
+            throw e;
+        }
+    }
+
+    @Async(AsyncConfig.CV_PIPELINE_EXECUTOR)
+    public void processBatch(JobRegistry.Job job, SpooledBatch batch, String apiKey) {
+        try {
+            int total = batch.files().size();
+            job.publish(new BatchProgressUpdate(STAGE_BATCH_STARTED, total + " CV dönüştürülüyor...", null, 0, 0, total, null));
+
+            BatchManifest[] manifest = new BatchManifest[1];
+            String fileId = fileStorageService.saveFile(out -> manifest[0] = writeBatchZip(job, batch.files(), apiKey, out));
+
+            BatchManifest result = manifest[0];
+            logger.info("Toplu dönüştürme tamamlandı: {}/{} CV dönüştürüldü.", result.converted(), result.total());
+            job.publish(new BatchProgressUpdate(STAGE_DOWNLOAD_READY,
+                    result.converted() + "/" + result.total() + " CV dönüştürüldü.", RESULT_FILE_NAME,
+                    result.converted(), result.failures().size(), result.total(), fileId));
+            job.succeed(fileId, RESULT_FILE_NAME);
+        } catch (Exception e) {
+            logger.error("Toplu dönüştürme sırasında bir hata oluştu.", e);
+            failBatch(job, e.getMessage());
+        } finally {
+            discard(batch);
+        }
+    }
+
+    /**
+     * İşi bir hata olayıyla bitirir; bağlı istemcilerin bağlantısı kapatılır.
+     */
+    public void failBatch(JobRegistry.Job job, String message) {
+        job.fail(new BatchProgressUpdate(STAGE_ERROR, message, null, 0, 0, 0, null));
+    }
+
+    /**
+     * İşlenmeyecek (örn. executor dolu olduğu için reddedilen) bir toplu işin geçici dosyalarını siler.
+     */
+    public void discard(SpooledBatch batch) {
+        deleteDirectory(batch.directory());
+    }
+
+    /**
+     * Dosyaları sınırlı paralellikle dönüştürür ve her biri bittiğinde arşive ekler. Aynı anda en fazla
+     * {@code parallelism} dosya işlenir, bu yüzden bellekte en fazla o kadar PDF bulunur.
+     * Arşiv bu thread'de yazıldığı için ZipWriter ve durum olayları tek thread'den yapılır.
+     */
+    BatchManifest writeBatchZip(JobRegistry.Job job, List<BatchFile> files, String apiKey, OutputStream out) throws IOException {
+        ZipService.ZipWriter zip = zipService.openZip(out);
+        CompletionService<FileResult> completionService = new ExecutorCompletionService<>(cvBatchExecutor);
+        Iterator<BatchFile> pending = files.iterator();
+        Set<String> usedNames = new HashSet<>();
+        List<FailedFile> failures = new ArrayList<>();
+        int total = files.size();
+        int converted = 0;
+        int inFlight = 0;
+
+        while (inFlight < parallelism && pending.hasNext()) {
+            BatchFile file = pending.next();
+            completionService.submit(() -> convert(file, apiKey));
+            inFlight++;
+        }
+        while (inFlight > 0) {
+            FileResult result = take(completionService);
+            inFlight--;
+            if (result.error() == null) {
+                zip.add(zipService.item(uniqueName(result.file().fileName(), usedNames), result.pdf()));
+                converted++;
+                // Sayaçlar kümülatif olduğu için yavaş istemciye yalnızca son FILE_COMPLETED olayı yeterlidir.
+                job.publishProgress(new BatchProgressUpdate(STAGE_FILE_COMPLETED, "CV dönüştürüldü.",
+                        result.file().fileName(), converted, failures.size(), total, null));
+            } else {
+                failures.add(new FailedFile(result.file().fileName(), result.error()));
+                job.publish(new BatchProgressUpdate(STAGE_FILE_FAILED, "CV dönüştürülemedi.",
+                        result.file().fileName(), converted, failures.size(), total, result.error()));
+            }
+            // İstemci bağlantısı kopsa da iş sürer; sonuç durum sorgusu veya yeniden bağlanmayla alınabilir.
+            if (pending.hasNext()) {
+                BatchFile file = pending.next();
+                completionService.submit(() -> convert(file, apiKey));
+                inFlight++;
+            }
+        }
+        BatchManifest manifest = new BatchManifest(total, converted, failures);
+        zip.add(zipService.item(MANIFEST_NAME, objectMapper.writerWithDefaultPrettyPrinter().writeValueAsBytes(manifest)));
+        zip.finish();
+        return manifest;
+    }
+
+    /**
+     * Tek bir CV'yi tekli akıştaki adımlarla (metin çıkarma, Gemini, PDF oluşturma) dönüştürür.
+     * Hatalar fırlatılmaz, sonuca yazılır; böylece bir dosya diğerlerini etkilemez.
+     */
+    private FileResult convert(BatchFile file, String apiKey) {
+        if (file.rejection() != null) {
+            return new FileResult(file, null, file.rejection());
+        }
+        long start = System.nanoTime();
+        boolean cacheHit = false;
+        try {
+            cvMetrics.recordInputSize(Files.size(file.path()));
+            String contentHash;
+            try (InputStream inputStream = Files.newInputStream(file.path())) {
+                contentHash = HashUtils.sha256Hex(inputStream);
+            }
+            CvAnalysisCache.CachedAnalysis cached = cvAnalysisCache.get(contentHash);
+            cacheHit = cached != null;
+
+            String extractedText;
+            if (cached != null) {
+                extractedText = cached.extractedText();
+            } else {
+                extractedText = cvProcessingService.extractTextFromPdf(file.path());
+                cvMetrics.recordExtractedTextLength(extractedText.length());
+                cvAnalysisCache.putExtractedText(contentHash, extractedText);
+            }
+            boolean structuredCached = cached != null && cached.structuredJson() != null;
+            CvProcessingService.StructuredCv structured = structuredCached
+                    ? CvProcessingService.StructuredCv.of(cached.structuredJson())
+                    : cvProcessingService.getStructuredDataFromGemini(extractedText, apiKey);
+            byte[] pdf = pdfGenerationService.createAtsFriendlyPdf(structured.json());
+            // Gemini'ye ulaşılamadığında kullanılan yerel yedek sonuç önbelleğe alınmaz.
+            if (!structuredCached && structured.cacheable()) {
+                cvAnalysisCache.putStructuredJson(contentHash, extractedText, structured.json());
+            }
+            cvMetrics.recordOutputSize("pdf", pdf.length);
+            cvMetrics.recordJob(elapsedMillis(start), true, cacheHit);
+            return new FileResult(file, pdf, null);
+        } catch (Exception e) {
+            cvMetrics.recordJob(elapsedMillis(start), false, cacheHit);
+            logger.warn("Toplu dönüştürmede '{}' dönüştürülemedi: {}", file.fileName(), e.getMessage());
+            String userFriendlyError = e.getCause() != null && e.getCause().getMessage() != null
+                    ? e.getCause().getMessage() : e.getMessage();
+            return new FileResult(file, null, userFriendlyError);
+        }
+    }
+
+    private static FileResult take(CompletionService<FileResult> completionService) throws IOException {
+        try {
+            return completionService.take().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Toplu dönüştürme kesildi.", e);
+        } catch (ExecutionException e) {
+            // convert() istisnaları sonuca yazdığı için buraya sadece Error'lar düşer.
+            throw new IllegalStateException("Toplu dönüştürmede beklenmeyen bir hata oluştu.", e.getCause());
+        }
+    }
+
+    private void expandZip(InputStream inputStream, Path directory, List<BatchFile> files) throws IOException {
+        try (ZipInputStream zipInputStream = new ZipInputStream(inputStream)) {
+            ZipEntry entry;
+            while ((entry = zipInputStream.getNextEntry()) != null) {
+                String fileName = baseName(entry.getName());
+                // Klasörler, macOS meta verileri ve PDF olmayan dosyalar atlanır.
+                if (entry.isDirectory() || entry.getName().startsWith("__MACOSX/") || fileName.startsWith(".")
+                        || !fileName.toLowerCase(Locale.ROOT).endsWith(".pdf")) {
+                    continue;
+                }
+                files.add(copy(zipInputStream, fileName, directory, files.size()));
+                checkFileCount(files.size());
+            }
+        }
+    }
+
+    /**
+     * Akışı, sıra numarasıyla adlandırılan bir dosyaya kopyalar. Sınırı aşan veya ön kontrolden geçemeyen
+     * (PDF olmayan, şifreli, çok sayfalı) dosyalar silinip reddedilmiş olarak işaretlenir; ZİP içindeki tek bir
+     * büyük girdi (zip bombası) veya bozuk dosya tüm toplu işi düşürmez ve dönüştürme thread'i tutmaz.
+     */
+    private BatchFile copy(InputStream inputStream, String fileName, Path directory, int index) throws IOException {
+        Path target = directory.resolve(String.format("%05d.pdf", index));
+        byte[] buffer = new byte[64 * 1024];
+        long written = 0;
+        try (OutputStream out = Files.newOutputStream(target)) {
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) {
+                written += read;
+                if (written > maxFileBytes) {
+                    out.close();
+                    Files.deleteIfExists(target);
+                    return new BatchFile(fileName, null, "Dosya boyutu sınırı aşıldı (en fazla " + maxFileBytes + " byte).");
+                }
+                out.write(buffer, 0, read);
+            }
+        }
+        try {
+            uploadSpoolService.check(target);
+        } catch (IllegalArgumentException e) {
+            Files.deleteIfExists(target);
+            return new BatchFile(fileName, null, e.getMessage());
+        }
+        return new BatchFile(fileName, target, null);
+    }
+
+    private void checkFileCount(int count) {
+        if (count > maxFiles) {
+            throw new IllegalArgumentException("Tek seferde en fazla " + maxFiles + " CV dönüştürülebilir.");
+        }
+    }
+
+    /**
+     * Arşivdeki adı "ATS_<orijinal ad>.pdf" yapar; aynı adlı dosyalar numaralandırılır.
+     */
+    private static String uniqueName(String fileName, Set<String> usedNames) {
+        String stem = fileName.toLowerCase(Locale.ROOT).endsWith(".pdf")
+                ? fileName.substring(0, fileName.length() - 4) : fileName;
+        String candidate = "ATS_" + stem + ".pdf";
+        for (int i = 2; !usedNames.add(candidate); i++) {
+            candidate = "ATS_" + stem + "_" + i + ".pdf";
+        }
+        return candidate;
+    }
+
+    /**
+     * Yalnızca dosya adını bırakır; ZİP girdilerindeki "../" gibi yollar arşiv adlarına taşınmaz.
+     */
+    private static String baseName(String name) {
+        if (name == null || name.isBlank()) {
+            return "cv.pdf";
+        }
+        String normalized = name.replace('\\', '/');
+        String baseName = normalized.substring(normalized.lastIndexOf('/') + 1);
+        return baseName.isBlank() ? "cv.pdf" : baseName;
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    private static void deleteDirectory(Path directory) {
+        try {
+            FileSystemUtils.deleteRecursively(directory);
+        } catch (IOException e) {
+            logger.warn("Toplu dönüştürme dizini silinemedi: {}", directory, e);
+        }
+    }
+}
@@ -0,0 +1,289 @@
+package com.cvconverter.ats_converter.service;
+
+import com.cvconverter.ats_converter.dto.CacheStatsDto;
+import com.cvconverter.ats_converter.dto.CvDataDto;
+import com.cvconverter.ats_converter.util.HashUtils;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Üretilen ön yazıları, yapılandırılmış CV verisinin kanonik özeti ve iş ilanının parmak izi ile saklayan önbellek.
+ * Aynı ilan birçok adayla, aynı CV de birbirine çok benzeyen ilanlarla tekrar tekrar gönderildiğinde Gemini
+ * çağrısı (onlarca saniye) atlanır.
+ * <p>
+ * İlan metni normalize edilir (büyük/küçük harf, aksanlar, noktalama ve boşluklar yok sayılır) ve ardışık kelime
+ * ikililerinden (shingle) 128 değerlik bir MinHash imzası üretilir. Aynı CV için saklanan bir ilanla normalize
+ * metni aynı olan ilan birebir, imzalardan tahmin edilen Jaccard benzerliği {@code cv.cover-letter-cache.min-similarity}
+ * değerine ulaşan ilan ise yakın kopya olarak eşleşir. Varsayılan eşik katıdır; yalnızca birkaç kelimesi değişmiş
+ * ilanlar eşleşir. Çok kısa ilanlarda tek kelime bile benzerliği büyük ölçüde değiştirdiği için yalnızca birebir
+ * eşleşme yapılır.
+ * <p>
+ * Girdiler CV özetine göre gruplanır; bellek kullanımı, girdilerin yaklaşık byte boyutu üzerinden sınırlandırılır
+ * ve uzun süre kullanılmayan CV'lerin ön yazıları önce çıkarılır.
+ */
+@Service
+public class CoverLetterCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(CoverLetterCache.class);
+
+    // Anahtar, nesne başlıkları ve referanslar için girdi başına tahmini sabit maliyet.
+    private static final int ENTRY_OVERHEAD_BYTES = 128;
+    private static final int SHINGLE_SIZE = 2;
+    // İmzadaki değer sayısı; benzerlik tahmininin standart hatası yaklaşık sqrt(J(1-J)/128), J=0.9 için ~0.03.
+    private static final int MIN_HASH_SIZE = 128;
+    // Bu sayıdan az kelime ikilisi içeren ilanlarda tek bir kelime bile benzerliği büyük ölçüde değiştirir.
+    private static final int MIN_SHINGLES_FOR_NEAR_MATCH = 16;
+    // Aynı CV için saklanan en fazla ön yazı sayısı; en eski eklenen ilan önce çıkarılır.
+    private static final int MAX_LETTERS_PER_CV = 8;
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    /**
+     * Normalize edilmiş iş ilanının kimliği: metnin SHA-256 özeti ve kelime ikililerinden hesaplanan MinHash imzası.
+     */
+    record JobDescriptionFingerprint(String hash, int[] minHash, boolean nearMatchable) {
+
+        /**
+         * İki ilanın kelime ikilisi kümelerinin tahmini Jaccard benzerliği (0-1).
+         */
+        double similarity(JobDescriptionFingerprint other) {
+            int equal = 0;
+            for (int i = 0; i < MIN_HASH_SIZE; i++) {
+                if (minHash[i] == other.minHash[i]) {
+                    equal++;
+                }
+            }
+            return (double) equal / MIN_HASH_SIZE;
+        }
+    }
+
+    /**
+     * Bir CV için saklanan tek bir ön yazı.
+     */
+    private record CachedCoverLetter(JobDescriptionFingerprint jobDescription, String coverLetter) {
+
+        int estimatedBytes() {
+            // Java String'leri karakter başına en fazla 2 byte kullanır; imza değer başına 4 byte tutar.
+            return (int) Math.min(Integer.MAX_VALUE,
+                    (long) coverLetter.length() * 2 + MIN_HASH_SIZE * 4L + ENTRY_OVERHEAD_BYTES);
+        }
+    }
+
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final long maxBytes;
+    private final double minSimilarity;
+    // Key: CV verisinin kanonik özeti, Value: bu CV için üretilmiş ön yazılar (en son eklenen başta).
+    private final Cache<String, List<CachedCoverLetter>> cache;
+
+    private final AtomicLong exactHits = new AtomicLong();
+    private final AtomicLong nearHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public CoverLetterCache(ObjectMapper objectMapper,
+                            @Value("${cv.cover-letter-cache.enabled:true}") boolean enabled,
+                            @Value("${cv.cover-letter-cache.max-bytes:16777216}") long maxBytes,
+                            @Value("${cv.cover-letter-cache.ttl-minutes:1440}") long ttlMinutes,
+                            @Value("${cv.cover-letter-cache.min-similarity:0.9}") double minSimilarity) {
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.maxBytes = maxBytes;
+        this.minSimilarity = minSimilarity;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((String key, List<CachedCoverLetter> letters) -> weigh(letters))
+                .expireAfterAccess(Duration.ofMinutes(ttlMinutes))
+                .recordStats()
+                .build();
+        logger.info("Ön yazı önbelleği: etkin = {}, bellek bütçesi = {} byte, TTL = {} dk, en az benzerlik = {}",
+                enabled, maxBytes, ttlMinutes, minSimilarity);
+    }
+
+    /**
+     * Bu CV ve bu ilan (veya ona çok benzeyen bir ilan) için daha önce üretilmiş ön yazıyı döndürür.
+     * @param cvDataJson Yapılandırılmış CV verisi (JSON).
+     * @param jobDescription İş ilanı metni.
+     * @return Ön yazı veya önbellekte yoksa null.
+     */
+    public String get(String cvDataJson, String jobDescription) {
+        if (!enabled || cvDataJson == null) {
+            return null;
+        }
+        List<CachedCoverLetter> letters = cache.getIfPresent(cvKey(cvDataJson));
+        if (letters == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        JobDescriptionFingerprint fingerprint = fingerprint(jobDescription);
+        CachedCoverLetter nearest = null;
+        double nearestSimilarity = 0;
+        for (CachedCoverLetter letter : letters) {
+            if (letter.jobDescription().hash().equals(fingerprint.hash())) {
+                exactHits.incrementAndGet();
+                return letter.coverLetter();
+            }
+            if (fingerprint.nearMatchable() && letter.jobDescription().nearMatchable()) {
+                double similarity = letter.jobDescription().similarity(fingerprint);
+                if (similarity >= minSimilarity && similarity > nearestSimilarity) {
+                    nearest = letter;
+                    nearestSimilarity = similarity;
+                }
+            }
+        }
+        if (nearest == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        nearHits.incrementAndGet();
+        logger.info("Ön yazı, benzer bir iş ilanı için önbellekten alındı (benzerlik: {}).", nearestSimilarity);
+        return nearest.coverLetter();
+    }
+
+    public void put(String cvDataJson, String jobDescription, String coverLetter) {
+        if (!enabled || cvDataJson == null || coverLetter == null) {
+            return;
+        }
+        CachedCoverLetter added = new CachedCoverLetter(fingerprint(jobDescription), coverLetter);
+        cache.asMap().compute(cvKey(cvDataJson), (key, existing) -> {
+            List<CachedCoverLetter> letters = new ArrayList<>(MAX_LETTERS_PER_CV);
+            letters.add(added);
+            if (existing != null) {
+                for (CachedCoverLetter letter : existing) {
+                    if (letters.size() < MAX_LETTERS_PER_CV
+                            && !letter.jobDescription().hash().equals(added.jobDescription().hash())) {
+                        letters.add(letter);
+                    }
+                }
+            }
+            // Önbellekteki liste değiştirilmez; her güncelleme yeni bir liste yazar.
+            return List.copyOf(letters);
+        });
+    }
+
+    /**
+     * Yakın kopya ilanlar için verilen ön yazı sayısı ({@link CacheStatsDto#getHitCount()} bunu da içerir).
+     */
+    public long nearHitCount() {
+        return nearHits.get();
+    }
+
+    public CacheStatsDto stats() {
+        // Bekleyen bakım işlemlerini (ağırlık güncellemesi, süresi dolan girdiler) uygula.
+        cache.cleanUp();
+        long weightedBytes = cache.policy().eviction()
+                .map(eviction -> eviction.weightedSize().orElse(0L))
+                .orElse(0L);
+        long hits = exactHits.get() + nearHits.get();
+        long requests = hits + misses.get();
+        return new CacheStatsDto(
+                cache.estimatedSize(),
+                weightedBytes,
+                maxBytes,
+                hits,
+                misses.get(),
+                cache.stats().evictionCount(),
+                requests == 0 ? 1.0 : (double) hits / requests
+        );
+    }
+
+    /**
+     * Yapılandırılmış CV verisinin kanonik özeti; JSON okunamazsa metnin kendisinin özeti.
+     */
+    private String cvKey(String cvDataJson) {
+        try {
+            return HashUtils.canonicalSha256Hex(objectMapper.readValue(cvDataJson, CvDataDto.class));
+        } catch (JsonProcessingException e) {
+            return HashUtils.sha256Hex(cvDataJson.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private static int weigh(List<CachedCoverLetter> letters) {
+        long bytes = 0;
+        for (CachedCoverLetter letter : letters) {
+            bytes += letter.estimatedBytes();
+        }
+        return (int) Math.min(Integer.MAX_VALUE, bytes);
+    }
+
+    static JobDescriptionFingerprint fingerprint(String jobDescription) {
+        List<String> words = normalize(jobDescription);
+        String normalized = String.join(" ", words);
+        int shingleCount = Math.max(1, words.size() - SHINGLE_SIZE + 1);
+        return new JobDescriptionFingerprint(HashUtils.sha256Hex(normalized.getBytes(StandardCharsets.UTF_8)),
+                minHash(words), shingleCount >= MIN_SHINGLES_FOR_NEAR_MATCH);
+    }
+
+    /**
+     * İlanı kelimelerine ayırır: aksanlar atılır, harfler küçültülür ("İŞ", "iş" ve "is" aynı kelimedir),
+     * harf ve rakam dışındaki her şey ayraç sayılır.
+     */
+    static List<String> normalize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String decomposed = COMBINING_MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFKD)).replaceAll("");
+        String lowerCase = decomposed.toLowerCase(Locale.ROOT).replace('ı', 'i');
+        return Arrays.stream(NON_WORD.split(lowerCase))
+                .filter(word -> !word.isEmpty())
+                .toList();
+    }
+
+    /**
+     * Kelime ikililerinin MinHash imzası: her i için, i. hash fonksiyonunun tüm ikililer üzerindeki en küçük değeri.
+     * İki imzanın aynı olan değerlerinin oranı, ikili kümelerinin Jaccard benzerliğini tahmin eder.
+     */
+    static int[] minHash(List<String> words) {
+        int[] signature = new int[MIN_HASH_SIZE];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        int shingleCount = Math.max(1, words.size() - SHINGLE_SIZE + 1);
+        for (int s = 0; s < shingleCount && !words.isEmpty(); s++) {
+            long shingleHash = hash64(words.subList(s, Math.min(words.size(), s + SHINGLE_SIZE)));
+            for (int i = 0; i < MIN_HASH_SIZE; i++) {
+                // i. hash fonksiyonu: ikilinin özetinin i'ye bağlı bir sabitle karıştırılması.
+                int value = (int) mix(shingleHash + (i + 1) * 0x9e3779b97f4a7c15L);
+                if (value < signature[i]) {
+                    signature[i] = value;
+                }
+            }
+        }
+        return signature;
+    }
+
+    /**
+     * FNV-1a ve ardından bitleri iyice karıştıran SplitMix64 son adımı.
+     */
+    private static long hash64(List<String> shingle) {
+        long hash = 0xcbf29ce484222325L;
+        for (String word : shingle) {
+            for (int i = 0; i < word.length(); i++) {
+                hash ^= word.charAt(i);
+                hash *= 0x100000001b3L;
+            }
+            hash ^= ' ';
+            hash *= 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    private static long mix(long hash) {
+        hash = (hash ^ (hash >>> 30)) * 0xbf58476d1ce4e5b9L;
+        hash = (hash ^ (hash >>> 27)) * 0x94d049bb133111ebL;
+        return hash ^ (hash >>> 31);
+    }
+}
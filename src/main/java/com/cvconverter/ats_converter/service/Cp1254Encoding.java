@@ -0,0 +1,84 @@
+package com.cvconverter.ats_converter.service;
+
+import com.lowagie.text.pdf.ExtraEncoding;
+import com.lowagie.text.pdf.PdfEncodings;
+
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.util.Arrays;
+
+/**
+ * Türkçe karakterleri içeren Cp1254 (windows-1254) kodlaması için tabloya dayalı OpenPDF kodlaması.
+ * <p>
+ * OpenPDF, Cp1252 dışındaki kodlamalarda karakter genişliklerini hesaplarken her karakter için
+ * {@code String.getBytes("Cp1254")} çağırır; bu da yazım sürecinin büyük kısmını karakter seti aramasına
+ * harcatır. Bu sınıf aynı dönüşümü açılışta bir kez hesaplanan tablolarla yapar. Çıktı, JDK'nın
+ * dönüşümüyle birebir aynıdır (eşlenemeyen karakterler '?' olur).
+ */
+final class Cp1254Encoding implements ExtraEncoding {
+
+    static final String NAME = "Cp1254";
+
+    private static final Charset CHARSET = Charset.forName("windows-1254");
+    private static final byte REPLACEMENT = '?';
+    private static final Cp1254Encoding INSTANCE = new Cp1254Encoding();
+
+    private final short[] charToByte = new short[Character.MAX_VALUE + 1];
+    private final char[] byteToChar = new char[256];
+
+    private Cp1254Encoding() {
+        Arrays.fill(charToByte, (short) -1);
+        CharsetEncoder encoder = CHARSET.newEncoder();
+        for (int c = 0; c <= Character.MAX_VALUE; c++) {
+            if (!Character.isSurrogate((char) c) && encoder.canEncode((char) c)) {
+                charToByte[c] = (short) (String.valueOf((char) c).getBytes(CHARSET)[0] & 0xff);
+            }
+        }
+        byte[] allBytes = new byte[256];
+        for (int b = 0; b < 256; b++) {
+            allBytes[b] = (byte) b;
+        }
+        new String(allBytes, CHARSET).getChars(0, 256, byteToChar, 0);
+    }
+
+    /**
+     * Kodlamayı OpenPDF'e kaydeder. Yazı tipleri oluşturulmadan önce çağrılmalıdır.
+     */
+    static void register() {
+        PdfEncodings.addExtraEncoding(NAME, INSTANCE);
+    }
+
+    @Override
+    public byte[] charToByte(String text, String encoding) {
+        byte[] result = new byte[text.length()];
+        int length = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isHighSurrogate(c) && i + 1 < text.length() && Character.isLowSurrogate(text.charAt(i + 1))) {
+                // JDK, bir vekil çifti için tek bir yedek karakter üretir.
+                i++;
+            }
+            result[length++] = encode(c);
+        }
+        return length == result.length ? result : Arrays.copyOf(result, length);
+    }
+
+    @Override
+    public byte[] charToByte(char c, String encoding) {
+        return new byte[]{encode(c)};
+    }
+
+    @Override
+    public String byteToChar(byte[] bytes, String encoding) {
+        char[] chars = new char[bytes.length];
+        for (int i = 0; i < bytes.length; i++) {
+            chars[i] = byteToChar[bytes[i] & 0xff];
+        }
+        return new String(chars);
+    }
+
+    private byte encode(char c) {
+        short mapped = charToByte[c];
+        return mapped < 0 ? REPLACEMENT : (byte) mapped;
+    }
+}
@@ -0,0 +1,109 @@
+package com.cvconverter.ats_converter.service;
+
+import com.cvconverter.ats_converter.dto.CacheStatsDto;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+
+/**
+ * Yüklenen PDF'in byte içeriğinin SHA-256 özetine göre anahtarlanan (content-addressed) önbellek.
+ * Aynı CV tekrar yüklendiğinde hem PDFBox ile metin çıkarma adımı hem de
+ * Gemini'ye yapılan yapılandırma çağrısı atlanır.
+ * <p>
+ * Bellek kullanımı, girdilerin yaklaşık byte boyutu üzerinden sınırlandırılır (memory budget);
+ * ayrıca her girdi yazıldıktan belirli bir süre sonra (TTL) otomatik olarak silinir.
+ */
+@Service
+public class CvAnalysisCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(CvAnalysisCache.class);
+
+    // Anahtar, nesne başlıkları ve referanslar için girdi başına tahmini sabit maliyet.
+    private static final int ENTRY_OVERHEAD_BYTES = 128;
+
+    /**
+     * Önbellekte tutulan analiz sonucu. Yapılandırılmış JSON, Gemini çağrısı başarıyla
+     * tamamlanana kadar null olabilir.
+     */
+    public record CachedAnalysis(String extractedText, String structuredJson) {
+
+        int estimatedBytes() {
+            long chars = (long) length(extractedText) + length(structuredJson);
+            // Java String'leri karakter başına en fazla 2 byte kullanır.
+            return (int) Math.min(Integer.MAX_VALUE, chars * 2 + ENTRY_OVERHEAD_BYTES);
+        }
+
+        private static int length(String value) {
+            return value == null ? 0 : value.length();
+        }
+    }
+
+    private final boolean enabled;
+    private final long maxBytes;
+    private final Cache<String, CachedAnalysis> cache;
+
+    public CvAnalysisCache(@Value("${cv.cache.enabled:true}") boolean enabled,
+                           @Value("${cv.cache.max-bytes:67108864}") long maxBytes,
+                           @Value("${cv.cache.ttl-minutes:60}") long ttlMinutes) {
+        this.enabled = enabled;
+        this.maxBytes = maxBytes;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((String key, CachedAnalysis value) -> value.estimatedBytes())
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .recordStats()
+                .build();
+        logger.info("CV analiz önbelleği: etkin = {}, bellek bütçesi = {} byte, TTL = {} dk", enabled, maxBytes, ttlMinutes);
+    }
+
+    /**
+     * Verilen içerik özetine ait önbellek girdisini döndürür.
+     * @param contentHash Yüklenen PDF'in SHA-256 özeti.
+     * @return Girdi veya önbellekte yoksa null.
+     */
+    public CachedAnalysis get(String contentHash) {
+        if (!enabled || contentHash == null) {
+            return null;
+        }
+        return cache.getIfPresent(contentHash);
+    }
+
+    public void putExtractedText(String contentHash, String extractedText) {
+        if (!enabled || contentHash == null) {
+            return;
+        }
+        cache.asMap().compute(contentHash, (key, existing) ->
+                new CachedAnalysis(extractedText, existing != null ? existing.structuredJson() : null));
+    }
+
+    public void putStructuredJson(String contentHash, String extractedText, String structuredJson) {
+        if (!enabled || contentHash == null) {
+            return;
+        }
+        cache.put(contentHash, new CachedAnalysis(extractedText, structuredJson));
+    }
+
+    public CacheStatsDto stats() {
+        // Bekleyen bakım işlemlerini (ağırlık güncellemesi, süresi dolan girdiler) uygula.
+        cache.cleanUp();
+        CacheStats stats = cache.stats();
+        long weightedBytes = cache.policy().eviction()
+                .map(eviction -> eviction.weightedSize().orElse(0L))
+                .orElse(0L);
+        return new CacheStatsDto(
+                cache.estimatedSize(),
+                weightedBytes,
+                maxBytes,
+                stats.hitCount(),
+                stats.missCount(),
+                stats.evictionCount(),
+                stats.hitRate()
+        );
+    }
+}
@@ -1,23 +1,19 @@
 package com.cvconverter.ats_converter.service;
 
+import com.cvconverter.ats_converter.client.GeminiApiException;
+import com.cvconverter.ats_converter.client.GeminiClient;
+import com.cvconverter.ats_converter.client.GeminiRetryListener;
 import com.cvconverter.ats_converter.dto.gemini.*;
-import org.apache.pdfbox.Loader;
-import org.apache.pdfbox.pdmodel.PDDocument;
-import org.apache.pdfbox.text.PDFTextStripper;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.HttpClientErrorException;
-import org.springframework.web.client.HttpServerErrorException;
-import org.springframework.web.client.RestTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.Collections;
+import java.util.function.Consumer;
 
 @Service
 public class CvProcessingService {
@@ -29,7 +25,7 @@ public class CvProcessingService {
      * Bu versiyon, boş veya tamamen null değerli JSON objeleri döndürmesini engellemek için
      * daha net ve katı kurallar içerir.
      */
-    private static final String CV_PARSING_PROMPT =
+    static final String CV_PARSING_PROMPT =
             "Aşağıdaki CV metnini analiz et ve bilgileri şu JSON formatında yapılandır. " +
                     "**KURAL: Metinden çıkarabildiğin KADAR ÇOK bilgiyi doldurmaya çalış.** Eğer bir bilgi (örneğin telefon numarası) metinde yoksa, o alanı boş string `\"\"` olarak bırak. " +
                     "**KESİNLİKLE boş bir JSON objesi (`{}`) veya tüm alanları `null` olan bir JSON döndürme.** En azından `isim` gibi temel bir alanı doldurmaya çalışmalısın.\n\n" +
@@ -43,7 +39,7 @@ public class CvProcessingService {
     /**
      * Ön yazı oluşturmak için kullanılacak komut.
      */
-    private static final String COVER_LETTER_GENERATION_PROMPT =
+    static final String COVER_LETTER_GENERATION_PROMPT =
             "Sen, iş başvurusunda bulunan adayın ta kendisisin. " +
                     "Aşağıdaki JSON formatındaki CV verilerini ve iş ilanı metnini kullanarak, ilana başvuran kişi olarak, **birinci tekil şahıs ağzından ('ben', 'sahibim', 'geliştirdim' gibi ifadelerle)** profesyonel ve akıcı bir ön yazı yaz. " +
                     "**Metnin en başına 'Sayın Yetkili,' gibi genel ve profesyonel bir selamlama ifadesi ekleyerek başla.** " +
@@ -54,86 +50,280 @@ public class CvProcessingService {
                     "CV Verisi: %s\n\n" +
                     "İş İlanı Metni: %s";
 
-    private final RestTemplate restTemplate;
+    /**
+     * Yapılandırılmış CV JSON'u ve nereden geldiği. {@code localFallback}, Gemini'ye geçici olarak ulaşılamadığı
+     * için düşük güvenli yerel sonucun kullanıldığını belirtir; bu sonuç önbelleğe alınmaz, böylece Gemini
+     * düzeldiğinde aynı CV tekrar yüklenirse tam sonuç alınır.
+     */
+    public record StructuredCv(String json, boolean localFallback) {
+
+        public static StructuredCv of(String json) {
+            return new StructuredCv(json, false);
+        }
+
+        public static StructuredCv fallback(String json) {
+            return new StructuredCv(json, true);
+        }
 
-    public CvProcessingService(RestTemplate restTemplate) {
-        this.restTemplate = restTemplate;
+        public boolean cacheable() {
+            return !localFallback;
+        }
+    }
+
+    private final GeminiClient geminiClient;
+    private final PdfTextExtractor pdfTextExtractor;
+    private final CvTextCompactor cvTextCompactor;
+    private final LocalCvParser localCvParser;
+    private final ObjectMapper objectMapper;
+
+    public CvProcessingService(GeminiClient geminiClient, PdfTextExtractor pdfTextExtractor, CvTextCompactor cvTextCompactor,
+                               LocalCvParser localCvParser, ObjectMapper objectMapper) {
+        this.geminiClient = geminiClient;
+        this.pdfTextExtractor = pdfTextExtractor;
+        this.cvTextCompactor = cvTextCompactor;
+        this.localCvParser = localCvParser;
+        this.objectMapper = objectMapper;
     }
 
     /**
      * Yüklenen PDF dosyasından metin içeriğini çıkarır.
+     * Dosya geçici diske aktarılır ve çok sayfalı belgeler paralel olarak işlenir.
      */
     public String extractTextFromPdf(MultipartFile file) {
-        try (PDDocument document = Loader.loadPDF(file.getBytes())) {
-            if (document.isEncrypted()) {
-                throw new IOException("Şifreli PDF dosyaları desteklenmemektedir.");
-            }
-            PDFTextStripper stripper = new PDFTextStripper();
-            return stripper.getText(document);
+        try {
+            return pdfTextExtractor.extractText(file);
+        } catch (IOException e) {
+            throw new RuntimeException("PDF dosyası okunurken bir hata oluştu: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Diskteki bir PDF dosyasından metin içeriğini çıkarır (toplu dönüştürmede kullanılır).
+     */
+    public String extractTextFromPdf(Path pdfFile) {
+        try {
+            return pdfTextExtractor.extractText(pdfFile);
         } catch (IOException e) {
             throw new RuntimeException("PDF dosyası okunurken bir hata oluştu: " + e.getMessage(), e);
         }
     }
 
     /**
-     * Çıkarılan CV metnini yapılandırılmış JSON formatına dönüştürmek için Gemini API'sini çağırır.
+     * Çıkarılan CV metnini yapılandırılmış JSON formatına dönüştürür.
+     * <p>
+     * Önce {@link LocalCvParser} denenir: metin standart bölümlere sahip, "temiz" bir CV ise sonuç
+     * milisaniyeler içinde yerelde üretilir ve Gemini hiç çağrılmaz. Aksi halde Gemini API'si çağrılır;
+     * Gemini'ye geçici olarak ulaşılamazsa (kota, devre kesici, zaman aşımı) yeterince güvenilir yerel
+     * sonuç yedek olarak döndürülür.
      */
-    public String getStructuredDataFromGemini(String cvText, String apiKey) {
-        logger.info("CV verisini yapılandırmak için Gemini API'ye istek gönderiliyor...");
-        String prompt = CV_PARSING_PROMPT + cvText;
-        return callGeminiApi(prompt, apiKey);
+    public StructuredCv getStructuredDataFromGemini(String cvText, String apiKey) {
+        return getStructuredDataFromGemini(cvText, apiKey, null);
+    }
+
+    /**
+     * {@link #getStructuredDataFromGemini(String, String)} ile aynıdır; çağrı tekrar denenirse
+     * {@code retryListener} bilgilendirilir.
+     */
+    public StructuredCv getStructuredDataFromGemini(String cvText, String apiKey, GeminiRetryListener retryListener) {
+        // Üst/alt bilgiler, sayfa numaraları ve fazla boşluklar atılarak istemdeki token sayısı azaltılır.
+        CvTextCompactor.CompactedText compacted = cvTextCompactor.compact(cvText);
+        LocalCvParser.ParseResult localResult = localCvParser.parse(compacted.text());
+        if (localCvParser.canReplaceGemini(localResult)) {
+            logger.info("CV verisi yerel ayrıştırıcıyla yapılandırıldı (güven {}), Gemini API çağrılmadı.", localResult.confidence());
+            return StructuredCv.of(localCvParser.toJson(localResult.cvData()));
+        }
+
+        logger.info("CV verisini yapılandırmak için Gemini API'ye istek gönderiliyor (CV metni ~{} -> ~{} token, yerel güven {})...",
+                compacted.estimatedTokensBefore(), compacted.estimatedTokensAfter(), localResult.confidence());
+        String prompt = CV_PARSING_PROMPT + compacted.text();
+        try {
+            return StructuredCv.of(callGeminiApi(prompt, apiKey, retryListener));
+        } catch (GeminiApiException e) {
+            if (!e.isTransient() || !localCvParser.canServeAsFallback(localResult)) {
+                throw e;
+            }
+            logger.warn("Gemini API'ye ulaşılamadı ({}); yerel ayrıştırıcının sonucu kullanılıyor (güven {}).",
+                    e.getMessage(), localResult.confidence());
+            return StructuredCv.fallback(localCvParser.toJson(localResult.cvData()));
+        }
+    }
+
+    /**
+     * {@link #getStructuredDataFromGemini(String, String, GeminiRetryListener)} ile aynı sonucu, Gemini'nin
+     * akış endpoint'i ile üretir. Cevap geldikçe tamamlanan her bölüm (kişisel bilgiler, her bir iş
+     * deneyimi ve eğitim kaydı, yetenekler) {@code sectionListener}'a iletilir; böylece PDF, JSON'un tamamı
+     * gelmeden yazılmaya başlanabilir. Yerel ayrıştırıcının sonucu kullanılırsa tüm bölümler bir kerede iletilir.
+     * @return Yapılandırılmış CV JSON'unun tamamı; yedek olarak yerel sonuç kullanıldıysa işaretlidir.
+     */
+    public StructuredCv getStructuredDataStreaming(String cvText, String apiKey, CvSectionListener sectionListener,
+                                             GeminiRetryListener retryListener) {
+        CvTextCompactor.CompactedText compacted = cvTextCompactor.compact(cvText);
+        LocalCvParser.ParseResult localResult = localCvParser.parse(compacted.text());
+        if (localCvParser.canReplaceGemini(localResult)) {
+            logger.info("CV verisi yerel ayrıştırıcıyla yapılandırıldı (güven {}), Gemini API çağrılmadı.", localResult.confidence());
+            sectionListener.acceptAll(localResult.cvData());
+            return StructuredCv.of(localCvParser.toJson(localResult.cvData()));
+        }
+
+        logger.info("CV verisini yapılandırmak için Gemini API'ye akış isteği gönderiliyor (CV metni ~{} -> ~{} token, yerel güven {})...",
+                compacted.estimatedTokensBefore(), compacted.estimatedTokensAfter(), localResult.confidence());
+        StreamingCvJsonParser jsonParser = new StreamingCvJsonParser(objectMapper, sectionListener);
+        try {
+            Consumer<GeminiResponse> chunkConsumer = chunk -> {
+                String chunkText = chunkText(chunk);
+                if (!chunkText.isEmpty()) {
+                    jsonParser.feed(chunkText);
+                }
+            };
+            GeminiRequest request = buildRequest(CV_PARSING_PROMPT + compacted.text());
+            if (retryListener == null) {
+                geminiClient.streamGenerateContent(request, apiKey, chunkConsumer);
+            } else {
+                geminiClient.streamGenerateContent(request, apiKey, chunkConsumer, retryListener);
+            }
+        } catch (GeminiApiException e) {
+            // Dinleyiciye bölüm iletildiyse PDF yazılmaya başlanmıştır; yerel sonuçla yeniden başlanamaz.
+            if (!e.isTransient() || jsonParser.hasEmittedSections() || !localCvParser.canServeAsFallback(localResult)) {
+                throw e;
+            }
+            logger.warn("Gemini API'ye ulaşılamadı ({}); yerel ayrıştırıcının sonucu kullanılıyor (güven {}).",
+                    e.getMessage(), localResult.confidence());
+            sectionListener.acceptAll(localResult.cvData());
+            return StructuredCv.fallback(localCvParser.toJson(localResult.cvData()));
+        }
+        String json = jsonParser.finish();
+        logger.info("Gemini akışı tamamlandı, yapılandırılmış CV verisi alındı ({} karakter).", json.length());
+        return StructuredCv.of(json);
     }
 
     /**
      * Yapılandırılmış CV verisi ve iş tanımını kullanarak bir ön yazı oluşturmak için Gemini API'sini çağırır.
      */
     public String generateCoverLetter(String cvDataJson, String jobDescription, String apiKey) {
+        return generateCoverLetter(cvDataJson, jobDescription, apiKey, null);
+    }
+
+    public String generateCoverLetter(String cvDataJson, String jobDescription, String apiKey, GeminiRetryListener retryListener) {
         logger.info("Ön yazı oluşturmak için Gemini API'ye istek gönderiliyor...");
         String prompt = String.format(COVER_LETTER_GENERATION_PROMPT, cvDataJson, jobDescription);
-        return callGeminiApi(prompt, apiKey);
+        return callGeminiApi(prompt, apiKey, retryListener);
     }
 
     /**
-     * Gemini API'sine asıl isteği gönderen ve cevabı işleyen özel metot.
-     * Hata yönetimini de bu metot üstlenir.
+     * Ön yazıyı Gemini'nin akış (streaming) endpoint'i ile oluşturur. Model metni ürettikçe her parça
+     * {@code onChunk} ile hemen iletilir; böylece kullanıcı ilk kelimeleri saniyeler içinde görür.
+     * @return Akış tamamlandığında birleştirilmiş ön yazı metni.
      */
-    private String callGeminiApi(String prompt, String apiKey) {
-        String url = "https://generativelanguage.googleapis.com/v1beta/models/gemini-2.5-pro:generateContent?key=" + apiKey;
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-
-        Part part = new Part(prompt);
-        Content content = new Content(Collections.singletonList(part));
-        GeminiRequest geminiRequest = new GeminiRequest(Collections.singletonList(content));
+    public String generateCoverLetterStreaming(String cvDataJson, String jobDescription, String apiKey, Consumer<String> onChunk) {
+        return generateCoverLetterStreaming(cvDataJson, jobDescription, apiKey, onChunk, null);
+    }
 
-        HttpEntity<GeminiRequest> entity = new HttpEntity<>(geminiRequest, headers);
+    public String generateCoverLetterStreaming(String cvDataJson, String jobDescription, String apiKey, Consumer<String> onChunk,
+                                               GeminiRetryListener retryListener) {
+        logger.info("Ön yazı oluşturmak için Gemini API'ye akış isteği gönderiliyor...");
+        String prompt = String.format(COVER_LETTER_GENERATION_PROMPT, cvDataJson, jobDescription);
 
+        StringBuilder fullText = new StringBuilder();
         try {
-            ResponseEntity<GeminiResponse> response = restTemplate.postForEntity(url, entity, GeminiResponse.class);
-
-            if (response.getBody() == null || response.getBody().getCandidates() == null || response.getBody().getCandidates().isEmpty()) {
-                throw new RuntimeException("Gemini API'den geçersiz veya boş bir cevap alındı.");
+            Consumer<GeminiResponse> chunkConsumer = chunk -> {
+                String chunkText = chunkText(chunk);
+                if (!chunkText.isEmpty()) {
+                    fullText.append(chunkText);
+                    onChunk.accept(chunkText);
+                }
+            };
+            if (retryListener == null) {
+                geminiClient.streamGenerateContent(buildRequest(prompt), apiKey, chunkConsumer);
+            } else {
+                geminiClient.streamGenerateContent(buildRequest(prompt), apiKey, chunkConsumer, retryListener);
             }
+        } catch (GeminiApiException e) {
+            throw e;
+        } catch (Exception e) {
+            logger.error("Gemini akış çağrısı sırasında beklenmedik bir hata oluştu.", e);
+            throw new RuntimeException("Veri işlenirken beklenmedik bir hata oluştu.", e);
+        }
 
-            logger.info("Gemini API'den başarılı bir cevap alındı.");
-            String resultText = response.getBody().getCandidates().get(0).getContent().getParts().get(0).getText();
-
-            // Cevap içindeki olası markdown formatlamasını temizle
-            if (resultText.startsWith("```json")) {
-                resultText = resultText.substring(7, resultText.length() - 3).trim();
-            } else if (resultText.startsWith("```")) {
-                resultText = resultText.substring(3, resultText.length() - 3).trim();
-            }
-            return resultText;
+        if (fullText.isEmpty()) {
+            throw new RuntimeException("Gemini API'den geçersiz veya boş bir cevap alındı.");
+        }
+        logger.info("Gemini akışı tamamlandı ({} karakter).", fullText.length());
+        return stripMarkdownFence(fullText.toString().trim());
+    }
 
-        } catch (HttpClientErrorException | HttpServerErrorException e) {
-            logger.error("Gemini API hatası. Status: {}, Body: {}", e.getStatusCode(), e.getResponseBodyAsString(), e);
-            // API'den gelen hatayı, gövdesiyle birlikte yeniden fırlatarak daha anlamlı bir hata mesajı oluştur.
-            String errorMessage = "Yapay zeka servisi bir hata döndürdü: " + e.getResponseBodyAsString();
-            throw new RuntimeException(errorMessage, e);
+    /**
+     * Gemini API'sine asıl isteği gönderen ve cevabı işleyen özel metot.
+     * HTTP detayları {@link GeminiClient} tarafından yönetilir; bu metot cevabın doğrulanmasını
+     * ve metnin temizlenmesini üstlenir.
+     * @param retryListener Tekrar denemelerden haberdar olmak için; null ise dinleyici kullanılmaz.
+     */
+    private String callGeminiApi(String prompt, String apiKey, GeminiRetryListener retryListener) {
+        GeminiResponse response;
+        try {
+            response = retryListener == null
+                    ? geminiClient.generateContent(buildRequest(prompt), apiKey)
+                    : geminiClient.generateContent(buildRequest(prompt), apiKey, retryListener);
+        } catch (GeminiApiException e) {
+            // İstemci hatayı zaten logladı ve kullanıcıya gösterilebilecek bir mesajla fırlattı.
+            throw e;
         } catch (Exception e) {
             logger.error("Gemini API çağrısı sırasında beklenmedik bir hata oluştu.", e);
             throw new RuntimeException("Veri işlenirken beklenmedik bir hata oluştu.", e);
         }
+
+        String resultText = extractText(response);
+        logger.info("Gemini API'den başarılı bir cevap alındı.");
+        return stripMarkdownFence(resultText);
+    }
+
+    static GeminiRequest buildRequest(String prompt) {
+        Part part = new Part(prompt);
+        Content content = new Content(Collections.singletonList(part));
+        return new GeminiRequest(Collections.singletonList(content));
+    }
+
+    /**
+     * Cevap içindeki olası markdown formatlamasını temizler.
+     */
+    static String stripMarkdownFence(String resultText) {
+        if (resultText.startsWith("```json")) {
+            return resultText.substring(7, resultText.length() - 3).trim();
+        } else if (resultText.startsWith("```")) {
+            return resultText.substring(3, resultText.length() - 3).trim();
+        }
+        return resultText;
+    }
+
+    /**
+     * Akıştaki tek bir parçanın metnini döndürür. Bazı parçalar (örn. sadece kullanım
+     * istatistiği taşıyan son parça) metin içermeyebilir; bu durumda boş string döner.
+     */
+    static String chunkText(GeminiResponse chunk) {
+        if (chunk == null || chunk.getCandidates() == null || chunk.getCandidates().isEmpty()) {
+            return "";
+        }
+        Content content = chunk.getCandidates().get(0).getContent();
+        if (content == null || content.getParts() == null) {
+            return "";
+        }
+        StringBuilder text = new StringBuilder();
+        for (Part part : content.getParts()) {
+            if (part.getText() != null) {
+                text.append(part.getText());
+            }
+        }
+        return text.toString();
+    }
+
+    static String extractText(GeminiResponse response) {
+        if (response == null || response.getCandidates() == null || response.getCandidates().isEmpty()) {
+            throw new RuntimeException("Gemini API'den geçersiz veya boş bir cevap alındı.");
+        }
+        Content content = response.getCandidates().get(0).getContent();
+        if (content == null || content.getParts() == null || content.getParts().isEmpty()
+                || content.getParts().get(0).getText() == null) {
+            throw new RuntimeException("Gemini API'den geçersiz veya boş bir cevap alındı.");
+        }
+        return content.getParts().get(0).getText();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,55 @@
+package com.cvconverter.ats_converter.service;
+
+import com.cvconverter.ats_converter.dto.CvDataDto;
+import com.cvconverter.ats_converter.dto.EducationDto;
+import com.cvconverter.ats_converter.dto.ExperienceDto;
+import com.cvconverter.ats_converter.dto.PersonalInfoDto;
+
+import java.util.List;
+
+/**
+ * Yapılandırılmış CV verisinin bölümleri, yapay zekanın akış cevabından ayrıştırıldıkça bu dinleyiciye
+ * iletilir. İş deneyimi ve eğitim kayıtları tek tek, kişisel bilgiler ve yetenekler bütün halinde gelir;
+ * bir bölümün son kaydından sonra {@link #onSectionComplete} çağrılır.
+ * <p>
+ * Metotlar, akışı okuyan tek bir iş parçacığından sırayla çağrılır.
+ */
+public interface CvSectionListener {
+
+    default void onPersonalInfo(PersonalInfoDto personalInfo) {
+    }
+
+    default void onExperience(ExperienceDto experience) {
+    }
+
+    default void onEducation(EducationDto education) {
+    }
+
+    default void onSkills(List<String> skills) {
+    }
+
+    default void onSectionComplete(PdfGenerationService.Section section) {
+    }
+
+    /**
+     * Hazır bir CV'nin tüm bölümlerini, akıştaki sırayla dinleyiciye iletir (örn. yerel ayrıştırıcının sonucu).
+     */
+    default void acceptAll(CvDataDto cvData) {
+        if (cvData.getKisiselBilgiler() != null) {
+            onPersonalInfo(cvData.getKisiselBilgiler());
+        }
+        onSectionComplete(PdfGenerationService.Section.PERSONAL_INFO);
+        if (cvData.getIsDeneyimleri() != null) {
+            cvData.getIsDeneyimleri().forEach(this::onExperience);
+        }
+        onSectionComplete(PdfGenerationService.Section.EXPERIENCE);
+        if (cvData.getEgitimBilgileri() != null) {
+            cvData.getEgitimBilgileri().forEach(this::onEducation);
+        }
+        onSectionComplete(PdfGenerationService.Section.EDUCATION);
+        if (cvData.getYetenekler() != null) {
+            onSkills(cvData.getYetenekler());
+        }
+        onSectionComplete(PdfGenerationService.Section.SKILLS);
+    }
+}
@@ -0,0 +1,299 @@
+package com.cvconverter.ats_converter.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * PDF'ten çıkarılan ham metni Gemini'ye gönderilmeden önce sadeleştirir. Modelin gecikmesi ve maliyeti
+ * girdi token sayısıyla arttığı için, CV'nin anlamını değiştirmeyen gürültü atılır:
+ * <ul>
+ *     <li>Boşluk dizileri tek boşluğa, art arda boş satırlar tek boş satıra indirilir.</li>
+ *     <li>Birden çok sayfanın üst/alt bilgisinde tekrar eden satırların sadece ilki bırakılır.</li>
+ *     <li>"Sayfa 2 / 3" gibi sayfa numarası satırları atılır; öneksiz "2 / 3" yalnızca üst/alt bilgide atılır.</li>
+ *     <li>Satır sonunda tire ile bölünmüş kelimeler birleştirilir.</li>
+ *     <li>İkon fontları, kontrol karakterleri ve emoji gibi metin olmayan karakterler atılır.</li>
+ * </ul>
+ * Sonuç deterministiktir: aynı girdi her zaman aynı çıktıyı verir (rastgelelik veya yerel ayar kullanılmaz).
+ */
+@Component
+public class CvTextCompactor {
+
+    /**
+     * Sıkıştırma sonucu ve sıkıştırma öncesi/sonrası tahmini token sayıları.
+     */
+    public record CompactedText(String text, int originalChars, int estimatedTokensBefore, int estimatedTokensAfter) {
+    }
+
+    // Üst/alt bilgi olarak sayılan, sayfanın başındaki ve sonundaki satır sayısı.
+    private static final int HEADER_FOOTER_LINES = 3;
+    private static final Pattern PAGE_NUMBER = Pattern.compile(
+            "(?:(?:sayfa|page|s\\.)\\s*\\d{1,3}(?:\\s*(?:/|of|-)\\s*\\d{1,3})?|-\\s*\\d{1,3}\\s*-)",
+            Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+    // Öneksiz "2 / 3" biçimi "06/18" gibi ay/yıl tarihleriyle karışır; bu yüzden ayrıca kontrol edilir.
+    private static final Pattern BARE_PAGE_NUMBER = Pattern.compile(
+            "([1-9]\\d{0,2})\\s*(?:/|of)\\s*([1-9]\\d{0,2})", Pattern.CASE_INSENSITIVE);
+    private static final Pattern LINE_BREAK = Pattern.compile("\\R");
+    private static final int MAX_PAGE_NUMBER_LENGTH = 20;
+    private static final String BULLETS = "•●▪■◦‣∙·►▶➢➤○□-–—*";
+
+    private final boolean enabled;
+
+    public CvTextCompactor(@Value("${cv.prompt.compaction.enabled:true}") boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public CompactedText compact(String rawText) {
+        int tokensBefore = estimateTokens(rawText);
+        if (!enabled || rawText == null || rawText.isEmpty()) {
+            return new CompactedText(rawText, rawText == null ? 0 : rawText.length(), tokensBefore, tokensBefore);
+        }
+
+        List<List<String>> pages = splitPages(Normalizer.normalize(rawText, Normalizer.Form.NFKC));
+        Set<String> repeatedLines = findRepeatedHeadersAndFooters(pages);
+
+        List<String> lines = new ArrayList<>();
+        Set<String> seenRepeated = new HashSet<>();
+        for (List<String> page : pages) {
+            int nonEmptyCount = (int) page.stream().filter(line -> !line.isEmpty()).count();
+            int nonEmptyIndex = -1;
+            for (String line : page) {
+                if (!line.isEmpty()) {
+                    nonEmptyIndex++;
+                }
+                if (isPageNumber(line, !line.isEmpty() && isHeaderOrFooter(nonEmptyIndex, nonEmptyCount))) {
+                    continue;
+                }
+                // Üst/alt bilgi bölgesinde tekrar eden satırların ilki bırakılır; başlıktaki ad soyad gibi
+                // bilgiler kaybolmaz. Sayfa gövdesindeki satırlara dokunulmaz.
+                if (!repeatedLines.isEmpty() && !line.isEmpty() && isHeaderOrFooter(nonEmptyIndex, nonEmptyCount)) {
+                    String key = headerKey(line);
+                    if (repeatedLines.contains(key) && !seenRepeated.add(key)) {
+                        continue;
+                    }
+                }
+                lines.add(line);
+            }
+            lines.add("");
+        }
+
+        String text = join(joinHyphenatedWords(lines));
+        return new CompactedText(text, rawText.length(), tokensBefore, estimateTokens(text));
+    }
+
+    /**
+     * Metnin kabaca kaç token tuttuğunu tahmin eder: her kelime (harf/rakam dizisi) dört karakterde bir
+     * token, diğer her görünür karakter bir token sayılır. Gerçek sayı modelin tokenizer'ına bağlıdır;
+     * bu değer sadece sıkıştırmanın etkisini karşılaştırmak içindir.
+     */
+    public static int estimateTokens(CharSequence text) {
+        if (text == null) {
+            return 0;
+        }
+        int tokens = 0;
+        int wordLength = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                wordLength++;
+                continue;
+            }
+            tokens += (wordLength + 3) / 4;
+            wordLength = 0;
+            if (!Character.isWhitespace(c)) {
+                tokens++;
+            }
+        }
+        return tokens + (wordLength + 3) / 4;
+    }
+
+    /**
+     * Metni sayfalara ve satırlara ayırır; her satır gürültü karakterlerinden ve fazla boşluklardan arındırılır.
+     * Boş satırlar paragraf sınırı olarak korunur.
+     */
+    private static List<List<String>> splitPages(String text) {
+        List<List<String>> pages = new ArrayList<>();
+        for (String pageText : text.split(String.valueOf(PdfTextExtractor.PAGE_BREAK), -1)) {
+            List<String> page = new ArrayList<>();
+            for (String rawLine : LINE_BREAK.split(pageText, -1)) {
+                String line = cleanLine(rawLine);
+                // Harf veya rakam içermeyen satırlar (ayraç çizgileri, tek başına madde işaretleri) atılır.
+                if (line.isEmpty() || line.codePoints().anyMatch(Character::isLetterOrDigit)) {
+                    page.add(line);
+                }
+            }
+            pages.add(page);
+        }
+        return pages;
+    }
+
+    /**
+     * "Sayfa 2 / 3", "Page 2" ve "- 2 -" satırları her yerde sayfa numarasıdır. Öneksiz "2 / 3" ise yalnızca
+     * üst/alt bilgi bölgesinde, baştaki sıfır olmadan ve sayfa sırası toplamı aşmıyorsa sayfa numarası sayılır;
+     * gövdedeki veya "06/18" gibi tek başına duran ay/yıl satırları korunur.
+     */
+    private static boolean isPageNumber(String line, boolean inHeaderOrFooter) {
+        if (line.isEmpty() || line.length() > MAX_PAGE_NUMBER_LENGTH || line.chars().noneMatch(Character::isDigit)) {
+            return false;
+        }
+        if (PAGE_NUMBER.matcher(line).matches()) {
+            return true;
+        }
+        if (!inHeaderOrFooter) {
+            return false;
+        }
+        Matcher bare = BARE_PAGE_NUMBER.matcher(line);
+        return bare.matches() && Integer.parseInt(bare.group(1)) <= Integer.parseInt(bare.group(2));
+    }
+
+    /**
+     * Metin olmayan karakterleri atar ve boşluk dizilerini tek boşluğa indirir (tek geçişte; düzenli ifade
+     * kullanmak sıkıştırma süresinin çoğunu alıyordu).
+     */
+    private static String cleanLine(String rawLine) {
+        StringBuilder builder = new StringBuilder(rawLine.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < rawLine.length(); ) {
+            int codePoint = rawLine.codePointAt(i);
+            i += Character.charCount(codePoint);
+            if (Character.isWhitespace(codePoint) || Character.isSpaceChar(codePoint)) {
+                pendingSpace = builder.length() > 0;
+            } else if (isText(codePoint)) {
+                if (pendingSpace) {
+                    builder.append(' ');
+                    pendingSpace = false;
+                }
+                builder.appendCodePoint(codePoint);
+            }
+        }
+        // Süslü madde işaretleri tek bir "-" ile değiştirilir; listenin yapısı korunur.
+        if (builder.length() > 1 && BULLETS.indexOf(builder.charAt(0)) >= 0) {
+            int end = 1;
+            while (end < builder.length() && BULLETS.indexOf(builder.charAt(end)) >= 0) {
+                end++;
+            }
+            if (end < builder.length() && builder.charAt(end) == ' ') {
+                return "- " + builder.substring(end + 1);
+            }
+        }
+        return builder.toString();
+    }
+
+    private static boolean isText(int codePoint) {
+        if (codePoint == '\t') {
+            return true;
+        }
+        return switch (Character.getType(codePoint)) {
+            case Character.CONTROL, Character.FORMAT, Character.PRIVATE_USE, Character.SURROGATE,
+                 Character.UNASSIGNED, Character.OTHER_SYMBOL -> false;
+            default -> true;
+        };
+    }
+
+    /**
+     * Sayfaların ilk ve son satırlarında, sayfaların en az yarısında (ve en az iki sayfada) görülen
+     * satırları döndürür. Satırlar birebir karşılaştırılır; rakamlar yalnızca sayfa numarası taşıyan satırlarda
+     * yok sayılır, böylece "Ad Soyad - Sayfa 2" gibi satırlar eşleşirken "Yazılım Mühendisi 2019 - 2021" ile
+     * "Yazılım Mühendisi 2016 - 2019" gibi farklı kayıtlar ayrı kalır.
+     */
+    private static Set<String> findRepeatedHeadersAndFooters(List<List<String>> pages) {
+        long nonEmptyPages = pages.stream().filter(page -> page.stream().anyMatch(line -> !line.isEmpty())).count();
+        if (nonEmptyPages < 2) {
+            return Set.of();
+        }
+        Map<String, Integer> pageCounts = new HashMap<>();
+        for (List<String> page : pages) {
+            Set<String> keys = new HashSet<>();
+            List<String> nonEmpty = page.stream().filter(line -> !line.isEmpty()).toList();
+            for (int i = 0; i < nonEmpty.size(); i++) {
+                if (isHeaderOrFooter(i, nonEmpty.size())) {
+                    keys.add(headerKey(nonEmpty.get(i)));
+                }
+            }
+            keys.forEach(key -> pageCounts.merge(key, 1, Integer::sum));
+        }
+        long threshold = Math.max(2, (nonEmptyPages + 1) / 2);
+        Set<String> repeated = new HashSet<>();
+        pageCounts.forEach((key, count) -> {
+            if (count >= threshold) {
+                repeated.add(key);
+            }
+        });
+        return repeated;
+    }
+
+    private static boolean isHeaderOrFooter(int nonEmptyIndex, int nonEmptyCount) {
+        return nonEmptyIndex < HEADER_FOOTER_LINES || nonEmptyIndex >= nonEmptyCount - HEADER_FOOTER_LINES;
+    }
+
+    private static String headerKey(String line) {
+        // Sayfa numarası taşımayan satırlar olduğu gibi karşılaştırılır; tarihli kayıt satırları birbirine karışmaz.
+        if (!PAGE_NUMBER.matcher(line).find()) {
+            return line;
+        }
+        // Küçük harfe çevrilir ve her rakam dizisi tek bir "#" olur: "Sayfa 12" -> "sayfa #".
+        StringBuilder key = new StringBuilder(line.length());
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (Character.isDigit(c)) {
+                if (key.isEmpty() || key.charAt(key.length() - 1) != '#') {
+                    key.append('#');
+                }
+            } else {
+                key.append(Character.toLowerCase(c));
+            }
+        }
+        return key.toString();
+    }
+
+    /**
+     * "geliştir-" ile biten bir satırı küçük harfle başlayan sonraki satırla birleştirir ("geliştirme ...").
+     * Büyük harfle başlayan devam satırları ("Ar-" / "Ge") birleştirilmez.
+     */
+    private static List<String> joinHyphenatedWords(List<String> lines) {
+        List<String> result = new ArrayList<>(lines.size());
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i);
+            while (endsWithHyphenatedWord(line) && i + 1 < lines.size() && startsWithLowerCase(lines.get(i + 1))) {
+                line = line.substring(0, line.length() - 1) + lines.get(++i);
+            }
+            result.add(line);
+        }
+        return result;
+    }
+
+    private static boolean endsWithHyphenatedWord(String line) {
+        int length = line.length();
+        return length >= 2 && line.charAt(length - 1) == '-' && Character.isLetter(line.charAt(length - 2));
+    }
+
+    private static boolean startsWithLowerCase(String line) {
+        return !line.isEmpty() && Character.isLowerCase(line.codePointAt(0));
+    }
+
+    private static String join(List<String> lines) {
+        StringBuilder builder = new StringBuilder();
+        boolean pendingBlank = false;
+        for (String line : lines) {
+            if (line.isEmpty()) {
+                pendingBlank = builder.length() > 0;
+                continue;
+            }
+            if (builder.length() > 0) {
+                builder.append(pendingBlank ? "\n\n" : "\n");
+            }
+            builder.append(line);
+            pendingBlank = false;
+        }
+        return builder.toString();
+    }
+}
@@ -1,40 +1,723 @@
 package com.cvconverter.ats_converter.service;
 
+import com.cvconverter.ats_converter.dto.StorageStatsDto;
+import com.cvconverter.ats_converter.util.HashUtils;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.io.EOFException;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.util.Comparator;
+import java.util.HexFormat;
 import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.TreeMap;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * Oluşturulan dosyaları indirme isteği gelene kadar geçici olarak hafızada tutan servis.
+ * Oluşturulan dosyaları indirme isteği gelene kadar geçici olarak saklayan servis.
  * Bu yapı, dosyaların Base64 formatında ağ üzerinden gönderilmesini engeller.
+ * <p>
+ * Küçük dosyalar, toplam bellek bütçesi aşılmadığı sürece heap'te tutulur. Eşik değerinden büyük
+ * dosyalar veya bütçeye sığmayanlar geçici bir dizine (ya da isteğe bağlı olarak heap dışı
+ * tamponlara) aktarılır. İndirilmeyen dosyalar TTL süresi dolunca arka planda silinir; toplam
+ * boyut sınırı aşıldığında ise en eski dosyalar çıkarılır.
+ * <p>
+ * Depo içerik adreslidir: her indirme kimliği, içeriğin SHA-256 özetiyle anahtarlanan ve referans sayılan
+ * paylaşımlı bir kayda işaret eder. Aynı içerik (örn. tekrar denenen bir iş) ikinci kez kaydedildiğinde yeni
+ * bir kimlik döner ama bellek veya disk ikinci kez kullanılmaz; içerik son kimlik de silindiğinde serbest kalır.
+ * Bütçe hesabı kayıt başınadır.
  */
 @Service
 public class FileStorageService {
 
+    private static final Logger logger = LoggerFactory.getLogger(FileStorageService.class);
+
+    enum SpillMode { DISK, OFFHEAP }
+
+    @FunctionalInterface
+    public interface ContentWriter {
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    /**
+     * Depodaki bir dosyaya, dosyayı silmeden erişim sağlayan tutamaç.
+     * İndirme endpoint'i bu tutamaçla dosyayı parça parça (Range) gönderebilir. Tutamaç açık kaldığı sürece
+     * içerik silinmez (süre dolsa, bütçe aşılsa veya başka bir istek indirmeyi tamamlasa bile); bu yüzden
+     * aktarım bitince {@link #close()} çağrılmalıdır.
+     */
+    public interface StoredFile extends AutoCloseable {
+        long size();
+
+        /**
+         * İçeriğin SHA-256 özeti; güçlü ETag olarak kullanılır.
+         */
+        String etag();
+
+        /**
+         * İçeriğin [position, position + count) aralığını hedef kanala yazar. Dosya diskteyse
+         * FileChannel.transferTo kullanılır; içerik heap'e kopyalanmaz.
+         */
+        void transferTo(long position, long count, WritableByteChannel target) throws IOException;
+
+        /**
+         * İçeriği bırakır; indirme kimliği silindiyse ve başka tutamaç yoksa içerik şimdi silinir.
+         */
+        @Override
+        void close();
+    }
+
     // Eş zamanlı erişime uygun, thread-safe bir Map kullanarak dosyaları saklar.
-    // Key: Benzersiz dosya ID'si (UUID), Value: Dosyanın byte içeriği
-    private final Map<String, byte[]> temporaryStorage = new ConcurrentHashMap<>();
+    // Key: Benzersiz dosya ID'si (UUID), Value: Paylaşımlı içeriğe referans ve süresi
+    private final Map<String, FileRef> temporaryStorage = new ConcurrentHashMap<>();
+    // Key: İçeriğin SHA-256 özeti, Value: İçeriğin saklandığı yer. Referans sayıları yalnızca bu map'in
+    // compute/merge çağrıları içinde değiştirilir.
+    private final Map<String, StoredEntry> blobs = new ConcurrentHashMap<>();
+
+    private final long maxMemoryBytes;
+    private final long maxTotalBytes;
+    private final long spillThresholdBytes;
+    private final long ttlMillis;
+    private final SpillMode spillMode;
+    private final Path spillDirectory;
+
+    private final AtomicLong residentBytes = new AtomicLong();
+    private final AtomicLong spilledBytes = new AtomicLong();
+    private final AtomicLong expiredCount = new AtomicLong();
+    private final AtomicLong evictedCount = new AtomicLong();
+    private final AtomicLong deduplicatedCount = new AtomicLong();
+    private final AtomicLong sequence = new AtomicLong();
+
+    public FileStorageService(@Value("${cv.storage.max-memory-bytes:134217728}") long maxMemoryBytes,
+                              @Value("${cv.storage.max-total-bytes:1073741824}") long maxTotalBytes,
+                              @Value("${cv.storage.spill-threshold-bytes:4194304}") long spillThresholdBytes,
+                              @Value("${cv.storage.ttl-seconds:900}") long ttlSeconds,
+                              @Value("${cv.storage.spill-mode:disk}") String spillMode,
+                              @Value("${cv.storage.spill-directory:}") String spillDirectory) throws IOException {
+        this.maxMemoryBytes = maxMemoryBytes;
+        this.maxTotalBytes = maxTotalBytes;
+        this.spillThresholdBytes = spillThresholdBytes;
+        this.ttlMillis = ttlSeconds * 1000;
+        this.spillMode = SpillMode.valueOf(spillMode.trim().toUpperCase());
+        this.spillDirectory = spillDirectory.isBlank()
+                ? Files.createTempDirectory("ats-cv-storage-")
+                : Files.createDirectories(Paths.get(spillDirectory));
+        logger.info("Dosya deposu: bellek bütçesi = {} byte, toplam bütçe = {} byte, TTL = {} sn, taşma = {} ({})",
+                maxMemoryBytes, maxTotalBytes, ttlSeconds, this.spillMode, this.spillDirectory);
+    }
 
     /**
-     * Verilen dosya içeriğini hafızaya kaydeder ve ona özel benzersiz bir kimlik (ID) döndürür.
+     * Verilen dosya içeriğini depoya kaydeder ve ona özel benzersiz bir kimlik (ID) döndürür.
      * @param fileContent Saklanacak dosyanın byte dizisi.
      * @return Dosyaya erişim için kullanılacak benzersiz String ID.
      */
     public String saveFile(byte[] fileContent) {
-        String fileId = UUID.randomUUID().toString();
-        temporaryStorage.put(fileId, fileContent);
-        return fileId;
+        String etag = HashUtils.sha256Hex(fileContent);
+        StoredEntry blob = share(etag);
+        return register(blob != null ? blob : add(store(fileContent, etag)));
+    }
+
+    /**
+     * İçeriği bir byte dizisi olarak hazırlamadan, doğrudan depoya yazarak kaydeder (örn. ZİP arşivi).
+     * Yazılan veri eşik değerini aşarsa tamamı belleğe alınmadan geçici dosyaya aktarılır.
+     * @param writer İçeriği verilen akışa yazan fonksiyon. Akışı kapatmasına gerek yoktur.
+     * @return Dosyaya erişim için kullanılacak benzersiz String ID.
+     */
+    public String saveFile(ContentWriter writer) {
+        return saveFile(writeFile(writer));
+    }
+
+    /**
+     * İçeriği depoya yazar ama indirme kimliği oluşturmaz; yazma ile kaydetmenin ayrı aşamalarda ölçülebilmesi
+     * içindir (örn. ZİP arşivi "Dosyalar paketleniyor" aşamasında yazılır, "Dosya indirmeye hazırlanıyor"
+     * aşamasında kaydedilir). Eşik aşılırsa içerik yine tamamı belleğe alınmadan geçici dosyaya aktarılır.
+     * Dönen dosya {@link #saveFile(PendingFile)} ile bir kez kaydedilmelidir.
+     */
+    public PendingFile writeFile(ContentWriter writer) {
+        return new PendingFile(store(writer));
+    }
+
+    /**
+     * {@link #writeFile(ContentWriter)} ile yazılan içeriği kaydeder ve indirme kimliğini döndürür.
+     */
+    public String saveFile(PendingFile pending) {
+        StoredEntry written = pending.take();
+        StoredEntry blob = share(written.etag());
+        if (blob != null) {
+            // İçerik zaten depoda; yeni yazılan kopyaya gerek yok.
+            free(written);
+            return register(blob);
+        }
+        return register(add(written));
     }
 
     /**
-     * Verilen ID'ye sahip dosyayı hafızadan getirir ve ardından siler.
+     * Verilen ID'ye sahip dosyayı depodan getirir ve ardından siler.
      * Bu, her dosyanın sadece bir kez indirilebilmesini sağlar ve hafızayı temiz tutar.
      * @param fileId İndirilmek istenen dosyanın ID'si.
-     * @return Dosyanın byte dizisi veya bulunamazsa null.
+     * @return Dosyanın byte dizisi veya bulunamazsa (ya da süresi dolmuşsa) null.
      */
     public byte[] getFile(String fileId) {
-        return temporaryStorage.remove(fileId);
+        FileRef ref = temporaryStorage.remove(fileId);
+        if (ref == null) {
+            return null;
+        }
+        try {
+            if (ref.isExpired(System.currentTimeMillis())) {
+                expiredCount.incrementAndGet();
+                return null;
+            }
+            return ref.blob.readAllBytes();
+        } finally {
+            release(ref);
+        }
+    }
+
+    /**
+     * Verilen ID'ye sahip dosyayı depodan silmeden açar. Gönderilen her aralık
+     * {@link #recordDelivered(String, StoredFile, long, long)} ile bildirilmelidir; dosya tamamı gönderilince silinir.
+     * İçerik, dönen tutamaç kapatılana kadar silinmez; tutamaç try-with-resources ile kullanılmalıdır.
+     * @param fileId İndirilmek istenen dosyanın ID'si.
+     * @return Dosya bulunamazsa veya süresi dolmuşsa boş.
+     */
+    public Optional<StoredFile> openFile(String fileId) {
+        FileRef ref = findRef(fileId);
+        // Kimlik bu arada silinip içerik serbest bırakıldıysa dosya bulunamamış sayılır.
+        if (ref == null || !pin(ref.blob)) {
+            return Optional.empty();
+        }
+        return Optional.of(new OpenedFile(ref));
+    }
+
+    /**
+     * Dosyanın boyutunu, dosyayı açmadan döndürür (örn. metrikler için).
+     * @return Dosya bulunamazsa veya süresi dolmuşsa boş.
+     */
+    public OptionalLong fileSize(String fileId) {
+        FileRef ref = findRef(fileId);
+        return ref == null ? OptionalLong.empty() : OptionalLong.of(ref.blob.size());
+    }
+
+    /**
+     * İstemciye eksiksiz gönderilen [start, end] aralığını kaydeder. Kimliğe gönderilen aralıklar dosyanın
+     * tamamını kapsadığında dosya depodan silinir; sıra önemli değildir (örn. önce son parça, sonra baştaki parçalar).
+     * Böylece tek seferlik indirme davranışı, yarıda kalan veya parçalı indirmelere izin verirken korunur.
+     * @return Dosya bu çağrıyla silindiyse true.
+     */
+    public boolean recordDelivered(String fileId, StoredFile file, long start, long end) {
+        if (file instanceof OpenedFile opened && opened.ref.deliver(start, end)) {
+            return completeDownload(fileId, file);
+        }
+        return false;
+    }
+
+    /**
+     * Dosyanın tamamı istemciye ulaştığında çağrılır ve dosyayı depodan siler.
+     * @return Dosya bu çağrıyla silindiyse true; başka bir istek daha önce sildiyse false.
+     */
+    public boolean completeDownload(String fileId, StoredFile file) {
+        if (file instanceof OpenedFile opened && temporaryStorage.remove(fileId, opened.ref)) {
+            release(opened.ref);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Süresi dolan, indirilmemiş dosyaları periyodik olarak siler.
+     */
+    @Scheduled(fixedDelayString = "${cv.storage.expiry-interval-ms:60000}")
+    public void expireEntries() {
+        long now = System.currentTimeMillis();
+        temporaryStorage.forEach((fileId, ref) -> {
+            if (ref.isExpired(now) && temporaryStorage.remove(fileId, ref)) {
+                release(ref);
+                expiredCount.incrementAndGet();
+                logger.info("İndirilmeyen dosyanın süresi doldu ve silindi: {}", fileId);
+            }
+        });
+    }
+
+    public StorageStatsDto stats() {
+        return new StorageStatsDto(
+                temporaryStorage.size(),
+                residentBytes.get(),
+                spilledBytes.get(),
+                maxMemoryBytes,
+                maxTotalBytes,
+                expiredCount.get(),
+                evictedCount.get(),
+                blobs.size(),
+                deduplicatedCount.get()
+        );
+    }
+
+    /**
+     * Yeni bir indirme kimliği oluşturup paylaşımlı içeriğe bağlar.
+     */
+    private String register(StoredEntry blob) {
+        String fileId = UUID.randomUUID().toString();
+        temporaryStorage.put(fileId, new FileRef(blob, sequence.incrementAndGet(), System.currentTimeMillis() + ttlMillis));
+        enforceTotalBudget(fileId);
+        return fileId;
+    }
+
+    /**
+     * Aynı özete sahip içerik depoda varsa referans sayısını artırıp onu döndürür.
+     * @return Paylaşılan içerik veya içerik depoda yoksa null.
+     */
+    private StoredEntry share(String etag) {
+        StoredEntry shared = blobs.computeIfPresent(etag, (key, existing) -> {
+            existing.references++;
+            return existing;
+        });
+        if (shared != null) {
+            deduplicatedCount.incrementAndGet();
+        }
+        return shared;
+    }
+
+    /**
+     * Yeni içeriği ekler. Aynı içerik bu arada eş zamanlı olarak eklendiyse yarışı kaybeden kopya serbest
+     * bırakılır ve depodaki paylaşılır.
+     */
+    private StoredEntry add(StoredEntry created) {
+        created.references = 1;
+        String etag = created.etag();
+        StoredEntry winner = blobs.merge(etag, created, (existing, ignored) -> {
+            existing.references++;
+            return existing;
+        });
+        if (winner != created) {
+            deduplicatedCount.incrementAndGet();
+            free(created);
+        }
+        return winner;
+    }
+
+    private StoredEntry store(byte[] content, String etag) {
+        if (content.length <= spillThresholdBytes && reserveResident(content.length)) {
+            return new InMemoryEntry(content, etag);
+        }
+        return spill(content, etag);
+    }
+
+    private StoredEntry store(ContentWriter writer) {
+        MessageDigest digest = HashUtils.newSha256();
+        SpillingOutputStream out = new SpillingOutputStream();
+        try (DigestOutputStream digestOut = new DigestOutputStream(out, digest)) {
+            writer.writeTo(digestOut);
+        } catch (IOException e) {
+            out.discard();
+            throw new UncheckedIOException("Dosya depoya yazılamadı.", e);
+        } catch (RuntimeException e) {
+            out.discard();
+            throw e;
+        }
+        String etag = HexFormat.of().formatHex(digest.digest());
+        if (out.file != null) {
+            spilledBytes.addAndGet(out.size);
+            return new DiskEntry(out.file, out.size, etag);
+        }
+        byte[] content = out.buffer.toByteArray();
+        if (reserveResident(content.length)) {
+            return new InMemoryEntry(content, etag);
+        }
+        return spill(content, etag);
+    }
+
+    private StoredEntry spill(byte[] content, String etag) {
+        spilledBytes.addAndGet(content.length);
+        if (spillMode == SpillMode.OFFHEAP) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(content.length);
+            buffer.put(content).flip();
+            return new OffHeapEntry(buffer, etag);
+        }
+        try {
+            Path file = Files.createTempFile(spillDirectory, "cv-", ".bin");
+            Files.write(file, content);
+            return new DiskEntry(file, content.length, etag);
+        } catch (IOException e) {
+            spilledBytes.addAndGet(-content.length);
+            throw new UncheckedIOException("Dosya geçici dizine yazılamadı.", e);
+        }
+    }
+
+    private boolean reserveResident(long size) {
+        while (true) {
+            long current = residentBytes.get();
+            if (current + size > maxMemoryBytes) {
+                return false;
+            }
+            if (residentBytes.compareAndSet(current, current + size)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * İndirme kimliğinin içeriğe olan referansını bırakır; son referanssa içerik serbest kalır.
+     */
+    /**
+     * Süresi dolmamış kaydı döndürür; süresi dolmuşsa kaydı siler.
+     */
+    private FileRef findRef(String fileId) {
+        FileRef ref = temporaryStorage.get(fileId);
+        if (ref == null) {
+            return null;
+        }
+        if (ref.isExpired(System.currentTimeMillis())) {
+            if (temporaryStorage.remove(fileId, ref)) {
+                release(ref);
+                expiredCount.incrementAndGet();
+            }
+            return null;
+        }
+        return ref;
+    }
+
+    /**
+     * Açık bir tutamaç için içeriğin referans sayısını artırır.
+     * @return İçerik hâlâ depodaysa true; son referansı bu arada bırakıldıysa false.
+     */
+    private boolean pin(StoredEntry blob) {
+        return blobs.computeIfPresent(blob.etag(), (key, existing) -> {
+            if (existing == blob) {
+                existing.references++;
+            }
+            return existing;
+        }) == blob;
+    }
+
+    private void release(FileRef ref) {
+        release(ref.blob);
+    }
+
+    private void release(StoredEntry blob) {
+        boolean[] last = new boolean[1];
+        blobs.computeIfPresent(blob.etag(), (key, existing) -> {
+            if (existing != blob || --existing.references > 0) {
+                return existing;
+            }
+            last[0] = true;
+            return null;
+        });
+        if (last[0]) {
+            free(blob);
+        }
+    }
+
+    private void free(StoredEntry entry) {
+        if (entry instanceof InMemoryEntry) {
+            residentBytes.addAndGet(-entry.size());
+        } else {
+            spilledBytes.addAndGet(-entry.size());
+        }
+        entry.discard();
+    }
+
+    /**
+     * Toplam boyut bütçesi aşıldıysa, yeni eklenen dosya dışındaki en eski dosyaları çıkarır.
+     */
+    private void enforceTotalBudget(String newFileId) {
+        if (residentBytes.get() + spilledBytes.get() <= maxTotalBytes) {
+            return;
+        }
+        temporaryStorage.entrySet().stream()
+                .filter(e -> !e.getKey().equals(newFileId))
+                .sorted(Comparator.comparingLong(e -> e.getValue().order))
+                .takeWhile(e -> residentBytes.get() + spilledBytes.get() > maxTotalBytes)
+                .forEach(e -> {
+                    if (temporaryStorage.remove(e.getKey(), e.getValue())) {
+                        release(e.getValue());
+                        evictedCount.incrementAndGet();
+                        logger.warn("Depolama bütçesi aşıldı, indirilmemiş dosya çıkarıldı: {}", e.getKey());
+                    }
+                });
+    }
+
+    @PreDestroy
+    public void cleanUp() {
+        temporaryStorage.clear();
+        blobs.values().forEach(StoredEntry::discard);
+        blobs.clear();
+    }
+
+    /**
+     * Depoya yazılmış ama henüz indirme kimliği almamış içerik. Yalnızca bir kez kaydedilebilir.
+     */
+    public static final class PendingFile {
+        private StoredEntry entry;
+
+        private PendingFile(StoredEntry entry) {
+            this.entry = entry;
+        }
+
+        private synchronized StoredEntry take() {
+            if (entry == null) {
+                throw new IllegalStateException("Dosya zaten kaydedildi.");
+            }
+            StoredEntry taken = entry;
+            entry = null;
+            return taken;
+        }
+    }
+
+    /**
+     * Bir indirme kimliğinin paylaşımlı içeriğe olan referansı. Süre ve kayıt sırası kimlik başınadır.
+     */
+    private static final class FileRef {
+        private final StoredEntry blob;
+        // Kayıt sırası; bütçe aşıldığında en eski dosyayı bulmak için kullanılır.
+        private final long order;
+        private final long expiresAt;
+        // İstemciye gönderilen, birbirine değmeyen aralıklar. Key: ilk byte, Value: son byte (dahil)
+        private final NavigableMap<Long, Long> delivered = new TreeMap<>();
+
+        FileRef(StoredEntry blob, long order, long expiresAt) {
+            this.blob = blob;
+            this.order = order;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isExpired(long now) { return now >= expiresAt; }
+
+        /**
+         * Aralığı gönderilmişler listesine, komşu ve çakışan aralıklarla birleştirerek ekler.
+         * @return Gönderilen aralıklar artık dosyanın tamamını kapsıyorsa true.
+         */
+        synchronized boolean deliver(long start, long end) {
+            Map.Entry<Long, Long> previous = delivered.floorEntry(start);
+            if (previous != null && previous.getValue() >= start - 1) {
+                start = previous.getKey();
+                end = Math.max(end, previous.getValue());
+            }
+            for (Map.Entry<Long, Long> next = delivered.ceilingEntry(start);
+                 next != null && next.getKey() <= end + 1;
+                 next = delivered.ceilingEntry(start)) {
+                end = Math.max(end, next.getValue());
+                delivered.remove(next.getKey());
+            }
+            delivered.put(start, end);
+            return start == 0 && end >= blob.size() - 1;
+        }
+    }
+
+    /**
+     * {@link #openFile(String)} ile açılan tutamaç. İçeriğe bir referans tutar; kapatılınca bırakır.
+     */
+    private final class OpenedFile implements StoredFile {
+        private final FileRef ref;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        OpenedFile(FileRef ref) {
+            this.ref = ref;
+        }
+
+        @Override public long size() { return ref.blob.size(); }
+
+        @Override public String etag() { return ref.blob.etag(); }
+
+        @Override
+        public void transferTo(long position, long count, WritableByteChannel target) throws IOException {
+            ref.blob.transferTo(position, count, target);
+        }
+
+        @Override
+        public void close() {
+            if (closed.compareAndSet(false, true)) {
+                release(ref.blob);
+            }
+        }
+    }
+
+    /**
+     * Depodaki tek bir içerik. İçeriğin nerede tutulduğu (heap, disk, heap dışı) alt sınıflarda belirlenir.
+     */
+    private abstract static class StoredEntry {
+        private final String etag;
+        // Bu içeriğe işaret eden indirme kimliği sayısı; yalnızca blobs map'inin compute/merge çağrılarında değişir.
+        private int references;
+
+        StoredEntry(String etag) {
+            this.etag = etag;
+        }
+
+        String etag() { return etag; }
+
+        abstract long size();
+
+        abstract void transferTo(long position, long count, WritableByteChannel target) throws IOException;
+
+        abstract byte[] readAllBytes();
+
+        void discard() {
+        }
+    }
+
+    private static final class InMemoryEntry extends StoredEntry {
+        private final byte[] content;
+
+        InMemoryEntry(byte[] content, String etag) {
+            super(etag);
+            this.content = content;
+        }
+
+        @Override long size() { return content.length; }
+
+        @Override byte[] readAllBytes() { return content; }
+
+        @Override
+        void transferTo(long position, long count, WritableByteChannel target) throws IOException {
+            writeFully(ByteBuffer.wrap(content, (int) position, (int) count), target);
+        }
+    }
+
+    private static final class OffHeapEntry extends StoredEntry {
+        private final ByteBuffer buffer;
+
+        OffHeapEntry(ByteBuffer buffer, String etag) {
+            super(etag);
+            this.buffer = buffer;
+        }
+
+        @Override long size() { return buffer.capacity(); }
+
+        @Override
+        void transferTo(long position, long count, WritableByteChannel target) throws IOException {
+            ByteBuffer slice = buffer.duplicate();
+            slice.limit((int) (position + count)).position((int) position);
+            writeFully(slice, target);
+        }
+
+        @Override
+        byte[] readAllBytes() {
+            byte[] content = new byte[buffer.capacity()];
+            buffer.duplicate().get(content);
+            return content;
+        }
+        // Heap dışı tampon, referansı kalmadığında GC tarafından serbest bırakılır.
+    }
+
+    private static final class DiskEntry extends StoredEntry {
+        private final Path file;
+        private final long size;
+
+        DiskEntry(Path file, long size, String etag) {
+            super(etag);
+            this.file = file;
+            this.size = size;
+        }
+
+        @Override long size() { return size; }
+
+        @Override
+        void transferTo(long position, long count, WritableByteChannel target) throws IOException {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                long transferred = 0;
+                while (transferred < count) {
+                    long written = channel.transferTo(position + transferred, count - transferred, target);
+                    if (written <= 0 && position + transferred >= channel.size()) {
+                        throw new EOFException("Geçici dosya beklenenden kısa: " + file);
+                    }
+                    transferred += written;
+                }
+            }
+        }
+
+        @Override
+        byte[] readAllBytes() {
+            try {
+                return Files.readAllBytes(file);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Geçici dosya okunamadı.", e);
+            }
+        }
+
+        @Override
+        void discard() {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                logger.warn("Geçici dosya silinemedi: {}", file, e);
+            }
+        }
+    }
+
+    private static void writeFully(ByteBuffer source, WritableByteChannel target) throws IOException {
+        while (source.hasRemaining()) {
+            target.write(source);
+        }
+    }
+
+    /**
+     * Eşik değerine kadar belleğe, eşik aşıldığında ise geçici dosyaya yazan akış.
+     */
+    private final class SpillingOutputStream extends OutputStream {
+        private ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        private OutputStream fileOut;
+        private Path file;
+        private long size;
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            if (fileOut == null && size + length > spillThresholdBytes) {
+                file = Files.createTempFile(spillDirectory, "cv-", ".bin");
+                fileOut = new BufferedOutputStream(Files.newOutputStream(file), 64 * 1024);
+                buffer.writeTo(fileOut);
+                buffer = null;
+            }
+            if (fileOut != null) {
+                fileOut.write(bytes, offset, length);
+            } else {
+                buffer.write(bytes, offset, length);
+            }
+            size += length;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (fileOut != null) {
+                fileOut.close();
+            }
+        }
+
+        void discard() {
+            try {
+                close();
+                if (file != null) {
+                    Files.deleteIfExists(file);
+                }
+            } catch (IOException e) {
+                logger.warn("Yarım kalan geçici dosya silinemedi: {}", file, e);
+            }
+        }
     }
-}
\ No newline at end of file
+}
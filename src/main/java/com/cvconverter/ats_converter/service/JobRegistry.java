@@ -0,0 +1,276 @@
+package com.cvconverter.ats_converter.service;
+
+import com.cvconverter.ats_converter.dto.JobStatusDto;
+import com.cvconverter.ats_converter.dto.ProgressUpdate;
+import com.cvconverter.ats_converter.dto.StageUpdate;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Arka planda çalışan dönüştürme işlerinin kaydı. Her iş bir kimlik, durum, gönderilen olayların
+ * geçmişi ve sonucu (indirme kimliği) ile saklanır.
+ * <p>
+ * İşin ömrü HTTP bağlantısına bağlı değildir: tarayıcının bağlantısı koparsa iş çalışmaya devam eder.
+ * İstemci {@code Last-Event-ID} ile yeniden bağlandığında kaçırdığı olaylar geçmişten tekrar gönderilir;
+ * bağlantı kurmadan durum sorgulamak da mümkündür. Biten işler {@code cv.jobs.retention-seconds} sonra silinir.
+ */
+@Service
+public class JobRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(JobRegistry.class);
+
+    public enum JobState { QUEUED, RUNNING, SUCCEEDED, FAILED }
+
+    /**
+     * Yeniden bağlanan istemcinin kaçırdığı olaylardan bazıları {@code cv.jobs.max-events-per-job} sınırı
+     * yüzünden geçmişten atıldığında gönderilen olayın aşama adı.
+     */
+    public static final String HISTORY_TRUNCATED = "HISTORY_TRUNCATED";
+
+    /**
+     * Geçmişte saklanan tek bir SSE olayı; {@code data} istemciye gönderilen JSON'dur. {@code progress}
+     * olayları yavaş istemcilere gönderilirken bir sonraki ilerleme olayıyla birleştirilebilir.
+     */
+    record JobEvent(long id, String data, boolean progress) {
+    }
+
+    private final ConcurrentMap<String, Job> jobs = new ConcurrentHashMap<>();
+    private final ObjectMapper objectMapper;
+    private final long retentionMillis;
+    private final int maxEventsPerJob;
+
+    public JobRegistry(ObjectMapper objectMapper,
+                       @Value("${cv.jobs.retention-seconds:900}") long retentionSeconds,
+                       @Value("${cv.jobs.max-events-per-job:5000}") int maxEventsPerJob) {
+        this.objectMapper = objectMapper;
+        this.retentionMillis = retentionSeconds * 1000;
+        this.maxEventsPerJob = maxEventsPerJob;
+    }
+
+    /**
+     * Yeni bir iş kaydı oluşturur.
+     * @param type İşin türü ("cv" veya "batch"); durum sorgusunda gösterilir.
+     */
+    public Job create(String type) {
+        Job job = new Job(UUID.randomUUID().toString(), type);
+        jobs.put(job.getId(), job);
+        return job;
+    }
+
+    public Optional<Job> find(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+
+    /**
+     * Hiç başlatılamayan (örn. executor dolu olduğu için reddedilen) bir işi kayıttan siler.
+     */
+    public void remove(Job job) {
+        jobs.remove(job.getId(), job);
+    }
+
+    public long activeJobCount() {
+        return jobs.values().stream().filter(job -> !job.isFinished()).count();
+    }
+
+    /**
+     * Saklama süresi dolan biten işleri periyodik olarak siler. Çalışan işler silinmez.
+     */
+    @Scheduled(fixedDelayString = "${cv.jobs.expiry-interval-ms:60000}")
+    public void expireJobs() {
+        long now = System.currentTimeMillis();
+        jobs.forEach((jobId, job) -> {
+            if (job.isExpired(now, retentionMillis) && jobs.remove(jobId, job)) {
+                logger.debug("Biten işin saklama süresi doldu ve silindi: {}", jobId);
+            }
+        });
+    }
+
+    /**
+     * Tek bir dönüştürme işi. Olay ekleme, aboneliğe başlama ve bitirme aynı kilit altında yapılır;
+     * böylece yeniden bağlanan bir istemci hiçbir olayı kaçırmaz ve hiçbirini iki kez almaz. Olaylar
+     * bağlantıların kuyruğuna bırakılır; kilit, yavaş bir istemcinin soketinde beklemez.
+     */
+    public final class Job {
+
+        private final String id;
+        private final String type;
+        private final Instant createdAt = Instant.now();
+        private final Deque<JobEvent> events = new ArrayDeque<>();
+        private final List<SseEventDispatcher.Connection> subscribers = new ArrayList<>();
+
+        private JobState state = JobState.QUEUED;
+        private String stage;
+        private String message;
+        private String fileId;
+        private String fileName;
+        private long lastEventId;
+        private Instant updatedAt = createdAt;
+
+        private Job(String id, String type) {
+            this.id = id;
+            this.type = type;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        /**
+         * Olayı geçmişe ekler ve bağlı tüm istemcilere gönderir. Bağlantısı kapanan istemcinin aboneliği
+         * sonlandırılır; iş çalışmaya devam eder.
+         */
+        public synchronized void publish(StageUpdate update) {
+            publish(update, false);
+        }
+
+        /**
+         * Yalnızca en güncel hali önemli olan bir ilerleme olayı yayımlar (aşama değişimi, tekrar deneme,
+         * işlenen CV bölümü...). Olay geçmişe eklenir; ancak istemci henüz önceki ilerleme olayını almadıysa
+         * ona sadece bu olay gönderilir.
+         */
+        public synchronized void publishProgress(StageUpdate update) {
+            publish(update, true);
+        }
+
+        private void publish(StageUpdate update, boolean progress) {
+            if (isFinished()) {
+                return;
+            }
+            if (state == JobState.QUEUED) {
+                state = JobState.RUNNING;
+            }
+            append(update, progress);
+        }
+
+        /**
+         * İşi başarıyla bitirir ve bağlı istemcilerin bağlantısını kapatır.
+         */
+        public synchronized void succeed(String fileId, String fileName) {
+            this.fileId = fileId;
+            this.fileName = fileName;
+            finish(JobState.SUCCEEDED);
+        }
+
+        /**
+         * Hata olayını gönderir, işi başarısız olarak bitirir ve bağlı istemcilerin bağlantısını kapatır.
+         */
+        public synchronized void fail(StageUpdate errorUpdate) {
+            if (isFinished()) {
+                return;
+            }
+            append(errorUpdate, false);
+            finish(JobState.FAILED);
+        }
+
+        public synchronized boolean isFinished() {
+            return state == JobState.SUCCEEDED || state == JobState.FAILED;
+        }
+
+        public synchronized JobStatusDto status() {
+            return new JobStatusDto(id, type, state.name(), stage, message, fileId, fileName, lastEventId, createdAt, updatedAt);
+        }
+
+        /**
+         * İstemciyi işe bağlar: {@code lastEventId}'den sonraki olaylar geçmişten gönderilir, ardından yeni
+         * olaylar geldikçe iletilir. İş zaten bittiyse geçmiş gönderildikten sonra bağlantı kapatılır.
+         * İstemcinin kaçırdığı olayların bir kısmı geçmiş sınırı yüzünden atıldıysa önce bir
+         * {@value #HISTORY_TRUNCATED} olayı gönderilir; böylece istemci ön yazı parçalarından birleştirdiği
+         * metnin eksik olduğunu bilir.
+         */
+        public synchronized void subscribe(SseEventDispatcher.Connection connection, long lastEventId) {
+            JobEvent oldest = events.peekFirst();
+            if (oldest != null && lastEventId < oldest.id() - 1 && !send(connection, truncated(oldest.id() - 1))) {
+                return;
+            }
+            for (JobEvent event : events) {
+                if (event.id() > lastEventId && !send(connection, event)) {
+                    return;
+                }
+            }
+            if (isFinished()) {
+                connection.complete();
+                return;
+            }
+            subscribers.add(connection);
+            connection.onClose(() -> unsubscribe(connection));
+        }
+
+        private synchronized void unsubscribe(SseEventDispatcher.Connection connection) {
+            subscribers.remove(connection);
+        }
+
+        synchronized boolean isExpired(long nowMillis, long retentionMillis) {
+            return isFinished() && nowMillis - updatedAt.toEpochMilli() > retentionMillis;
+        }
+
+        synchronized List<JobEvent> events() {
+            return List.copyOf(events);
+        }
+
+        private void append(StageUpdate update, boolean progress) {
+            String data;
+            try {
+                data = objectMapper.writeValueAsString(update);
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Durum güncellemesi JSON'a çevrilemedi.", e);
+            }
+            JobEvent event = new JobEvent(++lastEventId, data, progress);
+            events.addLast(event);
+            // Çok uzun işlerde (örn. ön yazı parçaları) bellek sınırlı kalsın diye en eski olaylar atılır;
+            // bunları kaçıran istemciye yeniden bağlandığında HISTORY_TRUNCATED gönderilir.
+            if (events.size() > maxEventsPerJob) {
+                events.removeFirst();
+            }
+            stage = update.getStage();
+            message = update.getMessage();
+            updatedAt = Instant.now();
+            for (SseEventDispatcher.Connection connection : List.copyOf(subscribers)) {
+                if (!send(connection, event)) {
+                    subscribers.remove(connection);
+                }
+            }
+        }
+
+        private void finish(JobState finalState) {
+            state = finalState;
+            updatedAt = Instant.now();
+            // Bağlantılar kuyruklarındaki son olaylar (DOWNLOAD_READY veya ERROR) yazıldıktan sonra kapanır.
+            List<SseEventDispatcher.Connection> connected = List.copyOf(subscribers);
+            subscribers.clear();
+            connected.forEach(SseEventDispatcher.Connection::complete);
+        }
+
+        private JobEvent truncated(long lastDroppedEventId) {
+            ProgressUpdate update = new ProgressUpdate(HISTORY_TRUNCATED,
+                    "Bağlantı koptuğu sırada gönderilen bazı olaylar artık saklanmıyor; ön yazı metni eksik olabilir, "
+                            + "tam hali indirilen dosyadadır.", String.valueOf(lastDroppedEventId));
+            try {
+                // Kimliği atılan son olayınkidir; istemci bir sonraki bağlantıda bu olayı tekrar almaz.
+                return new JobEvent(lastDroppedEventId, objectMapper.writeValueAsString(update), false);
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Durum güncellemesi JSON'a çevrilemedi.", e);
+            }
+        }
+
+        private static boolean send(SseEventDispatcher.Connection connection, JobEvent event) {
+            SseEmitter.SseEventBuilder sseEvent = SseEmitter.event().id(String.valueOf(event.id())).data(event.data());
+            return event.progress() ? connection.sendProgress(sseEvent) : connection.send(sseEvent);
+        }
+    }
+}
@@ -0,0 +1,512 @@
+package com.cvconverter.ats_converter.service;
+
+import com.cvconverter.ats_converter.dto.CvDataDto;
+import com.cvconverter.ats_converter.dto.EducationDto;
+import com.cvconverter.ats_converter.dto.ExperienceDto;
+import com.cvconverter.ats_converter.dto.PersonalInfoDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * CV metnini yapay zekaya gitmeden, kurallarla CvDataDto'ya dönüştüren yerel ayrıştırıcı.
+ * <p>
+ * Bölüm başlıkları ("Deneyim", "Eğitim", "Yetenekler", "Experience" ...) bulunur; e-posta ve telefon
+ * düzenli ifadelerle, iş ve eğitim kayıtları tarih aralıkları etrafında gruplanarak çıkarılır. Sonuç bir
+ * güven skoru (0.0 - 1.0) ile döner: skor {@code cv.local-parser.min-confidence} değerini geçerse Gemini
+ * çağrısı hiç yapılmaz; Gemini'ye ulaşılamadığında ise {@code cv.local-parser.fallback-min-confidence}
+ * üzerindeki sonuçlar yedek olarak kullanılır.
+ */
+@Component
+public class LocalCvParser {
+
+    private static final Logger logger = LoggerFactory.getLogger(LocalCvParser.class);
+
+    /**
+     * Ayrıştırılan CV ve alanların ne kadarının güvenilir şekilde bulunduğunu gösteren skor.
+     */
+    public record ParseResult(CvDataDto cvData, double confidence) {
+    }
+
+    enum Section { PREAMBLE, EXPERIENCE, EDUCATION, SKILLS, OTHER }
+
+    // Başlıklar Türkçe karakterleri sadeleştirilmiş ve küçük harfe çevrilmiş halleriyle karşılaştırılır (bkz. fold).
+    private static final Map<String, Section> HEADINGS = new LinkedHashMap<>();
+
+    static {
+        for (String heading : List.of("deneyim", "deneyimler", "is deneyimi", "is deneyimleri", "tecrube", "tecrubeler",
+                "is tecrubesi", "profesyonel deneyim", "calisma gecmisi", "experience", "work experience",
+                "professional experience", "employment history", "work history")) {
+            HEADINGS.put(heading, Section.EXPERIENCE);
+        }
+        for (String heading : List.of("egitim", "egitim bilgileri", "egitim bilgisi", "ogrenim", "ogrenim bilgileri",
+                "education", "academic background", "educational background")) {
+            HEADINGS.put(heading, Section.EDUCATION);
+        }
+        for (String heading : List.of("yetenekler", "beceriler", "yetkinlikler", "teknik beceriler", "teknik yetenekler",
+                "teknolojiler", "skills", "technical skills", "core competencies", "competencies")) {
+            HEADINGS.put(heading, Section.SKILLS);
+        }
+        for (String heading : List.of("hakkimda", "ozet", "profil", "kariyer hedefi", "iletisim", "kisisel bilgiler",
+                "diller", "yabanci diller", "sertifikalar", "projeler", "referanslar", "hobiler", "ilgi alanlari",
+                "oduller", "gonullu calismalar", "kurslar", "summary", "profile", "about me", "objective", "contact",
+                "personal information", "languages", "certifications", "certificates", "projects", "references",
+                "interests", "hobbies", "awards", "volunteering", "courses")) {
+            HEADINGS.put(heading, Section.OTHER);
+        }
+    }
+
+    private static final String MONTH = "(?:ocak|şubat|mart|nisan|mayıs|haziran|temmuz|ağustos|eylül|ekim|kasım|aralık"
+            + "|oca|şub|nis|haz|tem|ağu|eyl|eki|kas|ara"
+            + "|january|february|march|april|may|june|july|august|september|october|november|december"
+            + "|jan|feb|mar|apr|jun|jul|aug|sept|sep|oct|nov|dec)";
+    private static final String DATE_POINT = "(?:" + MONTH + "\\.?\\s+|\\d{1,2}[./])?(?:19|20)\\d{2}";
+    private static final String DATE_END = "(?:" + DATE_POINT
+            + "|günümüz|halen|devam ediyor|hâlâ|hala|şu an|present|current|now|today)";
+    private static final Pattern DATE_RANGE = Pattern.compile(
+            "\\(?\\b" + DATE_POINT + "\\s*(?:[-–—]|to|until)\\s*" + DATE_END + "\\b\\)?",
+            Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+    private static final Pattern YEAR = Pattern.compile("\\b(?:19|20)\\d{2}\\b");
+    private static final Pattern EMAIL = Pattern.compile("[\\w.+-]+@[\\w-]+(?:\\.[\\w-]+)+");
+    private static final Pattern PHONE = Pattern.compile("(?<![\\w])\\+?\\(?\\d[\\d\\s().-]{8,18}\\d(?![\\w])");
+    private static final Pattern NAME = Pattern.compile("\\p{Lu}[\\p{L}'’-]*\\.?(?:\\s+\\p{Lu}[\\p{L}'’-]*\\.?){1,3}");
+    private static final Pattern SEPARATOR = Pattern.compile("\\s+[|–—-]\\s+|\\s*\\|\\s*|\\s+@\\s+|\\s+at\\s+|,\\s+");
+    private static final Pattern SKILL_SEPARATOR = Pattern.compile("\\s*[,;•|·]\\s*");
+    private static final Pattern LABEL = Pattern.compile("^([\\p{L} -]{2,25}):\\s*(.*)$");
+
+    private static final Set<String> COMPANY_WORDS = Set.of("a.s.", "a.s", "ltd", "ltd.", "sti", "sti.", "inc", "inc.",
+            "llc", "gmbh", "corp", "corp.", "corporation", "company", "co.", "holding", "teknoloji", "yazilim",
+            "bankasi", "bank", "group", "grup", "technologies", "solutions", "labs", "ajans", "agency", "studio");
+    private static final Set<String> TITLE_WORDS = Set.of("muhendis", "muhendisi", "gelistirici", "gelistiricisi", "uzman",
+            "uzmani", "yonetici", "yoneticisi", "mudur", "muduru", "stajyer", "analist", "analisti", "danisman",
+            "danismani", "mimar", "mimari", "tasarimci", "tasarimcisi", "direktor", "direktoru", "sorumlu", "sorumlusu",
+            "asistan", "asistani", "teknisyen", "ogretmen", "ogretmeni", "lideri", "engineer", "developer", "manager",
+            "intern", "analyst", "consultant", "lead", "architect", "specialist", "designer", "director", "assistant",
+            "officer", "technician", "teacher", "head", "scientist", "administrator", "programmer", "programci");
+    private static final Set<String> SCHOOL_WORDS = Set.of("universitesi", "university", "lisesi", "lise", "college",
+            "institute", "enstitusu", "fakultesi", "faculty", "akademi", "academy", "school", "okulu", "yuksekokulu");
+    private static final Set<String> DEGREE_WORDS = Set.of("lisans", "onlisans", "doktora", "bachelor", "master",
+            "phd", "ph.d.", "b.sc.", "m.sc.", "bsc", "msc", "mba", "b.a.", "m.a.", "bs", "ms", "associate", "diploma",
+            "yuksek");
+
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final double minConfidence;
+    private final double fallbackMinConfidence;
+
+    public LocalCvParser(ObjectMapper objectMapper,
+                         @Value("${cv.local-parser.enabled:true}") boolean enabled,
+                         @Value("${cv.local-parser.min-confidence:0.85}") double minConfidence,
+                         @Value("${cv.local-parser.fallback-min-confidence:0.4}") double fallbackMinConfidence) {
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.minConfidence = minConfidence;
+        this.fallbackMinConfidence = fallbackMinConfidence;
+    }
+
+    /**
+     * Sonuç, Gemini çağrısının yerine kullanılacak kadar güvenilir mi?
+     */
+    public boolean canReplaceGemini(ParseResult result) {
+        return enabled && result.confidence() >= minConfidence;
+    }
+
+    /**
+     * Gemini'ye ulaşılamadığında sonuç yedek olarak kullanılabilir mi?
+     */
+    public boolean canServeAsFallback(ParseResult result) {
+        return enabled && result.confidence() >= fallbackMinConfidence;
+    }
+
+    /**
+     * Ayrıştırılan CV'yi Gemini'nin döndürdüğü biçimdeki JSON'a çevirir.
+     */
+    public String toJson(CvDataDto cvData) {
+        try {
+            return objectMapper.writeValueAsString(cvData);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Yerel ayrıştırıcının sonucu JSON'a çevrilemedi.", e);
+        }
+    }
+
+    public ParseResult parse(String text) {
+        Map<Section, List<String>> sections = splitSections(text == null ? "" : text);
+
+        PersonalInfoDto personalInfo = parsePersonalInfo(text == null ? "" : text, sections.get(Section.PREAMBLE));
+        List<ExperienceDto> experiences = parseExperiences(sections.get(Section.EXPERIENCE));
+        List<EducationDto> educations = parseEducations(sections.get(Section.EDUCATION));
+        List<String> skills = parseSkills(sections.get(Section.SKILLS));
+
+        CvDataDto cvData = new CvDataDto();
+        cvData.setKisiselBilgiler(personalInfo);
+        cvData.setIsDeneyimleri(experiences);
+        cvData.setEgitimBilgileri(educations);
+        cvData.setYetenekler(skills);
+
+        long educationDateRanges = sections.get(Section.EDUCATION).stream()
+                .filter(line -> findDateRange(line) != null)
+                .count();
+        double confidence = confidence(personalInfo, experiences, educations, educationDateRanges, skills);
+        logger.debug("Yerel ayrıştırıcı: {} deneyim, {} eğitim, {} yetenek, güven = {}",
+                experiences.size(), educations.size(), skills.size(), confidence);
+        return new ParseResult(cvData, confidence);
+    }
+
+    /**
+     * Her alan grubunun ağırlığı: ad %15, e-posta %15, telefon %5, deneyim %30, eğitim %20, yetenekler %15.
+     * <p>
+     * Skor alanların dolu olmasını değil, doğru olduklarına dair kanıtı ölçer. Unvan, şirket ve derece yalnızca
+     * kelime listeleriyle doğrulandıysa puan alır; listeler eşleşmediği için sıradaki parça olarak seçilen
+     * (konumdan tahmin edilen) alanlar yer değiştirmiş olabilir ve puan almaz. Deneyim ve eğitim puanı en zayıf
+     * kayda göre verilir: tek bir yanlış kayıt da Gemini'nin yerine geçmemelidir. Eğitim bölümünde kayıttan fazla
+     * tarih aralığı varsa okulu tanınmayan bir kayıt öncekine karışmış demektir; eğitim puanı buna göre düşer.
+     */
+    private static double confidence(PersonalInfoDto personalInfo, List<ExperienceDto> experiences,
+                                     List<EducationDto> educations, long educationDateRanges, List<String> skills) {
+        double experienceScore = experiences.stream()
+                .mapToDouble(e -> (verified(e.getUnvan(), TITLE_WORDS) + verified(e.getSirket(), COMPANY_WORDS)
+                        + filled(e.getTarihler())) / 3.0)
+                .min().orElse(0);
+        double educationScore = educations.stream()
+                .mapToDouble(e -> (verified(e.getOkul(), SCHOOL_WORDS) + filled(e.getTarihler())
+                        + (verified(e.getDerece(), DEGREE_WORDS) == 1 ? 1 : 0.5 * filled(e.getBolum()))) / 3.0)
+                .min().orElse(0);
+        if (educationDateRanges > educations.size()) {
+            educationScore *= (double) educations.size() / educationDateRanges;
+        }
+        double score = 0.15 * filled(personalInfo.getIsim())
+                + 0.15 * filled(personalInfo.getEmail())
+                + 0.05 * filled(personalInfo.getTelefon())
+                + 0.30 * experienceScore
+                + 0.20 * educationScore
+                + 0.15 * Math.min(1.0, skills.size() / 3.0);
+        return Math.round(score * 100) / 100.0;
+    }
+
+    private static int verified(String value, Set<String> words) {
+        return filled(value) == 1 && containsAny(value, words) ? 1 : 0;
+    }
+
+    private static int filled(String value) {
+        return value == null || value.isBlank() ? 0 : 1;
+    }
+
+    private static Map<Section, List<String>> splitSections(String text) {
+        Map<Section, List<String>> sections = new EnumMap<>(Section.class);
+        for (Section section : Section.values()) {
+            sections.put(section, new ArrayList<>());
+        }
+        Section current = Section.PREAMBLE;
+        for (String rawLine : text.split("\\R")) {
+            String line = rawLine.strip();
+            if (line.isEmpty()) {
+                continue;
+            }
+            Section heading = HEADINGS.get(fold(stripTrailingColon(line)));
+            if (heading != null && line.length() <= 40) {
+                current = heading;
+                continue;
+            }
+            // "Yetenekler: Java, Spring" gibi başlık ve içeriğin aynı satırda olduğu durum.
+            Matcher label = LABEL.matcher(line);
+            if (label.matches() && HEADINGS.containsKey(fold(label.group(1).strip()))) {
+                current = HEADINGS.get(fold(label.group(1).strip()));
+                if (!label.group(2).isBlank()) {
+                    sections.get(current).add(label.group(2).strip());
+                }
+                continue;
+            }
+            sections.get(current).add(line);
+        }
+        return sections;
+    }
+
+    private static PersonalInfoDto parsePersonalInfo(String text, List<String> preamble) {
+        PersonalInfoDto personalInfo = new PersonalInfoDto();
+        personalInfo.setIsim("");
+        personalInfo.setEmail("");
+        personalInfo.setTelefon("");
+        personalInfo.setAdres("");
+
+        Matcher email = EMAIL.matcher(text);
+        if (email.find()) {
+            personalInfo.setEmail(email.group());
+        }
+        Matcher phone = PHONE.matcher(text);
+        while (phone.find()) {
+            String candidate = phone.group().strip();
+            long digits = candidate.chars().filter(Character::isDigit).count();
+            // Tarih aralıkları ("2019 - 2021") telefon sanılmasın diye en az 10 rakam aranır.
+            if (digits >= 10 && digits <= 15 && findDateRange(candidate) == null) {
+                personalInfo.setTelefon(candidate);
+                break;
+            }
+        }
+
+        for (String line : preamble) {
+            Matcher label = LABEL.matcher(line);
+            if (label.matches()) {
+                String key = fold(label.group(1).strip());
+                String value = label.group(2).strip();
+                if (Set.of("ad soyad", "ad", "isim", "name", "full name").contains(key) && personalInfo.getIsim().isEmpty()) {
+                    personalInfo.setIsim(value);
+                } else if (Set.of("adres", "address", "konum", "location").contains(key)) {
+                    personalInfo.setAdres(value);
+                }
+                continue;
+            }
+            if (personalInfo.getIsim().isEmpty()) {
+                // İletişim bilgileri aynı satırdaysa ("Ayşe Yılmaz | ayse@...") ilk parça ad olarak denenir.
+                String candidate = SEPARATOR.split(line)[0].strip();
+                if (NAME.matcher(candidate).matches() && !containsAny(candidate, TITLE_WORDS)
+                        && !containsAny(candidate, COMPANY_WORDS) && !HEADINGS.containsKey(fold(candidate))) {
+                    personalInfo.setIsim(candidate);
+                }
+            }
+        }
+        return personalInfo;
+    }
+
+    /**
+     * İş deneyimlerini tarih aralıklarına göre gruplar. Tarih satırından hemen önceki (en fazla iki) kısa
+     * satır kaydın başlığıdır (unvan, şirket); tarihten sonraki satırlar bir sonraki kaydın başlığına kadar
+     * açıklamadır. Tarih en üstte yazılmışsa başlık tarihten sonraki kısa satırlardan alınır.
+     */
+    private static List<ExperienceDto> parseExperiences(List<String> lines) {
+        List<Integer> dateLines = new ArrayList<>();
+        for (int i = 0; i < lines.size(); i++) {
+            if (findDateRange(lines.get(i)) != null) {
+                dateLines.add(i);
+            }
+        }
+        List<int[]> headerRanges = new ArrayList<>();
+        int lowerBound = 0;
+        for (int dateLine : dateLines) {
+            int start = dateLine;
+            while (start - 1 >= lowerBound && dateLine - (start - 1) <= 2 && isHeaderLike(lines.get(start - 1))) {
+                start--;
+            }
+            headerRanges.add(new int[]{start, dateLine});
+            lowerBound = dateLine + 1;
+        }
+
+        List<ExperienceDto> experiences = new ArrayList<>();
+        for (int k = 0; k < dateLines.size(); k++) {
+            int dateLine = dateLines.get(k);
+            int end = k + 1 < dateLines.size() ? headerRanges.get(k + 1)[0] : lines.size();
+            List<String> headerParts = new ArrayList<>();
+            for (int i = headerRanges.get(k)[0]; i < dateLine; i++) {
+                headerParts.addAll(splitParts(lines.get(i)));
+            }
+            Matcher date = findDateRange(lines.get(dateLine));
+            String remainder = (lines.get(dateLine).substring(0, date.start()) + " " + lines.get(dateLine).substring(date.end())).strip();
+            headerParts.addAll(splitParts(remainder));
+
+            int descriptionStart = dateLine + 1;
+            if (headerParts.isEmpty()) {
+                while (descriptionStart < end && headerParts.size() < 2 && isHeaderLike(lines.get(descriptionStart))) {
+                    headerParts.addAll(splitParts(lines.get(descriptionStart++)));
+                }
+            }
+
+            ExperienceDto experience = new ExperienceDto();
+            experience.setTarihler(cleanDate(date.group()));
+            // "Yazılım" gibi kelimeler hem unvanda hem şirket adında geçebildiği için önce unvan seçilir.
+            List<String> rest = new ArrayList<>(headerParts);
+            String title = firstMatching(rest, TITLE_WORDS);
+            rest.remove(title);
+            String company = firstMatching(rest, COMPANY_WORDS);
+            rest.remove(company);
+            if (title == null && !rest.isEmpty()) {
+                title = rest.remove(0);
+            }
+            if (company == null && !rest.isEmpty()) {
+                company = rest.remove(0);
+            }
+            experience.setUnvan(title == null ? "" : title);
+            experience.setSirket(company == null ? "" : company);
+            experience.setAciklama(String.join("\n", lines.subList(Math.min(descriptionStart, end), end)));
+            experiences.add(experience);
+        }
+        return experiences;
+    }
+
+    /**
+     * Eğitim kayıtları okul adı geçen satırlardan başlar; kayıt, bir sonraki okul satırına kadar sürer.
+     */
+    private static List<EducationDto> parseEducations(List<String> lines) {
+        List<Integer> schoolLines = new ArrayList<>();
+        for (int i = 0; i < lines.size(); i++) {
+            if (containsAny(lines.get(i), SCHOOL_WORDS)) {
+                schoolLines.add(i);
+            }
+        }
+        List<EducationDto> educations = new ArrayList<>();
+        for (int k = 0; k < schoolLines.size(); k++) {
+            int start = schoolLines.get(k);
+            // Okul satırından hemen önceki tarih satırı da bu kayda aittir.
+            if (start > 0 && (k == 0 || schoolLines.get(k - 1) < start - 1) && isDateOnly(lines.get(start - 1))) {
+                start--;
+            }
+            int end = Math.min(k + 1 < schoolLines.size() ? schoolLines.get(k + 1) : lines.size(), schoolLines.get(k) + 4);
+
+            EducationDto education = new EducationDto();
+            List<String> parts = new ArrayList<>();
+            String dates = "";
+            for (String line : lines.subList(start, end)) {
+                Matcher range = dates.isEmpty() ? findDateRange(line) : null;
+                if (range != null) {
+                    dates = cleanDate(range.group());
+                    line = (line.substring(0, range.start()) + " " + line.substring(range.end())).strip();
+                } else if (dates.isEmpty()) {
+                    Matcher year = YEAR.matcher(line);
+                    if (year.find()) {
+                        dates = year.group();
+                        line = (line.substring(0, year.start()) + " " + line.substring(year.end())).strip();
+                    }
+                }
+                parts.addAll(splitParts(line));
+            }
+            String school = firstMatching(parts, SCHOOL_WORDS);
+            parts.remove(school);
+            String degree = firstMatching(parts, DEGREE_WORDS);
+            parts.remove(degree);
+            education.setOkul(school == null ? "" : school);
+            education.setDerece(degree == null ? "" : degree);
+            education.setBolum(parts.stream().filter(part -> part.codePoints().anyMatch(Character::isLetter))
+                    .filter(part -> !part.toLowerCase().startsWith("gpa") && !fold(part).startsWith("not ort"))
+                    .findFirst().orElse(""));
+            education.setTarihler(dates);
+            educations.add(education);
+        }
+        return educations;
+    }
+
+    private static List<String> parseSkills(List<String> lines) {
+        Map<String, String> skills = new LinkedHashMap<>();
+        for (String rawLine : lines) {
+            String line = stripBullet(rawLine);
+            // "Programlama Dilleri: Java, Python" -> kategori adı atılır.
+            Matcher label = LABEL.matcher(line);
+            if (label.matches() && label.group(1).strip().split("\\s+").length <= 3) {
+                line = label.group(2);
+            }
+            for (String token : SKILL_SEPARATOR.split(line)) {
+                String skill = token.strip().replaceAll("\\.$", "");
+                // Cümleler yetenek değildir.
+                if (!skill.isEmpty() && skill.length() <= 40 && skill.split("\\s+").length <= 4) {
+                    skills.putIfAbsent(fold(skill), skill);
+                }
+            }
+        }
+        return new ArrayList<>(skills.values());
+    }
+
+    private static List<String> splitParts(String line) {
+        List<String> parts = new ArrayList<>();
+        for (String part : SEPARATOR.split(stripBullet(line))) {
+            String cleaned = part.strip().replaceAll("^[(\\[]+|[)\\]]+$", "").strip();
+            if (!cleaned.isEmpty()) {
+                parts.add(cleaned);
+            }
+        }
+        return parts;
+    }
+
+    /**
+     * Madde işaretiyle başlamayan, kısa ve cümle gibi bitmeyen satırlar kayıt başlığı sayılır. "A.Ş.", "Inc."
+     * gibi şirket kısaltmalarıyla biten satırlar noktayla bitse de başlıktır.
+     */
+    private static boolean isHeaderLike(String line) {
+        return !line.startsWith("- ") && (!line.endsWith(".") || containsAny(line, COMPANY_WORDS))
+                && line.split("\\s+").length <= 8 && findDateRange(line) == null;
+    }
+
+    private static boolean isDateOnly(String line) {
+        Matcher range = findDateRange(line);
+        return range != null && line.replace(range.group(), "").isBlank();
+    }
+
+    /**
+     * Satırdaki ilk tarih aralığını bulur; yoksa null döner. Ay adlarından oluşan düzenli ifade her
+     * karakterde denendiği için pahalıdır; "19xx" veya "20xx" yılı geçmeyen satırlar (açıklamaların çoğu)
+     * düzenli ifadeye hiç sokulmaz.
+     */
+    private static Matcher findDateRange(String line) {
+        if (!containsYear(line)) {
+            return null;
+        }
+        Matcher matcher = DATE_RANGE.matcher(line);
+        return matcher.find() ? matcher : null;
+    }
+
+    private static boolean containsYear(String line) {
+        for (int i = 0; i + 3 < line.length(); i++) {
+            char first = line.charAt(i);
+            if (((first == '1' && line.charAt(i + 1) == '9') || (first == '2' && line.charAt(i + 1) == '0'))
+                    && Character.isDigit(line.charAt(i + 2)) && Character.isDigit(line.charAt(i + 3))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String firstMatching(List<String> parts, Set<String> words) {
+        return parts.stream().filter(part -> containsAny(part, words)).findFirst().orElse(null);
+    }
+
+    private static boolean containsAny(String text, Set<String> words) {
+        for (String word : fold(text).split("[\\s,/()]+")) {
+            if (words.contains(word)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String cleanDate(String date) {
+        return date.replaceAll("^\\(|\\)$", "").strip();
+    }
+
+    private static String stripBullet(String line) {
+        return line.startsWith("- ") ? line.substring(2) : line;
+    }
+
+    private static String stripTrailingColon(String line) {
+        return line.endsWith(":") ? line.substring(0, line.length() - 1).strip() : line;
+    }
+
+    /**
+     * Türkçe karakterleri sadeleştirip küçük harfe çevirir ("İŞ DENEYİMİ" -> "is deneyimi"); yerel ayardan
+     * bağımsızdır.
+     */
+    static String fold(String text) {
+        StringBuilder folded = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            folded.append(switch (c) {
+                case 'ç', 'Ç' -> 'c';
+                case 'ğ', 'Ğ' -> 'g';
+                case 'ı', 'I', 'İ' -> 'i';
+                case 'ö', 'Ö' -> 'o';
+                case 'ş', 'Ş' -> 's';
+                case 'ü', 'Ü' -> 'u';
+                case 'â', 'Â' -> 'a';
+                default -> Character.toLowerCase(c);
+            });
+        }
+        return folded.toString();
+    }
+}
@@ -4,34 +4,148 @@ import com.cvconverter.ats_converter.dto.CvDataDto;
 import com.cvconverter.ats_converter.dto.EducationDto;
 import com.cvconverter.ats_converter.dto.ExperienceDto;
 import com.cvconverter.ats_converter.dto.PersonalInfoDto;
+import com.cvconverter.ats_converter.util.HashUtils;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import com.lowagie.text.*;
 import com.lowagie.text.pdf.BaseFont;
+import com.lowagie.text.pdf.PdfDate;
+import com.lowagie.text.pdf.PdfDictionary;
+import com.lowagie.text.pdf.PdfEncryption;
+import com.lowagie.text.pdf.PdfName;
 import com.lowagie.text.pdf.PdfWriter;
 import com.lowagie.text.pdf.draw.LineSeparator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import java.awt.Color;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.EnumSet;
+import java.util.GregorianCalendar;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TimeZone;
 import java.util.stream.Collectors;
 
+/**
+ * Yapılandırılmış CV verisinden ATS uyumlu PDF üretir.
+ * <p>
+ * Yazı tipleri, stiller ve bölüm düzeni uygulama açılışında bir kez hazırlanır ve tüm isteklerde
+ * paylaşılır. Bunlar yalnızca okunduğu için eş zamanlı kullanım güvenlidir; her çağrı kendi
+ * Document/PdfWriter nesnelerini oluşturur.
+ * <p>
+ * Deterministik modda ({@code cv.pdf.deterministic}) OpenPDF'in her belgeye bastığı oluşturma/değiştirme
+ * tarihi sabitlenir ve trailer'daki /ID rastgele değil, CV verisinin kanonik özetinden türetilir; böylece aynı
+ * veri her zaman byte byte aynı PDF'i üretir. Üretilen PDF'ler, bu kanonik özetle anahtarlanan ve boyut
+ * bütçesiyle sınırlı bir önbellekte ({@code cv.pdf.render-cache.max-bytes}) tutulur: tekrar denenen işler ve
+ * aynı CV'lerin toplu dönüştürmeleri PDF'i yeniden yazmaz.
+ */
 @Service
 public class PdfGenerationService {
 
+    /**
+     * Şablondaki bölümler. Düzen, "cv.pdf.sections" özelliğindeki sıraya göre derlenir.
+     */
+    public enum Section { PERSONAL_INFO, EXPERIENCE, EDUCATION, SKILLS }
+
+    /**
+     * Derlenmiş düzendeki tek bir bölüm. Anlamlı bir içerik eklediyse true döner.
+     */
+    @FunctionalInterface
+    private interface SectionRenderer {
+        boolean render(Document document, CvDataDto cvData) throws DocumentException;
+    }
+
+    /**
+     * Kayıtları tek tek yazılabilen bölümlerin (iş deneyimi, eğitim) tek bir kaydını yazar.
+     */
+    @FunctionalInterface
+    private interface EntryRenderer<T> {
+        boolean render(Document document, T entry) throws DocumentException;
+    }
+
+    @FunctionalInterface
+    private interface HeadingRenderer {
+        void render(Document document) throws DocumentException;
+    }
+
+    // Yazı tiplerine ve kenar boşluklarına rağmen üretilen PDF'ler, girdi JSON'undan nadiren büyük olur.
+    // Tampon buna göre baştan ayrılır; böylece belge yazılırken dizi tekrar tekrar büyütülüp kopyalanmaz.
+    private static final int MIN_OUTPUT_BUFFER_BYTES = 8 * 1024;
+
+    private static final Logger logger = LoggerFactory.getLogger(PdfGenerationService.class);
+
+    // Deterministik modda tüm belgelere yazılan sabit oluşturma/değiştirme tarihi.
+    private static final Calendar FIXED_DOCUMENT_DATE = fixedDocumentDate();
+
     private final ObjectMapper objectMapper;
+    private final boolean deterministic;
+    private final Cache<String, byte[]> renderCache;
 
-    public PdfGenerationService(ObjectMapper objectMapper) {
+    private final Font titleFont;
+    private final Font headingFont;
+    private final Font bodyFont;
+    private final Font boldBodyFont;
+    private final Font spacerFont;
+    private final LineSeparator graySeparator;
+    private final List<Section> sectionOrder;
+    private final List<SectionRenderer> layout;
+
+    public PdfGenerationService(ObjectMapper objectMapper,
+                                @Value("${cv.pdf.sections:PERSONAL_INFO,EXPERIENCE,EDUCATION,SKILLS}") String sections,
+                                @Value("${cv.pdf.deterministic:true}") boolean deterministic,
+                                @Value("${cv.pdf.render-cache.max-bytes:33554432}") long renderCacheMaxBytes) {
         this.objectMapper = objectMapper;
+        this.deterministic = deterministic;
+        this.renderCache = renderCacheMaxBytes > 0
+                ? Caffeine.newBuilder()
+                        .maximumWeight(renderCacheMaxBytes)
+                        .weigher((String key, byte[] pdf) -> pdf.length)
+                        .recordStats()
+                        .build()
+                : null;
+        logger.info("PDF üretimi: deterministik = {}, önbellek bütçesi = {} byte", deterministic, renderCacheMaxBytes);
+
+        Cp1254Encoding.register();
+        BaseFont bf;
+        try {
+            bf = BaseFont.createFont(BaseFont.HELVETICA, Cp1254Encoding.NAME, BaseFont.NOT_EMBEDDED);
+        } catch (DocumentException | IOException e) {
+            throw new IllegalStateException("PDF yazı tipi yüklenemedi.", e);
+        }
+        this.titleFont = new Font(bf, 18, Font.BOLD);
+        this.headingFont = new Font(bf, 12, Font.BOLD);
+        this.bodyFont = new Font(bf, 10);
+        this.boldBodyFont = new Font(bf, 10, Font.BOLD);
+        // Boşluklar ve ayırıcı çizgi, varsayılan yazı tipiyle aynı boyutta (satır aralığı değişmez) ama aynı
+        // Helvetica ile yazılır. Varsayılan yazı tipi her belgeye ayrı bir TrueType alt kümesi gömdürür.
+        this.spacerFont = new Font(bf, Font.DEFAULTSIZE);
+        this.graySeparator = new LineSeparator(0.5f, 100, Color.GRAY, Element.ALIGN_CENTER, -5);
+        this.sectionOrder = Arrays.stream(sections.split(","))
+                .map(section -> Section.valueOf(section.trim().toUpperCase(Locale.ROOT)))
+                .toList();
+        this.layout = compileLayout(sectionOrder);
     }
 
     private String safeGet(String text) {
-        if (text == null || text.trim().equalsIgnoreCase("null") || text.trim().isEmpty()) {
+        if (text == null) {
+            return "";
+        }
+        String trimmed = text.trim();
+        if (trimmed.isEmpty() || trimmed.equalsIgnoreCase("null")) {
             return "";
         }
-        return text.trim();
+        return trimmed;
     }
 
     public byte[] createAtsFriendlyPdf(String structuredJsonData) {
@@ -41,125 +155,407 @@ public class PdfGenerationService {
         } catch (JsonProcessingException e) {
             throw new RuntimeException("Yapay zekadan gelen JSON verisi anlaşılamadı.", e);
         }
+        return render(cvData, structuredJsonData.length());
+    }
+
+    /**
+     * JSON'a dönüştürülmeden elde edilmiş CV verisinden doğrudan PDF üretir.
+     */
+    public byte[] createAtsFriendlyPdf(CvDataDto cvData) {
+        return render(cvData, 0);
+    }
+
+    /**
+     * PDF önbelleğinin istatistikleri; önbellek kapalıysa boş istatistik döner.
+     */
+    public CacheStats renderCacheStats() {
+        return renderCache != null ? renderCache.stats() : CacheStats.empty();
+    }
+
+    /**
+     * Önbellekteki PDF'i döndürür veya belgeyi yazıp önbelleğe ekler. Dönen dizi çağıranlar arasında
+     * paylaşılabilir ve değiştirilmemelidir.
+     */
+    private byte[] render(CvDataDto cvData, int inputSizeHint) {
+        String contentHash = canonicalHash(cvData);
+        if (renderCache == null) {
+            return write(cvData, contentHash, inputSizeHint);
+        }
+        byte[] cached = renderCache.getIfPresent(contentHash);
+        if (cached != null) {
+            return cached;
+        }
+        byte[] pdf = write(cvData, contentHash, inputSizeHint);
+        // Aynı veri eş zamanlı yazıldıysa ilk eklenen kopya paylaşılır.
+        return renderCache.asMap().merge(contentHash, pdf, (existing, ignored) -> existing);
+    }
 
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    private byte[] write(CvDataDto cvData, String contentHash, int inputSizeHint) {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream(Math.max(MIN_OUTPUT_BUFFER_BYTES, inputSizeHint * 2));
         Document document = new Document(PageSize.A4, 40, 40, 40, 40); // Kenar boşlukları
         boolean hasContentBeenAdded = false;
 
         try {
-            PdfWriter.getInstance(document, baos);
+            PdfWriter writer = PdfWriter.getInstance(document, baos);
             document.open();
+            stampMetadata(writer, contentHash);
 
-            BaseFont bf = BaseFont.createFont(BaseFont.HELVETICA, "Cp1254", BaseFont.NOT_EMBEDDED);
-            Font titleFont = new Font(bf, 18, Font.BOLD);
-            Font headingFont = new Font(bf, 12, Font.BOLD);
-            Font bodyFont = new Font(bf, 10);
-            Font boldBodyFont = new Font(bf, 10, Font.BOLD);
-
-            // --- KİŞİSEL BİLGİLER ---
-            if (cvData.getKisiselBilgiler() != null) {
-                PersonalInfoDto p = cvData.getKisiselBilgiler();
-                String isim = safeGet(p.getIsim());
-                if (!isim.isEmpty()) {
-                    Paragraph nameParagraph = new Paragraph(isim.toUpperCase(), titleFont);
-                    nameParagraph.setAlignment(Element.ALIGN_CENTER);
-                    document.add(nameParagraph);
-                    hasContentBeenAdded = true;
-                }
+            for (SectionRenderer section : layout) {
+                hasContentBeenAdded |= section.render(document, cvData);
+            }
 
-                List<String> contactParts = new ArrayList<>();
-                if (!safeGet(p.getTelefon()).isEmpty()) contactParts.add(safeGet(p.getTelefon()));
-                if (!safeGet(p.getEmail()).isEmpty()) contactParts.add(safeGet(p.getEmail()));
-                if (!safeGet(p.getAdres()).isEmpty()) contactParts.add(safeGet(p.getAdres()));
-
-                String contactInfo = String.join(" | ", contactParts);
-                if (!contactInfo.isEmpty()) {
-                    Paragraph contactParagraph = new Paragraph(contactInfo, bodyFont);
-                    contactParagraph.setAlignment(Element.ALIGN_CENTER);
-                    document.add(contactParagraph);
-                    document.add(new Paragraph(" "));
-                }
+            if (!hasContentBeenAdded) {
+                throw new RuntimeException("Yapay zeka CV'den herhangi bir anlamlı veri çıkaramadı. Lütfen farklı bir CV dosyası deneyin.");
             }
 
-            // --- İŞ DENEYİMİ ---
-            if (cvData.getIsDeneyimleri() != null && !cvData.getIsDeneyimleri().isEmpty()) {
-                document.add(new Paragraph("İŞ DENEYİMİ", headingFont));
-                addGrayLine(document);
-                for (ExperienceDto exp : cvData.getIsDeneyimleri()) {
-                    if (safeGet(exp.getUnvan()).isEmpty() && safeGet(exp.getSirket()).isEmpty()) continue;
-
-                    Paragraph experienceHeader = new Paragraph();
-                    experienceHeader.add(new Chunk(safeGet(exp.getUnvan()), boldBodyFont));
-                    experienceHeader.add(new Chunk(" at ", bodyFont));
-                    experienceHeader.add(new Chunk(safeGet(exp.getSirket()), boldBodyFont));
-                    document.add(experienceHeader);
-
-                    Paragraph dates = new Paragraph(safeGet(exp.getTarihler()), bodyFont);
-                    document.add(dates);
-
-                    if(!safeGet(exp.getAciklama()).isEmpty()){
-                        Paragraph description = new Paragraph(safeGet(exp.getAciklama()), bodyFont);
-                        document.add(description);
-                    }
+            document.close();
+        } catch (DocumentException e) {
+            throw new RuntimeException("PDF oluşturulurken bir hata oluştu.", e);
+        }
 
-                    document.add(new Paragraph(" "));
-                    hasContentBeenAdded = true;
-                }
-            }
+        return baos.toByteArray();
+    }
 
-            // --- EĞİTİM BİLGİLERİ ---
-            if (cvData.getEgitimBilgileri() != null && !cvData.getEgitimBilgileri().isEmpty()) {
-                document.add(new Paragraph("EĞİTİM", headingFont));
-                addGrayLine(document);
-                for (EducationDto edu : cvData.getEgitimBilgileri()) {
-                    if (safeGet(edu.getOkul()).isEmpty() && safeGet(edu.getBolum()).isEmpty()) continue;
+    /**
+     * Bölümleri CV verisi parça parça geldikçe yazan bir PDF oturumu başlatır (bkz. {@link IncrementalPdf}).
+     */
+    public IncrementalPdf startIncrementalPdf() {
+        return new IncrementalPdf();
+    }
 
-                    Paragraph eduHeader = new Paragraph();
-                    eduHeader.add(new Chunk(safeGet(edu.getBolum()), boldBodyFont));
-                    eduHeader.add(new Chunk(", " + safeGet(edu.getDerece()), bodyFont));
-                    document.add(eduHeader);
+    /**
+     * CV verisinin kanonik özeti. Boş alanlar (null, "" ve []) aynı PDF'i ürettiği için özeti değiştirmez.
+     */
+    String canonicalHash(CvDataDto cvData) {
+        return HashUtils.canonicalSha256Hex(cvData);
+    }
 
-                    Paragraph school = new Paragraph(safeGet(edu.getOkul()), bodyFont);
-                    document.add(school);
+    /**
+     * Deterministik modda belge bilgisindeki tarihleri sabitler ve trailer /ID'sini içerik özetinden türetir.
+     * OpenPDF, bilgi sözlüğünde {@code FILEID} bulunursa rastgele kimlik üretmek yerine onu kullanır.
+     */
+    private void stampMetadata(PdfWriter writer, String contentHash) {
+        if (!deterministic) {
+            return;
+        }
+        PdfDictionary info = writer.getInfo();
+        PdfDate fixedDate = new PdfDate(FIXED_DOCUMENT_DATE);
+        info.put(PdfName.CREATIONDATE, fixedDate);
+        info.put(PdfName.MODDATE, fixedDate);
+        byte[] documentId = Arrays.copyOf(HexFormat.of().parseHex(contentHash), 16);
+        info.put(PdfName.FILEID, PdfEncryption.createInfoId(documentId, documentId));
+    }
 
-                    Paragraph dates = new Paragraph(safeGet(edu.getTarihler()), bodyFont);
-                    document.add(dates);
+    private static Calendar fixedDocumentDate() {
+        Calendar calendar = new GregorianCalendar(TimeZone.getTimeZone("UTC"), Locale.ROOT);
+        calendar.clear();
+        calendar.set(2000, Calendar.JANUARY, 1);
+        return calendar;
+    }
 
-                    document.add(new Paragraph(" "));
-                    hasContentBeenAdded = true;
-                }
-            }
+    private List<SectionRenderer> compileLayout(List<Section> sections) {
+        return sections.stream()
+                .map(section -> switch (section) {
+                    case PERSONAL_INFO -> (SectionRenderer) this::renderPersonalInfo;
+                    case EXPERIENCE -> (SectionRenderer) this::renderExperience;
+                    case EDUCATION -> (SectionRenderer) this::renderEducation;
+                    case SKILLS -> (SectionRenderer) this::renderSkills;
+                })
+                .toList();
+    }
 
-            // --- YETENEKLER ---
-            if (cvData.getYetenekler() != null && !cvData.getYetenekler().isEmpty()) {
-                String skills = cvData.getYetenekler().stream()
-                        .map(this::safeGet)
-                        .filter(skill -> !skill.isEmpty())
-                        .collect(Collectors.joining(", "));
-                if (!skills.isEmpty()) {
-                    document.add(new Paragraph("YETENEKLER", headingFont));
-                    addGrayLine(document);
-                    document.add(new Paragraph(skills, bodyFont));
-                    hasContentBeenAdded = true;
-                }
+    // --- KİŞİSEL BİLGİLER ---
+    private boolean renderPersonalInfo(Document document, CvDataDto cvData) throws DocumentException {
+        PersonalInfoDto p = cvData.getKisiselBilgiler();
+        if (p == null) {
+            return false;
+        }
+        boolean added = false;
+        String isim = safeGet(p.getIsim());
+        if (!isim.isEmpty()) {
+            Paragraph nameParagraph = new Paragraph(isim.toUpperCase(), titleFont);
+            nameParagraph.setAlignment(Element.ALIGN_CENTER);
+            document.add(nameParagraph);
+            added = true;
+        }
+
+        List<String> contactParts = new ArrayList<>(3);
+        addIfPresent(contactParts, p.getTelefon());
+        addIfPresent(contactParts, p.getEmail());
+        addIfPresent(contactParts, p.getAdres());
+
+        if (!contactParts.isEmpty()) {
+            Paragraph contactParagraph = new Paragraph(String.join(" | ", contactParts), bodyFont);
+            contactParagraph.setAlignment(Element.ALIGN_CENTER);
+            document.add(contactParagraph);
+            document.add(spacer());
+        }
+        return added;
+    }
+
+    // --- İŞ DENEYİMİ ---
+    private boolean renderExperience(Document document, CvDataDto cvData) throws DocumentException {
+        if (cvData.getIsDeneyimleri() == null || cvData.getIsDeneyimleri().isEmpty()) {
+            return false;
+        }
+        boolean added = false;
+        renderExperienceHeading(document);
+        for (ExperienceDto exp : cvData.getIsDeneyimleri()) {
+            added |= renderExperienceEntry(document, exp);
+        }
+        return added;
+    }
+
+    private void renderExperienceHeading(Document document) throws DocumentException {
+        document.add(new Paragraph("İŞ DENEYİMİ", headingFont));
+        addGrayLine(document);
+    }
+
+    private boolean renderExperienceEntry(Document document, ExperienceDto exp) throws DocumentException {
+        String unvan = safeGet(exp.getUnvan());
+        String sirket = safeGet(exp.getSirket());
+        if (unvan.isEmpty() && sirket.isEmpty()) {
+            return false;
+        }
+
+        Paragraph experienceHeader = new Paragraph();
+        experienceHeader.add(new Chunk(unvan, boldBodyFont));
+        experienceHeader.add(new Chunk(" at ", bodyFont));
+        experienceHeader.add(new Chunk(sirket, boldBodyFont));
+        document.add(experienceHeader);
+
+        document.add(new Paragraph(safeGet(exp.getTarihler()), bodyFont));
+
+        String aciklama = safeGet(exp.getAciklama());
+        if (!aciklama.isEmpty()) {
+            document.add(new Paragraph(aciklama, bodyFont));
+        }
+
+        document.add(spacer());
+        return true;
+    }
+
+    // --- EĞİTİM BİLGİLERİ ---
+    private boolean renderEducation(Document document, CvDataDto cvData) throws DocumentException {
+        if (cvData.getEgitimBilgileri() == null || cvData.getEgitimBilgileri().isEmpty()) {
+            return false;
+        }
+        boolean added = false;
+        renderEducationHeading(document);
+        for (EducationDto edu : cvData.getEgitimBilgileri()) {
+            added |= renderEducationEntry(document, edu);
+        }
+        return added;
+    }
+
+    private void renderEducationHeading(Document document) throws DocumentException {
+        document.add(new Paragraph("EĞİTİM", headingFont));
+        addGrayLine(document);
+    }
+
+    private boolean renderEducationEntry(Document document, EducationDto edu) throws DocumentException {
+        String okul = safeGet(edu.getOkul());
+        String bolum = safeGet(edu.getBolum());
+        if (okul.isEmpty() && bolum.isEmpty()) {
+            return false;
+        }
+
+        Paragraph eduHeader = new Paragraph();
+        eduHeader.add(new Chunk(bolum, boldBodyFont));
+        eduHeader.add(new Chunk(", " + safeGet(edu.getDerece()), bodyFont));
+        document.add(eduHeader);
+
+        document.add(new Paragraph(okul, bodyFont));
+        document.add(new Paragraph(safeGet(edu.getTarihler()), bodyFont));
+
+        document.add(spacer());
+        return true;
+    }
+
+    // --- YETENEKLER ---
+    private boolean renderSkills(Document document, CvDataDto cvData) throws DocumentException {
+        if (cvData.getYetenekler() == null || cvData.getYetenekler().isEmpty()) {
+            return false;
+        }
+        String skills = cvData.getYetenekler().stream()
+                .map(this::safeGet)
+                .filter(skill -> !skill.isEmpty())
+                .collect(Collectors.joining(", "));
+        if (skills.isEmpty()) {
+            return false;
+        }
+        document.add(new Paragraph("YETENEKLER", headingFont));
+        addGrayLine(document);
+        document.add(new Paragraph(skills, bodyFont));
+        return true;
+    }
+
+    private void addIfPresent(List<String> parts, String value) {
+        String safe = safeGet(value);
+        if (!safe.isEmpty()) {
+            parts.add(safe);
+        }
+    }
+
+    private Paragraph spacer() {
+        return new Paragraph(" ", spacerFont);
+    }
+
+    private void addGrayLine(Document document) throws DocumentException {
+        document.add(spacer()); // Çizgi öncesi küçük bir boşluk
+        Chunk line = new Chunk(graySeparator);
+        // Ayırıcı çizgi metin çizmez; ancak yazı tipi verilmezse OpenPDF her belgeye LiberationSans gömer.
+        line.setFont(spacerFont);
+        document.add(line);
+        document.add(spacer()); // Çizgi sonrası küçük bir boşluk
+    }
+
+    /**
+     * CV verisi yapay zekanın akışından bölüm bölüm geldikçe PDF'i yazan oturum. Bölümler her zaman şablon
+     * sırasıyla yazılır: sıradaki bölüm tamamlanana kadar sonraki bölümlerin verisi bekletilir. Sıradaki
+     * bölüm iş deneyimi veya eğitimse kayıtlar geldikleri anda yazılır; böylece sayfa düzeni yapay zekanın
+     * üretimiyle üst üste biner ve JSON'un tamamı beklenmez. Sonuç, aynı veriyle
+     * {@link #createAtsFriendlyPdf(CvDataDto)} çağrısının ürettiği belgeyle aynı içeriktedir.
+     * <p>
+     * Bir oturum tek bir akış içindir. Akış başarısız olursa yarım kalan belge {@link #discard()} ile kapatılır;
+     * iptal edilen bir aşama hâlâ yazıyor olabileceği için metotlar oturumun kilidi altında çalışır.
+     */
+    public final class IncrementalPdf implements CvSectionListener {
+
+        private final CvDataDto cvData = new CvDataDto();
+        private final ByteArrayOutputStream baos = new ByteArrayOutputStream(MIN_OUTPUT_BUFFER_BYTES);
+        private final Document document = new Document(PageSize.A4, 40, 40, 40, 40);
+        private final PdfWriter writer;
+        private final Set<Section> completedSections = EnumSet.noneOf(Section.class);
+        private int nextSection;
+        private int renderedEntries;
+        private boolean hasContentBeenAdded;
+        private boolean closed;
+
+        private IncrementalPdf() {
+            cvData.setIsDeneyimleri(new ArrayList<>());
+            cvData.setEgitimBilgileri(new ArrayList<>());
+            try {
+                writer = PdfWriter.getInstance(document, baos);
+            } catch (DocumentException e) {
+                throw new RuntimeException("PDF oluşturulurken bir hata oluştu.", e);
             }
+            document.open();
+        }
+
+        @Override
+        public synchronized void onPersonalInfo(PersonalInfoDto personalInfo) {
+            cvData.setKisiselBilgiler(personalInfo);
+        }
+
+        @Override
+        public synchronized void onExperience(ExperienceDto experience) {
+            cvData.getIsDeneyimleri().add(experience);
+            renderPendingEntries();
+        }
+
+        @Override
+        public synchronized void onEducation(EducationDto education) {
+            cvData.getEgitimBilgileri().add(education);
+            renderPendingEntries();
+        }
+
+        @Override
+        public synchronized void onSkills(List<String> skills) {
+            cvData.setYetenekler(skills);
+        }
+
+        @Override
+        public synchronized void onSectionComplete(Section section) {
+            completedSections.add(section);
+            renderPendingEntries();
+        }
 
+        /**
+         * Gelmeyen bölümleri boş sayarak belgeyi tamamlar. Belge bilgisi (tarihler, /ID) kapanışta yazıldığı için
+         * deterministik damga burada, verinin tamamı bilindiğinde basılır; sonuç PDF önbelleğine de eklenir.
+         * @return Oluşturulan PDF'in baytları.
+         */
+        public synchronized byte[] finish() {
+            if (closed) {
+                throw new IllegalStateException("PDF oturumu kapatıldı.");
+            }
+            completedSections.addAll(sectionOrder);
+            renderPendingEntries();
             if (!hasContentBeenAdded) {
                 throw new RuntimeException("Yapay zeka CV'den herhangi bir anlamlı veri çıkaramadı. Lütfen farklı bir CV dosyası deneyin.");
             }
-
+            String contentHash = canonicalHash(cvData);
+            stampMetadata(writer, contentHash);
+            closed = true;
             document.close();
-        } catch (DocumentException | IOException e) {
-            throw new RuntimeException("PDF oluşturulurken bir hata oluştu.", e);
+            byte[] pdf = baos.toByteArray();
+            if (renderCache != null) {
+                renderCache.asMap().putIfAbsent(contentHash, pdf);
+            }
+            return pdf;
         }
 
-        return baos.toByteArray();
-    }
+        /**
+         * Tamamlanmayacak (örn. yapılandırma veya sonraki bir aşama başarısız olduğu için) belgeyi kapatır ve
+         * yazılan baytları bırakır. Sonraki bölüm olayları yok sayılır; belge zaten tamamlandıysa etkisizdir.
+         */
+        public synchronized void discard() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                document.close();
+            } catch (RuntimeException e) {
+                // Henüz sayfası olmayan belge kapatılırken OpenPDF hata fırlatır; belge zaten atılıyor.
+                logger.debug("Yarım kalan PDF kapatılırken hata: {}", e.getMessage());
+            }
+            baos.reset();
+        }
 
-    private void addGrayLine(Document document) throws DocumentException {
-        document.add(new Paragraph(" ")); // Çizgi öncesi küçük bir boşluk
-        LineSeparator separator = new LineSeparator(0.5f, 100, Color.GRAY, Element.ALIGN_CENTER, -5);
-        document.add(new Chunk(separator));
-        document.add(new Paragraph(" ")); // Çizgi sonrası küçük bir boşluk
+        /**
+         * Şablon sırasında yazılabilecek her şeyi yazar: tamamlanan bölümler bütünüyle, sıradaki bölüm
+         * kayıt kayıt yazılabiliyorsa o ana kadar gelen kayıtları.
+         */
+        private void renderPendingEntries() {
+            if (closed) {
+                return;
+            }
+            try {
+                while (nextSection < sectionOrder.size()) {
+                    Section section = sectionOrder.get(nextSection);
+                    boolean complete = completedSections.contains(section);
+                    switch (section) {
+                        case EXPERIENCE -> renderEntries(cvData.getIsDeneyimleri(),
+                                PdfGenerationService.this::renderExperienceHeading, PdfGenerationService.this::renderExperienceEntry);
+                        case EDUCATION -> renderEntries(cvData.getEgitimBilgileri(),
+                                PdfGenerationService.this::renderEducationHeading, PdfGenerationService.this::renderEducationEntry);
+                        default -> {
+                            if (complete) {
+                                hasContentBeenAdded |= layout.get(nextSection).render(document, cvData);
+                            }
+                        }
+                    }
+                    if (!complete) {
+                        return;
+                    }
+                    nextSection++;
+                    renderedEntries = 0;
+                }
+            } catch (DocumentException e) {
+                throw new RuntimeException("PDF oluşturulurken bir hata oluştu.", e);
+            }
+        }
+
+        private <T> void renderEntries(List<T> entries, HeadingRenderer heading, EntryRenderer<T> entryRenderer)
+                throws DocumentException {
+            for (; renderedEntries < entries.size(); renderedEntries++) {
+                if (renderedEntries == 0) {
+                    heading.render(document);
+                }
+                hasContentBeenAdded |= entryRenderer.render(document, entries.get(renderedEntries));
+            }
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,176 @@
+package com.cvconverter.ats_converter.service;
+
+import jakarta.annotation.PreDestroy;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.io.RandomAccessRead;
+import org.apache.pdfbox.io.RandomAccessReadBufferedFile;
+import org.apache.pdfbox.io.RandomAccessReadMemoryMappedFile;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * PDF'ten metin çıkaran motor.
+ * <p>
+ * Yüklenen dosya önce geçici bir dosyaya aktarılır (spooling) ve PDFBox'a byte dizisi yerine
+ * dosya tabanlı (veya bellek eşlemeli) bir {@link RandomAccessRead} olarak verilir; böylece
+ * yüklemenin tamamı heap'e kopyalanmaz. Çok sayfalı belgelerde sayfalar aralıklara bölünür,
+ * her aralık ayrı bir thread'de kendi {@link PDDocument} örneğiyle işlenir (PDDocument thread-safe
+ * değildir) ve sonuçlar sayfa sırasına göre birleştirilir.
+ */
+@Service
+public class PdfTextExtractor {
+
+    private static final Logger logger = LoggerFactory.getLogger(PdfTextExtractor.class);
+
+    /**
+     * Çıkarılan metinde her sayfanın sonuna eklenen sayfa sonu karakteri (form feed).
+     */
+    public static final char PAGE_BREAK = '\f';
+
+    private final boolean parallelEnabled;
+    private final int pagesPerTask;
+    private final int parallelThresholdPages;
+    private final int maxPages;
+    private final long timeBudgetMillis;
+    private final boolean memoryMapped;
+    private final ExecutorService extractionPool;
+
+    public PdfTextExtractor(@Value("${cv.extraction.parallel.enabled:true}") boolean parallelEnabled,
+                            @Value("${cv.extraction.parallel.pages-per-task:4}") int pagesPerTask,
+                            @Value("${cv.extraction.parallel.threshold-pages:8}") int parallelThresholdPages,
+                            @Value("${cv.extraction.parallel.threads:0}") int threads,
+                            @Value("${cv.extraction.max-pages:60}") int maxPages,
+                            @Value("${cv.extraction.time-budget-ms:20000}") long timeBudgetMillis,
+                            @Value("${cv.extraction.memory-mapped:false}") boolean memoryMapped) {
+        this.parallelEnabled = parallelEnabled;
+        this.pagesPerTask = Math.max(1, pagesPerTask);
+        this.parallelThresholdPages = parallelThresholdPages;
+        this.maxPages = maxPages;
+        this.timeBudgetMillis = timeBudgetMillis;
+        this.memoryMapped = memoryMapped;
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.extractionPool = Executors.newFixedThreadPool(poolSize, new CustomizableThreadFactory("pdf-extract-"));
+    }
+
+    /**
+     * Yüklenen dosyayı geçici bir dosyaya aktarır ve metnini çıkarır. Geçici dosya işlem sonunda silinir.
+     */
+    public String extractText(MultipartFile file) throws IOException {
+        Path spoolFile = Files.createTempFile("cv-upload-", ".pdf");
+        try {
+            // transferTo() yerine kopyalama: multipart'ın kendi geçici dosyası yerinde kalmalı.
+            try (InputStream inputStream = file.getInputStream()) {
+                Files.copy(inputStream, spoolFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return extractText(spoolFile);
+        } finally {
+            Files.deleteIfExists(spoolFile);
+        }
+    }
+
+    /**
+     * Disk üzerindeki bir PDF dosyasının metnini, sayfa sınırı ve zaman bütçesi dahilinde çıkarır.
+     */
+    public String extractText(Path pdfFile) throws IOException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeBudgetMillis);
+
+        int pageCount;
+        try (PDDocument document = load(pdfFile)) {
+            if (document.isEncrypted()) {
+                throw new IOException("Şifreli PDF dosyaları desteklenmemektedir.");
+            }
+            pageCount = document.getNumberOfPages();
+        }
+        if (pageCount > maxPages) {
+            throw new IOException("PDF dosyası çok fazla sayfa içeriyor (" + pageCount + "). En fazla " + maxPages + " sayfa desteklenmektedir.");
+        }
+
+        List<Future<String>> futures = new ArrayList<>();
+        if (!parallelEnabled || pageCount < parallelThresholdPages) {
+            futures.add(extractionPool.submit(() -> extractPageRange(pdfFile, 1, pageCount)));
+        } else {
+            for (int startPage = 1; startPage <= pageCount; startPage += pagesPerTask) {
+                int start = startPage;
+                int end = Math.min(pageCount, startPage + pagesPerTask - 1);
+                futures.add(extractionPool.submit(() -> extractPageRange(pdfFile, start, end)));
+            }
+            logger.info("{} sayfalık PDF, {} parça halinde paralel olarak işleniyor.", pageCount, futures.size());
+        }
+
+        return joinInPageOrder(futures, deadline);
+    }
+
+    private String joinInPageOrder(List<Future<String>> futures, long deadline) throws IOException {
+        StringBuilder text = new StringBuilder();
+        try {
+            for (Future<String> future : futures) {
+                long remainingNanos = deadline - System.nanoTime();
+                text.append(future.get(Math.max(0, remainingNanos), TimeUnit.NANOSECONDS));
+            }
+            return text.toString();
+        } catch (TimeoutException e) {
+            throw new IOException("PDF metni " + timeBudgetMillis + " ms içinde çıkarılamadı.", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("PDF metni çıkarılırken işlem kesintiye uğradı.", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException ioException) {
+                throw ioException;
+            }
+            throw new IOException(cause.getMessage(), cause);
+        } finally {
+            // Hata veya zaman aşımı durumunda kalan parçaları iptal et.
+            futures.forEach(future -> future.cancel(true));
+        }
+    }
+
+    private String extractPageRange(Path pdfFile, int startPage, int endPage) throws IOException {
+        try (PDDocument document = load(pdfFile)) {
+            PDFTextStripper stripper = new PDFTextStripper();
+            stripper.setStartPage(startPage);
+            stripper.setEndPage(endPage);
+            // Sayfa sonları işaretlenir; CvTextCompactor tekrar eden üst/alt bilgileri bu sayede bulur.
+            stripper.setPageEnd(stripper.getLineSeparator() + PAGE_BREAK);
+            return stripper.getText(document);
+        }
+    }
+
+    private PDDocument load(Path pdfFile) throws IOException {
+        RandomAccessRead source = memoryMapped
+                ? new RandomAccessReadMemoryMappedFile(pdfFile)
+                : new RandomAccessReadBufferedFile(pdfFile);
+        try {
+            // Belge kapatıldığında kaynak da kapatılır.
+            return Loader.loadPDF(source);
+        } catch (IOException e) {
+            source.close();
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        extractionPool.shutdownNow();
+    }
+}
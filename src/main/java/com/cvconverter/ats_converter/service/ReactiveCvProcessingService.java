@@ -0,0 +1,158 @@
+package com.cvconverter.ats_converter.service;
+
+import com.cvconverter.ats_converter.client.GeminiApiException;
+import com.cvconverter.ats_converter.client.GeminiRetryListener;
+import com.cvconverter.ats_converter.client.ReactiveGeminiClient;
+import com.cvconverter.ats_converter.config.ReactiveConfig;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.function.Consumer;
+
+/**
+ * {@link CvProcessingService}'in Gemini adımlarının bloklamayan karşılığı. İstemler, yerel ayrıştırıcı kararı ve
+ * yedekleme kuralları aynıdır; Gemini cevabı beklenirken thread tutulmaz.
+ * <p>
+ * Gemini'den gelen parçalar event-loop thread'lerinde teslim edilir; JSON ayrıştırma ve dinleyicinin yaptığı PDF
+ * yazımı bu thread'leri meşgul etmesin diye parçalar önce belge zamanlayıcısına aktarılır.
+ */
+@Service
+@ConditionalOnProperty(name = ReactiveConfig.ENABLED_PROPERTY, havingValue = "true")
+public class ReactiveCvProcessingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveCvProcessingService.class);
+
+    private final ReactiveGeminiClient geminiClient;
+    private final CvTextCompactor cvTextCompactor;
+    private final LocalCvParser localCvParser;
+    private final ObjectMapper objectMapper;
+    private final Scheduler documentScheduler;
+
+    public ReactiveCvProcessingService(ReactiveGeminiClient geminiClient, CvTextCompactor cvTextCompactor,
+                                       LocalCvParser localCvParser, ObjectMapper objectMapper,
+                                       @Qualifier(ReactiveConfig.CV_DOCUMENT_SCHEDULER) Scheduler documentScheduler) {
+        this.geminiClient = geminiClient;
+        this.cvTextCompactor = cvTextCompactor;
+        this.localCvParser = localCvParser;
+        this.objectMapper = objectMapper;
+        this.documentScheduler = documentScheduler;
+    }
+
+    /**
+     * {@link CvProcessingService#getStructuredDataFromGemini(String, String, GeminiRetryListener)} ile aynıdır.
+     */
+    public Mono<CvProcessingService.StructuredCv> getStructuredData(String cvText, String apiKey, GeminiRetryListener retryListener) {
+        return Mono.defer(() -> {
+            CvTextCompactor.CompactedText compacted = cvTextCompactor.compact(cvText);
+            LocalCvParser.ParseResult localResult = localCvParser.parse(compacted.text());
+            if (localCvParser.canReplaceGemini(localResult)) {
+                logger.info("CV verisi yerel ayrıştırıcıyla yapılandırıldı (güven {}), Gemini API çağrılmadı.", localResult.confidence());
+                return Mono.just(CvProcessingService.StructuredCv.of(localCvParser.toJson(localResult.cvData())));
+            }
+
+            logger.info("CV verisini yapılandırmak için Gemini API'ye reaktif istek gönderiliyor (CV metni ~{} -> ~{} token, yerel güven {})...",
+                    compacted.estimatedTokensBefore(), compacted.estimatedTokensAfter(), localResult.confidence());
+            return geminiClient.generateContent(CvProcessingService.buildRequest(CvProcessingService.CV_PARSING_PROMPT
+                            + compacted.text()), apiKey, retryListener)
+                    .map(response -> CvProcessingService.StructuredCv.of(
+                            CvProcessingService.stripMarkdownFence(CvProcessingService.extractText(response))))
+                    .onErrorResume(GeminiApiException.class, e -> {
+                        if (!e.isTransient() || !localCvParser.canServeAsFallback(localResult)) {
+                            return Mono.error(e);
+                        }
+                        logger.warn("Gemini API'ye ulaşılamadı ({}); yerel ayrıştırıcının sonucu kullanılıyor (güven {}).",
+                                e.getMessage(), localResult.confidence());
+                        return Mono.just(CvProcessingService.StructuredCv.fallback(localCvParser.toJson(localResult.cvData())));
+                    });
+        }).subscribeOn(documentScheduler);
+    }
+
+    /**
+     * {@link CvProcessingService#getStructuredDataStreaming(String, String, CvSectionListener, GeminiRetryListener)}
+     * ile aynıdır. Tamamlanan her bölüm, belge zamanlayıcısının thread'inde {@code sectionListener}'a iletilir.
+     */
+    public Mono<CvProcessingService.StructuredCv> getStructuredDataStreaming(String cvText, String apiKey, CvSectionListener sectionListener,
+                                                   GeminiRetryListener retryListener) {
+        return Mono.defer(() -> {
+            CvTextCompactor.CompactedText compacted = cvTextCompactor.compact(cvText);
+            LocalCvParser.ParseResult localResult = localCvParser.parse(compacted.text());
+            if (localCvParser.canReplaceGemini(localResult)) {
+                logger.info("CV verisi yerel ayrıştırıcıyla yapılandırıldı (güven {}), Gemini API çağrılmadı.", localResult.confidence());
+                sectionListener.acceptAll(localResult.cvData());
+                return Mono.just(CvProcessingService.StructuredCv.of(localCvParser.toJson(localResult.cvData())));
+            }
+
+            logger.info("CV verisini yapılandırmak için Gemini API'ye reaktif akış isteği gönderiliyor (CV metni ~{} -> ~{} token, yerel güven {})...",
+                    compacted.estimatedTokensBefore(), compacted.estimatedTokensAfter(), localResult.confidence());
+            StreamingCvJsonParser jsonParser = new StreamingCvJsonParser(objectMapper, sectionListener);
+            return geminiClient.streamGenerateContent(CvProcessingService.buildRequest(CvProcessingService.CV_PARSING_PROMPT
+                            + compacted.text()), apiKey, retryListener)
+                    .publishOn(documentScheduler)
+                    .map(CvProcessingService::chunkText)
+                    .filter(chunkText -> !chunkText.isEmpty())
+                    .doOnNext(jsonParser::feed)
+                    .then(Mono.fromCallable(() -> {
+                        String json = jsonParser.finish();
+                        logger.info("Gemini akışı tamamlandı, yapılandırılmış CV verisi alındı ({} karakter).", json.length());
+                        return CvProcessingService.StructuredCv.of(json);
+                    }))
+                    .onErrorResume(GeminiApiException.class, e -> {
+                        // Dinleyiciye bölüm iletildiyse PDF yazılmaya başlanmıştır; yerel sonuçla yeniden başlanamaz.
+                        if (!e.isTransient() || jsonParser.hasEmittedSections() || !localCvParser.canServeAsFallback(localResult)) {
+                            return Mono.error(e);
+                        }
+                        logger.warn("Gemini API'ye ulaşılamadı ({}); yerel ayrıştırıcının sonucu kullanılıyor (güven {}).",
+                                e.getMessage(), localResult.confidence());
+                        sectionListener.acceptAll(localResult.cvData());
+                        return Mono.just(CvProcessingService.StructuredCv.fallback(localCvParser.toJson(localResult.cvData())));
+                    });
+        }).subscribeOn(documentScheduler);
+    }
+
+    /**
+     * {@link CvProcessingService#generateCoverLetter(String, String, String, GeminiRetryListener)} ile aynıdır.
+     */
+    public Mono<String> generateCoverLetter(String cvDataJson, String jobDescription, String apiKey,
+                                            GeminiRetryListener retryListener) {
+        return Mono.defer(() -> {
+            logger.info("Ön yazı oluşturmak için Gemini API'ye reaktif istek gönderiliyor...");
+            String prompt = String.format(CvProcessingService.COVER_LETTER_GENERATION_PROMPT, cvDataJson, jobDescription);
+            return geminiClient.generateContent(CvProcessingService.buildRequest(prompt), apiKey, retryListener)
+                    .map(response -> CvProcessingService.stripMarkdownFence(CvProcessingService.extractText(response)));
+        });
+    }
+
+    /**
+     * {@link CvProcessingService#generateCoverLetterStreaming(String, String, String, Consumer, GeminiRetryListener)}
+     * ile aynıdır; her metin parçası geldiği anda {@code onChunk} ile iletilir.
+     * @return Akış tamamlandığında birleştirilmiş ön yazı metni.
+     */
+    public Mono<String> generateCoverLetterStreaming(String cvDataJson, String jobDescription, String apiKey,
+                                                     Consumer<String> onChunk, GeminiRetryListener retryListener) {
+        return Mono.defer(() -> {
+            logger.info("Ön yazı oluşturmak için Gemini API'ye reaktif akış isteği gönderiliyor...");
+            String prompt = String.format(CvProcessingService.COVER_LETTER_GENERATION_PROMPT, cvDataJson, jobDescription);
+            StringBuilder fullText = new StringBuilder();
+            return geminiClient.streamGenerateContent(CvProcessingService.buildRequest(prompt), apiKey, retryListener)
+                    .map(CvProcessingService::chunkText)
+                    .filter(chunkText -> !chunkText.isEmpty())
+                    .doOnNext(chunkText -> {
+                        fullText.append(chunkText);
+                        onChunk.accept(chunkText);
+                    })
+                    .then(Mono.fromCallable(() -> {
+                        if (fullText.isEmpty()) {
+                            throw new RuntimeException("Gemini API'den geçersiz veya boş bir cevap alındı.");
+                        }
+                        logger.info("Gemini akışı tamamlandı ({} karakter).", fullText.length());
+                        return CvProcessingService.stripMarkdownFence(fullText.toString().trim());
+                    }));
+        });
+    }
+}
@@ -0,0 +1,298 @@
+package com.cvconverter.ats_converter.service;
+
+import com.cvconverter.ats_converter.client.GeminiRetryListener;
+import com.cvconverter.ats_converter.config.ReactiveConfig;
+import com.cvconverter.ats_converter.dto.ProgressUpdate;
+import com.cvconverter.ats_converter.metrics.CvMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import static com.cvconverter.ats_converter.service.AsyncDocumentService.STAGE_COVER_LETTER;
+import static com.cvconverter.ats_converter.service.AsyncDocumentService.STAGE_EXTRACT;
+import static com.cvconverter.ats_converter.service.AsyncDocumentService.STAGE_RENDER;
+import static com.cvconverter.ats_converter.service.AsyncDocumentService.STAGE_SAVE;
+import static com.cvconverter.ats_converter.service.AsyncDocumentService.STAGE_STRUCTURE;
+import static com.cvconverter.ats_converter.service.AsyncDocumentService.STAGE_ZIP;
+import static com.cvconverter.ats_converter.service.AsyncDocumentService.retryListener;
+import static com.cvconverter.ats_converter.service.AsyncDocumentService.sectionProgress;
+
+/**
+ * {@link AsyncDocumentService} pipeline'ının reaktif karşılığı. Aşamalar ve istemciye gönderilen olaylar aynıdır;
+ * fark, bir işin hiçbir aşamada kendine ait bir thread tutmamasıdır:
+ * <ul>
+ *     <li>Gemini çağrıları {@link ReactiveCvProcessingService} üzerinden bloklamadan yapılır.</li>
+ *     <li>Metin çıkarma, PDF yazma ve ZIP/depolama belge zamanlayıcısında (bounded elastic) çalışır.</li>
+ *     <li>PDF oluşturma ile ön yazı, {@link Mono#zip} ile aynı anda yürütülür.</li>
+ * </ul>
+ * Eş zamanlı iş sayısı thread havuzuyla değil {@code cv.reactive.max-in-flight} ile sınırlanır; sınır aşılırsa
+ * iş başlatılmadan {@code BUSY} olayı gönderilir. İstemci bağlantıyı kapatırsa abonelik iptal edilir ve devam eden
+ * Gemini isteği de kesilir.
+ */
+@Service
+@ConditionalOnProperty(name = ReactiveConfig.ENABLED_PROPERTY, havingValue = "true")
+public class ReactiveDocumentService {
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveDocumentService.class);
+
+    static final String STAGE_BUSY = "BUSY";
+
+    private final CvProcessingService cvProcessingService;
+    private final ReactiveCvProcessingService reactiveCvProcessingService;
+    private final PdfGenerationService pdfGenerationService;
+    private final ZipService zipService;
+    private final FileStorageService fileStorageService;
+    private final CvAnalysisCache cvAnalysisCache;
+    private final CoverLetterCache coverLetterCache;
+    private final UploadSpoolService uploadSpoolService;
+    private final Scheduler documentScheduler;
+    private final CvMetrics cvMetrics;
+    private final boolean streamingStructuring;
+    private final int maxInFlight;
+    private final Duration timeout;
+    private final long busyRetryAfterSeconds;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public ReactiveDocumentService(CvProcessingService cvProcessingService,
+                                   ReactiveCvProcessingService reactiveCvProcessingService,
+                                   PdfGenerationService pdfGenerationService,
+                                   ZipService zipService,
+                                   FileStorageService fileStorageService,
+                                   CvAnalysisCache cvAnalysisCache,
+                                   CoverLetterCache coverLetterCache,
+                                   UploadSpoolService uploadSpoolService,
+                                   @Qualifier(ReactiveConfig.CV_DOCUMENT_SCHEDULER) Scheduler documentScheduler,
+                                   CvMetrics cvMetrics,
+                                   @Value("${cv.structuring.streaming.enabled:true}") boolean streamingStructuring,
+                                   @Value("${cv.reactive.max-in-flight:1000}") int maxInFlight,
+                                   @Value("${cv.reactive.timeout-ms:${cv.jobs.emitter-timeout-ms:180000}}") long timeoutMillis,
+                                   @Value("${cv.pipeline.busy-retry-after-seconds:30}") long busyRetryAfterSeconds) {
+        this.cvProcessingService = cvProcessingService;
+        this.reactiveCvProcessingService = reactiveCvProcessingService;
+        this.pdfGenerationService = pdfGenerationService;
+        this.zipService = zipService;
+        this.fileStorageService = fileStorageService;
+        this.cvAnalysisCache = cvAnalysisCache;
+        this.coverLetterCache = coverLetterCache;
+        this.uploadSpoolService = uploadSpoolService;
+        this.documentScheduler = documentScheduler;
+        this.cvMetrics = cvMetrics;
+        this.streamingStructuring = streamingStructuring;
+        this.maxInFlight = maxInFlight;
+        this.timeout = Duration.ofMillis(timeoutMillis);
+        this.busyRetryAfterSeconds = busyRetryAfterSeconds;
+    }
+
+    /**
+     * Yüklenen CV'yi dönüştürür ve ilerleme olaylarını yayar. Son olay {@code DOWNLOAD_READY}, {@code ERROR} veya
+     * {@code BUSY}'dir; hata durumunda da Flux hatasız tamamlanır. Yükleme dosyası iş bitince (veya iptal edilince) silinir.
+     */
+    public Flux<ProgressUpdate> process(UploadSpoolService.SpooledUpload upload, String apiKey, String jobDescription,
+                                        boolean generateCoverLetter, boolean streamCoverLetter) {
+        return Flux.create(sink -> {
+            if (inFlight.incrementAndGet() > maxInFlight) {
+                inFlight.decrementAndGet();
+                uploadSpoolService.discard(upload);
+                logger.warn("Reaktif CV pipeline kapasitesi dolu ({} iş), istek reddedildi.", maxInFlight);
+                sink.next(new ProgressUpdate(STAGE_BUSY, "Sunucu şu anda çok yoğun. Lütfen " + busyRetryAfterSeconds
+                        + " saniye sonra tekrar deneyin.", String.valueOf(busyRetryAfterSeconds)));
+                sink.complete();
+                return;
+            }
+
+            long jobStart = System.nanoTime();
+            CvAnalysisCache.CachedAnalysis cached = cvAnalysisCache.get(upload.sha256());
+            // Kaynaklar son olay gönderilmeden önce bırakılır; iptalde ise sink kapatılırken bırakılır.
+            AtomicBoolean released = new AtomicBoolean();
+            Runnable release = () -> {
+                if (released.compareAndSet(false, true)) {
+                    inFlight.decrementAndGet();
+                    uploadSpoolService.discard(upload);
+                }
+            };
+            Disposable conversion = convert(upload, cached, apiKey, jobDescription, generateCoverLetter, streamCoverLetter, sink::next)
+                    .timeout(timeout)
+                    .subscribe(downloadReady -> {
+                        cvMetrics.recordJob(elapsedMillis(jobStart), true, cached != null);
+                        release.run();
+                        sink.next(downloadReady);
+                        sink.complete();
+                    }, e -> {
+                        cvMetrics.recordJob(elapsedMillis(jobStart), false, cached != null);
+                        logger.error("Reaktif akış sırasında bir hata oluştu.", e);
+                        String userFriendlyError = e instanceof TimeoutException
+                                ? "İşlem " + timeout.toSeconds() + " saniye içinde tamamlanamadı."
+                                : e.getMessage();
+                        release.run();
+                        sink.next(new ProgressUpdate("ERROR", userFriendlyError, null));
+                        sink.complete();
+                    });
+            // İstemci bağlantıyı kapatırsa dönüştürme iptal edilir.
+            sink.onDispose(() -> {
+                conversion.dispose();
+                release.run();
+            });
+        });
+    }
+
+    /**
+     * Devam eden reaktif dönüştürme sayısı.
+     */
+    public int inFlightCount() {
+        return inFlight.get();
+    }
+
+    private Mono<ProgressUpdate> convert(UploadSpoolService.SpooledUpload upload, CvAnalysisCache.CachedAnalysis cached,
+                                         String apiKey, String jobDescription, boolean generateCoverLetter,
+                                         boolean streamCoverLetter, Consumer<ProgressUpdate> events) {
+        cvMetrics.recordInputSize(upload.size());
+        String contentHash = upload.sha256();
+        AtomicReference<PdfGenerationService.IncrementalPdf> incrementalPdf = new AtomicReference<>();
+        GeminiRetryListener retryListener = retryListener(events);
+
+        Mono<String> extractedText = stage(STAGE_EXTRACT, "CV'den metin çıkarılıyor...", events, () -> {
+            if (cached != null) {
+                logger.info("CV metni önbellekten alındı (hash: {}).", contentHash);
+                return Mono.just(cached.extractedText());
+            }
+            return offload(() -> {
+                String extractedCvText = cvProcessingService.extractTextFromPdf(upload.path());
+                cvMetrics.recordExtractedTextLength(extractedCvText.length());
+                cvAnalysisCache.putExtractedText(contentHash, extractedCvText);
+                return extractedCvText;
+            });
+        });
+
+        // Önbelleğe yazmak için çıkarılan metin de yapılandırılmış veriyle birlikte taşınır.
+        Mono<Tuple2<String, CvProcessingService.StructuredCv>> textAndStructuredData = extractedText.flatMap(text -> stage(STAGE_STRUCTURE, "Yapay zeka CV'nizi analiz ediyor...", events, () -> {
+            if (cached != null && cached.structuredJson() != null) {
+                logger.info("Yapılandırılmış CV verisi önbellekten alındı (hash: {}).", contentHash);
+                return Mono.just(CvProcessingService.StructuredCv.of(cached.structuredJson()));
+            }
+            if (streamingStructuring) {
+                return offload(pdfGenerationService::startIncrementalPdf).flatMap(pdf -> {
+                    incrementalPdf.set(pdf);
+                    return reactiveCvProcessingService.getStructuredDataStreaming(text, apiKey,
+                            sectionProgress(events, pdf), retryListener);
+                });
+            }
+            return reactiveCvProcessingService.getStructuredData(text, apiKey, retryListener);
+        }).map(json -> Tuples.of(text, json)));
+
+        return textAndStructuredData.flatMap(textAndJson -> {
+            CvProcessingService.StructuredCv structured = textAndJson.getT2();
+            String structuredCvData = structured.json();
+            Mono<byte[]> render = stage(STAGE_RENDER, null, events, () -> offload(() -> {
+                PdfGenerationService.IncrementalPdf pdf = incrementalPdf.get();
+                byte[] atsCvPdfBytes = pdf != null ? pdf.finish() : pdfGenerationService.createAtsFriendlyPdf(structuredCvData);
+                if ((cached == null || cached.structuredJson() == null) && structured.cacheable()) {
+                    // Sadece PDF'e başarıyla dönüştürülebilen JSON önbelleğe alınır; yerel yedek sonuç alınmaz.
+                    cvAnalysisCache.putStructuredJson(contentHash, textAndJson.getT1(), structuredCvData);
+                }
+                return atsCvPdfBytes;
+            }));
+
+            if (!generateCoverLetter) {
+                return render.flatMap(pdfBytes -> stage(STAGE_SAVE, "Dosya indirmeye hazırlanıyor...", events,
+                                () -> offload(() -> fileStorageService.saveFile(pdfBytes))))
+                        .map(fileId -> downloadReady(fileId, "ATS_Uyumlu_CV.pdf", "pdf"));
+            }
+
+            Mono<String> coverLetter = stage(STAGE_COVER_LETTER, "Ön yazı oluşturuluyor, bu son adım...", events,
+                    () -> coverLetter(structuredCvData, jobDescription, apiKey, streamCoverLetter, events, retryListener));
+            // PDF belge zamanlayıcısında yazılırken ön yazı için Gemini'nin cevabı beklenir.
+            return Mono.zip(render, coverLetter)
+                    .flatMap(results -> stage(STAGE_ZIP, "Dosyalar paketleniyor...", events, () -> offload(() -> {
+                        List<ZipService.ZipItem> filesToZip = List.of(
+                                zipService.item("ATS_Uyumlu_CV.pdf", results.getT1()),
+                                zipService.item("On_Yazi.txt", results.getT2().getBytes())
+                        );
+                        // Arşiv depoya yazılır; indirme kimliği kaydetme aşamasında oluşturulur.
+                        return fileStorageService.writeFile(out -> zipService.writeZip(filesToZip, out));
+                    })))
+                    .flatMap(pending -> stage(STAGE_SAVE, "Dosya indirmeye hazırlanıyor...", events,
+                            () -> offload(() -> fileStorageService.saveFile(pending))))
+                    .map(fileId -> downloadReady(fileId, "CV_ve_On_Yazi.zip", "zip"));
+        }).doOnTerminate(() -> discard(incrementalPdf)).doOnCancel(() -> discard(incrementalPdf));
+    }
+
+    /**
+     * Hata, zaman aşımı veya iptalde yarım kalan PDF'i son olay gönderilmeden kapatır; tamamlanmış belgede etkisizdir.
+     */
+    private static void discard(AtomicReference<PdfGenerationService.IncrementalPdf> incrementalPdf) {
+        PdfGenerationService.IncrementalPdf pdf = incrementalPdf.get();
+        if (pdf != null) {
+            pdf.discard();
+        }
+    }
+
+    private Mono<String> coverLetter(String structuredCvData, String jobDescription, String apiKey, boolean streamCoverLetter,
+                                     Consumer<ProgressUpdate> events, GeminiRetryListener retryListener) {
+        // Aynı CV için aynı (veya çok benzer) ilana daha önce yazılmış ön yazı varsa Gemini çağrılmaz.
+        String cachedCoverLetter = coverLetterCache.get(structuredCvData, jobDescription);
+        if (cachedCoverLetter != null) {
+            logger.info("Ön yazı önbellekten alındı.");
+            if (streamCoverLetter) {
+                events.accept(new ProgressUpdate("COVER_LETTER_CHUNK", null, cachedCoverLetter));
+            }
+            return Mono.just(cachedCoverLetter);
+        }
+        Mono<String> coverLetter = streamCoverLetter
+                // Üretilen her metin parçası anında istemciye iletilir.
+                ? reactiveCvProcessingService.generateCoverLetterStreaming(structuredCvData, jobDescription, apiKey,
+                        chunk -> events.accept(new ProgressUpdate("COVER_LETTER_CHUNK", null, chunk)), retryListener)
+                : reactiveCvProcessingService.generateCoverLetter(structuredCvData, jobDescription, apiKey, retryListener);
+        return coverLetter.doOnNext(text -> coverLetterCache.put(structuredCvData, jobDescription, text));
+    }
+
+    private ProgressUpdate downloadReady(String fileId, String fileName, String outputType) {
+        fileStorageService.fileSize(fileId).ifPresent(size -> cvMetrics.recordOutputSize(outputType, size));
+        logger.info("Reaktif dönüştürme tamamlandı, dosya indirmeye hazır: {}", fileId);
+        return new ProgressUpdate("DOWNLOAD_READY", fileName, fileId);
+    }
+
+    /**
+     * Aşamayı başlatır: mesajı varsa istemciye bildirilir, süresi ve sonucu metriklere yazılır.
+     */
+    private <T> Mono<T> stage(String stage, String message, Consumer<ProgressUpdate> events, Supplier<Mono<T>> work) {
+        return Mono.defer(() -> {
+            if (message != null) {
+                events.accept(new ProgressUpdate(stage, message, null));
+            }
+            long start = System.nanoTime();
+            return work.get()
+                    .doOnSuccess(result -> cvMetrics.recordStage(stage, elapsedMillis(start), true))
+                    .doOnError(e -> cvMetrics.recordStage(stage, elapsedMillis(start), false));
+        });
+    }
+
+    /**
+     * Bloklayan (PDFBox/OpenPDF, disk) bir işi belge zamanlayıcısında çalıştırır.
+     */
+    private <T> Mono<T> offload(Callable<T> work) {
+        return Mono.fromCallable(work).subscribeOn(documentScheduler);
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+}
@@ -0,0 +1,262 @@
+package com.cvconverter.ats_converter.service;
+
+import com.cvconverter.ats_converter.config.AsyncConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tüm {@link SseEmitter} yazmalarını üstlenir. Olayı gönderen thread (pipeline, aşama veya istek thread'i)
+ * olayı yalnızca bağlantının kuyruğuna bırakır ve hiç beklemez; soket yazma işi {@code sseDispatchExecutor}
+ * thread'lerinde, bağlantı başına sırayla yapılır.
+ * <p>
+ * Kuyrukta gönderilmeyi bekleyen bir ilerleme olayının arkasına yeni bir ilerleme olayı gelirse eskisi
+ * atılır; yavaş bir istemci yalnızca en güncel durumu alır. {@link Connection#complete()} kuyruktaki tüm
+ * olaylar (örn. DOWNLOAD_READY) yazıldıktan sonra bağlantıyı kapatır. Kuyruğu {@code cv.sse.max-queued-events}
+ * sınırını aşan istemcinin bağlantısı kapatılır; istemci {@code Last-Event-ID} ile yeniden bağlanabilir.
+ * Boşta kalan bağlantılara, aradaki proxy'ler kapatmasın diye periyodik olarak yorum satırı gönderilir.
+ */
+@Component
+public class SseEventDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(SseEventDispatcher.class);
+
+    /**
+     * Kuyruktaki tek bir olay; {@code coalescible} ise arkasından gelen bir ilerleme olayı onun yerini alır.
+     */
+    private record Outgoing(SseEmitter.SseEventBuilder event, boolean coalescible) {
+    }
+
+    private final Executor executor;
+    private final long heartbeatIntervalMillis;
+    private final int maxQueuedEvents;
+    private final Set<Connection> connections = ConcurrentHashMap.newKeySet();
+    private final AtomicLong coalescedCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    public SseEventDispatcher(@Qualifier(AsyncConfig.SSE_DISPATCH_EXECUTOR) Executor executor,
+                              @Value("${cv.sse.heartbeat-interval-ms:15000}") long heartbeatIntervalMillis,
+                              @Value("${cv.sse.max-queued-events:10000}") int maxQueuedEvents) {
+        this.executor = executor;
+        this.heartbeatIntervalMillis = heartbeatIntervalMillis;
+        this.maxQueuedEvents = maxQueuedEvents;
+    }
+
+    /**
+     * Emitter için bir bağlantı açar. Emitter tamamlandığında, zaman aşımına uğradığında veya hata verdiğinde
+     * bağlantı kapanır ve kuyruğu atılır.
+     */
+    public Connection open(SseEmitter emitter) {
+        Connection connection = new Connection(emitter);
+        connections.add(connection);
+        emitter.onCompletion(connection::close);
+        emitter.onTimeout(connection::close);
+        emitter.onError(e -> connection.close());
+        return connection;
+    }
+
+    /**
+     * Son {@code cv.sse.heartbeat-interval-ms} içinde hiçbir şey yazılmamış bağlantılara yorum satırı gönderir.
+     * Yorumlar istemcide olay üretmez; yalnızca bağlantının boşta kapatılmasını önler.
+     */
+    @Scheduled(fixedDelayString = "${cv.sse.heartbeat-interval-ms:15000}")
+    public void sendHeartbeats() {
+        long now = System.currentTimeMillis();
+        connections.forEach(connection -> connection.heartbeatIfIdle(now));
+    }
+
+    public int openConnectionCount() {
+        return connections.size();
+    }
+
+    public long coalescedEventCount() {
+        return coalescedCount.get();
+    }
+
+    public long droppedConnectionCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * Tek bir SSE bağlantısı. Metotları bloklamaz ve her thread'den çağrılabilir.
+     */
+    public final class Connection {
+
+        private final SseEmitter emitter;
+        private final Deque<Outgoing> queue = new ArrayDeque<>();
+        private final List<Runnable> closeListeners = new ArrayList<>();
+        private boolean draining;
+        private boolean completing;
+        private boolean closed;
+        private volatile long lastWriteMillis = System.currentTimeMillis();
+
+        private Connection(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        /**
+         * Olayı sıraya alır; hiçbir zaman atılmaz ve birleştirilmez.
+         * @return Bağlantı kapanmışsa veya kapanmak üzereyse {@code false}.
+         */
+        public boolean send(SseEmitter.SseEventBuilder event) {
+            return enqueue(event, false);
+        }
+
+        /**
+         * İlerleme olayını sıraya alır. Kuyruğun sonunda henüz gönderilmemiş bir ilerleme olayı varsa onun
+         * yerine geçer.
+         * @return Bağlantı kapanmışsa veya kapanmak üzereyse {@code false}.
+         */
+        public boolean sendProgress(SseEmitter.SseEventBuilder event) {
+            return enqueue(event, true);
+        }
+
+        /**
+         * Kuyruktaki olaylar gönderildikten sonra bağlantıyı kapatır. Sonradan gönderilen olaylar kabul edilmez.
+         */
+        public void complete() {
+            synchronized (this) {
+                if (closed || completing) {
+                    return;
+                }
+                completing = true;
+            }
+            schedule();
+        }
+
+        /**
+         * Bağlantı kapandığında (tamamlanma, istemcinin kopması veya taşma) çağrılacak işlemi ekler.
+         */
+        public void onClose(Runnable listener) {
+            synchronized (this) {
+                if (!closed) {
+                    closeListeners.add(listener);
+                    return;
+                }
+            }
+            listener.run();
+        }
+
+        public synchronized boolean isOpen() {
+            return !closed;
+        }
+
+        private boolean enqueue(SseEmitter.SseEventBuilder event, boolean coalescible) {
+            boolean overflow;
+            synchronized (this) {
+                if (closed || completing) {
+                    return false;
+                }
+                Outgoing last = queue.peekLast();
+                if (coalescible && last != null && last.coalescible()) {
+                    queue.pollLast();
+                    coalescedCount.incrementAndGet();
+                }
+                queue.addLast(new Outgoing(event, coalescible));
+                overflow = queue.size() > maxQueuedEvents;
+            }
+            if (overflow) {
+                logger.warn("İstemci olayları yeterince hızlı okumuyor ({} olay bekliyor), SSE bağlantısı kapatılıyor.",
+                        maxQueuedEvents);
+                droppedCount.incrementAndGet();
+                close();
+                emitter.complete();
+                return false;
+            }
+            schedule();
+            return true;
+        }
+
+        private void heartbeatIfIdle(long nowMillis) {
+            if (nowMillis - lastWriteMillis < heartbeatIntervalMillis) {
+                return;
+            }
+            synchronized (this) {
+                if (closed || completing || !queue.isEmpty()) {
+                    return;
+                }
+                queue.addLast(new Outgoing(SseEmitter.event().comment("heartbeat"), true));
+            }
+            schedule();
+        }
+
+        private void schedule() {
+            synchronized (this) {
+                if (draining || closed) {
+                    return;
+                }
+                draining = true;
+            }
+            try {
+                executor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                logger.warn("SSE gönderimi planlanamadı (uygulama kapanıyor olabilir), bağlantı kapatılıyor.");
+                close();
+                emitter.complete();
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                Outgoing next;
+                synchronized (this) {
+                    if (closed) {
+                        draining = false;
+                        return;
+                    }
+                    next = queue.pollFirst();
+                    if (next == null) {
+                        draining = false;
+                        if (!completing) {
+                            return;
+                        }
+                    }
+                }
+                if (next == null) {
+                    // Kuyruk boşaldı ve tamamlanma istendi: son olay (örn. DOWNLOAD_READY) yazıldı, bağlantı kapanır.
+                    close();
+                    emitter.complete();
+                    return;
+                }
+                try {
+                    emitter.send(next.event());
+                    lastWriteMillis = System.currentTimeMillis();
+                } catch (Exception e) {
+                    logger.warn("İstemciye SSE mesajı gönderilemedi (bağlantı kopmuş olabilir): {}", e.getMessage());
+                    close();
+                    return;
+                }
+            }
+        }
+
+        private void close() {
+            List<Runnable> listeners;
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                draining = false;
+                queue.clear();
+                listeners = List.copyOf(closeListeners);
+                closeListeners.clear();
+            }
+            connections.remove(this);
+            listeners.forEach(Runnable::run);
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.cvconverter.ats_converter.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+
+/**
+ * Belge üretim hattının aşamalarını bağımlılıklarına göre çalıştıran küçük bir aşama grafiği (DAG).
+ * <p>
+ * Birbirine bağımlı olmayan aşamalar (örn. PDF oluşturma ve ön yazı üretimi) aynı anda çalışır.
+ * Bir aşama hata verirse henüz başlamamış aşamalar iptal edilir, çalışmakta olanların thread'leri
+ * kesilir (interrupt) ve ilk hata çağırana fırlatılır. Her aşamanın süresi kaydedilir.
+ * <p>
+ * Aşamalar, bağımlılıklarından sonra eklenmelidir; bu sayede graf yapısı gereği döngü içeremez.
+ */
+public class StageGraph {
+
+    @FunctionalInterface
+    public interface StageAction<T> {
+        T run(StageResults results) throws Exception;
+    }
+
+    /**
+     * Bir aşama bittiğinde (başarılı ya da hatalı) çağrılır; metrik toplamak için kullanılır.
+     * Hiç başlamadan iptal edilen aşamalar bildirilmez.
+     */
+    @FunctionalInterface
+    public interface StageListener {
+        void onStageFinished(String stage, long millis, Throwable failure);
+    }
+
+    /**
+     * Tamamlanan aşamaların sonuçları. Bir aşama, sadece bağımlı olduğu aşamaların sonuçlarını okumalıdır.
+     */
+    public static final class StageResults {
+        private final Map<String, Object> values = Collections.synchronizedMap(new HashMap<>());
+
+        @SuppressWarnings("unchecked")
+        public <T> T get(String stage) {
+            return (T) values.get(stage);
+        }
+
+        public boolean contains(String stage) {
+            return values.containsKey(stage);
+        }
+
+        void put(String stage, Object value) {
+            values.put(stage, value);
+        }
+    }
+
+    /**
+     * Grafın çalıştırılmasının sonucu: aşama sonuçları, aşama süreleri ve toplam süre.
+     */
+    public record Execution(StageResults results, Map<String, Long> stageMillis, long totalMillis) {
+    }
+
+    private record StageDefinition(String name, String progressMessage, List<String> dependencies, StageAction<?> action) {
+    }
+
+    private final Map<String, StageDefinition> stages = new LinkedHashMap<>();
+
+    /**
+     * Grafa yeni bir aşama ekler.
+     * @param name Aşamanın adı; ilerleme olaylarında "stage" olarak da kullanılır.
+     * @param progressMessage Aşama başladığında kullanıcıya gösterilecek mesaj; null ise olay gönderilmez.
+     * @param action Aşamanın işi.
+     * @param dependencies Bu aşamadan önce tamamlanması gereken aşamalar.
+     */
+    public StageGraph addStage(String name, String progressMessage, StageAction<?> action, String... dependencies) {
+        if (stages.containsKey(name)) {
+            throw new IllegalArgumentException("Aşama zaten tanımlı: " + name);
+        }
+        for (String dependency : dependencies) {
+            if (!stages.containsKey(dependency)) {
+                throw new IllegalArgumentException("'" + name + "' aşamasının bağımlılığı tanımlı değil: " + dependency);
+            }
+        }
+        stages.put(name, new StageDefinition(name, progressMessage, List.of(dependencies), action));
+        return this;
+    }
+
+    /**
+     * Grafı verilen executor üzerinde çalıştırır ve tüm aşamalar bitene kadar bekler.
+     * @param onStageStarted Mesajı olan bir aşama başladığında (aşama adı, mesaj) ile çağrılır.
+     * @throws RuntimeException İlk hata veren aşamanın istisnası.
+     */
+    public Execution execute(Executor executor, BiConsumer<String, String> onStageStarted) {
+        return execute(executor, onStageStarted, (stage, millis, failure) -> { });
+    }
+
+    /**
+     * Grafı çalıştırır; her aşamanın bitişini ayrıca {@code onStageFinished} dinleyicisine bildirir.
+     */
+    public Execution execute(Executor executor, BiConsumer<String, String> onStageStarted, StageListener onStageFinished) {
+        long graphStart = System.nanoTime();
+        StageResults results = new StageResults();
+        Map<String, Long> stageMillis = Collections.synchronizedMap(new LinkedHashMap<>());
+        Map<String, CompletableFuture<Void>> futures = new LinkedHashMap<>();
+        Map<String, Thread> runningThreads = new HashMap<>();
+        AtomicReference<Throwable> firstFailure = new AtomicReference<>();
+
+        for (StageDefinition stage : stages.values()) {
+            CompletableFuture<?>[] dependencies = stage.dependencies().stream()
+                    .map(futures::get)
+                    .toArray(CompletableFuture[]::new);
+
+            CompletableFuture<Void> future = CompletableFuture.allOf(dependencies).thenRunAsync(() -> {
+                registerThread(runningThreads, stage.name());
+                try {
+                    if (firstFailure.get() != null) {
+                        throw new CancellationException(stage.name() + " iptal edildi.");
+                    }
+                    if (stage.progressMessage() != null) {
+                        onStageStarted.accept(stage.name(), stage.progressMessage());
+                    }
+                    long stageStart = System.nanoTime();
+                    try {
+                        results.put(stage.name(), stage.action().run(results));
+                    } catch (Exception e) {
+                        onStageFinished.onStageFinished(stage.name(),
+                                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - stageStart), e);
+                        throw e;
+                    }
+                    long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - stageStart);
+                    stageMillis.put(stage.name(), millis);
+                    onStageFinished.onStageFinished(stage.name(), millis, null);
+                } catch (RuntimeException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new CompletionException(e);
+                } finally {
+                    unregisterThread(runningThreads, stage.name());
+                }
+            }, executor);
+
+            future.whenComplete((ignored, error) -> {
+                if (error != null && firstFailure.compareAndSet(null, unwrap(error))) {
+                    cancelOthers(futures, runningThreads, stage.name());
+                }
+            });
+            synchronized (futures) {
+                futures.put(stage.name(), future);
+            }
+        }
+
+        CompletableFuture<?>[] allStages;
+        synchronized (futures) {
+            allStages = futures.values().toArray(new CompletableFuture[0]);
+        }
+        try {
+            CompletableFuture.allOf(allStages).join();
+        } catch (CompletionException | CancellationException e) {
+            Throwable failure = firstFailure.get() != null ? firstFailure.get() : unwrap(e);
+            if (failure instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new RuntimeException(failure.getMessage(), failure);
+        }
+
+        return new Execution(results, new LinkedHashMap<>(stageMillis),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - graphStart));
+    }
+
+    private void registerThread(Map<String, Thread> runningThreads, String stage) {
+        synchronized (runningThreads) {
+            runningThreads.put(stage, Thread.currentThread());
+        }
+    }
+
+    private void unregisterThread(Map<String, Thread> runningThreads, String stage) {
+        synchronized (runningThreads) {
+            runningThreads.remove(stage);
+            // İptal sırasında verilen kesme sinyali havuzdaki bir sonraki işe sızmasın.
+            Thread.interrupted();
+        }
+    }
+
+    private void cancelOthers(Map<String, CompletableFuture<Void>> futures, Map<String, Thread> runningThreads, String failedStage) {
+        List<CompletableFuture<Void>> pending;
+        synchronized (futures) {
+            pending = new ArrayList<>(futures.values());
+        }
+        pending.forEach(future -> future.cancel(true));
+        synchronized (runningThreads) {
+            runningThreads.forEach((stage, thread) -> {
+                if (!stage.equals(failedStage)) {
+                    thread.interrupt();
+                }
+            });
+        }
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        Throwable current = error;
+        while (current instanceof CompletionException && current.getCause() != null) {
+            current = current.getCause();
+        }
+        return current;
+    }
+}
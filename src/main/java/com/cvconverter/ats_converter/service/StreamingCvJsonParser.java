@@ -0,0 +1,237 @@
+package com.cvconverter.ats_converter.service;
+
+import com.cvconverter.ats_converter.dto.EducationDto;
+import com.cvconverter.ats_converter.dto.ExperienceDto;
+import com.cvconverter.ats_converter.dto.PersonalInfoDto;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Gemini'nin akışla gönderdiği yapılandırılmış CV JSON'unu, metin parçaları geldikçe Jackson'ın
+ * bloklamayan (non-blocking) ayrıştırıcısıyla okur. Tamamlanan her bölüm ({@code kisisel_bilgiler},
+ * her bir {@code is_deneyimleri} / {@code egitim_bilgileri} kaydı, {@code yetenekler}) JSON'un geri
+ * kalanı beklenmeden {@link CvSectionListener}'a iletilir.
+ * <p>
+ * Modelin JSON'un önüne veya arkasına eklediği markdown çitleri ({@code ```json}) yok sayılır.
+ * Nesne tek bir akış için kullanılır ve iş parçacığı güvenli değildir.
+ */
+final class StreamingCvJsonParser {
+
+    private static final String INVALID_JSON_MESSAGE = "Yapay zekadan gelen JSON verisi anlaşılamadı.";
+    private static final TypeReference<List<String>> STRING_LIST = new TypeReference<>() {
+    };
+
+    private final ObjectMapper objectMapper;
+    private final CvSectionListener listener;
+    private final JsonParser parser;
+    private final ByteArrayFeeder feeder;
+    private final StringBuilder rawText = new StringBuilder();
+    private final Set<PdfGenerationService.Section> completedSections = EnumSet.noneOf(PdfGenerationService.Section.class);
+
+    private boolean started;
+    private boolean finished;
+    private boolean emitted;
+    private int depth;
+    private PdfGenerationService.Section currentField;
+    private PdfGenerationService.Section streamingArray;
+
+    // O an kopyalanan değer (bir bölüm nesnesi, bir kayıt veya atlanan bilinmeyen bir alan).
+    private TokenBuffer capture;
+    private int captureDepth;
+    private PdfGenerationService.Section captureSection;
+    private boolean captureIsElement;
+
+    StreamingCvJsonParser(ObjectMapper objectMapper, CvSectionListener listener) {
+        this.objectMapper = objectMapper;
+        this.listener = listener;
+        try {
+            this.parser = objectMapper.getFactory().createNonBlockingByteArrayParser();
+        } catch (IOException e) {
+            throw new IllegalStateException("JSON ayrıştırıcısı oluşturulamadı.", e);
+        }
+        this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+    }
+
+    /**
+     * Akıştan gelen bir metin parçasını işler; parça içinde tamamlanan bölümler hemen dinleyiciye iletilir.
+     */
+    void feed(String chunk) {
+        rawText.append(chunk);
+        if (finished) {
+            return;
+        }
+        String json = chunk;
+        if (!started) {
+            // JSON'dan önceki "```json" gibi metinler ayrıştırıcıya verilmez.
+            int objectStart = chunk.indexOf('{');
+            if (objectStart < 0) {
+                return;
+            }
+            started = true;
+            json = chunk.substring(objectStart);
+        }
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        try {
+            feeder.feedInput(bytes, 0, bytes.length);
+        } catch (IOException e) {
+            throw new RuntimeException(INVALID_JSON_MESSAGE, e);
+        }
+        drain();
+    }
+
+    /**
+     * Akış bittiğinde çağrılır. JSON eksik kalmışsa hata fırlatır; gelmeyen bölümler tamamlanmış sayılır.
+     * @return Markdown çitlerinden arındırılmış, JSON'un tamamı.
+     */
+    String finish() {
+        if (!finished) {
+            feeder.endOfInput();
+            if (started) {
+                drain();
+            }
+            if (!finished) {
+                throw new RuntimeException(INVALID_JSON_MESSAGE);
+            }
+        }
+        for (PdfGenerationService.Section section : PdfGenerationService.Section.values()) {
+            completeSection(section);
+        }
+        String text = rawText.toString();
+        return text.substring(text.indexOf('{'), text.lastIndexOf('}') + 1);
+    }
+
+    /**
+     * Dinleyiciye en az bir bölüm iletildi mi? (İletildiyse akış başka bir kaynakla tekrarlanamaz.)
+     */
+    boolean hasEmittedSections() {
+        return emitted;
+    }
+
+    private void drain() {
+        try {
+            JsonToken token;
+            while (!finished && (token = parser.nextToken()) != JsonToken.NOT_AVAILABLE && token != null) {
+                handle(token);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(INVALID_JSON_MESSAGE, e);
+        }
+    }
+
+    private void handle(JsonToken token) throws IOException {
+        if (capture != null) {
+            capture.copyCurrentEvent(parser);
+            if (token.isStructStart()) {
+                captureDepth++;
+            } else if (token.isStructEnd()) {
+                captureDepth--;
+            }
+            if (captureDepth == 0) {
+                deliverCapture();
+            }
+            return;
+        }
+
+        if (depth == 0) {
+            if (token != JsonToken.START_OBJECT) {
+                throw new RuntimeException(INVALID_JSON_MESSAGE);
+            }
+            depth = 1;
+            return;
+        }
+
+        if (depth == 2) {
+            // Akışla okunan bir dizinin (iş deneyimleri veya eğitim bilgileri) içindeyiz.
+            if (token == JsonToken.END_ARRAY) {
+                depth = 1;
+                completeSection(streamingArray);
+                streamingArray = null;
+            } else {
+                startCapture(token, streamingArray, true);
+            }
+            return;
+        }
+
+        // depth == 1: kök nesnenin alanları.
+        switch (token) {
+            case FIELD_NAME -> currentField = sectionOf(parser.currentName());
+            case END_OBJECT -> finished = true;
+            case START_ARRAY -> {
+                if (currentField == PdfGenerationService.Section.EXPERIENCE
+                        || currentField == PdfGenerationService.Section.EDUCATION) {
+                    depth = 2;
+                    streamingArray = currentField;
+                } else {
+                    startCapture(token, currentField, false);
+                }
+            }
+            default -> startCapture(token, currentField, false);
+        }
+    }
+
+    private void startCapture(JsonToken token, PdfGenerationService.Section section, boolean element) throws IOException {
+        capture = new TokenBuffer(parser, null);
+        capture.copyCurrentEvent(parser);
+        captureDepth = token.isStructStart() ? 1 : 0;
+        captureSection = section;
+        captureIsElement = element;
+        if (captureDepth == 0) {
+            deliverCapture();
+        }
+    }
+
+    private void deliverCapture() throws IOException {
+        TokenBuffer buffer = capture;
+        capture = null;
+        if (captureSection == null) {
+            // Şablonda olmayan bir alan; değeri atlanır.
+            return;
+        }
+        try (JsonParser valueParser = buffer.asParser(objectMapper)) {
+            valueParser.nextToken();
+            if (valueParser.currentToken() == JsonToken.VALUE_NULL) {
+                if (!captureIsElement) {
+                    completeSection(captureSection);
+                }
+                return;
+            }
+            emitted = true;
+            switch (captureSection) {
+                case PERSONAL_INFO -> listener.onPersonalInfo(objectMapper.readValue(valueParser, PersonalInfoDto.class));
+                case EXPERIENCE -> listener.onExperience(objectMapper.readValue(valueParser, ExperienceDto.class));
+                case EDUCATION -> listener.onEducation(objectMapper.readValue(valueParser, EducationDto.class));
+                case SKILLS -> listener.onSkills(objectMapper.readValue(valueParser, STRING_LIST));
+            }
+        }
+        if (!captureIsElement) {
+            completeSection(captureSection);
+        }
+    }
+
+    private void completeSection(PdfGenerationService.Section section) {
+        if (completedSections.add(section)) {
+            emitted = true;
+            listener.onSectionComplete(section);
+        }
+    }
+
+    private static PdfGenerationService.Section sectionOf(String fieldName) {
+        return switch (fieldName) {
+            case "kisisel_bilgiler" -> PdfGenerationService.Section.PERSONAL_INFO;
+            case "is_deneyimleri" -> PdfGenerationService.Section.EXPERIENCE;
+            case "egitim_bilgileri" -> PdfGenerationService.Section.EDUCATION;
+            case "yetenekler" -> PdfGenerationService.Section.SKILLS;
+            default -> null;
+        };
+    }
+}
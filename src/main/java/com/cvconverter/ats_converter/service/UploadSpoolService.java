@@ -0,0 +1,212 @@
+package com.cvconverter.ats_converter.service;
+
+import com.cvconverter.ats_converter.metrics.CvMetrics;
+import com.cvconverter.ats_converter.util.HashUtils;
+import jakarta.annotation.PreDestroy;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.encryption.InvalidPasswordException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tekli dönüştürmede yüklenen CV'yi, iş kuyruğa alınmadan önce istek thread'inde yönetilen bir dizine
+ * aktarır ve ucuz bir ön kontrolden geçirir. Multipart dosyası istek bittikten sonra silinebileceği için
+ * asenkron iş yalnızca buradaki kopyayla çalışır.
+ * <p>
+ * Ön kontrol: boyut sınırı (aktarım sırasında), ilk 1024 byte içinde {@code %PDF-} başlığı, şifreleme ve
+ * sayfa sayısı. Sayfa sayısı ve şifreleme PDFBox'ın yalnızca xref tablosunu ve trailer'ı okuyan tembel
+ * ayrıştırmasıyla bulunur; sayfa içerikleri okunmaz. Geçersiz dosyalar milisaniyeler içinde reddedilir ve
+ * pipeline'da yer tutmaz.
+ */
+@Service
+public class UploadSpoolService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UploadSpoolService.class);
+
+    private static final byte[] PDF_MAGIC = "%PDF-".getBytes(StandardCharsets.US_ASCII);
+    // PDF başlığının dosyanın ilk 1024 byte'ı içinde olması yeterlidir; önünde çöp byte'lar bulunabilir.
+    private static final int HEADER_SEARCH_BYTES = 1024;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String FILE_PREFIX = "upload-";
+
+    /**
+     * Ön kontrolden geçmiş ve diske alınmış bir yükleme. {@code sha256} analiz önbelleğinin anahtarıdır.
+     */
+    public record SpooledUpload(Path path, String fileName, long size, String sha256, int pageCount) {
+    }
+
+    private final long maxBytes;
+    private final int maxPages;
+    private final Path spoolDirectory;
+    private final boolean temporaryDirectory;
+    private final CvMetrics cvMetrics;
+
+    public UploadSpoolService(@Value("${cv.upload.max-bytes:20971520}") long maxBytes,
+                              @Value("${cv.upload.max-pages:${cv.extraction.max-pages:60}}") int maxPages,
+                              @Value("${cv.upload.spool-directory:}") String spoolDirectory,
+                              CvMetrics cvMetrics) throws IOException {
+        this.maxBytes = maxBytes;
+        this.maxPages = maxPages;
+        this.temporaryDirectory = spoolDirectory == null || spoolDirectory.isBlank();
+        this.spoolDirectory = temporaryDirectory
+                ? Files.createTempDirectory("cv-uploads-")
+                : Files.createDirectories(Path.of(spoolDirectory));
+        this.cvMetrics = cvMetrics;
+    }
+
+    /**
+     * Yüklenen dosyayı diske aktarır (aynı geçişte SHA-256 özetini hesaplayarak) ve ön kontrolü yapar.
+     * @throws IllegalArgumentException Dosya sınırı aşıyorsa, PDF değilse, şifreliyse veya çok fazla sayfası varsa.
+     */
+    public SpooledUpload spool(MultipartFile upload) throws IOException {
+        long start = System.nanoTime();
+        Path target = Files.createTempFile(spoolDirectory, FILE_PREFIX, ".pdf");
+        try {
+            MessageDigest digest = HashUtils.newSha256();
+            byte[] header = new byte[HEADER_SEARCH_BYTES];
+            int headerLength = 0;
+            boolean headerChecked = false;
+            long written = 0;
+            try (InputStream inputStream = upload.getInputStream(); OutputStream out = Files.newOutputStream(target)) {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                int read;
+                while ((read = inputStream.read(buffer)) != -1) {
+                    written += read;
+                    if (written > maxBytes) {
+                        throw reject("too_large", "Dosya boyutu sınırı aşıldı (en fazla " + maxBytes + " byte).");
+                    }
+                    if (headerLength < header.length) {
+                        int copied = Math.min(read, header.length - headerLength);
+                        System.arraycopy(buffer, 0, header, headerLength, copied);
+                        headerLength += copied;
+                    }
+                    // PDF olmayan bir dosyanın geri kalanı okunmaz.
+                    if (!headerChecked && headerLength == header.length) {
+                        checkHeader(header, headerLength);
+                        headerChecked = true;
+                    }
+                    digest.update(buffer, 0, read);
+                    out.write(buffer, 0, read);
+                }
+            }
+            if (!headerChecked) {
+                checkHeader(header, headerLength);
+            }
+            int pageCount = inspect(target);
+            logger.info("Yüklenen CV ön kontrolden geçti: {} byte, {} sayfa ({} ms).", written, pageCount,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            return new SpooledUpload(target, upload.getOriginalFilename(), written,
+                    HexFormat.of().formatHex(digest.digest()), pageCount);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(target);
+            throw e;
+        }
+    }
+
+    /**
+     * Başka bir yoldan diske alınmış bir PDF'i (örn. toplu dönüştürmede ZİP'ten açılan) aynı ön kontrolden
+     * geçirir: başlık, şifreleme ve sayfa sayısı. Boyut sınırını çağıran uygular.
+     * @return PDF'in sayfa sayısı.
+     * @throws IllegalArgumentException Dosya PDF değilse, şifreliyse veya çok fazla sayfası varsa.
+     */
+    public int check(Path pdfFile) throws IOException {
+        byte[] header;
+        try (InputStream inputStream = Files.newInputStream(pdfFile)) {
+            header = inputStream.readNBytes(HEADER_SEARCH_BYTES);
+        }
+        checkHeader(header, header.length);
+        return inspect(pdfFile);
+    }
+
+    /**
+     * İşlenen veya hiç başlatılamayan bir yüklemenin dosyasını siler.
+     */
+    public void discard(SpooledUpload upload) {
+        try {
+            Files.deleteIfExists(upload.path());
+        } catch (IOException e) {
+            logger.warn("Yüklenen CV dosyası silinemedi: {}", upload.path(), e);
+        }
+    }
+
+    private void checkHeader(byte[] header, int length) {
+        for (int i = 0; i + PDF_MAGIC.length <= length; i++) {
+            if (header[i] == PDF_MAGIC[0] && startsWithMagic(header, i)) {
+                return;
+            }
+        }
+        throw reject("not_pdf", "Yüklenen dosya bir PDF değil.");
+    }
+
+    private static boolean startsWithMagic(byte[] header, int offset) {
+        for (int j = 1; j < PDF_MAGIC.length; j++) {
+            if (header[offset + j] != PDF_MAGIC[j]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Xref tablosunu ve trailer'ı okuyarak şifrelemeyi ve sayfa ağacındaki sayfa sayısını ({@code /Count}) bulur.
+     */
+    private int inspect(Path pdfFile) {
+        try (PDDocument document = Loader.loadPDF(pdfFile.toFile())) {
+            if (document.isEncrypted()) {
+                throw reject("encrypted", "Şifreli PDF dosyaları desteklenmemektedir.");
+            }
+            int pageCount = document.getNumberOfPages();
+            if (pageCount == 0) {
+                throw reject("invalid", "PDF dosyasında sayfa bulunamadı.");
+            }
+            if (pageCount > maxPages) {
+                throw reject("too_many_pages", "PDF dosyası çok fazla sayfa içeriyor (" + pageCount + "). En fazla "
+                        + maxPages + " sayfa desteklenmektedir.");
+            }
+            return pageCount;
+        } catch (InvalidPasswordException e) {
+            throw reject("encrypted", "Şifreli PDF dosyaları desteklenmemektedir.");
+        } catch (IOException e) {
+            throw reject("invalid", "PDF dosyası okunamadı: " + e.getMessage());
+        }
+    }
+
+    private IllegalArgumentException reject(String reason, String message) {
+        cvMetrics.recordUploadRejected(reason);
+        logger.warn("Yüklenen CV ön kontrolde reddedildi ({}): {}", reason, message);
+        return new IllegalArgumentException(message);
+    }
+
+    @PreDestroy
+    public void cleanUp() {
+        try {
+            if (temporaryDirectory) {
+                FileSystemUtils.deleteRecursively(spoolDirectory);
+                return;
+            }
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(spoolDirectory, FILE_PREFIX + "*.pdf")) {
+                for (Path file : files) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Yükleme dizini temizlenemedi: {}", spoolDirectory, e);
+        }
+    }
+}
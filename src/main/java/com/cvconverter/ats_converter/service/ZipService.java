@@ -2,11 +2,21 @@ package com.cvconverter.ats_converter.service;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 
@@ -16,33 +26,122 @@ public class ZipService {
     private static final Logger logger = LoggerFactory.getLogger(ZipService.class);
 
     /**
-     * Verilen dosyaları (dosya adı -> dosya içeriği) içeren bir ZİP arşivi oluşturur.
-     * Bu metot, kaynakları güvenli bir şekilde yönetmek için try-with-resources kullanır.
-     * @param filesToZip Dosya adını (String) dosya içeriğine (byte[]) eşleyen bir harita.
-     * @return Oluşturulan ZİP dosyasının byte dizisi.
+     * Sıkıştırılmadan (STORED) arşive eklenecek girdiler için seviye değeri.
      */
-    public byte[] createZipFile(Map<String, byte[]> filesToZip) {
-        try (ByteArrayOutputStream baos = new ByteArrayOutputStream();
-             ZipOutputStream zos = new ZipOutputStream(baos)) {
+    public static final int STORED = -2;
 
-            logger.info("{} adet dosya ZİP'leniyor...", filesToZip.size());
+    /**
+     * Arşive eklenecek tek bir dosya.
+     * @param level Deflate seviyesi (0-9, {@link Deflater#DEFAULT_COMPRESSION}) veya {@link #STORED}.
+     */
+    public record ZipItem(String name, byte[] content, int level) {
+    }
 
-            for (Map.Entry<String, byte[]> fileEntry : filesToZip.entrySet()) {
-                ZipEntry zipEntry = new ZipEntry(fileEntry.getKey());
-                zos.putNextEntry(zipEntry);
-                zos.write(fileEntry.getValue());
-                zos.closeEntry();
-            }
+    private final int defaultLevel;
+    private final Set<String> storedExtensions;
 
-            zos.finish();
-            logger.info("ZİP dosyası başarıyla oluşturuldu.");
-            return baos.toByteArray();
+    public ZipService(@Value("${cv.zip.deflate-level:6}") int defaultLevel,
+                      @Value("${cv.zip.stored-extensions:pdf,zip,png,jpg,jpeg,gz}") String storedExtensions) {
+        this.defaultLevel = defaultLevel;
+        this.storedExtensions = Arrays.stream(storedExtensions.split(","))
+                .map(extension -> extension.trim().toLowerCase(Locale.ROOT))
+                .filter(extension -> !extension.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    /**
+     * Dosya adına göre sıkıştırma seviyesi seçilmiş bir girdi oluşturur. PDF gibi zaten sıkıştırılmış
+     * biçimler tekrar sıkıştırılmaz (STORED); diğerleri varsayılan deflate seviyesiyle eklenir.
+     */
+    public ZipItem item(String name, byte[] content) {
+        return new ZipItem(name, content, isAlreadyCompressed(name) ? STORED : defaultLevel);
+    }
 
+    /**
+     * Verilen dosyaları (dosya adı -> dosya içeriği) içeren bir ZİP arşivi oluşturur.
+     * @param filesToZip Dosya adını (String) dosya içeriğine (byte[]) eşleyen bir harita.
+     * @return Oluşturulan ZİP dosyasının byte dizisi.
+     */
+    public byte[] createZipFile(Map<String, byte[]> filesToZip) {
+        List<ZipItem> items = new ArrayList<>(filesToZip.size());
+        int totalSize = 0;
+        for (Map.Entry<String, byte[]> fileEntry : filesToZip.entrySet()) {
+            items.add(item(fileEntry.getKey(), fileEntry.getValue()));
+            totalSize += fileEntry.getValue().length;
+        }
+        // Başlıklar için küçük bir pay bırakılır; böylece tampon büyürken tekrar tekrar kopyalanmaz.
+        ByteArrayOutputStream baos = new ByteArrayOutputStream(totalSize + 512);
+        try {
+            writeZip(items, baos);
         } catch (IOException e) {
             // Hata durumunda, kontrol edilmesi gereken bir istisna yerine RuntimeException fırlat.
             // Bu, diğer servislerin hata yönetim stiliyle tutarlıdır.
             logger.error("ZİP dosyası oluşturulurken bir G/Ç hatası oluştu: {}", e.getMessage(), e);
             throw new RuntimeException("ZİP dosyası oluşturulurken bir hata meydana geldi.", e);
         }
+        return baos.toByteArray();
+    }
+
+    /**
+     * Girdileri ZİP biçiminde doğrudan verilen akışa (depo dosyası, HTTP yanıtı vb.) yazar.
+     * Arşiv ara bir tampona alınmaz. STORED girdilerin CRC değeri önceden hesaplanır, böylece
+     * veri tanımlayıcısı (data descriptor) gerekmez. Akış kapatılmaz; bu, çağıranın sorumluluğundadır.
+     */
+    public void writeZip(List<ZipItem> items, OutputStream out) throws IOException {
+        logger.info("{} adet dosya ZİP'leniyor...", items.size());
+        ZipWriter writer = openZip(out);
+        for (ZipItem item : items) {
+            writer.add(item);
+        }
+        writer.finish();
+        logger.info("ZİP dosyası başarıyla oluşturuldu.");
+    }
+
+    /**
+     * Girdilerin tek tek, hazır oldukça eklenebildiği bir ZİP yazıcısı açar. Toplu dönüştürmede her CV
+     * bittiği anda arşive yazılır; böylece tüm PDF'ler aynı anda bellekte tutulmaz.
+     */
+    public ZipWriter openZip(OutputStream out) {
+        return new ZipWriter(new ZipOutputStream(out));
+    }
+
+    /**
+     * Verilen akışa ZİP girdileri yazar. Akış kapatılmaz; {@link #finish()} sadece arşivin
+     * merkezi dizinini yazar. Aynı anda tek bir thread tarafından kullanılmalıdır.
+     */
+    public static final class ZipWriter {
+        private final ZipOutputStream zos;
+
+        private ZipWriter(ZipOutputStream zos) {
+            this.zos = zos;
+        }
+
+        public void add(ZipItem item) throws IOException {
+            ZipEntry zipEntry = new ZipEntry(item.name());
+            if (item.level() == STORED) {
+                CRC32 crc = new CRC32();
+                crc.update(item.content());
+                zipEntry.setMethod(ZipEntry.STORED);
+                zipEntry.setSize(item.content().length);
+                zipEntry.setCompressedSize(item.content().length);
+                zipEntry.setCrc(crc.getValue());
+            } else {
+                zipEntry.setMethod(ZipEntry.DEFLATED);
+                zos.setLevel(item.level());
+            }
+            zos.putNextEntry(zipEntry);
+            zos.write(item.content());
+            zos.closeEntry();
+        }
+
+        public void finish() throws IOException {
+            zos.finish();
+            zos.flush();
+        }
+    }
+
+    private boolean isAlreadyCompressed(String name) {
+        int dot = name.lastIndexOf('.');
+        return dot >= 0 && storedExtensions.contains(name.substring(dot + 1).toLowerCase(Locale.ROOT));
     }
-}
\ No newline at end of file
+}
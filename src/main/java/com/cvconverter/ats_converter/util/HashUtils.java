@@ -0,0 +1,71 @@
+package com.cvconverter.ats_converter.util;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * İçerik tabanlı anahtarlar (cache key, ETag vb.) üretmek için kullanılan yardımcı metotlar.
+ */
+public final class HashUtils {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    // Kanonik özet için: alanlar alfabetik sırada, boş alanlar (null, "" ve []) yazılmaz.
+    private static final ObjectMapper CANONICAL_MAPPER = JsonMapper.builder()
+            .enable(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY)
+            .enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+            .serializationInclusion(JsonInclude.Include.NON_EMPTY)
+            .build();
+
+    private HashUtils() {
+    }
+
+    public static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // SHA-256 her JVM'de bulunmak zorundadır, buraya düşülmesi beklenmez.
+            throw new IllegalStateException("SHA-256 algoritması bulunamadı.", e);
+        }
+    }
+
+    public static String sha256Hex(byte[] content) {
+        return HexFormat.of().formatHex(newSha256().digest(content));
+    }
+
+    /**
+     * Akışın tamamını belleğe almadan, parça parça okuyarak SHA-256 özetini hesaplar.
+     * Akış bu metot tarafından kapatılmaz.
+     */
+    public static String sha256Hex(InputStream inputStream) throws IOException {
+        MessageDigest digest = newSha256();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int read;
+        while ((read = inputStream.read(buffer)) != -1) {
+            digest.update(buffer, 0, read);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Nesnenin kanonik JSON biçiminin SHA-256 özeti. Alan sırası ve boş alanlar özeti değiştirmez; aynı veriyi
+     * taşıyan ama farklı biçimlendirilmiş JSON'lar aynı anahtarı üretir.
+     */
+    public static String canonicalSha256Hex(Object value) {
+        try {
+            return sha256Hex(CANONICAL_MAPPER.writeValueAsBytes(value));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Nesne kanonik JSON'a dönüştürülemedi.", e);
+        }
+    }
+}
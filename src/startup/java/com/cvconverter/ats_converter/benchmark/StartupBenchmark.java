@@ -0,0 +1,251 @@
+package com.cvconverter.ats_converter.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Uygulamanın soğuk başlangıcını ölçen ve CDS arşivi için eğitim çalıştırmasını yapan araç
+ * ({@code fast-startup} Maven profili tarafından çalıştırılır).
+ * <p>
+ * Ölçülen süre, JVM sürecinin başlatılmasından {@code /generate-stream} üzerinden gönderilen örnek bir CV'nin
+ * {@code DOWNLOAD_READY} olayına kadar geçen süredir: Spring context'inin açılması, PDFBox/OpenPDF sınıflarının
+ * yüklenmesi ve yazı tiplerinin hazırlanması bu süreye dahildir. Örnek CV standart bölümler içerdiği için yerel
+ * ayrıştırıcıyla yapılandırılır; Gemini çağrılmaz ve geçerli bir API anahtarı gerekmez.
+ * <ul>
+ *     <li>{@code train <dizin> <jar> <arşiv>}: uygulamayı {@code -XX:ArchiveClassesAtExit} ile başlatır, örnek CV'yi
+ *     dönüştürür ve süreci kapatır; JVM çıkarken yüklenen sınıfları arşive yazar.</li>
+ *     <li>{@code measure <paket jar'ı> <dizin> <jar> <arşiv> <tekrar> <sonuç dosyası>}: aynı ölçümü profilsiz
+ *     (paketlenmiş jar) ve profilli (AOT + CDS arşivi) başlatmalarla tekrarlar, medyanları yazdırır ve JSON'a kaydeder.</li>
+ * </ul>
+ */
+public final class StartupBenchmark {
+
+    private static final String ENDPOINT = "/api/v1/cv/generate-stream";
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+    private static final long POLL_INTERVAL_MILLIS = 20;
+
+    // Yerel ayrıştırıcının yüksek güvenle yapılandırdığı, standart bölümlere sahip bir CV.
+    private static final List<String> SAMPLE_CV_LINES = List.of(
+            "John A. Smith",
+            "Email: john.smith@example.com",
+            "Phone: (555) 123-4567",
+            "",
+            "Professional Experience",
+            "Jan 2020 - Present",
+            "Senior Software Engineer at Acme Corp",
+            "- Led the migration to Kubernetes.",
+            "2016 - 2019",
+            "Software Developer, Initech Inc.",
+            "- Built billing services in Java.",
+            "",
+            "Education",
+            "Bachelor of Science | Computer Engineering | Stanford University | 2012 - 2016",
+            "",
+            "Skills",
+            "Java; Go; PostgreSQL; Terraform");
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(1))
+            .build();
+    private final byte[] samplePdf;
+    private final String javaCommand = ProcessHandle.current().info().command().orElse("java");
+
+    private StartupBenchmark() throws IOException {
+        this.samplePdf = samplePdf();
+    }
+
+    public static void main(String[] args) throws Exception {
+        StartupBenchmark benchmark = new StartupBenchmark();
+        switch (args.length > 0 ? args[0] : "") {
+            case "train" -> benchmark.train(Path.of(args[1]), args[2], args[3]);
+            case "measure" -> benchmark.measure(Path.of(args[1]), Path.of(args[2]), args[3], args[4],
+                    Integer.parseInt(args[5]), Path.of(args[6]));
+            default -> throw new IllegalArgumentException("Kullanım: train <dizin> <jar> <arşiv> | "
+                    + "measure <paket jar'ı> <dizin> <jar> <arşiv> <tekrar> <sonuç dosyası>");
+        }
+    }
+
+    private void train(Path directory, String jar, String archive) throws Exception {
+        Files.deleteIfExists(directory.resolve(archive));
+        long millis = timeToFirstConversion("training", directory, List.of(
+                "-XX:ArchiveClassesAtExit=" + archive, "-Dspring.aot.enabled=true", "-jar", jar));
+        if (!Files.exists(directory.resolve(archive))) {
+            throw new IllegalStateException("CDS arşivi oluşturulamadı: " + directory.resolve(archive));
+        }
+        System.out.printf("CDS arşivi oluşturuldu: %s (eğitim çalıştırması %d ms)%n", directory.resolve(archive), millis);
+    }
+
+    private void measure(Path packagedJar, Path directory, String jar, String archive, int runs, Path resultFile)
+            throws Exception {
+        Map<String, Object> results = new LinkedHashMap<>();
+        results.put("baseline", summarize(run("baseline", packagedJar.toAbsolutePath().getParent(),
+                List.of("-jar", packagedJar.getFileName().toString()), runs)));
+        results.put("fast-startup", summarize(run("fast-startup", directory,
+                List.of("-XX:SharedArchiveFile=" + archive, "-Dspring.aot.enabled=true", "-jar", jar), runs)));
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(resultFile.toFile(), results);
+        System.out.printf("İlk başarılı dönüştürmeye kadar geçen süre (ms): %s%nSonuçlar: %s%n", results, resultFile);
+    }
+
+    private long[] run(String label, Path directory, List<String> jvmArgs, int runs) throws Exception {
+        long[] millis = new long[runs];
+        for (int i = 0; i < runs; i++) {
+            millis[i] = timeToFirstConversion(label + "-" + (i + 1), directory, jvmArgs);
+            System.out.printf("%s #%d: %d ms%n", label, i + 1, millis[i]);
+        }
+        return millis;
+    }
+
+    private static Map<String, Object> summarize(long[] millis) {
+        long[] sorted = millis.clone();
+        Arrays.sort(sorted);
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("runs", Arrays.stream(millis).boxed().toList());
+        summary.put("medianMillis", sorted[sorted.length / 2]);
+        summary.put("minMillis", sorted[0]);
+        summary.put("maxMillis", sorted[sorted.length - 1]);
+        return summary;
+    }
+
+    /**
+     * Uygulamayı başlatır, örnek CV'nin dönüştürülmesi tamamlanana kadar istek gönderir ve süreci kapatır.
+     * Süreç SIGTERM ile kapatılır; JVM'in normal çıkışı CDS arşivinin yazılması için gereklidir.
+     * @return Sürecin başlatılmasından {@code DOWNLOAD_READY} olayına kadar geçen süre (ms).
+     */
+    private long timeToFirstConversion(String label, Path directory, List<String> jvmArgs) throws Exception {
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(javaCommand);
+        command.addAll(jvmArgs);
+        command.add("--server.port=" + port);
+        Path log = Files.createDirectories(directory.resolve("logs")).resolve(label + ".log");
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .directory(directory.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        try {
+            long deadline = start + STARTUP_TIMEOUT.toNanos();
+            while (true) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("Uygulama başlatılamadı, günlük: " + log);
+                }
+                if (System.nanoTime() > deadline) {
+                    throw new IllegalStateException("Uygulama " + STARTUP_TIMEOUT + " içinde CV dönüştüremedi, günlük: " + log);
+                }
+                try {
+                    if (convertSample(port)) {
+                        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                    }
+                } catch (ConnectException e) {
+                    // Sunucu henüz dinlemiyor.
+                }
+                Thread.sleep(POLL_INTERVAL_MILLIS);
+            }
+        } finally {
+            process.destroy();
+            if (!process.waitFor(60, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    /**
+     * Örnek CV'yi gönderir ve SSE akışını sonuna kadar okur.
+     * @return {@code DOWNLOAD_READY} olayı geldiyse true; sunucu hazır değilse veya dönüştürme başarısızsa false.
+     */
+    private boolean convertSample(int port) throws IOException, InterruptedException {
+        String boundary = "----startup" + UUID.randomUUID();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + ENDPOINT))
+                .timeout(STARTUP_TIMEOUT)
+                .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(multipartBody(boundary)))
+                .build();
+        HttpResponse<InputStream> response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(response.body(), StandardCharsets.UTF_8))) {
+            if (response.statusCode() != 200) {
+                return false;
+            }
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.contains("\"DOWNLOAD_READY\"")) {
+                    return true;
+                }
+                if (line.contains("\"ERROR\"")) {
+                    throw new IllegalStateException("Örnek CV dönüştürülemedi: " + line);
+                }
+            }
+            return false;
+        }
+    }
+
+    private byte[] multipartBody(String boundary) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        String filePart = "--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"sample-cv.pdf\"\r\n"
+                + "Content-Type: application/pdf\r\n\r\n";
+        body.write(filePart.getBytes(StandardCharsets.UTF_8));
+        body.write(samplePdf);
+        String apiKeyPart = "\r\n--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"apiKey\"\r\n\r\n"
+                + "startup-benchmark\r\n"
+                + "--" + boundary + "--\r\n";
+        body.write(apiKeyPart.getBytes(StandardCharsets.UTF_8));
+        return body.toByteArray();
+    }
+
+    private static byte[] samplePdf() throws IOException {
+        try (PDDocument document = new PDDocument(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            PDPage page = new PDPage();
+            document.addPage(page);
+            try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                content.beginText();
+                content.setFont(new PDType1Font(Standard14Fonts.FontName.HELVETICA), 11);
+                content.setLeading(14);
+                content.newLineAtOffset(50, 740);
+                for (String line : SAMPLE_CV_LINES) {
+                    content.showText(line);
+                    content.newLine();
+                }
+                content.endText();
+            }
+            document.save(out);
+            return out.toByteArray();
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
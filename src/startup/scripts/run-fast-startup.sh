@@ -0,0 +1,6 @@
+#!/bin/sh
+# mvn -Pfast-startup package ile hazirlanan AOT siniflari ve CDS arsiviyle uygulamayi baslatir.
+# Arsiv, egitim calistirmasindaki sinif yoluyla ayni yoldan baslatildiginda kullanilir; bu yuzden
+# betik her zaman kendi dizininden calisir. Ek argumanlar uygulamaya iletilir (orn. --server.port=9090).
+cd "$(dirname "$0")" || exit 1
+exec java -XX:SharedArchiveFile=@startup.archive@ -Dspring.aot.enabled=true -jar @project.build.finalName@.jar "$@"
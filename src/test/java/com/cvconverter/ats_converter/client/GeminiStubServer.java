@@ -0,0 +1,151 @@
+package com.cvconverter.ats_converter.client;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Testlerde gerçek Gemini API'si yerine kullanılan, süreç içi (in-process) basit HTTP sunucusu.
+ * Her istek için dönülecek durum kodu, gövde, header'lar ve gecikme ayarlanabilir. Cevabı isteğe göre üretmek
+ * (ör. yük testinde gecikme dağılımı ve hata oranı) için {@link #setResponder(Responder)} kullanılır.
+ */
+public class GeminiStubServer implements AutoCloseable {
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final AtomicInteger requestCount = new AtomicInteger();
+
+    private volatile int status = 200;
+    private volatile String body = "{}";
+    private volatile Map<String, String> headers = Map.of();
+    private volatile long delayMillis = 0;
+    private volatile String lastApiKey;
+    private volatile String lastRequestBody;
+    private volatile Responder responder;
+
+    /**
+     * İstek yoluna ve gövdesine göre cevap üreten strateji. Ayarlanırsa {@link #respondWith} ile verilen sabit
+     * cevabın yerine kullanılır. Birden çok thread'den aynı anda çağrılır.
+     */
+    @FunctionalInterface
+    public interface Responder {
+        StubResponse respond(String path, String requestBody);
+    }
+
+    /**
+     * Stub'ın döneceği cevap. Tek parçalı gövdeler Content-Length ile, çok parçalı gövdeler chunked olarak yazılır;
+     * parçalar arasında {@code chunkDelayMillis} kadar beklenir (akış cevaplarında parçaların tek tek gelmesi için).
+     */
+    public record StubResponse(int status, Map<String, String> headers, long delayMillis,
+                               List<String> chunks, long chunkDelayMillis) {
+    }
+
+    public GeminiStubServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/v1beta";
+    }
+
+    public void respondWith(int status, String body, Map<String, String> headers) {
+        this.status = status;
+        this.body = body;
+        this.headers = headers;
+    }
+
+    public void setDelayMillis(long delayMillis) {
+        this.delayMillis = delayMillis;
+    }
+
+    public void setResponder(Responder responder) {
+        this.responder = responder;
+    }
+
+    public int getRequestCount() { return requestCount.get(); }
+    public String getLastApiKey() { return lastApiKey; }
+    public String getLastRequestBody() { return lastRequestBody; }
+
+    /**
+     * Gemini'nin {@code generateContent} cevap formatında tek parçalık bir JSON üretir.
+     */
+    public static String textResponse(String text) {
+        String escaped = text.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+        return "{\"candidates\":[{\"content\":{\"parts\":[{\"text\":\"" + escaped + "\"}],\"role\":\"model\"},"
+                + "\"finishReason\":\"STOP\"}],\"usageMetadata\":{\"totalTokenCount\":42}}";
+    }
+
+    /**
+     * Verilen metin parçalarını {@code streamGenerateContent?alt=sse} formatında bir SSE gövdesine dönüştürür.
+     */
+    public static String sseResponse(String... chunks) {
+        StringBuilder body = new StringBuilder();
+        for (String chunk : chunks) {
+            body.append("data: ").append(textResponse(chunk)).append("\r\n\r\n");
+        }
+        return body.toString();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requestCount.incrementAndGet();
+        lastApiKey = exchange.getRequestHeaders().getFirst("x-goog-api-key");
+        lastRequestBody = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        Responder currentResponder = responder;
+        StubResponse response = currentResponder != null
+                ? currentResponder.respond(exchange.getRequestURI().toString(), lastRequestBody)
+                : new StubResponse(status, headers, delayMillis, List.of(body), 0);
+        try {
+            if (response.delayMillis() > 0) {
+                Thread.sleep(response.delayMillis());
+            }
+            response.headers().forEach((name, value) -> exchange.getResponseHeaders().add(name, value));
+            if (!response.headers().containsKey("Content-Type")) {
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+            }
+            List<String> chunks = response.chunks();
+            if (chunks.size() == 1) {
+                byte[] responseBytes = chunks.get(0).getBytes(StandardCharsets.UTF_8);
+                exchange.sendResponseHeaders(response.status(), responseBytes.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(responseBytes);
+                }
+            } else {
+                // 0: gövde uzunluğu bilinmiyor, chunked transfer encoding kullanılır.
+                exchange.sendResponseHeaders(response.status(), 0);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    for (int i = 0; i < chunks.size(); i++) {
+                        if (i > 0 && response.chunkDelayMillis() > 0) {
+                            Thread.sleep(response.chunkDelayMillis());
+                        }
+                        out.write(chunks.get(i).getBytes(StandardCharsets.UTF_8));
+                        out.flush();
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            // İstemci zaman aşımı nedeniyle bağlantıyı kapatmış olabilir.
+        } finally {
+            exchange.close();
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
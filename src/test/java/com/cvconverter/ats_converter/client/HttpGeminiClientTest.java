@@ -0,0 +1,153 @@
+package com.cvconverter.ats_converter.client;
+
+import com.cvconverter.ats_converter.dto.gemini.Content;
+import com.cvconverter.ats_converter.dto.gemini.GeminiRequest;
+import com.cvconverter.ats_converter.dto.gemini.GeminiResponse;
+import com.cvconverter.ats_converter.dto.gemini.Part;
+import com.cvconverter.ats_converter.metrics.CvMetrics;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * HttpGeminiClient için testler. Gerçek Gemini yerine süreç içi bir stub sunucu kullanılır.
+ */
+class HttpGeminiClientTest {
+
+    private GeminiStubServer stubServer;
+    private HttpGeminiClient geminiClient;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        stubServer = new GeminiStubServer();
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build();
+        meterRegistry = new SimpleMeterRegistry();
+        geminiClient = new HttpGeminiClient(httpClient, objectMapper, stubServer.baseUrl(), "test-model", 500, 4, 1000,
+                new CvMetrics(meterRegistry));
+    }
+
+    @AfterEach
+    void tearDown() {
+        stubServer.close();
+    }
+
+    @Test
+    void generateContent_WhenStubReturnsOk_ShouldParseCandidateText() {
+        // 1. Hazırlık
+        stubServer.respondWith(200, GeminiStubServer.textResponse("merhaba"), Map.of());
+
+        // 2. Eylem
+        GeminiResponse response = geminiClient.generateContent(request("selam"), "test-api-key");
+
+        // 3. Doğrulama
+        assertEquals("merhaba", response.getCandidates().get(0).getContent().getParts().get(0).getText());
+        assertEquals("test-api-key", stubServer.getLastApiKey());
+        assertTrue(stubServer.getLastRequestBody().contains("selam"));
+    }
+
+    @Test
+    void generateContent_WhenStubReturns429_ShouldThrowWithRetryAfter() {
+        stubServer.respondWith(429, "{\"error\":\"quota\"}", Map.of("Retry-After", "3"));
+
+        GeminiApiException exception = assertThrows(GeminiApiException.class,
+                () -> geminiClient.generateContent(request("selam"), "test-api-key"));
+
+        assertEquals(429, exception.getStatusCode());
+        assertEquals(Duration.ofSeconds(3), exception.getRetryAfter());
+        assertTrue(exception.isTransient());
+        assertTrue(exception.getMessage().contains("quota"));
+        Timer timer = meterRegistry.find("gemini.requests").tag("status", "429").timer();
+        assertNotNull(timer);
+        assertEquals(1, timer.count());
+        assertEquals("CLIENT_ERROR", timer.getId().getTag("outcome"));
+    }
+
+    @Test
+    void generateContent_WhenStubIsTooSlow_ShouldTimeOut() {
+        stubServer.respondWith(200, GeminiStubServer.textResponse("geç cevap"), Map.of());
+        stubServer.setDelayMillis(2000);
+
+        GeminiApiException exception = assertThrows(GeminiApiException.class,
+                () -> geminiClient.generateContent(request("selam"), "test-api-key"));
+
+        assertEquals(GeminiApiException.NO_STATUS, exception.getStatusCode());
+        assertTrue(exception.isTransient());
+        assertNotNull(meterRegistry.find("gemini.requests").tag("status", "TIMEOUT").timer());
+    }
+
+    @Test
+    void generateContent_WhenBodyStallsAfterHeaders_ShouldTimeOut() {
+        // 1. Hazırlık: header'lar ve gövdenin ilk yarısı hemen gelir, kalanı okuma zaman aşımından (500 ms) çok sonra.
+        String body = GeminiStubServer.textResponse("geç kalan gövde");
+        stubServer.setResponder((path, requestBody) -> new GeminiStubServer.StubResponse(200, Map.of(), 0,
+                List.of(body.substring(0, 10), body.substring(10)), 5000));
+
+        // 2. Eylem
+        long start = System.nanoTime();
+        GeminiApiException exception = assertThrows(GeminiApiException.class,
+                () -> geminiClient.generateContent(request("selam"), "test-api-key"));
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        // 3. Doğrulama
+        assertEquals(GeminiApiException.NO_STATUS, exception.getStatusCode());
+        assertTrue(exception.isTransient());
+        assertTrue(elapsed.compareTo(Duration.ofSeconds(3)) < 0, elapsed.toString());
+        assertEquals(1, meterRegistry.get("gemini.requests").tag("status", "TIMEOUT").timer().count());
+    }
+
+    @Test
+    void streamGenerateContent_ShouldDeliverChunksInOrder() {
+        stubServer.respondWith(200, GeminiStubServer.sseResponse("Sayın ", "Yetkili,"),
+                Map.of("Content-Type", "text/event-stream"));
+        List<String> chunks = new ArrayList<>();
+
+        geminiClient.streamGenerateContent(request("selam"), "test-api-key",
+                chunk -> chunks.add(chunk.getCandidates().get(0).getContent().getParts().get(0).getText()));
+
+        assertEquals(List.of("Sayın ", "Yetkili,"), chunks);
+    }
+
+    @Test
+    void streamGenerateContent_WhenStreamStallsAfterFirstChunk_ShouldTimeOut() {
+        // 1. Hazırlık: header'lar ve ilk parça hemen gelir, ikinci parça okuma zaman aşımından (500 ms) çok sonra gelir.
+        stubServer.setResponder((path, requestBody) -> new GeminiStubServer.StubResponse(200,
+                Map.of("Content-Type", "text/event-stream"), 0,
+                List.of(GeminiStubServer.sseResponse("Sayın "), GeminiStubServer.sseResponse("Yetkili,")), 5000));
+        List<String> chunks = new ArrayList<>();
+
+        // 2. Eylem
+        long start = System.nanoTime();
+        GeminiApiException exception = assertThrows(GeminiApiException.class,
+                () -> geminiClient.streamGenerateContent(request("selam"), "test-api-key",
+                        chunk -> chunks.add(chunk.getCandidates().get(0).getContent().getParts().get(0).getText())));
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        // 3. Doğrulama: çağrı ikinci parçayı beklemeden zaman aşımıyla biter.
+        assertEquals(List.of("Sayın "), chunks);
+        assertEquals(GeminiApiException.NO_STATUS, exception.getStatusCode());
+        assertTrue(exception.isTransient());
+        assertTrue(elapsed.compareTo(Duration.ofSeconds(3)) < 0, elapsed.toString());
+        assertEquals(1, meterRegistry.get("gemini.requests").tag("status", "TIMEOUT").timer().count());
+    }
+
+    private GeminiRequest request(String prompt) {
+        Content content = new Content(Collections.singletonList(new Part(prompt)));
+        return new GeminiRequest(List.of(content));
+    }
+}
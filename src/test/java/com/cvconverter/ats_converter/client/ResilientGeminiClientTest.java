@@ -0,0 +1,219 @@
+package com.cvconverter.ats_converter.client;
+
+import com.cvconverter.ats_converter.dto.gemini.Content;
+import com.cvconverter.ats_converter.dto.gemini.GeminiRequest;
+import com.cvconverter.ats_converter.dto.gemini.GeminiResponse;
+import com.cvconverter.ats_converter.dto.gemini.Part;
+import com.cvconverter.ats_converter.metrics.CvMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ResilientGeminiClient için testler: tekrar deneme, hız sınırı ve devre kesici davranışı
+ * süreç içi stub sunucuya karşı doğrulanır. Bekleme süreleri testin hızlı çalışması için kısaltılmıştır.
+ */
+class ResilientGeminiClientTest {
+
+    private GeminiStubServer stubServer;
+    private HttpGeminiClient httpGeminiClient;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        stubServer = new GeminiStubServer();
+        meterRegistry = new SimpleMeterRegistry();
+        HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build();
+        httpGeminiClient = new HttpGeminiClient(httpClient, Jackson2ObjectMapperBuilder.json().build(),
+                stubServer.baseUrl(), "test-model", 1000, 4, 1000, new CvMetrics(meterRegistry));
+    }
+
+    @AfterEach
+    void tearDown() {
+        stubServer.close();
+    }
+
+    @Test
+    void generateContent_WhenUpstreamKeepsFailing_ShouldRetryAndNotifyListener() {
+        // 1. Hazırlık
+        stubServer.respondWith(503, "{\"error\":\"overloaded\"}", Map.of());
+        ResilientGeminiClient client = client(6000, 10, 3, 10, 10);
+        List<Integer> retriedAttempts = new CopyOnWriteArrayList<>();
+
+        // 2. Eylem
+        GeminiApiException exception = assertThrows(GeminiApiException.class,
+                () -> client.generateContent(request(), "anahtar", (attempt, max, delay, cause) -> retriedAttempts.add(attempt)));
+
+        // 3. Doğrulama
+        assertEquals(503, exception.getStatusCode());
+        assertEquals(3, stubServer.getRequestCount());
+        assertEquals(List.of(2, 3), retriedAttempts);
+        assertEquals(2.0, meterRegistry.get("gemini.retries").tag("status", "503").counter().count());
+    }
+
+    @Test
+    void generateContent_WhenRequestIsInvalid_ShouldNotRetry() {
+        stubServer.respondWith(400, "{\"error\":\"bad request\"}", Map.of());
+        ResilientGeminiClient client = client(6000, 10, 3, 10, 10);
+
+        assertThrows(GeminiApiException.class, () -> client.generateContent(request(), "anahtar"));
+
+        assertEquals(1, stubServer.getRequestCount());
+    }
+
+    @Test
+    void generateContent_WhenRetryAfterExceedsMaxDelay_ShouldFailWithoutRetrying() {
+        // Sunucu 3 sn beklenmesini istiyor, ama en uzun bekleme 1 sn.
+        stubServer.respondWith(429, "{\"error\":\"quota\"}", Map.of("Retry-After", "3"));
+        ResilientGeminiClient client = client(6000, 10, 3, 1000, 10);
+
+        GeminiApiException exception = assertThrows(GeminiApiException.class,
+                () -> client.generateContent(request(), "anahtar"));
+
+        assertEquals(429, exception.getStatusCode());
+        assertEquals(1, stubServer.getRequestCount());
+    }
+
+    @Test
+    void generateContent_WhenCircuitIsOpen_ShouldFailFastWithoutCallingUpstream() {
+        stubServer.respondWith(500, "{\"error\":\"internal\"}", Map.of());
+        ResilientGeminiClient client = client(6000, 10, 1, 10, 2);
+        assertThrows(GeminiApiException.class, () -> client.generateContent(request(), "anahtar"));
+        assertThrows(GeminiApiException.class, () -> client.generateContent(request(), "anahtar"));
+
+        GeminiApiException exception = assertThrows(GeminiApiException.class,
+                () -> client.generateContent(request(), "anahtar"));
+
+        assertEquals(2, stubServer.getRequestCount());
+        assertEquals(503, exception.getStatusCode());
+        assertTrue(exception.getMessage().contains("yanıt vermiyor"));
+        assertEquals(2.0, meterRegistry.get("gemini.circuit.state").gauge().value());
+    }
+
+    @Test
+    void generateContent_WhenKeyExceedsRateLimit_ShouldRejectOnlyThatKey() {
+        // Dakikada 1 istek, burst 1: aynı anahtarla ikinci istek en az bir dakika bekleyecekti.
+        stubServer.respondWith(200, GeminiStubServer.textResponse("tamam"), Map.of());
+        ResilientGeminiClient client = client(1, 1, 3, 10, 10);
+        client.generateContent(request(), "anahtar-1");
+
+        GeminiApiException exception = assertThrows(GeminiApiException.class,
+                () -> client.generateContent(request(), "anahtar-1"));
+        GeminiResponse otherKey = client.generateContent(request(), "anahtar-2");
+
+        assertEquals(429, exception.getStatusCode());
+        assertNotNull(otherKey);
+        assertEquals(2, stubServer.getRequestCount());
+        assertEquals(1.0, meterRegistry.get("gemini.rejected").tag("reason", "rate_limit").counter().count());
+    }
+
+    @Test
+    void generateContent_WhenHalfOpenTrialIsRateLimited_ShouldLetAnotherKeyTakeTheTrial() throws InterruptedException {
+        // 1. Hazırlık: tek hata devreyi 50 ms için açar; "anahtar-1" dakikada 1 isteklik kotasını da harcar.
+        stubServer.respondWith(500, "{\"error\":\"internal\"}", Map.of());
+        ResilientGeminiClient client = client(1, 1, 1, 10, 1, 50);
+        assertThrows(GeminiApiException.class, () -> client.generateContent(request(), "anahtar-1"));
+        Thread.sleep(100);
+
+        // 2. Eylem: yarı açık devrede deneme hakkını alan istek hız sınırına takılır.
+        GeminiApiException rateLimited = assertThrows(GeminiApiException.class,
+                () -> client.generateContent(request(), "anahtar-1"));
+        stubServer.respondWith(200, GeminiStubServer.textResponse("tamam"), Map.of());
+        GeminiResponse otherKey = client.generateContent(request(), "anahtar-2");
+
+        // 3. Doğrulama: deneme hakkı serbest bırakıldı, diğer anahtarın isteği gönderildi ve devre kapandı.
+        assertEquals(429, rateLimited.getStatusCode());
+        assertNotNull(otherKey);
+        assertEquals(2, stubServer.getRequestCount());
+        assertEquals(0.0, meterRegistry.get("gemini.circuit.state").gauge().value());
+    }
+
+    @Test
+    void streamGenerateContent_WhenHalfOpenTrialFailsInConsumer_ShouldReleaseTheTrial() throws InterruptedException {
+        stubServer.respondWith(500, "{\"error\":\"internal\"}", Map.of());
+        ResilientGeminiClient client = client(6000, 10, 1, 10, 1, 50);
+        assertThrows(GeminiApiException.class, () -> client.generateContent(request(), "anahtar"));
+        Thread.sleep(100);
+
+        // Deneme isteğinin parçasını işleyen tüketici GeminiApiException olmayan bir hata fırlatır.
+        stubServer.respondWith(200, GeminiStubServer.sseResponse("{\"bozuk\""), Map.of("Content-Type", "text/event-stream"));
+        assertThrows(IllegalStateException.class, () -> client.streamGenerateContent(request(), "anahtar", chunk -> {
+            throw new IllegalStateException("Geçersiz CV JSON'u");
+        }));
+        stubServer.respondWith(200, GeminiStubServer.textResponse("tamam"), Map.of());
+        GeminiResponse next = client.generateContent(request(), "anahtar");
+
+        assertNotNull(next);
+        assertEquals(3, stubServer.getRequestCount());
+    }
+
+    @Test
+    void generateContent_WhenResponseIsUnreadable_ShouldNotRetryOrOpenCircuit() {
+        // 1. Hazırlık: tek hata devreyi açacak kadar hassas bir devre kesici; cevap gövdesi JSON değil.
+        stubServer.respondWith(200, "<html>bakım</html>", Map.of());
+        ResilientGeminiClient client = client(6000, 10, 3, 10, 1);
+
+        // 2. Eylem
+        GeminiApiException exception = assertThrows(GeminiApiException.class,
+                () -> client.generateContent(request(), "anahtar"));
+
+        // 3. Doğrulama: uygulama tarafındaki hata tekrar denenmedi ve devre kapalı kaldı.
+        assertEquals(GeminiApiException.LOCAL_ERROR, exception.getStatusCode());
+        assertFalse(exception.isTransient());
+        assertEquals(1, stubServer.getRequestCount());
+        assertEquals(0.0, meterRegistry.get("gemini.circuit.state").gauge().value());
+    }
+
+    @Test
+    void generateContent_WhenConnectionPoolIsFull_ShouldNotRetryOrOpenCircuit() throws Exception {
+        // 1. Hazırlık: tek bağlantılık havuz, yavaş bir istek tarafından tutuluyor.
+        HttpGeminiClient singleConnection = new HttpGeminiClient(HttpClient.newHttpClient(),
+                Jackson2ObjectMapperBuilder.json().build(), stubServer.baseUrl(), "test-model", 2000, 1, 50,
+                new CvMetrics(meterRegistry));
+        ResilientGeminiClient client = new ResilientGeminiClient(singleConnection, new CvMetrics(meterRegistry),
+                6000, 10, 100, 3, 1, 10, 1, 60_000);
+        stubServer.respondWith(200, GeminiStubServer.textResponse("tamam"), Map.of());
+        stubServer.setDelayMillis(500);
+        CompletableFuture<GeminiResponse> slow = CompletableFuture.supplyAsync(
+                () -> client.generateContent(request(), "anahtar-1"));
+        Thread.sleep(150);
+
+        // 2. Eylem
+        GeminiApiException exception = assertThrows(GeminiApiException.class,
+                () -> client.generateContent(request(), "anahtar-2"));
+
+        // 3. Doğrulama: yerel geri basınç tekrar denenmez ve devre kesicide hata sayılmaz.
+        assertNotNull(slow.get(5, TimeUnit.SECONDS));
+        assertTrue(exception.isRejected());
+        assertEquals(1, stubServer.getRequestCount());
+        assertEquals(0.0, meterRegistry.get("gemini.circuit.state").gauge().value());
+    }
+
+    private ResilientGeminiClient client(double requestsPerMinute, int burst, int maxAttempts, long maxDelayMillis,
+                                         int failureThreshold) {
+        return client(requestsPerMinute, burst, maxAttempts, maxDelayMillis, failureThreshold, 60_000);
+    }
+
+    private ResilientGeminiClient client(double requestsPerMinute, int burst, int maxAttempts, long maxDelayMillis,
+                                         int failureThreshold, long openMillis) {
+        return new ResilientGeminiClient(httpGeminiClient, new CvMetrics(meterRegistry), requestsPerMinute, burst, 100,
+                maxAttempts, 1, maxDelayMillis, failureThreshold, openMillis);
+    }
+
+    private static GeminiRequest request() {
+        return new GeminiRequest(List.of(new Content(List.of(new Part("selam")))));
+    }
+}
@@ -0,0 +1,186 @@
+package com.cvconverter.ats_converter.client;
+
+import com.cvconverter.ats_converter.dto.gemini.Content;
+import com.cvconverter.ats_converter.dto.gemini.GeminiRequest;
+import com.cvconverter.ats_converter.dto.gemini.GeminiResponse;
+import com.cvconverter.ats_converter.dto.gemini.Part;
+import com.cvconverter.ats_converter.metrics.CvMetrics;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * WebClientGeminiClient için testler. Gerçek Gemini yerine süreç içi stub sunucu kullanılır; dayanıklılık
+ * kararları gerçek bir ResilientGeminiClient'tan gelir.
+ */
+class WebClientGeminiClientTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    private GeminiStubServer stubServer;
+    private SimpleMeterRegistry meterRegistry;
+    private WebClientGeminiClient geminiClient;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        stubServer = new GeminiStubServer();
+        meterRegistry = new SimpleMeterRegistry();
+        CvMetrics cvMetrics = new CvMetrics(meterRegistry);
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        ResilientGeminiClient resilience = new ResilientGeminiClient(mock(HttpGeminiClient.class), cvMetrics,
+                6000, 100, 100, 2, 1, 50, 5, 60_000);
+        geminiClient = new WebClientGeminiClient(WebClient.builder().baseUrl(stubServer.baseUrl()).build(), objectMapper,
+                "test-model", 1000, resilience, cvMetrics);
+    }
+
+    @AfterEach
+    void tearDown() {
+        stubServer.close();
+    }
+
+    @Test
+    void generateContent_WhenStubReturnsOk_ShouldParseCandidateText() {
+        // 1. Hazırlık
+        stubServer.respondWith(200, GeminiStubServer.textResponse("merhaba"), Map.of());
+
+        // 2. Eylem
+        GeminiResponse response = geminiClient.generateContent(request("selam"), "test-api-key", GeminiRetryListener.NONE)
+                .block(TIMEOUT);
+
+        // 3. Doğrulama
+        assertEquals("merhaba", response.getCandidates().get(0).getContent().getParts().get(0).getText());
+        assertEquals("test-api-key", stubServer.getLastApiKey());
+        assertTrue(stubServer.getLastRequestBody().contains("selam"));
+        assertEquals(1, meterRegistry.get("gemini.requests").tag("status", "200").timer().count());
+    }
+
+    @Test
+    void streamGenerateContent_ShouldEmitChunksInOrder() {
+        stubServer.respondWith(200, GeminiStubServer.sseResponse("Sayın ", "Yetkili,"),
+                Map.of("Content-Type", "text/event-stream"));
+
+        List<String> chunks = geminiClient.streamGenerateContent(request("selam"), "test-api-key", GeminiRetryListener.NONE)
+                .map(chunk -> chunk.getCandidates().get(0).getContent().getParts().get(0).getText())
+                .collectList()
+                .block(TIMEOUT);
+
+        assertEquals(List.of("Sayın ", "Yetkili,"), chunks);
+    }
+
+    @Test
+    void streamGenerateContent_WhenChunksArriveSeparately_ShouldEmitEachChunk() {
+        // Parçalar ayrı ayrı ve aralarında bekleme ile yazılır (chunked transfer encoding).
+        stubServer.setResponder((path, requestBody) -> new GeminiStubServer.StubResponse(200,
+                Map.of("Content-Type", "text/event-stream"), 0,
+                List.of(GeminiStubServer.sseResponse("Sayın "), GeminiStubServer.sseResponse("Yetkili,")), 50));
+
+        List<String> chunks = geminiClient.streamGenerateContent(request("selam"), "test-api-key", GeminiRetryListener.NONE)
+                .map(chunk -> chunk.getCandidates().get(0).getContent().getParts().get(0).getText())
+                .collectList()
+                .block(TIMEOUT);
+
+        assertEquals(List.of("Sayın ", "Yetkili,"), chunks);
+        assertTrue(stubServer.getLastRequestBody().contains("selam"));
+    }
+
+    @Test
+    void generateContent_WhenStubKeepsReturning503_ShouldRetryThenFail() {
+        stubServer.respondWith(503, "{\"error\":\"overloaded\"}", Map.of());
+        List<Integer> retryAttempts = new ArrayList<>();
+
+        GeminiApiException exception = assertThrows(GeminiApiException.class,
+                () -> geminiClient.generateContent(request("selam"), "test-api-key",
+                        (attempt, maxAttempts, delay, cause) -> retryAttempts.add(attempt)).block(TIMEOUT));
+
+        assertEquals(503, exception.getStatusCode());
+        assertEquals(2, stubServer.getRequestCount());
+        assertEquals(List.of(2), retryAttempts);
+        assertEquals(1.0, meterRegistry.get("gemini.retries").counter().count());
+    }
+
+    @Test
+    void generateContent_WhenStubIsSlowerThanReadTimeout_ShouldFailWithTimeout() {
+        stubServer.respondWith(400, "{}", Map.of());
+        stubServer.setDelayMillis(2500);
+
+        GeminiApiException exception = assertThrows(GeminiApiException.class,
+                () -> geminiClient.generateContent(request("selam"), "test-api-key", GeminiRetryListener.NONE).block(TIMEOUT));
+
+        assertEquals(GeminiApiException.NO_STATUS, exception.getStatusCode());
+        // Zaman aşımı geçici bir hatadır; ikinci deneme de zaman aşımına uğrar.
+        assertEquals(2, meterRegistry.get("gemini.requests").tag("status", "TIMEOUT").timer().count());
+    }
+
+    @Test
+    void generateContent_WhenHalfOpenTrialIsRateLimited_ShouldLetAnotherKeyTakeTheTrial() throws InterruptedException {
+        // 1. Hazırlık: tek hata devreyi 50 ms için açar; "anahtar-1" dakikada 1 isteklik kotasını da harcar.
+        WebClientGeminiClient client = halfOpenClient(1, 1);
+        stubServer.respondWith(500, "{\"error\":\"internal\"}", Map.of());
+        assertThrows(GeminiApiException.class,
+                () -> client.generateContent(request("selam"), "anahtar-1", GeminiRetryListener.NONE).block(TIMEOUT));
+        Thread.sleep(100);
+
+        // 2. Eylem
+        GeminiApiException rateLimited = assertThrows(GeminiApiException.class,
+                () -> client.generateContent(request("selam"), "anahtar-1", GeminiRetryListener.NONE).block(TIMEOUT));
+        stubServer.respondWith(200, GeminiStubServer.textResponse("tamam"), Map.of());
+        GeminiResponse otherKey = client.generateContent(request("selam"), "anahtar-2", GeminiRetryListener.NONE)
+                .block(TIMEOUT);
+
+        // 3. Doğrulama
+        assertEquals(429, rateLimited.getStatusCode());
+        assertNotNull(otherKey);
+        assertEquals(2, stubServer.getRequestCount());
+    }
+
+    @Test
+    void streamGenerateContent_WhenHalfOpenTrialFailsDownstream_ShouldReleaseTheTrial() throws InterruptedException {
+        WebClientGeminiClient client = halfOpenClient(6000, 10);
+        stubServer.respondWith(500, "{\"error\":\"internal\"}", Map.of());
+        assertThrows(GeminiApiException.class,
+                () -> client.generateContent(request("selam"), "anahtar", GeminiRetryListener.NONE).block(TIMEOUT));
+        Thread.sleep(100);
+
+        // Deneme isteğinin parçasını işleyen aşağı akış operatörü GeminiApiException olmayan bir hata fırlatır.
+        stubServer.respondWith(200, GeminiStubServer.sseResponse("{\"bozuk\""), Map.of("Content-Type", "text/event-stream"));
+        assertThrows(IllegalStateException.class,
+                () -> client.streamGenerateContent(request("selam"), "anahtar", GeminiRetryListener.NONE)
+                        .doOnNext(chunk -> {
+                            throw new IllegalStateException("Geçersiz CV JSON'u");
+                        })
+                        .blockLast(TIMEOUT));
+        stubServer.respondWith(200, GeminiStubServer.textResponse("tamam"), Map.of());
+        GeminiResponse next = client.generateContent(request("selam"), "anahtar", GeminiRetryListener.NONE).block(TIMEOUT);
+
+        assertNotNull(next);
+        assertEquals(3, stubServer.getRequestCount());
+    }
+
+    /**
+     * Tek hatada açılan ve 50 ms sonra yarı açık duruma geçen devre kesiciyle, tekrar denemesiz bir istemci.
+     */
+    private WebClientGeminiClient halfOpenClient(double requestsPerMinute, int burst) {
+        CvMetrics cvMetrics = new CvMetrics(meterRegistry);
+        ResilientGeminiClient resilience = new ResilientGeminiClient(mock(HttpGeminiClient.class), cvMetrics,
+                requestsPerMinute, burst, 100, 1, 1, 50, 1, 50);
+        return new WebClientGeminiClient(WebClient.builder().baseUrl(stubServer.baseUrl()).build(),
+                Jackson2ObjectMapperBuilder.json().build(), "test-model", 1000, resilience, cvMetrics);
+    }
+
+    private static GeminiRequest request(String text) {
+        return new GeminiRequest(List.of(new Content(List.of(new Part(text)))));
+    }
+}
@@ -0,0 +1,156 @@
+package com.cvconverter.ats_converter.controller;
+
+import com.cvconverter.ats_converter.service.AsyncDocumentService;
+import com.cvconverter.ats_converter.service.BatchDocumentService;
+import com.cvconverter.ats_converter.service.FileStorageService;
+import com.cvconverter.ats_converter.service.JobRegistry;
+import com.cvconverter.ats_converter.service.SseEventDispatcher;
+import com.cvconverter.ats_converter.service.UploadSpoolService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * İndirme endpoint'inin Range, ETag ve tek seferlik indirme davranışı için testler.
+ */
+class CvControllerDownloadTest {
+
+    @TempDir
+    Path spillDirectory;
+
+    private FileStorageService storage;
+    private MockMvc mockMvc;
+    private final byte[] content = new byte[1000];
+
+    @BeforeEach
+    void setUp() throws Exception {
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) i;
+        }
+        // Eşik düşük tutuldu: dosya diske taşar ve FileChannel yolu test edilir.
+        storage = new FileStorageService(1024, 4096, 100, 900, "disk", spillDirectory.toString());
+        mockMvc = MockMvcBuilders
+                .standaloneSetup(new CvController(mock(AsyncDocumentService.class), storage, mock(BatchDocumentService.class),
+                        mock(JobRegistry.class), mock(SseEventDispatcher.class),
+                        mock(UploadSpoolService.class)))
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        storage.cleanUp();
+    }
+
+    @Test
+    void download_ShouldStreamWholeFileWithEtagAndRemoveIt() throws Exception {
+        // 1. Hazırlık
+        String fileId = storage.saveFile(content);
+
+        // 2. Eylem
+        MockHttpServletResponse response = mockMvc.perform(get("/api/v1/cv/download")
+                        .param("fileId", fileId).param("filename", "cv.zip"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+
+        // 3. Doğrulama
+        assertArrayEquals(content, response.getContentAsByteArray());
+        assertEquals("bytes", response.getHeader(HttpHeaders.ACCEPT_RANGES));
+        assertTrue(response.getHeader(HttpHeaders.ETAG).matches("\"[0-9a-f]{64}\""));
+        mockMvc.perform(get("/api/v1/cv/download").param("fileId", fileId).param("filename", "cv.zip"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void download_WithRange_ShouldResumeAndRemoveOnlyAfterLastByte() throws Exception {
+        String fileId = storage.saveFile(content);
+
+        MockHttpServletResponse first = mockMvc.perform(get("/api/v1/cv/download")
+                        .param("fileId", fileId).param("filename", "cv.zip")
+                        .header(HttpHeaders.RANGE, "bytes=0-399"))
+                .andExpect(status().isPartialContent())
+                .andReturn().getResponse();
+        String etag = first.getHeader(HttpHeaders.ETAG);
+
+        MockHttpServletResponse rest = mockMvc.perform(get("/api/v1/cv/download")
+                        .param("fileId", fileId).param("filename", "cv.zip")
+                        .header(HttpHeaders.RANGE, "bytes=400-")
+                        .header(HttpHeaders.IF_RANGE, etag))
+                .andExpect(status().isPartialContent())
+                .andReturn().getResponse();
+
+        assertEquals("bytes 0-399/1000", first.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertArrayEquals(Arrays.copyOfRange(content, 0, 400), first.getContentAsByteArray());
+        assertEquals("bytes 400-999/1000", rest.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertArrayEquals(Arrays.copyOfRange(content, 400, 1000), rest.getContentAsByteArray());
+        assertTrue(storage.fileSize(fileId).isEmpty());
+    }
+
+    @Test
+    void download_WithTailRangeFirst_ShouldKeepFileUntilAllSegmentsAreDelivered() throws Exception {
+        // 1. Hazırlık: parçalı indirme yöneticisi önce son parçayı, sonra baştaki parçayı ister.
+        String fileId = storage.saveFile(content);
+
+        // 2. Eylem
+        MockHttpServletResponse tail = mockMvc.perform(get("/api/v1/cv/download")
+                        .param("fileId", fileId).param("filename", "cv.zip")
+                        .header(HttpHeaders.RANGE, "bytes=600-999"))
+                .andExpect(status().isPartialContent())
+                .andReturn().getResponse();
+        boolean presentAfterTail = storage.fileSize(fileId).isPresent();
+        MockHttpServletResponse head = mockMvc.perform(get("/api/v1/cv/download")
+                        .param("fileId", fileId).param("filename", "cv.zip")
+                        .header(HttpHeaders.RANGE, "bytes=0-599"))
+                .andExpect(status().isPartialContent())
+                .andReturn().getResponse();
+
+        // 3. Doğrulama: son byte'ı içeren ilk parçadan sonra dosya silinmez; tüm aralıklar gönderilince silinir.
+        assertTrue(presentAfterTail);
+        assertArrayEquals(Arrays.copyOfRange(content, 600, 1000), tail.getContentAsByteArray());
+        assertArrayEquals(Arrays.copyOfRange(content, 0, 600), head.getContentAsByteArray());
+        assertTrue(storage.fileSize(fileId).isEmpty());
+    }
+
+    @Test
+    void download_AfterLastByteProbe_ShouldStillServeWholeFile() throws Exception {
+        String fileId = storage.saveFile(content);
+
+        mockMvc.perform(get("/api/v1/cv/download")
+                        .param("fileId", fileId).param("filename", "cv.zip")
+                        .header(HttpHeaders.RANGE, "bytes=-1"))
+                .andExpect(status().isPartialContent());
+        MockHttpServletResponse full = mockMvc.perform(get("/api/v1/cv/download")
+                        .param("fileId", fileId).param("filename", "cv.zip"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+
+        assertArrayEquals(content, full.getContentAsByteArray());
+        assertTrue(storage.fileSize(fileId).isEmpty());
+    }
+
+    @Test
+    void download_WithUnsatisfiableRange_ShouldReturn416AndKeepFile() throws Exception {
+        String fileId = storage.saveFile(content);
+
+        MockHttpServletResponse response = mockMvc.perform(get("/api/v1/cv/download")
+                        .param("fileId", fileId).param("filename", "cv.zip")
+                        .header(HttpHeaders.RANGE, "bytes=5000-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andReturn().getResponse();
+
+        assertEquals("bytes */1000", response.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertTrue(storage.fileSize(fileId).isPresent());
+    }
+}
@@ -0,0 +1,226 @@
+package com.cvconverter.ats_converter.service;
+
+import com.cvconverter.ats_converter.dto.BatchProgressUpdate;
+import com.cvconverter.ats_converter.metrics.CvMetrics;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * BatchDocumentService için testler. Metin çıkarma ve Gemini adımları taklit edilir; arşivleme ve
+ * depolama gerçek servislerle yapılır.
+ */
+class BatchDocumentServiceTest {
+
+    @TempDir
+    Path spillDirectory;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private CvProcessingService cvProcessingService;
+    private PdfGenerationService pdfGenerationService;
+    private FileStorageService storage;
+    private UploadSpoolService uploadSpoolService;
+    private BatchDocumentService batchDocumentService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        cvProcessingService = mock(CvProcessingService.class);
+        pdfGenerationService = mock(PdfGenerationService.class);
+        storage = new FileStorageService(1 << 20, 1 << 22, 1 << 16, 900, "disk", spillDirectory.toString());
+        CvMetrics cvMetrics = new CvMetrics(new SimpleMeterRegistry());
+        uploadSpoolService = new UploadSpoolService(1 << 20, 2, "", cvMetrics);
+        batchDocumentService = new BatchDocumentService(cvProcessingService, pdfGenerationService,
+                new ZipService(6, "pdf"), objectMapper, storage, new CvAnalysisCache(false, 1024, 60),
+                uploadSpoolService, executor, cvMetrics, 2, 3, 2048);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        storage.cleanUp();
+        uploadSpoolService.cleanUp();
+    }
+
+    @Test
+    void processBatch_WhenOneFileFails_ShouldArchiveOthersAndListFailureInManifest() throws Exception {
+        // 1. Hazırlık: biri tek PDF, ikisi ZİP içinde olmak üzere üç CV; "b.pdf" okunamıyor.
+        when(cvProcessingService.extractTextFromPdf(any(Path.class))).thenAnswer(invocation -> {
+            String content = new String(Files.readAllBytes(invocation.getArgument(0)), StandardCharsets.ISO_8859_1);
+            if (content.contains("bozuk")) {
+                throw new RuntimeException("PDF dosyası okunurken bir hata oluştu: bozuk dosya");
+            }
+            return content;
+        });
+        when(cvProcessingService.getStructuredDataFromGemini(anyString(), anyString()))
+                .thenReturn(CvProcessingService.StructuredCv.of("{}"));
+        when(pdfGenerationService.createAtsFriendlyPdf(anyString())).thenReturn("%PDF-ats".getBytes(StandardCharsets.UTF_8));
+
+        List<MultipartFile> uploads = List.of(
+                new MockMultipartFile("files", "a.pdf", "application/pdf", pdf("cv a", 1)),
+                new MockMultipartFile("files", "cvler.zip", "application/zip",
+                        zip(Map.of("klasor/b.pdf", pdf("bozuk", 1), "klasor/c.pdf", pdf("cv c", 1)))));
+        BatchDocumentService.SpooledBatch batch = batchDocumentService.spool(uploads);
+        JobRegistry.Job job = new JobRegistry(objectMapper, 900, 100).create("batch");
+        SseEmitter emitter = mock(SseEmitter.class);
+        job.subscribe(new SseEventDispatcher(Runnable::run, 15000, 100).open(emitter), 0);
+
+        // 2. Eylem
+        batchDocumentService.processBatch(job, batch, "test-api-key");
+
+        // 3. Doğrulama
+        List<BatchProgressUpdate> updates = sentUpdates(emitter);
+        BatchProgressUpdate last = updates.get(updates.size() - 1);
+        assertEquals("DOWNLOAD_READY", last.getStage());
+        assertEquals(2, last.getCompleted());
+        assertEquals(1, last.getFailed());
+        assertEquals(1, updates.stream().filter(update -> "FILE_FAILED".equals(update.getStage())).count());
+        verify(emitter).complete();
+        assertEquals("SUCCEEDED", job.status().getState());
+        assertEquals(last.getData(), job.status().getFileId());
+
+        Map<String, byte[]> archive = unzip(storage.getFile(last.getData()));
+        assertEquals(List.of("ATS_a.pdf", "ATS_c.pdf", "manifest.json"), archive.keySet().stream().sorted().toList());
+        JsonNode manifest = objectMapper.readTree(archive.get("manifest.json"));
+        assertEquals(3, manifest.get("total").asInt());
+        assertEquals("b.pdf", manifest.get("failures").get(0).get("fileName").asText());
+        assertTrue(manifest.get("failures").get(0).get("error").asText().contains("bozuk"));
+        assertFalse(Files.exists(batch.directory()));
+    }
+
+    @Test
+    void spool_ShouldKeepOnlyPdfNamesAndRejectOversizedEntries() throws IOException {
+        // ZİP içindeki yollar arşiv adına taşınmaz; PDF olmayanlar atlanır, sınırı aşan girdi reddedilir.
+        BatchDocumentService.SpooledBatch batch = batchDocumentService.spool(List.of(
+                new MockMultipartFile("files", "cvler.zip", "application/zip",
+                        zip(Map.of("../../kotu.pdf", pdf("cv", 1), "notlar.txt", "metin".getBytes(StandardCharsets.UTF_8),
+                                "buyuk.pdf", new byte[4096])))));
+
+        Map<String, String> rejections = new HashMap<>();
+        batch.files().forEach(file -> rejections.put(file.fileName(), String.valueOf(file.rejection())));
+        assertEquals(2, batch.files().size());
+        assertEquals("null", rejections.get("kotu.pdf"));
+        assertTrue(rejections.get("buyuk.pdf").contains("sınır"));
+        batchDocumentService.discard(batch);
+        assertFalse(Files.exists(batch.directory()));
+    }
+
+    @Test
+    void spool_ShouldRejectFilesThatFailUploadPreflight() throws IOException {
+        // 1. Hazırlık: biri PDF değil, biri sayfa sınırını (2) aşıyor, biri geçerli.
+        List<MultipartFile> uploads = List.of(
+                new MockMultipartFile("files", "sahte.pdf", "application/pdf", "metin".getBytes(StandardCharsets.UTF_8)),
+                new MockMultipartFile("files", "uzun.pdf", "application/pdf", pdf("uzun", 3)),
+                new MockMultipartFile("files", "gecerli.pdf", "application/pdf", pdf("gecerli", 1)));
+
+        // 2. Eylem
+        BatchDocumentService.SpooledBatch batch = batchDocumentService.spool(uploads);
+
+        // 3. Doğrulama: reddedilen dosyalar diskte tutulmaz ve dönüştürülmeye gönderilmez.
+        Map<String, BatchDocumentService.BatchFile> files = new HashMap<>();
+        batch.files().forEach(file -> files.put(file.fileName(), file));
+        assertTrue(files.get("sahte.pdf").rejection().contains("PDF değil"));
+        assertTrue(files.get("uzun.pdf").rejection().contains("sayfa"));
+        assertNull(files.get("uzun.pdf").path());
+        assertNull(files.get("gecerli.pdf").rejection());
+        try (var spooled = Files.list(batch.directory())) {
+            assertEquals(1, spooled.count());
+        }
+        batchDocumentService.discard(batch);
+    }
+
+    @Test
+    void spool_WhenTooManyFiles_ShouldThrow() throws IOException {
+        List<MultipartFile> uploads = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            uploads.add(new MockMultipartFile("files", i + ".pdf", "application/pdf", pdf("cv " + i, 1)));
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> batchDocumentService.spool(uploads));
+    }
+
+    private List<BatchProgressUpdate> sentUpdates(SseEmitter emitter) throws IOException {
+        ArgumentCaptor<SseEmitter.SseEventBuilder> captor = ArgumentCaptor.forClass(SseEmitter.SseEventBuilder.class);
+        verify(emitter, atLeastOnce()).send(captor.capture());
+        List<BatchProgressUpdate> updates = new ArrayList<>();
+        for (SseEmitter.SseEventBuilder event : captor.getAllValues()) {
+            for (var part : event.build()) {
+                if (part.getData() instanceof String json && json.startsWith("{")) {
+                    updates.add(objectMapper.readValue(json, BatchProgressUpdate.class));
+                }
+            }
+        }
+        return updates;
+    }
+
+    /**
+     * Verilen sayıda boş sayfası olan bir PDF; {@code marker} dosyanın sonuna yorum olarak eklenir ve taklit
+     * edilen metin çıkarma adımında dosyayı ayırt etmek için kullanılır.
+     */
+    private static byte[] pdf(String marker, int pages) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (PDDocument document = new PDDocument()) {
+            for (int i = 0; i < pages; i++) {
+                document.addPage(new PDPage());
+            }
+            document.save(baos);
+        }
+        baos.write(("\n% " + marker + "\n").getBytes(StandardCharsets.ISO_8859_1));
+        return baos.toByteArray();
+    }
+
+    private static byte[] zip(Map<String, byte[]> entries) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (ZipOutputStream zos = new ZipOutputStream(baos)) {
+            for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+                zos.putNextEntry(new ZipEntry(entry.getKey()));
+                zos.write(entry.getValue());
+                zos.closeEntry();
+            }
+        }
+        return baos.toByteArray();
+    }
+
+    private static Map<String, byte[]> unzip(byte[] archive) throws IOException {
+        Map<String, byte[]> entries = new HashMap<>();
+        try (ZipInputStream zis = new ZipInputStream(new ByteArrayInputStream(archive))) {
+            ZipEntry entry;
+            while ((entry = zis.getNextEntry()) != null) {
+                entries.put(entry.getName(), zis.readAllBytes());
+            }
+        }
+        return entries;
+    }
+}
@@ -0,0 +1,78 @@
+package com.cvconverter.ats_converter.service;
+
+import com.cvconverter.ats_converter.dto.CacheStatsDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * CoverLetterCache için birim testleri: kanonik CV anahtarı, birebir ve yakın kopya ilan eşleşmesi.
+ */
+class CoverLetterCacheTest {
+
+    private static final String CV_JSON = """
+            {"kisisel_bilgiler":{"isim":"Ayşe Yılmaz","email":"ayse@example.com"},"yetenekler":["Java","Spring"]}
+            """;
+
+    private static final String JOB_DESCRIPTION = """
+            Ekibimize katılacak Kıdemli Java Geliştirici arıyoruz. Spring Boot ile mikroservis mimarisinde en az beş
+            yıl deneyimli, PostgreSQL ve Kafka ile çalışmış, test odaklı geliştirme pratiklerini benimseyen, kod
+            incelemelerinde aktif rol alan ve ekip arkadaşlarına mentorluk yapabilecek adaylar tercih sebebidir.
+            Hibrit çalışma modeli, özel sağlık sigortası ve eğitim bütçesi sunuyoruz.
+            """;
+
+    private final CoverLetterCache cache = new CoverLetterCache(new ObjectMapper(), true, 1024 * 1024, 60, 0.9);
+
+    @Test
+    void get_WithReformattedCvAndPosting_ShouldReturnExactMatch() {
+        // 1. Hazırlık
+        cache.put(CV_JSON, JOB_DESCRIPTION, "Sayın Yetkili, ...");
+        String reorderedCv = "{\"yetenekler\":[\"Java\",\"Spring\"],\"kisisel_bilgiler\":{\"email\":\"ayse@example.com\",\"isim\":\"Ayşe Yılmaz\",\"telefon\":\"\"}}";
+        String reformattedPosting = JOB_DESCRIPTION.toUpperCase(Locale.forLanguageTag("tr")).replace(",", " ,  ");
+
+        // 2. Eylem
+        String cached = cache.get(reorderedCv, reformattedPosting);
+
+        // 3. Doğrulama
+        assertEquals("Sayın Yetkili, ...", cached);
+        assertEquals(0, cache.nearHitCount());
+    }
+
+    @Test
+    void get_WithSlightlyEditedPosting_ShouldReturnNearMatch() {
+        cache.put(CV_JSON, JOB_DESCRIPTION, "Sayın Yetkili, ...");
+        String edited = JOB_DESCRIPTION.replace("beş", "dört");
+
+        assertEquals("Sayın Yetkili, ...", cache.get(CV_JSON, edited));
+        assertEquals(1, cache.nearHitCount());
+    }
+
+    @Test
+    void get_WithDifferentPostingOrCv_ShouldMiss() {
+        cache.put(CV_JSON, JOB_DESCRIPTION, "Sayın Yetkili, ...");
+        String otherPosting = """
+                Büyüyen e-ticaret ekibimiz için Ürün Tasarımcısı arıyoruz. Figma ile kullanıcı akışları ve prototipler
+                hazırlamış, kullanıcı araştırmalarını yürütebilen, tasarım sistemlerine katkı vermiş, mobil ve web
+                arayüzlerinde erişilebilirlik standartlarına hakim adayların başvurularını bekliyoruz. Uzaktan çalışma
+                imkanı ve yıllık konferans bütçesi sağlıyoruz.
+                """;
+
+        assertNull(cache.get(CV_JSON, otherPosting));
+        assertNull(cache.get("{\"kisisel_bilgiler\":{\"isim\":\"Mehmet Demir\"}}", JOB_DESCRIPTION));
+
+        CacheStatsDto stats = cache.stats();
+        assertEquals(0, stats.getHitCount());
+        assertEquals(2, stats.getMissCount());
+    }
+
+    @Test
+    void get_WithShortPosting_ShouldOnlyMatchExactly() {
+        cache.put(CV_JSON, "Java geliştirici, İstanbul", "Sayın Yetkili, ...");
+
+        assertEquals("Sayın Yetkili, ...", cache.get(CV_JSON, "JAVA GELİŞTİRİCİ - istanbul"));
+        assertNull(cache.get(CV_JSON, "Java geliştirici, Ankara"));
+    }
+}
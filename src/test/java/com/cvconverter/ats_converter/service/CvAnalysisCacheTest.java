@@ -0,0 +1,62 @@
+package com.cvconverter.ats_converter.service;
+
+import com.cvconverter.ats_converter.dto.CacheStatsDto;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * CvAnalysisCache için birim testleri.
+ */
+class CvAnalysisCacheTest {
+
+    @Test
+    void get_AfterStructuredJsonIsStored_ShouldReturnBothTextAndJson() {
+        // 1. Hazırlık
+        CvAnalysisCache cache = new CvAnalysisCache(true, 1024 * 1024, 60);
+        cache.putExtractedText("hash-1", "CV metni");
+        cache.putStructuredJson("hash-1", "CV metni", "{\"yetenekler\":[]}");
+
+        // 2. Eylem
+        CvAnalysisCache.CachedAnalysis cached = cache.get("hash-1");
+
+        // 3. Doğrulama
+        assertNotNull(cached);
+        assertEquals("CV metni", cached.extractedText());
+        assertEquals("{\"yetenekler\":[]}", cached.structuredJson());
+    }
+
+    @Test
+    void putExtractedText_WhenEntryAlreadyHasJson_ShouldKeepJson() {
+        CvAnalysisCache cache = new CvAnalysisCache(true, 1024 * 1024, 60);
+        cache.putStructuredJson("hash-1", "eski metin", "{}");
+
+        cache.putExtractedText("hash-1", "yeni metin");
+
+        assertEquals("yeni metin", cache.get("hash-1").extractedText());
+        assertEquals("{}", cache.get("hash-1").structuredJson());
+    }
+
+    @Test
+    void stats_ShouldCountHitsAndMisses() {
+        CvAnalysisCache cache = new CvAnalysisCache(true, 1024 * 1024, 60);
+        cache.putExtractedText("hash-1", "CV metni");
+
+        cache.get("hash-1");
+        cache.get("olmayan-hash");
+
+        CacheStatsDto stats = cache.stats();
+        assertEquals(1, stats.getHitCount());
+        assertEquals(1, stats.getMissCount());
+        assertEquals(1, stats.getEntries());
+        assertTrue(stats.getWeightedBytes() > 0);
+    }
+
+    @Test
+    void get_WhenCacheIsDisabled_ShouldAlwaysReturnNull() {
+        CvAnalysisCache cache = new CvAnalysisCache(false, 1024 * 1024, 60);
+        cache.putExtractedText("hash-1", "CV metni");
+
+        assertNull(cache.get("hash-1"));
+    }
+}
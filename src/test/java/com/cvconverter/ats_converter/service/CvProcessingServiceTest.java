@@ -1,43 +1,50 @@
 package com.cvconverter.ats_converter.service;
 
+import com.cvconverter.ats_converter.client.GeminiApiException;
+import com.cvconverter.ats_converter.client.GeminiClient;
+import com.cvconverter.ats_converter.dto.ExperienceDto;
 import com.cvconverter.ats_converter.dto.gemini.Candidate;
 import com.cvconverter.ats_converter.dto.gemini.Content;
+import com.cvconverter.ats_converter.dto.gemini.GeminiRequest;
 import com.cvconverter.ats_converter.dto.gemini.GeminiResponse;
 import com.cvconverter.ats_converter.dto.gemini.Part;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpStatus;
-import org.springframework.http.ResponseEntity;
 import org.springframework.mock.web.MockMultipartFile;
-import org.springframework.web.client.RestTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
-import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 /**
  * CvProcessingService sınıfı için birim testleri (Unit Tests).
- * Bu testler, dış bağımlılıkları (RestTemplate) taklit ederek (mock)
+ * Bu testler, dış bağımlılıkları (GeminiClient) taklit ederek (mock)
  * sadece bu servisin kendi mantığını test eder.
  */
 @ExtendWith(MockitoExtension.class) // Mockito'nun JUnit 5 ile entegrasyonunu sağlar.
 class CvProcessingServiceTest {
 
-    @Mock // Taklit edilecek nesne. Gerçek RestTemplate yerine sahtesini kullanacağız.
-    private RestTemplate restTemplate;
+    @Mock // Taklit edilecek nesne. Gerçek Gemini istemcisi yerine sahtesini kullanacağız.
+    private GeminiClient geminiClient;
 
-    @InjectMocks // Test edilecek asıl sınıf. Mock'lanan RestTemplate bu sınıfa enjekte edilecek.
+    // Test edilecek asıl sınıf. Mock'lanan GeminiClient ve gerçek bir PdfTextExtractor ile oluşturulur.
     private CvProcessingService cvProcessingService;
 
     private String fakeCvText;
@@ -52,6 +59,10 @@ class CvProcessingServiceTest {
         fakeApiKey = "test-api-key";
         fakeJobDescription = "Bu bir iş ilanıdır.";
         fakeCvJson = "{\"kisisel_bilgiler\":{\"isim\":\"Test Kullanıcı\"}}";
+
+        PdfTextExtractor pdfTextExtractor = new PdfTextExtractor(true, 4, 8, 2, 60, 20000, false);
+        cvProcessingService = new CvProcessingService(geminiClient, pdfTextExtractor, new CvTextCompactor(true),
+                new LocalCvParser(new ObjectMapper(), true, 0.85, 0.4), new ObjectMapper());
     }
 
     @Test
@@ -59,17 +70,16 @@ class CvProcessingServiceTest {
         // 1. Hazırlık (Arrange)
         // Gemini API'sinden geleceğini varsaydığımız sahte yanıtı oluşturuyoruz.
         GeminiResponse fakeResponse = createFakeGeminiResponse("```json\n" + fakeCvJson + "\n```");
-        ResponseEntity<GeminiResponse> responseEntity = new ResponseEntity<>(fakeResponse, HttpStatus.OK);
 
         // Mockito'ya talimat veriyoruz:
-        // "RestTemplate'in postForEntity metodu çağrıldığında, ...
-        when(restTemplate.postForEntity(anyString(), any(HttpEntity.class), eq(GeminiResponse.class)))
-                // ... bizim hazırladığımız sahte yanıtı (responseEntity) döndür."
-                .thenReturn(responseEntity);
+        // "GeminiClient'ın generateContent metodu çağrıldığında, ...
+        when(geminiClient.generateContent(any(GeminiRequest.class), anyString()))
+                // ... bizim hazırladığımız sahte yanıtı döndür."
+                .thenReturn(fakeResponse);
 
         // 2. Eylem (Act)
         // Test etmek istediğimiz metodu çağırıyoruz.
-        String actualJson = cvProcessingService.getStructuredDataFromGemini(fakeCvText, fakeApiKey);
+        String actualJson = cvProcessingService.getStructuredDataFromGemini(fakeCvText, fakeApiKey).json();
 
         // 3. Doğrulama (Assert)
         // Sonucun beklediğimiz gibi olup olmadığını kontrol ediyoruz.
@@ -77,15 +87,108 @@ class CvProcessingServiceTest {
         assertEquals(fakeCvJson, actualJson); // Sonucun markdown'dan temizlenmiş JSON ile aynı olduğunu
     }
 
+    @Test
+    void getStructuredDataFromGemini_WhenLocalParserIsConfident_ShouldNotCallGemini() {
+        // 1. Hazırlık: standart bölümlere sahip, yerel ayrıştırıcının tek başına çözebileceği bir CV.
+        String structuredCv = "Ayşe Yılmaz\nayse@example.com | +90 532 000 00 00\n\n"
+                + "Deneyim\nYazılım Mühendisi | Örnek Teknoloji A.Ş.\n2019 - 2021\n- REST servisleri.\n\n"
+                + "Eğitim\nOrta Doğu Teknik Üniversitesi\nBilgisayar Mühendisliği, Lisans\n2014 - 2018\n\n"
+                + "Yetenekler\nJava, Spring Boot, SQL";
+
+        // 2. Eylem
+        CvProcessingService.StructuredCv result = cvProcessingService.getStructuredDataFromGemini(structuredCv, fakeApiKey);
+        String actualJson = result.json();
+
+        // 3. Doğrulama
+        verifyNoInteractions(geminiClient);
+        // Güvenilir yerel sonuç yedek değildir; önbelleğe alınabilir.
+        assertTrue(result.cacheable());
+        assertTrue(actualJson.contains("\"isim\":\"Ayşe Yılmaz\""), actualJson);
+        assertTrue(actualJson.contains("\"sirket\":\"Örnek Teknoloji A.Ş.\""), actualJson);
+    }
+
+    @Test
+    void getStructuredDataFromGemini_WhenLocalParserOnlyGuessesTitleAndCompany_ShouldCallGemini() {
+        // 1. Hazırlık: şirket ve unvan kelime listelerinde yok; yerel ayrıştırıcı ikisini yer değiştirerek bulur.
+        String swappedCv = "Ayşe Yılmaz\nayse@example.com | +90 532 000 00 00\n\n"
+                + "Deneyim\nHepsiburada\nÜrün Sahibi\nOcak 2020 - Halen\n- Ödeme deneyimi.\n\n"
+                + "Eğitim\nOrta Doğu Teknik Üniversitesi\nBilgisayar Mühendisliği, Lisans\n2014 - 2018\n\n"
+                + "Yetenekler\nJava, Spring Boot, SQL";
+        when(geminiClient.generateContent(any(GeminiRequest.class), anyString()))
+                .thenReturn(createFakeGeminiResponse(fakeCvJson));
+
+        // 2. Eylem
+        CvProcessingService.StructuredCv result = cvProcessingService.getStructuredDataFromGemini(swappedCv, fakeApiKey);
+
+        // 3. Doğrulama: konumdan tahmin edilen alanlar Gemini'nin yerine geçmez.
+        verify(geminiClient).generateContent(any(GeminiRequest.class), anyString());
+        assertEquals(fakeCvJson, result.json());
+        assertFalse(result.localFallback());
+    }
+
+    @Test
+    void getStructuredDataFromGemini_WhenGeminiIsUnavailable_ShouldFallBackToLocalParser() {
+        // 1. Hazırlık: eğitim ve yetenek bölümü olmadığı için Gemini'ye gidecek, ama yedek olarak yeterli bir CV.
+        String partialCv = "Ayşe Yılmaz\nayse@example.com\n\nDeneyim\nYazılım Mühendisi | Örnek Teknoloji A.Ş.\n2019 - 2021";
+        when(geminiClient.generateContent(any(GeminiRequest.class), anyString()))
+                .thenThrow(new GeminiApiException("Yapay zeka servisi şu anda yanıt vermiyor.", 503, Duration.ofSeconds(30)));
+
+        // 2. Eylem
+        CvProcessingService.StructuredCv result = cvProcessingService.getStructuredDataFromGemini(partialCv, fakeApiKey);
+
+        // 3. Doğrulama: yedek sonuç işaretlidir ve önbelleğe alınmaz.
+        assertTrue(result.json().contains("\"unvan\":\"Yazılım Mühendisi\""), result.json());
+        assertTrue(result.localFallback());
+        assertFalse(result.cacheable());
+    }
+
+    @Test
+    void getStructuredDataFromGemini_WhenGeminiIsUnavailableAndLocalResultIsWeak_ShouldRethrow() {
+        when(geminiClient.generateContent(any(GeminiRequest.class), anyString()))
+                .thenThrow(new GeminiApiException("Yapay zeka servisi şu anda yanıt vermiyor.", 503, Duration.ofSeconds(30)));
+
+        assertThrows(GeminiApiException.class, () -> cvProcessingService.getStructuredDataFromGemini(fakeCvText, fakeApiKey));
+    }
+
+    @Test
+    void getStructuredDataStreaming_ShouldForwardSectionsBeforeStreamEnds() {
+        // 1. Hazırlık: Gemini JSON'u üç parça halinde gönderiyor.
+        List<String> chunks = List.of("```json\n{\"kisisel_bilgiler\":{\"isim\":\"Test Kullanıcı\"},",
+                "\"is_deneyimleri\":[{\"unvan\":\"Mühendis\",\"sirket\":\"Örnek\"}],",
+                "\"yetenekler\":[\"Java\"]}\n```");
+        List<String> events = new ArrayList<>();
+        doAnswer(invocation -> {
+            Consumer<GeminiResponse> consumer = invocation.getArgument(2);
+            for (String chunk : chunks) {
+                consumer.accept(createFakeGeminiResponse(chunk));
+                events.add("parça");
+            }
+            return null;
+        }).when(geminiClient).streamGenerateContent(any(GeminiRequest.class), anyString(), any());
+        CvSectionListener listener = new CvSectionListener() {
+            @Override
+            public void onExperience(ExperienceDto experience) {
+                events.add("deneyim:" + experience.getUnvan());
+            }
+        };
+
+        // 2. Eylem
+        String json = cvProcessingService.getStructuredDataStreaming(fakeCvText, fakeApiKey, listener, null).json();
+
+        // 3. Doğrulama: kayıt, akışın ikinci parçası işlenirken iletildi.
+        assertEquals(List.of("parça", "deneyim:Mühendis", "parça", "parça"), events);
+        assertEquals("{\"kisisel_bilgiler\":{\"isim\":\"Test Kullanıcı\"},"
+                + "\"is_deneyimleri\":[{\"unvan\":\"Mühendis\",\"sirket\":\"Örnek\"}],\"yetenekler\":[\"Java\"]}", json);
+    }
+
     @Test
     void generateCoverLetter_WhenApiCallIsSuccessful_ShouldReturnCoverLetterText() {
         // 1. Hazırlık
         String expectedCoverLetter = "Sayın Yetkili, ben Test Kullanıcı...";
         GeminiResponse fakeResponse = createFakeGeminiResponse(expectedCoverLetter);
-        ResponseEntity<GeminiResponse> responseEntity = new ResponseEntity<>(fakeResponse, HttpStatus.OK);
 
-        when(restTemplate.postForEntity(anyString(), any(HttpEntity.class), eq(GeminiResponse.class)))
-                .thenReturn(responseEntity);
+        when(geminiClient.generateContent(any(GeminiRequest.class), anyString()))
+                .thenReturn(fakeResponse);
 
         // 2. Eylem
         String actualCoverLetter = cvProcessingService.generateCoverLetter(fakeCvJson, fakeJobDescription, fakeApiKey);
@@ -97,30 +200,31 @@ class CvProcessingServiceTest {
 
     @Test
     void extractTextFromPdf_WhenPdfIsValid_ShouldReturnText() throws IOException {
-        // Bu test gerçek bir PDF'e ihtiyaç duyar. Basit bir PDF'i test kaynaklarına koyabiliriz.
-        // Şimdilik PDFBox'a güvendiğimiz için bu testi basitleştiriyoruz.
-        // Gerçek metin içeren sahte bir PDF dosyası oluşturuyoruz.
-        // Bu, gerçek bir PDF dosyası değil, sadece PDFBox'ın `load` metodunun çalışmasını tetiklemek için.
-        // Gerçek bir PDF dosyasıyla test yapmak için dosyayı `src/test/resources` altına koyup okumak gerekir.
-        byte[] pdfContent = createDummyPdfContent(); // Gerçek bir PDF dosyası olmasa da, PDFBox'ın çalışmasını sağlar.
+        // src/test/resources altındaki gerçek bir CV PDF'i kullanılır.
+        byte[] pdfContent = readTestPdf();
         MultipartFile multipartFile = new MockMultipartFile("test.pdf", "test.pdf", "application/pdf", pdfContent);
 
-        // Bu test için PDFBox'a güvendiğimizden, çok detaylı bir doğrulama yapmıyoruz.
-        // Sadece bir hata fırlatmadığını kontrol etmek bile yeterli olabilir.
-        assertDoesNotThrow(() -> {
-            String text = cvProcessingService.extractTextFromPdf(multipartFile);
-            // Gerçek bir dummy PDF ile test ediyorsak, beklenen metni de kontrol edebiliriz.
-            // assertEquals("Hello World", text.trim());
-        });
+        String text = assertDoesNotThrow(() -> cvProcessingService.extractTextFromPdf(multipartFile));
+
+        assertNotNull(text);
+        assertFalse(text.isBlank());
+    }
+
+    @Test
+    void extractTextFromPdf_WhenFileIsNotPdf_ShouldThrowException() {
+        MultipartFile multipartFile = new MockMultipartFile("test.pdf", "test.pdf", "application/pdf", new byte[]{});
+
+        Exception exception = assertThrows(RuntimeException.class, () -> cvProcessingService.extractTextFromPdf(multipartFile));
+
+        assertTrue(exception.getMessage().startsWith("PDF dosyası okunurken bir hata oluştu"));
     }
 
     @Test
     void callGeminiApi_WhenApiResponseIsEmpty_ShouldThrowException() {
         // 1. Hazırlık
         // Gemini API'sinin boş bir yanıt döndürdüğü durumu simüle ediyoruz.
-        ResponseEntity<GeminiResponse> emptyResponseEntity = new ResponseEntity<>(new GeminiResponse(), HttpStatus.OK);
-        when(restTemplate.postForEntity(anyString(), any(HttpEntity.class), eq(GeminiResponse.class)))
-                .thenReturn(emptyResponseEntity);
+        when(geminiClient.generateContent(any(GeminiRequest.class), anyString()))
+                .thenReturn(new GeminiResponse());
 
         // 2. Eylem & 3. Doğrulama
         // Metodun çağrıldığında bir RuntimeException fırlatıp fırlatmadığını kontrol ediyoruz.
@@ -148,12 +252,12 @@ class CvProcessingServiceTest {
     }
 
     /**
-     * PDFBox'ın çökmemesi için basit bir PDF içeriği oluşturan sahte metot.
-     * Gerçek bir test için, src/test/resources altına küçük bir PDF dosyası koymak daha iyidir.
+     * Test kaynaklarındaki örnek CV PDF'ini okuyan yardımcı metot.
      */
-    private byte[] createDummyPdfContent() {
-        // Bu, PDFBox'ı test etmek için geçerli bir PDF değil, sadece IOException fırlatmasını önler.
-        // Gerçek bir test için Apache PDFBox ile programatik olarak tek sayfalık bir PDF oluşturulabilir.
-        return new byte[]{}; // Şimdilik boş bırakıyoruz, çünkü asıl test ettiğimiz şey Gemini kısmı.
+    private byte[] readTestPdf() throws IOException {
+        try (InputStream inputStream = getClass().getResourceAsStream("/test-files/test_cv.pdf")) {
+            assertNotNull(inputStream, "test_cv.pdf bulunamadı");
+            return inputStream.readAllBytes();
+        }
     }
-}
\ No newline at end of file
+}
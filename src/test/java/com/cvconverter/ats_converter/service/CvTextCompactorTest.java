@@ -0,0 +1,189 @@
+package com.cvconverter.ats_converter.service;
+
+import com.lowagie.text.Document;
+import com.lowagie.text.Font;
+import com.lowagie.text.HeaderFooter;
+import com.lowagie.text.Paragraph;
+import com.lowagie.text.Phrase;
+import com.lowagie.text.pdf.BaseFont;
+import com.lowagie.text.pdf.PdfWriter;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * CvTextCompactor için birim testleri.
+ */
+class CvTextCompactorTest {
+
+    private final CvTextCompactor compactor = new CvTextCompactor(true);
+
+    @Test
+    void compact_ShouldRemovePageNoiseAndKeepFirstHeader() {
+        // 1. Hazırlık: iki sayfa; her sayfada aynı üst bilgi ve bir sayfa numarası var.
+        String raw = "Ayşe Yılmaz  |  ayse@example.com\n"
+                + "Kıdemli   Yazılım    Mühendisi\n"
+                + "Mikroservis mimarisi geliştir-\n"
+                + "me süreçlerinde  ekip liderliği.\n"
+                + " Java\n"
+                + "Sayfa 1 / 2\n\f"
+                + "Ayşe Yılmaz  |  ayse@example.com\n"
+                + "──────────\n"
+                + "Ar-\n"
+                + "Ge Merkezi, Ankara\n"
+                + "2019 - 2021\n"
+                + "Sayfa 2 / 2\n\f";
+
+        // 2. Eylem
+        CvTextCompactor.CompactedText result = compactor.compact(raw);
+
+        // 3. Doğrulama
+        assertEquals("Ayşe Yılmaz | ayse@example.com\n"
+                + "Kıdemli Yazılım Mühendisi\n"
+                + "Mikroservis mimarisi geliştirme süreçlerinde ekip liderliği.\n"
+                + "Java\n"
+                + "\n"
+                + "Ar-\n"
+                + "Ge Merkezi, Ankara\n"
+                + "2019 - 2021", result.text());
+        assertTrue(result.estimatedTokensAfter() < result.estimatedTokensBefore());
+    }
+
+    @Test
+    void compact_ShouldKeepStandaloneMonthYearLinesAndDropBarePageNumberInFooter() {
+        // 1. Hazırlık: tarihler ayrı satırlarda "AA/YY" biçiminde; sayfanın son satırı öneksiz "1 / 2".
+        String raw = "Ayşe Yılmaz\n"
+                + "Deneyim\n"
+                + "Acme Yazılım\n"
+                + "06/18\n"
+                + "Kıdemli Java Geliştirici\n"
+                + "Ödeme servisleri\n"
+                + "Initech\n"
+                + "09/19\n"
+                + "1 / 2\n\f";
+
+        // 2. Eylem
+        CvTextCompactor.CompactedText result = compactor.compact(raw);
+
+        // 3. Doğrulama: gövdedeki ve alt bilgi bölgesindeki tarih satırları kalır, sayfa numarası atılır.
+        assertEquals("Ayşe Yılmaz\n"
+                + "Deneyim\n"
+                + "Acme Yazılım\n"
+                + "06/18\n"
+                + "Kıdemli Java Geliştirici\n"
+                + "Ödeme servisleri\n"
+                + "Initech\n"
+                + "09/19", result.text());
+    }
+
+    @Test
+    void compact_ShouldKeepDistinctDatedLinesInHeaderAndFooterZones() {
+        // 1. Hazırlık: 1. sayfanın sonunda ve 2. sayfanın başında aynı unvan, farklı tarihlerle geçiyor.
+        String raw = "Ayşe Yılmaz - Sayfa 1\n"
+                + "Deneyim\n"
+                + "Acme Yazilim\n"
+                + "Odeme servisleri\n"
+                + "Yazilim Muhendisi 2019 - 2021\n\f"
+                + "Ayşe Yılmaz - Sayfa 2\n"
+                + "Yazilim Muhendisi 2016 - 2019\n"
+                + "Initech\n"
+                + "Faturalama sistemi\n\f";
+
+        // 2. Eylem
+        CvTextCompactor.CompactedText result = compactor.compact(raw);
+
+        // 3. Doğrulama: sayfa numaralı üst bilgi bir kez kalır, iki iş kaydının unvan ve tarihleri korunur.
+        assertEquals("Ayşe Yılmaz - Sayfa 1\n"
+                + "Deneyim\n"
+                + "Acme Yazilim\n"
+                + "Odeme servisleri\n"
+                + "Yazilim Muhendisi 2019 - 2021\n"
+                + "\n"
+                + "Yazilim Muhendisi 2016 - 2019\n"
+                + "Initech\n"
+                + "Faturalama sistemi", result.text());
+    }
+
+    @Test
+    void compact_ShouldBeDeterministicAndIdempotent() {
+        String raw = "•  Takım   çalışması\n\n\n\n- Problem çözme\n\f";
+
+        String first = compactor.compact(raw).text();
+        String second = compactor.compact(raw).text();
+
+        assertEquals("- Takım çalışması\n\n- Problem çözme", first);
+        assertEquals(first, second);
+        assertEquals(first, compactor.compact(first).text());
+    }
+
+    @Test
+    void compact_WhenDisabled_ShouldReturnInputUnchanged() {
+        String raw = "Sayfa 1\n  boşluklu   metin ";
+
+        CvTextCompactor.CompactedText result = new CvTextCompactor(false).compact(raw);
+
+        assertSame(raw, result.text());
+        assertEquals(result.estimatedTokensBefore(), result.estimatedTokensAfter());
+    }
+
+    @Test
+    void compact_ExtractedMultiPagePdf_ShouldShrinkPromptWithoutLosingFields() throws IOException {
+        // 1. Hazırlık: üst ve alt bilgisi olan, dört sayfalık bir CV PDF'i.
+        List<String> fields = List.of("Ayşe Yılmaz", "ayse.yilmaz@example.com", "+90 532 000 00 00",
+                "Kıdemli Yazılım Mühendisi", "Örnek Teknoloji A.Ş.", "Orta Doğu Teknik Üniversitesi",
+                "Bilgisayar Mühendisliği", "Spring Boot", "Kubernetes");
+        Path pdfFile = Files.createTempFile("compactor-test-", ".pdf");
+        PdfTextExtractor extractor = new PdfTextExtractor(false, 4, 8, 1, 60, 20000, false);
+        try {
+            writeCvPdf(pdfFile, fields);
+
+            // 2. Eylem
+            String raw = extractor.extractText(pdfFile);
+            CvTextCompactor.CompactedText result = compactor.compact(raw);
+
+            // 3. Doğrulama
+            for (String field : fields) {
+                assertTrue(result.text().contains(field), "Alan kayboldu: " + field);
+            }
+            assertFalse(result.text().contains("Sayfa"));
+            assertEquals(result.text().indexOf("Özgeçmiş - Ayşe Yılmaz"), result.text().lastIndexOf("Özgeçmiş - Ayşe Yılmaz"));
+            assertTrue(result.estimatedTokensAfter() < result.estimatedTokensBefore() * 0.9,
+                    result.estimatedTokensBefore() + " -> " + result.estimatedTokensAfter());
+        } finally {
+            extractor.shutdown();
+            Files.deleteIfExists(pdfFile);
+        }
+    }
+
+    private static void writeCvPdf(Path pdfFile, List<String> fields) throws IOException {
+        try (OutputStream out = Files.newOutputStream(pdfFile)) {
+            Font font = new Font(BaseFont.createFont(BaseFont.HELVETICA, "Cp1254", BaseFont.NOT_EMBEDDED), 10);
+            Document document = new Document();
+            PdfWriter.getInstance(document, out);
+            HeaderFooter header = new HeaderFooter(new Phrase("Özgeçmiş - Ayşe Yılmaz", font), false);
+            header.setBorder(0);
+            HeaderFooter footer = new HeaderFooter(new Phrase("Sayfa ", font), true);
+            footer.setBorder(0);
+            document.setHeader(header);
+            document.setFooter(footer);
+            document.open();
+            for (int page = 0; page < 4; page++) {
+                if (page > 0) {
+                    document.newPage();
+                }
+                document.add(new Paragraph(fields.get(page * 2) + "     ", font));
+                document.add(new Paragraph("Dağıtık sistemlerde performans iyileştir-", font));
+                document.add(new Paragraph("meleri ve   gözlemlenebilirlik   çalışmaları.", font));
+                document.add(new Paragraph(fields.get(page * 2 + 1), font));
+            }
+            document.add(new Paragraph(fields.get(fields.size() - 1), font));
+            document.close();
+        }
+    }
+}
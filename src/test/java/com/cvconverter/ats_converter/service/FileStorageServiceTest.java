@@ -0,0 +1,257 @@
+package com.cvconverter.ats_converter.service;
+
+import com.cvconverter.ats_converter.dto.StorageStatsDto;
+import com.cvconverter.ats_converter.util.HashUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * FileStorageService için birim testleri.
+ */
+class FileStorageServiceTest {
+
+    @TempDir
+    Path spillDirectory;
+
+    private FileStorageService storage;
+
+    @AfterEach
+    void tearDown() {
+        if (storage != null) {
+            storage.cleanUp();
+        }
+    }
+
+    @Test
+    void getFile_ShouldReturnContentOnlyOnce() throws IOException {
+        // 1. Hazırlık
+        storage = new FileStorageService(1024, 4096, 512, 900, "disk", spillDirectory.toString());
+        String fileId = storage.saveFile(new byte[]{1, 2, 3});
+
+        // 2. Eylem & 3. Doğrulama
+        assertArrayEquals(new byte[]{1, 2, 3}, storage.getFile(fileId));
+        assertNull(storage.getFile(fileId));
+        assertEquals(0, storage.stats().getResidentBytes());
+    }
+
+    @Test
+    void saveFile_AboveThreshold_ShouldSpillToDiskAndCleanUpAfterDownload() throws IOException {
+        storage = new FileStorageService(1024, 4096, 512, 900, "disk", spillDirectory.toString());
+        byte[] large = new byte[800];
+        large[799] = 42;
+
+        String fileId = storage.saveFile(large);
+
+        StorageStatsDto stats = storage.stats();
+        assertEquals(0, stats.getResidentBytes());
+        assertEquals(800, stats.getSpilledBytes());
+        assertEquals(1, countSpilledFiles());
+
+        assertArrayEquals(large, storage.getFile(fileId));
+        assertEquals(0, storage.stats().getSpilledBytes());
+        assertEquals(0, countSpilledFiles());
+    }
+
+    @Test
+    void saveFile_WhenMemoryBudgetIsFull_ShouldSpillOffHeap() throws IOException {
+        storage = new FileStorageService(300, 4096, 512, 900, "offheap", spillDirectory.toString());
+
+        String first = storage.saveFile(filled(200, 1));
+        String second = storage.saveFile(filled(200, 2));
+
+        assertEquals(200, storage.stats().getResidentBytes());
+        assertEquals(200, storage.stats().getSpilledBytes());
+        assertEquals(0, countSpilledFiles());
+        assertEquals(200, storage.getFile(second).length);
+        assertEquals(200, storage.getFile(first).length);
+    }
+
+    @Test
+    void expireEntries_ShouldRemoveFilesPastTtl() throws IOException {
+        storage = new FileStorageService(1024, 4096, 512, 0, "disk", spillDirectory.toString());
+        String small = storage.saveFile(new byte[10]);
+        storage.saveFile(new byte[600]);
+
+        storage.expireEntries();
+
+        StorageStatsDto stats = storage.stats();
+        assertEquals(0, stats.getEntries());
+        assertEquals(2, stats.getExpiredCount());
+        assertEquals(0, stats.getResidentBytes() + stats.getSpilledBytes());
+        assertEquals(0, countSpilledFiles());
+        assertNull(storage.getFile(small));
+    }
+
+    @Test
+    void saveFile_WhenTotalBudgetExceeded_ShouldEvictOldestFile() throws IOException {
+        storage = new FileStorageService(1024, 1000, 512, 900, "disk", spillDirectory.toString());
+        String oldest = storage.saveFile(filled(400, 1));
+        String middle = storage.saveFile(filled(400, 2));
+
+        String newest = storage.saveFile(filled(400, 3));
+
+        assertEquals(1, storage.stats().getEvictedCount());
+        assertNull(storage.getFile(oldest));
+        assertNotNull(storage.getFile(middle));
+        assertNotNull(storage.getFile(newest));
+    }
+
+    @Test
+    void saveFile_WithWriter_ShouldSpillLargeStreamsWithoutBuffering() throws IOException {
+        storage = new FileStorageService(1024, 4096, 512, 900, "disk", spillDirectory.toString());
+        byte[] small = new byte[100];
+        byte[] large = new byte[2000];
+        large[1999] = 7;
+
+        String smallId = storage.saveFile(out -> out.write(small));
+        String largeId = storage.saveFile(out -> {
+            // Parça parça yazılan içerik eşik aşıldığında diske geçer.
+            for (int offset = 0; offset < large.length; offset += 250) {
+                out.write(large, offset, 250);
+            }
+        });
+
+        assertEquals(100, storage.stats().getResidentBytes());
+        assertEquals(2000, storage.stats().getSpilledBytes());
+        assertEquals(1, countSpilledFiles());
+        try (FileStorageService.StoredFile opened = storage.openFile(largeId).orElseThrow()) {
+            assertEquals(HashUtils.sha256Hex(large), opened.etag());
+        }
+        assertArrayEquals(small, storage.getFile(smallId));
+        assertArrayEquals(large, storage.getFile(largeId));
+    }
+
+    @Test
+    void saveFile_WhenWriterFails_ShouldNotLeaveTemporaryFiles() throws IOException {
+        storage = new FileStorageService(1024, 4096, 512, 900, "disk", spillDirectory.toString());
+
+        assertThrows(UncheckedIOException.class, () -> storage.saveFile(out -> {
+            out.write(new byte[1000]);
+            throw new IOException("yazma hatası");
+        }));
+
+        assertEquals(0, countSpilledFiles());
+        assertEquals(0, storage.stats().getEntries());
+    }
+
+    @Test
+    void writeFile_ShouldRegisterContentOnlyWhenSaved() throws IOException {
+        // 1. Hazırlık: içerik depoya yazılıyor ama henüz kaydedilmiyor.
+        storage = new FileStorageService(1024, 4096, 512, 900, "disk", spillDirectory.toString());
+        byte[] large = filled(800, 5);
+        FileStorageService.PendingFile pending = storage.writeFile(out -> out.write(large));
+        long entriesBeforeSave = storage.stats().getEntries();
+
+        // 2. Eylem
+        String fileId = storage.saveFile(pending);
+
+        // 3. Doğrulama: yazılan dosya kimlik alır, aynı içerik ikinci kez kaydedilemez.
+        assertEquals(0, entriesBeforeSave);
+        assertEquals(1, storage.stats().getEntries());
+        assertEquals(1, countSpilledFiles());
+        assertThrows(IllegalStateException.class, () -> storage.saveFile(pending));
+        assertArrayEquals(large, storage.getFile(fileId));
+        assertEquals(0, countSpilledFiles());
+    }
+
+    @Test
+    void saveFile_WithSameContent_ShouldShareOneBlobUntilLastDownload() throws IOException {
+        // 1. Hazırlık: aynı içerik bir kez dizi olarak, bir kez akışla kaydediliyor.
+        storage = new FileStorageService(1024, 4096, 512, 900, "disk", spillDirectory.toString());
+        byte[] large = new byte[800];
+        large[0] = 7;
+
+        // 2. Eylem
+        String firstId = storage.saveFile(large);
+        String secondId = storage.saveFile(out -> out.write(large));
+
+        // 3. Doğrulama: iki ayrı kimlik, tek bir dosya ve tek bir bütçe payı.
+        assertNotEquals(firstId, secondId);
+        StorageStatsDto stats = storage.stats();
+        assertEquals(2, stats.getEntries());
+        assertEquals(1, stats.getBlobs());
+        assertEquals(1, stats.getDeduplicatedCount());
+        assertEquals(800, stats.getSpilledBytes());
+        assertEquals(1, countSpilledFiles());
+
+        assertArrayEquals(large, storage.getFile(firstId));
+        assertEquals(1, countSpilledFiles());
+        try (FileStorageService.StoredFile second = storage.openFile(secondId).orElseThrow()) {
+            storage.completeDownload(secondId, second);
+        }
+        assertEquals(0, countSpilledFiles());
+        assertEquals(0, storage.stats().getSpilledBytes());
+        assertEquals(0, storage.stats().getBlobs());
+    }
+
+    @Test
+    void recordDelivered_ShouldRemoveFileOnlyWhenRangesCoverWholeContent() throws IOException {
+        // 1. Hazırlık
+        storage = new FileStorageService(1024, 4096, 512, 900, "disk", spillDirectory.toString());
+        String fileId = storage.saveFile(new byte[100]);
+
+        // 2. Eylem & 3. Doğrulama: sırasız, çakışan ve boşluk bırakan aralıklar; boşluk dolunca dosya silinir.
+        try (FileStorageService.StoredFile file = storage.openFile(fileId).orElseThrow()) {
+            assertFalse(storage.recordDelivered(fileId, file, 99, 99));
+            assertFalse(storage.recordDelivered(fileId, file, 0, 39));
+            assertFalse(storage.recordDelivered(fileId, file, 30, 59));
+            assertFalse(storage.recordDelivered(fileId, file, 70, 99));
+            assertTrue(storage.fileSize(fileId).isPresent());
+            assertTrue(storage.recordDelivered(fileId, file, 60, 69));
+            assertTrue(storage.fileSize(fileId).isEmpty());
+        }
+        assertEquals(0, storage.stats().getResidentBytes());
+    }
+
+    @Test
+    void openFile_ShouldKeepContentReadableUntilClosed() throws IOException {
+        // 1. Hazırlık: bütçe tek bir dosyaya yetiyor; dosya iki ayrı istek tarafından açıldı.
+        storage = new FileStorageService(1024, 1000, 512, 900, "disk", spillDirectory.toString());
+        byte[] first = filled(600, 1);
+        String fileId = storage.saveFile(first);
+        FileStorageService.StoredFile slowDownload = storage.openFile(fileId).orElseThrow();
+        try (FileStorageService.StoredFile fastDownload = storage.openFile(fileId).orElseThrow()) {
+            // 2. Eylem: hızlı istek dosyayı tamamlıyor, ardından yeni bir dosya bütçeyi aşıyor.
+            assertTrue(storage.recordDelivered(fileId, fastDownload, 0, 599));
+        }
+        String secondId = storage.saveFile(filled(600, 2));
+
+        // 3. Doğrulama: kimlik silindi ama yavaş aktarım içeriği hâlâ okuyabiliyor; kapatılınca dosya silinir.
+        assertTrue(storage.fileSize(fileId).isEmpty());
+        assertTrue(storage.openFile(fileId).isEmpty());
+        assertEquals(2, countSpilledFiles());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        slowDownload.transferTo(0, 600, Channels.newChannel(out));
+        assertArrayEquals(first, out.toByteArray());
+        slowDownload.close();
+        slowDownload.close();
+        assertEquals(1, countSpilledFiles());
+        assertEquals(600, storage.stats().getSpilledBytes());
+        assertEquals(600, storage.fileSize(secondId).orElseThrow());
+    }
+
+    // Aynı içerik tek bir kayıtta paylaşıldığı için, ayrı dosya gereken testlerde içerikler farklı olmalıdır.
+    private static byte[] filled(int size, int value) {
+        byte[] content = new byte[size];
+        Arrays.fill(content, (byte) value);
+        return content;
+    }
+
+    private long countSpilledFiles() throws IOException {
+        try (Stream<Path> files = Files.list(spillDirectory)) {
+            return files.count();
+        }
+    }
+}
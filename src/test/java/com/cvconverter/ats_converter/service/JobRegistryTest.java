@@ -0,0 +1,132 @@
+package com.cvconverter.ats_converter.service;
+
+import com.cvconverter.ats_converter.dto.JobStatusDto;
+import com.cvconverter.ats_converter.dto.ProgressUpdate;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * JobRegistry için birim testleri: olay geçmişinin tekrar gönderilmesi, bitirme ve saklama süresi.
+ */
+class JobRegistryTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final JobRegistry jobRegistry = new JobRegistry(objectMapper, 0, 3);
+    // Gönderimler çağıran thread'de yapılır; doğrulamalar beklemeden yapılabilir.
+    private final SseEventDispatcher dispatcher = new SseEventDispatcher(Runnable::run, 15000, 100);
+
+    @Test
+    void subscribe_ShouldReplayOnlyEventsAfterLastEventId() throws IOException {
+        // 1. Hazırlık: ilk istemci üç olay aldıktan sonra bağlantısı koptu.
+        JobRegistry.Job job = jobRegistry.create("cv");
+        SseEmitter firstClient = mock(SseEmitter.class);
+        job.subscribe(dispatcher.open(firstClient), 0);
+        job.publish(new ProgressUpdate("EXTRACTING_TEXT", "Metin çıkarılıyor...", null));
+        job.publish(new ProgressUpdate("PROCESSING_CV", "CV işleniyor...", null));
+        doThrow(new IOException("Broken pipe")).when(firstClient).send(any(SseEmitter.SseEventBuilder.class));
+        job.publish(new ProgressUpdate("RENDERING_PDF", "PDF oluşturuluyor...", null));
+
+        // 2. Eylem: istemci son aldığı olay kimliğiyle (2) yeniden bağlanıyor.
+        SseEmitter resumedClient = mock(SseEmitter.class);
+        job.subscribe(dispatcher.open(resumedClient), 2);
+        job.publish(new ProgressUpdate("DOWNLOAD_READY", "Hazır.", "dosya-1"));
+        job.succeed("dosya-1", "cv.pdf");
+
+        // 3. Doğrulama
+        assertEquals(List.of("RENDERING_PDF", "DOWNLOAD_READY"), sentStages(resumedClient));
+        verify(resumedClient).complete();
+        verify(firstClient, times(3)).send(any(SseEmitter.SseEventBuilder.class));
+        JobStatusDto status = job.status();
+        assertEquals("SUCCEEDED", status.getState());
+        assertEquals("DOWNLOAD_READY", status.getStage());
+        assertEquals("dosya-1", status.getFileId());
+        assertEquals(4, status.getLastEventId());
+    }
+
+    @Test
+    void subscribe_WhenJobFinished_ShouldReplayAndComplete() throws IOException {
+        JobRegistry.Job job = jobRegistry.create("cv");
+        job.publish(new ProgressUpdate("EXTRACTING_TEXT", "Metin çıkarılıyor...", null));
+        job.fail(new ProgressUpdate("ERROR", "PDF okunamadı.", null));
+        job.publish(new ProgressUpdate("PROCESSING_CV", "Bitmiş işe olay eklenmemeli.", null));
+
+        SseEmitter emitter = mock(SseEmitter.class);
+        job.subscribe(dispatcher.open(emitter), 0);
+
+        assertEquals(List.of("EXTRACTING_TEXT", "ERROR"), sentStages(emitter));
+        verify(emitter).complete();
+        assertEquals("FAILED", job.status().getState());
+    }
+
+    @Test
+    void publish_ShouldKeepOnlyLatestEventsWithinLimit() {
+        JobRegistry.Job job = jobRegistry.create("batch");
+        for (int i = 0; i < 5; i++) {
+            job.publish(new ProgressUpdate("FILE_COMPLETED", "CV " + i, null));
+        }
+
+        assertEquals(List.of(3L, 4L, 5L), job.events().stream().map(JobRegistry.JobEvent::id).toList());
+    }
+
+    @Test
+    void subscribe_WhenMissedEventsWereDropped_ShouldSendTruncatedEventFirst() throws IOException {
+        // 1. Hazırlık: geçmiş sınırı 3; istemci 1. olaydan sonra koptu, 2. ve 3. olaylar atıldı.
+        JobRegistry.Job job = jobRegistry.create("cv");
+        for (int i = 0; i < 5; i++) {
+            job.publish(new ProgressUpdate("COVER_LETTER_CHUNK", null, "parça " + i));
+        }
+
+        // 2. Eylem
+        SseEmitter resumedClient = mock(SseEmitter.class);
+        job.subscribe(dispatcher.open(resumedClient), 1);
+        SseEmitter upToDateClient = mock(SseEmitter.class);
+        job.subscribe(dispatcher.open(upToDateClient), 3);
+
+        // 3. Doğrulama: boşluk olan istemci önce uyarı alır; boşluğu olmayana gönderilmez.
+        assertEquals(List.of(JobRegistry.HISTORY_TRUNCATED, "COVER_LETTER_CHUNK", "COVER_LETTER_CHUNK",
+                "COVER_LETTER_CHUNK"), sentStages(resumedClient));
+        assertEquals(List.of("COVER_LETTER_CHUNK", "COVER_LETTER_CHUNK"), sentStages(upToDateClient));
+    }
+
+    @Test
+    void expireJobs_ShouldRemoveOnlyFinishedJobs() throws InterruptedException {
+        // 1. Hazırlık: saklama süresi 0 sn; biri bitmiş, biri çalışan iki iş.
+        JobRegistry.Job finished = jobRegistry.create("cv");
+        finished.succeed("dosya-1", "cv.pdf");
+        JobRegistry.Job running = jobRegistry.create("cv");
+        running.publish(new ProgressUpdate("EXTRACTING_TEXT", "Metin çıkarılıyor...", null));
+        Thread.sleep(5);
+
+        // 2. Eylem
+        jobRegistry.expireJobs();
+
+        // 3. Doğrulama
+        assertTrue(jobRegistry.find(finished.getId()).isEmpty());
+        assertTrue(jobRegistry.find(running.getId()).isPresent());
+        assertEquals(1, jobRegistry.activeJobCount());
+    }
+
+    private List<String> sentStages(SseEmitter emitter) throws IOException {
+        ArgumentCaptor<SseEmitter.SseEventBuilder> captor = ArgumentCaptor.forClass(SseEmitter.SseEventBuilder.class);
+        verify(emitter, atLeastOnce()).send(captor.capture());
+        List<String> stages = new ArrayList<>();
+        for (SseEmitter.SseEventBuilder event : captor.getAllValues()) {
+            for (var part : event.build()) {
+                if (part.getData() instanceof String json && json.startsWith("{")) {
+                    stages.add(objectMapper.readTree(json).get("stage").asText());
+                }
+            }
+        }
+        return stages;
+    }
+}
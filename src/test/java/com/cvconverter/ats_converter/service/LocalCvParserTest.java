@@ -0,0 +1,173 @@
+package com.cvconverter.ats_converter.service;
+
+import com.cvconverter.ats_converter.dto.CvDataDto;
+import com.cvconverter.ats_converter.dto.EducationDto;
+import com.cvconverter.ats_converter.dto.ExperienceDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * LocalCvParser için birim testleri.
+ */
+class LocalCvParserTest {
+
+    private final LocalCvParser parser = new LocalCvParser(new ObjectMapper(), true, 0.85, 0.4);
+
+    @Test
+    void parse_TurkishCvWithStandardSections_ShouldFillAllFieldsWithHighConfidence() {
+        // 1. Hazırlık: CvTextCompactor çıktısı biçiminde, standart bölümleri olan bir CV.
+        String text = "Ayşe Yılmaz\n"
+                + "ayse.yilmaz@example.com | +90 532 000 00 00\n"
+                + "Adres: Kadıköy, İstanbul\n"
+                + "\n"
+                + "İŞ DENEYİMİ\n"
+                + "Kıdemli Yazılım Mühendisi | Örnek Teknoloji A.Ş.\n"
+                + "Oca 2021 - Günümüz\n"
+                + "- Mikroservis mimarisine geçişte ekip liderliği.\n"
+                + "- Gözlemlenebilirlik altyapısının kurulması.\n"
+                + "Yazılım Geliştirici\n"
+                + "Deneme Yazılım Ltd. Şti.\n"
+                + "2018 - 2020\n"
+                + "- Spring Boot ile REST servisleri.\n"
+                + "\n"
+                + "Eğitim\n"
+                + "Orta Doğu Teknik Üniversitesi\n"
+                + "Bilgisayar Mühendisliği, Lisans\n"
+                + "2014 - 2018\n"
+                + "\n"
+                + "Yetenekler:\n"
+                + "- Programlama Dilleri: Java, Kotlin, SQL\n"
+                + "- Spring Boot, Kubernetes, Docker\n";
+
+        // 2. Eylem
+        LocalCvParser.ParseResult result = parser.parse(text);
+
+        // 3. Doğrulama
+        CvDataDto cv = result.cvData();
+        assertEquals("Ayşe Yılmaz", cv.getKisiselBilgiler().getIsim());
+        assertEquals("ayse.yilmaz@example.com", cv.getKisiselBilgiler().getEmail());
+        assertEquals("+90 532 000 00 00", cv.getKisiselBilgiler().getTelefon());
+        assertEquals("Kadıköy, İstanbul", cv.getKisiselBilgiler().getAdres());
+
+        assertEquals(2, cv.getIsDeneyimleri().size());
+        ExperienceDto first = cv.getIsDeneyimleri().get(0);
+        assertEquals("Kıdemli Yazılım Mühendisi", first.getUnvan());
+        assertEquals("Örnek Teknoloji A.Ş.", first.getSirket());
+        assertEquals("Oca 2021 - Günümüz", first.getTarihler());
+        assertEquals("- Mikroservis mimarisine geçişte ekip liderliği.\n- Gözlemlenebilirlik altyapısının kurulması.",
+                first.getAciklama());
+        ExperienceDto second = cv.getIsDeneyimleri().get(1);
+        assertEquals("Yazılım Geliştirici", second.getUnvan());
+        assertEquals("Deneme Yazılım Ltd. Şti.", second.getSirket());
+        assertEquals("- Spring Boot ile REST servisleri.", second.getAciklama());
+
+        EducationDto education = cv.getEgitimBilgileri().get(0);
+        assertEquals("Orta Doğu Teknik Üniversitesi", education.getOkul());
+        assertEquals("Bilgisayar Mühendisliği", education.getBolum());
+        assertEquals("Lisans", education.getDerece());
+        assertEquals("2014 - 2018", education.getTarihler());
+
+        assertEquals(List.of("Java", "Kotlin", "SQL", "Spring Boot", "Kubernetes", "Docker"), cv.getYetenekler());
+        assertTrue(parser.canReplaceGemini(result), "güven = " + result.confidence());
+    }
+
+    @Test
+    void parse_EnglishCvWithDateFirstEntries_ShouldFillAllFieldsWithHighConfidence() {
+        String text = "John A. Smith\n"
+                + "Email: john.smith@example.com\n"
+                + "Phone: (555) 123-4567\n"
+                + "\n"
+                + "Professional Experience\n"
+                + "Jan 2020 - Present\n"
+                + "Senior Software Engineer at Acme Corp\n"
+                + "- Led the migration to Kubernetes.\n"
+                + "2016 - 2019\n"
+                + "Software Developer, Initech Inc.\n"
+                + "- Built billing services in Java.\n"
+                + "\n"
+                + "Education\n"
+                + "Bachelor of Science | Computer Engineering | Stanford University | 2012 - 2016\n"
+                + "\n"
+                + "Skills\n"
+                + "Java; Go; PostgreSQL; Terraform\n";
+
+        LocalCvParser.ParseResult result = parser.parse(text);
+
+        CvDataDto cv = result.cvData();
+        assertEquals("John A. Smith", cv.getKisiselBilgiler().getIsim());
+        assertEquals("john.smith@example.com", cv.getKisiselBilgiler().getEmail());
+        assertEquals("(555) 123-4567", cv.getKisiselBilgiler().getTelefon());
+        assertEquals(2, cv.getIsDeneyimleri().size());
+        assertEquals("Senior Software Engineer", cv.getIsDeneyimleri().get(0).getUnvan());
+        assertEquals("Acme Corp", cv.getIsDeneyimleri().get(0).getSirket());
+        assertEquals("Jan 2020 - Present", cv.getIsDeneyimleri().get(0).getTarihler());
+        assertEquals("- Led the migration to Kubernetes.", cv.getIsDeneyimleri().get(0).getAciklama());
+        assertEquals("Initech Inc.", cv.getIsDeneyimleri().get(1).getSirket());
+        assertEquals("Stanford University", cv.getEgitimBilgileri().get(0).getOkul());
+        assertEquals("Bachelor of Science", cv.getEgitimBilgileri().get(0).getDerece());
+        assertEquals("Computer Engineering", cv.getEgitimBilgileri().get(0).getBolum());
+        assertEquals(List.of("Java", "Go", "PostgreSQL", "Terraform"), cv.getYetenekler());
+        assertTrue(parser.canReplaceGemini(result), "güven = " + result.confidence());
+    }
+
+    @Test
+    void parse_WhenTitleCompanyAndSchoolAreGuessedByPosition_ShouldNotReplaceGemini() {
+        // 1. Hazırlık: şirket ve unvan kelime listelerinde yok; ikinci okulun adında "Üniversitesi" geçmiyor.
+        String text = "Ayşe Yılmaz\n"
+                + "ayse.yilmaz@example.com | +90 532 000 00 00\n"
+                + "\n"
+                + "İŞ DENEYİMİ\n"
+                + "Hepsiburada\n"
+                + "Ürün Sahibi\n"
+                + "Ocak 2020 - Halen\n"
+                + "- Ödeme deneyiminin yeniden tasarımı.\n"
+                + "\n"
+                + "Eğitim\n"
+                + "İstanbul Teknik Üniversitesi\n"
+                + "Endüstri Mühendisliği, Lisans\n"
+                + "2010 - 2014\n"
+                + "Bilkent\n"
+                + "Yüksek Lisans\n"
+                + "2014 - 2016\n"
+                + "\n"
+                + "Yetenekler: Java, SQL, Jira\n";
+
+        // 2. Eylem
+        LocalCvParser.ParseResult result = parser.parse(text);
+
+        // 3. Doğrulama: alanlar dolu ama doğrulanmadı; sonuç Gemini'nin yerine geçmez, yalnızca yedek olabilir.
+        ExperienceDto experience = result.cvData().getIsDeneyimleri().get(0);
+        assertEquals("Hepsiburada", experience.getUnvan());
+        assertEquals("Ürün Sahibi", experience.getSirket());
+        assertEquals(1, result.cvData().getEgitimBilgileri().size());
+        assertFalse(parser.canReplaceGemini(result), "güven = " + result.confidence());
+        assertTrue(parser.canServeAsFallback(result), "güven = " + result.confidence());
+    }
+
+    @Test
+    void parse_UnstructuredText_ShouldHaveLowConfidence() {
+        // Bölüm başlığı ve tarih aralığı olmayan, serbest yazılmış bir metin Gemini'ye bırakılmalı.
+        String text = "Merhaba, ben yıllardır yazılım geliştiriyorum ve birçok şirkette çalıştım. "
+                + "Java ve Python biliyorum, ODTÜ'den mezun oldum. Bana mail atabilirsiniz: test@example.com";
+
+        LocalCvParser.ParseResult result = parser.parse(text);
+
+        assertFalse(parser.canReplaceGemini(result));
+        assertFalse(parser.canServeAsFallback(result));
+        assertEquals("test@example.com", result.cvData().getKisiselBilgiler().getEmail());
+        assertTrue(result.cvData().getIsDeneyimleri().isEmpty());
+    }
+
+    @Test
+    void parse_WhenDisabled_ShouldNeverReplaceGemini() {
+        LocalCvParser disabled = new LocalCvParser(new ObjectMapper(), false, 0.85, 0.4);
+        LocalCvParser.ParseResult result = new LocalCvParser.ParseResult(new CvDataDto(), 1.0);
+
+        assertFalse(disabled.canReplaceGemini(result));
+        assertFalse(disabled.canServeAsFallback(result));
+    }
+}
@@ -0,0 +1,194 @@
+package com.cvconverter.ats_converter.service;
+
+import com.cvconverter.ats_converter.dto.CvDataDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lowagie.text.pdf.PdfEncodings;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * PdfGenerationService için birim testleri.
+ */
+class PdfGenerationServiceTest {
+
+    private static final String CV_JSON = """
+            {"kisisel_bilgiler":{"isim":"Ayşe Yılmaz","email":"ayse@example.com","telefon":"+90 555 000 00 00","adres":"İstanbul"},
+             "is_deneyimleri":[{"unvan":"Kıdemli Yazılım Mühendisi","sirket":"Örnek Şirket A.Ş.","tarihler":"2019 - 2023","aciklama":"Çığır açan iyileştirmeler."}],
+             "egitim_bilgileri":[{"okul":"ODTÜ","bolum":"Bilgisayar Mühendisliği","derece":"Lisans","tarihler":"2011 - 2015"}],
+             "yetenekler":["Java","Görüntü işleme"]}
+            """;
+
+    private final PdfGenerationService service =
+            new PdfGenerationService(new ObjectMapper(), "PERSONAL_INFO,EXPERIENCE,EDUCATION,SKILLS", true, 0);
+
+    @Test
+    void createAtsFriendlyPdf_ShouldRenderTurkishTextWithoutEmbeddingFonts() throws IOException {
+        // 1. Eylem
+        byte[] pdf = service.createAtsFriendlyPdf(CV_JSON);
+
+        // 2. Doğrulama
+        try (PDDocument document = Loader.loadPDF(pdf)) {
+            String text = new PDFTextStripper().getText(document);
+            assertTrue(text.contains("AYŞE YILMAZ"));
+            assertTrue(text.contains("Kıdemli Yazılım Mühendisi at Örnek Şirket A.Ş."));
+            assertTrue(text.contains("Java, Görüntü işleme"));
+            for (var fontName : document.getPage(0).getResources().getFontNames()) {
+                PDFont font = document.getPage(0).getResources().getFont(fontName);
+                assertFalse(font.isEmbedded(), "Belgeye yazı tipi gömülmemeli: " + font.getName());
+            }
+        }
+    }
+
+    @Test
+    void createAtsFriendlyPdf_ShouldFollowTemplateOrder() throws IOException {
+        PdfGenerationService skillsFirst = new PdfGenerationService(new ObjectMapper(), "SKILLS,EXPERIENCE", true, 0);
+
+        try (PDDocument document = Loader.loadPDF(skillsFirst.createAtsFriendlyPdf(CV_JSON))) {
+            String text = new PDFTextStripper().getText(document);
+            assertTrue(text.indexOf("YETENEKLER") < text.indexOf("İŞ DENEYİMİ"));
+            assertFalse(text.contains("EĞİTİM"));
+        }
+    }
+
+    @Test
+    void createAtsFriendlyPdf_WithNoMeaningfulData_ShouldThrow() {
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> service.createAtsFriendlyPdf("{\"kisisel_bilgiler\":{\"isim\":\"null\"},\"yetenekler\":[\" \"]}"));
+
+        assertTrue(exception.getMessage().contains("anlamlı veri"));
+    }
+
+    @Test
+    void createAtsFriendlyPdf_ShouldBeSafeToCallConcurrently() throws Exception {
+        byte[] expected = service.createAtsFriendlyPdf(CV_JSON);
+        String expectedText = extractText(expected);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<byte[]>> results = IntStream.range(0, 16)
+                    .mapToObj(i -> executor.submit(() -> service.createAtsFriendlyPdf(CV_JSON)))
+                    .toList();
+            for (Future<byte[]> result : results) {
+                assertEquals(expectedText, extractText(result.get()));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void incrementalPdf_ShouldMatchFullRenderRegardlessOfArrivalOrder() throws Exception {
+        // 1. Hazırlık: şablon yetenekleri önce istiyor, ama yetenekler akışta en son geliyor.
+        PdfGenerationService skillsFirst = new PdfGenerationService(new ObjectMapper(), "SKILLS,EXPERIENCE,PERSONAL_INFO", true, 0);
+        CvDataDto cvData = new ObjectMapper().readValue(CV_JSON, CvDataDto.class);
+
+        // 2. Eylem
+        PdfGenerationService.IncrementalPdf incremental = skillsFirst.startIncrementalPdf();
+        incremental.acceptAll(cvData);
+        byte[] pdf = incremental.finish();
+
+        // 3. Doğrulama
+        assertEquals(extractText(skillsFirst.createAtsFriendlyPdf(CV_JSON)), extractText(pdf));
+    }
+
+    @Test
+    void createAtsFriendlyPdf_InDeterministicMode_ShouldProduceIdenticalBytes() throws Exception {
+        // 1. Hazırlık: aynı veri, alan sırası ve boş alanlar farklı iki JSON ile veriliyor.
+        String reordered = """
+                {"yetenekler":["Java","Görüntü işleme"],
+                 "egitim_bilgileri":[{"tarihler":"2011 - 2015","derece":"Lisans","bolum":"Bilgisayar Mühendisliği","okul":"ODTÜ"}],
+                 "is_deneyimleri":[{"aciklama":"Çığır açan iyileştirmeler.","tarihler":"2019 - 2023","sirket":"Örnek Şirket A.Ş.","unvan":"Kıdemli Yazılım Mühendisi"}],
+                 "kisisel_bilgiler":{"adres":"İstanbul","telefon":"+90 555 000 00 00","email":"ayse@example.com","isim":"Ayşe Yılmaz"}}
+                """;
+        CvDataDto cvData = new ObjectMapper().readValue(CV_JSON, CvDataDto.class);
+
+        // 2. Eylem
+        byte[] first = service.createAtsFriendlyPdf(CV_JSON);
+        Thread.sleep(5);
+        byte[] second = service.createAtsFriendlyPdf(reordered);
+        PdfGenerationService.IncrementalPdf incremental = service.startIncrementalPdf();
+        incremental.acceptAll(cvData);
+        byte[] streamed = incremental.finish();
+
+        // 3. Doğrulama: tarih ve /ID sabitlendiği için çıktılar byte byte aynı.
+        assertArrayEquals(first, second);
+        assertArrayEquals(first, streamed);
+        assertEquals(service.canonicalHash(cvData), service.canonicalHash(new ObjectMapper().readValue(reordered, CvDataDto.class)));
+    }
+
+    @Test
+    void createAtsFriendlyPdf_WithRenderCache_ShouldReuseRenderedPdf() {
+        PdfGenerationService cached =
+                new PdfGenerationService(new ObjectMapper(), "PERSONAL_INFO,EXPERIENCE,EDUCATION,SKILLS", true, 1024 * 1024);
+
+        byte[] first = cached.createAtsFriendlyPdf(CV_JSON);
+        byte[] second = cached.createAtsFriendlyPdf(CV_JSON);
+
+        assertSame(first, second);
+        assertEquals(1, cached.renderCacheStats().hitCount());
+        assertEquals(1, cached.renderCacheStats().missCount());
+    }
+
+    @Test
+    void incrementalPdf_WithNoMeaningfulData_ShouldThrow() {
+        PdfGenerationService.IncrementalPdf incremental = service.startIncrementalPdf();
+        incremental.onSkills(List.of(" "));
+
+        RuntimeException exception = assertThrows(RuntimeException.class, incremental::finish);
+
+        assertTrue(exception.getMessage().contains("anlamlı veri"));
+    }
+
+    @Test
+    void incrementalPdf_WhenDiscarded_ShouldIgnoreLaterSectionsAndRefuseToFinish() throws Exception {
+        // 1. Hazırlık: kişisel bilgiler yazıldıktan sonra akış başarısız oluyor.
+        CvDataDto cvData = new ObjectMapper().readValue(CV_JSON, CvDataDto.class);
+        PdfGenerationService.IncrementalPdf incremental = service.startIncrementalPdf();
+        incremental.onPersonalInfo(cvData.getKisiselBilgiler());
+        incremental.onSectionComplete(PdfGenerationService.Section.PERSONAL_INFO);
+
+        // 2. Eylem
+        incremental.discard();
+        incremental.discard();
+        incremental.onExperience(cvData.getIsDeneyimleri().get(0));
+
+        // 3. Doğrulama: hiç sayfası olmayan bir oturum da hata vermeden atılır.
+        assertThrows(IllegalStateException.class, incremental::finish);
+        assertDoesNotThrow(() -> service.startIncrementalPdf().discard());
+    }
+
+    @Test
+    void cp1254Encoding_ShouldMatchJdkConversion() {
+        Charset cp1254 = Charset.forName("windows-1254");
+        String everyChar = IntStream.rangeClosed(0, Character.MAX_VALUE)
+                .filter(c -> !Character.isSurrogate((char) c))
+                .collect(StringBuilder::new, StringBuilder::appendCodePoint, StringBuilder::append)
+                .toString();
+        Cp1254Encoding.register();
+
+        assertArrayEquals(everyChar.getBytes(cp1254), PdfEncodings.convertToBytes(everyChar, Cp1254Encoding.NAME));
+        byte[] allBytes = new byte[256];
+        for (int b = 0; b < 256; b++) {
+            allBytes[b] = (byte) b;
+        }
+        assertEquals(new String(allBytes, cp1254), PdfEncodings.convertToString(allBytes, Cp1254Encoding.NAME));
+    }
+
+    private static String extractText(byte[] pdf) throws IOException {
+        try (PDDocument document = Loader.loadPDF(pdf)) {
+            return new PDFTextStripper().getText(document);
+        }
+    }
+}
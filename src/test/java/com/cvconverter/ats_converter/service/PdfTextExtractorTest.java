@@ -0,0 +1,76 @@
+package com.cvconverter.ats_converter.service;
+
+import com.lowagie.text.Document;
+import com.lowagie.text.Paragraph;
+import com.lowagie.text.pdf.PdfWriter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * PdfTextExtractor için birim testleri.
+ * Testler, OpenPDF ile programatik olarak oluşturulan çok sayfalı bir PDF üzerinde çalışır.
+ */
+class PdfTextExtractorTest {
+
+    private static final int PAGE_COUNT = 12;
+
+    private Path pdfFile;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        pdfFile = Files.createTempFile("extractor-test-", ".pdf");
+        try (OutputStream out = Files.newOutputStream(pdfFile)) {
+            Document document = new Document();
+            PdfWriter.getInstance(document, out);
+            document.open();
+            for (int page = 1; page <= PAGE_COUNT; page++) {
+                document.add(new Paragraph("Sayfa " + page + " deneyim metni"));
+                if (page < PAGE_COUNT) {
+                    document.newPage();
+                }
+            }
+            document.close();
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(pdfFile);
+    }
+
+    @Test
+    void extractText_InParallelMode_ShouldMatchSequentialOutputInPageOrder() throws IOException {
+        // 1. Hazırlık
+        PdfTextExtractor sequential = new PdfTextExtractor(false, 4, 8, 2, 60, 20000, false);
+        PdfTextExtractor parallel = new PdfTextExtractor(true, 3, 2, 4, 60, 20000, true);
+
+        // 2. Eylem
+        String expected = sequential.extractText(pdfFile);
+        String actual = parallel.extractText(pdfFile);
+
+        // 3. Doğrulama
+        assertEquals(expected, actual);
+        assertTrue(actual.indexOf("Sayfa 2 ") < actual.indexOf("Sayfa 11 "));
+
+        sequential.shutdown();
+        parallel.shutdown();
+    }
+
+    @Test
+    void extractText_WhenPageCountExceedsLimit_ShouldThrowException() {
+        PdfTextExtractor extractor = new PdfTextExtractor(true, 4, 8, 2, PAGE_COUNT - 1, 20000, false);
+
+        IOException exception = assertThrows(IOException.class, () -> extractor.extractText(pdfFile));
+
+        assertTrue(exception.getMessage().contains("çok fazla sayfa"));
+        extractor.shutdown();
+    }
+}
@@ -0,0 +1,211 @@
+package com.cvconverter.ats_converter.service;
+
+import com.cvconverter.ats_converter.client.GeminiApiException;
+import com.cvconverter.ats_converter.client.GeminiRetryListener;
+import com.cvconverter.ats_converter.dto.ProgressUpdate;
+import com.cvconverter.ats_converter.metrics.CvMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * ReactiveDocumentService için testler. Metin çıkarma, Gemini ve PDF adımları taklit edilir; arşivleme ve
+ * depolama gerçek servislerle yapılır.
+ */
+class ReactiveDocumentServiceTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    @TempDir
+    Path spillDirectory;
+
+    private final Scheduler documentScheduler = Schedulers.newBoundedElastic(2, 100, "test-document");
+    private CvProcessingService cvProcessingService;
+    private ReactiveCvProcessingService reactiveCvProcessingService;
+    private PdfGenerationService pdfGenerationService;
+    private UploadSpoolService uploadSpoolService;
+    private FileStorageService storage;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        cvProcessingService = mock(CvProcessingService.class);
+        reactiveCvProcessingService = mock(ReactiveCvProcessingService.class);
+        pdfGenerationService = mock(PdfGenerationService.class);
+        uploadSpoolService = mock(UploadSpoolService.class);
+        storage = new FileStorageService(1 << 20, 1 << 22, 1 << 16, 900, "disk", spillDirectory.toString());
+
+        when(cvProcessingService.extractTextFromPdf(any(Path.class))).thenReturn("Ayşe Yılmaz - Java Geliştirici");
+        when(pdfGenerationService.createAtsFriendlyPdf(anyString())).thenReturn("%PDF-ats".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @AfterEach
+    void tearDown() {
+        documentScheduler.dispose();
+        storage.cleanUp();
+    }
+
+    @Test
+    void process_WithStreamedCoverLetter_ShouldEmitStagesAndZipReadyForDownload() {
+        // 1. Hazırlık
+        when(reactiveCvProcessingService.getStructuredData(anyString(), anyString(), any(GeminiRetryListener.class)))
+                .thenReturn(Mono.just(CvProcessingService.StructuredCv.of("{\"kisisel_bilgiler\":{\"isim\":\"Ayşe Yılmaz\"}}")));
+        when(reactiveCvProcessingService.generateCoverLetterStreaming(anyString(), anyString(), anyString(), any(), any()))
+                .thenAnswer(invocation -> {
+                    Consumer<String> onChunk = invocation.getArgument(3);
+                    return Mono.fromCallable(() -> {
+                        onChunk.accept("Sayın ");
+                        onChunk.accept("Yetkili,");
+                        return "Sayın Yetkili,";
+                    });
+                });
+        ReactiveDocumentService service = service(10);
+
+        // 2. Eylem
+        List<ProgressUpdate> updates = service.process(upload(), "api-key", "Java geliştirici", true, true)
+                .collectList()
+                .block(TIMEOUT);
+
+        // 3. Doğrulama
+        List<String> stages = updates.stream().map(ProgressUpdate::getStage).toList();
+        assertEquals(List.of("EXTRACTING_TEXT", "PROCESSING_CV", "GENERATING_COVER_LETTER",
+                "COVER_LETTER_CHUNK", "COVER_LETTER_CHUNK", "ZIPPING_FILES", "SAVING_FILE", "DOWNLOAD_READY"), stages);
+        ProgressUpdate downloadReady = updates.get(updates.size() - 1);
+        assertEquals("CV_ve_On_Yazi.zip", downloadReady.getMessage());
+        assertTrue(storage.fileSize(downloadReady.getData()).isPresent());
+        verify(uploadSpoolService).discard(any());
+        assertEquals(0, service.inFlightCount());
+    }
+
+    @Test
+    void process_WhenGeminiFails_ShouldEndWithErrorEvent() {
+        when(reactiveCvProcessingService.getStructuredData(anyString(), anyString(), any(GeminiRetryListener.class)))
+                .thenReturn(Mono.error(new GeminiApiException(400, "geçersiz anahtar", null)));
+
+        List<ProgressUpdate> updates = service(10).process(upload(), "api-key", "", false, false)
+                .collectList()
+                .block(TIMEOUT);
+
+        ProgressUpdate last = updates.get(updates.size() - 1);
+        assertEquals("ERROR", last.getStage());
+        assertTrue(last.getMessage().contains("geçersiz anahtar"));
+        verify(pdfGenerationService, never()).createAtsFriendlyPdf(anyString());
+        verify(uploadSpoolService).discard(any());
+    }
+
+    @Test
+    void process_WhenStreamingStructuringFails_ShouldDiscardIncrementalPdf() {
+        // 1. Hazırlık: PDF, Gemini'nin akışı başlarken açıldı; akış yarıda hata veriyor.
+        PdfGenerationService.IncrementalPdf incrementalPdf = mock(PdfGenerationService.IncrementalPdf.class);
+        when(pdfGenerationService.startIncrementalPdf()).thenReturn(incrementalPdf);
+        when(reactiveCvProcessingService.getStructuredDataStreaming(anyString(), anyString(), any(), any(GeminiRetryListener.class)))
+                .thenReturn(Mono.error(new GeminiApiException(500, "akış kesildi", null)));
+
+        // 2. Eylem
+        List<ProgressUpdate> updates = service(10, new CvAnalysisCache(false, 1024, 60), true)
+                .process(upload(), "api-key", "", false, false)
+                .collectList()
+                .block(TIMEOUT);
+
+        // 3. Doğrulama: yarım kalan belge tamamlanmadan kapatıldı.
+        assertEquals("ERROR", updates.get(updates.size() - 1).getStage());
+        verify(incrementalPdf).discard();
+        verify(incrementalPdf, never()).finish();
+    }
+
+    @Test
+    void process_WhenMaxInFlightReached_ShouldEmitBusyWithoutStarting() {
+        List<ProgressUpdate> updates = service(0).process(upload(), "api-key", "", false, false)
+                .collectList()
+                .block(TIMEOUT);
+
+        assertEquals(1, updates.size());
+        assertEquals("BUSY", updates.get(0).getStage());
+        assertEquals("30", updates.get(0).getData());
+        verifyNoInteractions(cvProcessingService);
+        verify(uploadSpoolService).discard(any());
+    }
+
+    @Test
+    void process_WhenSubscriberCancels_ShouldReleaseSlotAndDiscardUpload() {
+        // Gemini hiç cevap vermiyor; istemci bağlantıyı kapatıyor.
+        when(reactiveCvProcessingService.getStructuredData(anyString(), anyString(), any(GeminiRetryListener.class)))
+                .thenReturn(Mono.never());
+        ReactiveDocumentService service = service(10);
+
+        Disposable subscription = service.process(upload(), "api-key", "", false, false).subscribe();
+        verify(cvProcessingService, timeout(5000)).extractTextFromPdf(any(Path.class));
+        subscription.dispose();
+
+        assertEquals(0, service.inFlightCount());
+        verify(uploadSpoolService).discard(any());
+    }
+
+    @Test
+    void process_WhenStructuredDataIsLocalFallback_ShouldNotCacheIt() {
+        // 1. Hazırlık: Gemini'ye ulaşılamadı, yerel ayrıştırıcının düşük güvenli sonucu yedek olarak döndü.
+        when(reactiveCvProcessingService.getStructuredData(anyString(), anyString(), any(GeminiRetryListener.class)))
+                .thenReturn(Mono.just(CvProcessingService.StructuredCv.fallback("{\"kisisel_bilgiler\":{\"isim\":\"Ayşe\"}}")));
+        CvAnalysisCache cache = new CvAnalysisCache(true, 1 << 20, 60);
+
+        // 2. Eylem
+        List<ProgressUpdate> updates = service(10, cache).process(upload(), "api-key", "", false, false)
+                .collectList()
+                .block(TIMEOUT);
+
+        // 3. Doğrulama: PDF yedek sonuçla üretildi, ama önbellekte yalnızca çıkarılan metin var.
+        assertEquals("DOWNLOAD_READY", updates.get(updates.size() - 1).getStage());
+        assertEquals("Ayşe Yılmaz - Java Geliştirici", cache.get("abc123").extractedText());
+        assertNull(cache.get("abc123").structuredJson());
+    }
+
+    @Test
+    void process_WhenStructuredDataComesFromGemini_ShouldCacheIt() {
+        String json = "{\"kisisel_bilgiler\":{\"isim\":\"Ayşe Yılmaz\"}}";
+        when(reactiveCvProcessingService.getStructuredData(anyString(), anyString(), any(GeminiRetryListener.class)))
+                .thenReturn(Mono.just(CvProcessingService.StructuredCv.of(json)));
+        CvAnalysisCache cache = new CvAnalysisCache(true, 1 << 20, 60);
+
+        service(10, cache).process(upload(), "api-key", "", false, false).collectList().block(TIMEOUT);
+
+        assertEquals(json, cache.get("abc123").structuredJson());
+    }
+
+    private ReactiveDocumentService service(int maxInFlight) {
+        return service(maxInFlight, new CvAnalysisCache(false, 1024, 60));
+    }
+
+    private ReactiveDocumentService service(int maxInFlight, CvAnalysisCache cvAnalysisCache) {
+        return service(maxInFlight, cvAnalysisCache, false);
+    }
+
+    private ReactiveDocumentService service(int maxInFlight, CvAnalysisCache cvAnalysisCache, boolean streamingStructuring) {
+        return new ReactiveDocumentService(cvProcessingService, reactiveCvProcessingService, pdfGenerationService,
+                new ZipService(6, "pdf"), storage, cvAnalysisCache,
+                new CoverLetterCache(Jackson2ObjectMapperBuilder.json().build(), false, 1024, 60, 0.9),
+                uploadSpoolService, documentScheduler, new CvMetrics(new SimpleMeterRegistry()),
+                streamingStructuring, maxInFlight, 60_000, 30);
+    }
+
+    private static UploadSpoolService.SpooledUpload upload() {
+        return new UploadSpoolService.SpooledUpload(Path.of("cv.pdf"), "cv.pdf", 1024, "abc123", 1);
+    }
+}
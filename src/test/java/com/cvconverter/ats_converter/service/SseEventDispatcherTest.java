@@ -0,0 +1,126 @@
+package com.cvconverter.ats_converter.service;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * SseEventDispatcher için birim testleri. Gönderim görevleri elle çalıştırılır; böylece yavaş bir istemci
+ * (soketi henüz yazılmamış bir kuyruk) taklit edilir.
+ */
+class SseEventDispatcherTest {
+
+    private final List<Runnable> pendingTasks = new ArrayList<>();
+
+    @Test
+    void send_ShouldCoalesceQueuedProgressAndCompleteAfterLastEvent() throws IOException {
+        // 1. Hazırlık
+        SseEventDispatcher dispatcher = new SseEventDispatcher(pendingTasks::add, 15000, 100);
+        SseEmitter emitter = mock(SseEmitter.class);
+        SseEventDispatcher.Connection connection = dispatcher.open(emitter);
+
+        // 2. Eylem: istemci yavaş; olaylar kuyrukta birikiyor.
+        connection.sendProgress(event("EXTRACTING_TEXT"));
+        connection.sendProgress(event("PROCESSING_CV"));
+        connection.send(event("COVER_LETTER_CHUNK"));
+        connection.sendProgress(event("RENDERING_PDF"));
+        connection.send(event("DOWNLOAD_READY"));
+        connection.complete();
+        assertFalse(connection.send(event("GEC_KALAN")));
+        runPendingTasks();
+
+        // 3. Doğrulama: ara ilerleme olayları atıldı, DOWNLOAD_READY complete()'ten önce yazıldı.
+        assertEquals(List.of("PROCESSING_CV", "COVER_LETTER_CHUNK", "RENDERING_PDF", "DOWNLOAD_READY"), sentData(emitter));
+        InOrder inOrder = inOrder(emitter);
+        inOrder.verify(emitter, times(4)).send(any(SseEmitter.SseEventBuilder.class));
+        inOrder.verify(emitter).complete();
+        assertEquals(1, dispatcher.coalescedEventCount());
+        assertEquals(0, dispatcher.openConnectionCount());
+    }
+
+    @Test
+    void send_WhenQueueOverflows_ShouldCloseConnection() {
+        SseEventDispatcher dispatcher = new SseEventDispatcher(pendingTasks::add, 15000, 2);
+        SseEmitter emitter = mock(SseEmitter.class);
+        SseEventDispatcher.Connection connection = dispatcher.open(emitter);
+        AtomicBoolean closed = new AtomicBoolean();
+        connection.onClose(() -> closed.set(true));
+
+        assertTrue(connection.send(event("1")));
+        assertTrue(connection.send(event("2")));
+        assertFalse(connection.send(event("3")));
+
+        assertTrue(closed.get());
+        assertFalse(connection.isOpen());
+        verify(emitter).complete();
+        assertEquals(1, dispatcher.droppedConnectionCount());
+    }
+
+    @Test
+    void send_WhenClientDisconnected_ShouldCloseWithoutCompleting() throws IOException {
+        SseEventDispatcher dispatcher = new SseEventDispatcher(pendingTasks::add, 15000, 100);
+        SseEmitter emitter = mock(SseEmitter.class);
+        doThrow(new IOException("Broken pipe")).when(emitter).send(any(SseEmitter.SseEventBuilder.class));
+        SseEventDispatcher.Connection connection = dispatcher.open(emitter);
+
+        connection.send(event("EXTRACTING_TEXT"));
+        connection.send(event("PROCESSING_CV"));
+        runPendingTasks();
+
+        assertFalse(connection.isOpen());
+        verify(emitter, times(1)).send(any(SseEmitter.SseEventBuilder.class));
+        verify(emitter, never()).complete();
+    }
+
+    @Test
+    void sendHeartbeats_ShouldWriteCommentOnlyToIdleConnections() throws IOException {
+        // Aralık 0: her bağlantı boşta sayılır; kuyruğunda olay bekleyen bağlantıya heartbeat eklenmez.
+        SseEventDispatcher dispatcher = new SseEventDispatcher(pendingTasks::add, 0, 100);
+        SseEmitter idle = mock(SseEmitter.class);
+        SseEmitter busy = mock(SseEmitter.class);
+        dispatcher.open(idle);
+        dispatcher.open(busy).send(event("PROCESSING_CV"));
+
+        dispatcher.sendHeartbeats();
+        runPendingTasks();
+
+        ArgumentCaptor<SseEmitter.SseEventBuilder> captor = ArgumentCaptor.forClass(SseEmitter.SseEventBuilder.class);
+        verify(idle).send(captor.capture());
+        assertTrue(captor.getValue().build().iterator().next().getData().toString().startsWith(":heartbeat"));
+        assertEquals(List.of("PROCESSING_CV"), sentData(busy));
+    }
+
+    private void runPendingTasks() {
+        while (!pendingTasks.isEmpty()) {
+            pendingTasks.remove(0).run();
+        }
+    }
+
+    private static SseEmitter.SseEventBuilder event(String data) {
+        return SseEmitter.event().data(data);
+    }
+
+    private static List<String> sentData(SseEmitter emitter) throws IOException {
+        ArgumentCaptor<SseEmitter.SseEventBuilder> captor = ArgumentCaptor.forClass(SseEmitter.SseEventBuilder.class);
+        verify(emitter, atLeastOnce()).send(captor.capture());
+        List<String> sent = new ArrayList<>();
+        for (SseEmitter.SseEventBuilder event : captor.getAllValues()) {
+            for (var part : event.build()) {
+                if (part.getData() instanceof String data && !data.startsWith("data:") && !data.equals("\n\n")) {
+                    sent.add(data);
+                }
+            }
+        }
+        return sent;
+    }
+}
@@ -0,0 +1,111 @@
+package com.cvconverter.ats_converter.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * StageGraph için birim testleri.
+ */
+class StageGraphTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void execute_ShouldRunIndependentStagesConcurrently() {
+        // 1. Hazırlık: "b" ve "c" birbirini beklemeden bitemez; sırayla çalışsalardı test kilitlenirdi.
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        StageGraph graph = new StageGraph()
+                .addStage("a", null, results -> "json")
+                .addStage("b", null, results -> awaitOther(bothStarted) + results.get("a"), "a")
+                .addStage("c", null, results -> awaitOther(bothStarted) + results.get("a"), "a")
+                .addStage("d", null, results -> results.<String>get("b") + results.get("c"), "b", "c");
+
+        // 2. Eylem
+        StageGraph.Execution execution = graph.execute(executor, (stage, message) -> { });
+
+        // 3. Doğrulama
+        assertEquals("okjsonokjson", execution.results().get("d"));
+        assertEquals(List.of("a", "b", "c", "d").size(), execution.stageMillis().size());
+    }
+
+    @Test
+    void execute_ShouldAnnounceOnlyStagesWithMessages() {
+        List<String> announced = new CopyOnWriteArrayList<>();
+        StageGraph graph = new StageGraph()
+                .addStage("EXTRACTING_TEXT", "Metin çıkarılıyor", results -> "metin")
+                .addStage("RENDERING_PDF", null, results -> "pdf", "EXTRACTING_TEXT");
+
+        graph.execute(executor, (stage, message) -> announced.add(stage));
+
+        assertEquals(List.of("EXTRACTING_TEXT"), announced);
+    }
+
+    @Test
+    void execute_WhenStageFails_ShouldInterruptSiblingAndRethrow() throws InterruptedException {
+        CountDownLatch siblingRunning = new CountDownLatch(1);
+        AtomicBoolean siblingInterrupted = new AtomicBoolean();
+        AtomicBoolean dependentRan = new AtomicBoolean();
+        StageGraph graph = new StageGraph()
+                .addStage("slow", null, results -> {
+                    siblingRunning.countDown();
+                    try {
+                        Thread.sleep(10_000);
+                    } catch (InterruptedException e) {
+                        siblingInterrupted.set(true);
+                    }
+                    return null;
+                })
+                .addStage("failing", null, results -> {
+                    siblingRunning.await();
+                    throw new IllegalStateException("Gemini hatası");
+                })
+                .addStage("dependent", null, results -> {
+                    dependentRan.set(true);
+                    return null;
+                }, "slow", "failing");
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> graph.execute(executor, (stage, message) -> { }));
+
+        assertEquals("Gemini hatası", exception.getMessage());
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        assertTrue(siblingInterrupted.get());
+        assertFalse(dependentRan.get());
+    }
+
+    @Test
+    void execute_ShouldReportFinishedStagesWithOutcome() {
+        List<String> finished = new CopyOnWriteArrayList<>();
+        StageGraph graph = new StageGraph()
+                .addStage("EXTRACTING_TEXT", null, results -> "metin")
+                .addStage("PROCESSING_CV", null, results -> {
+                    throw new IllegalStateException("Gemini hatası");
+                }, "EXTRACTING_TEXT");
+
+        assertThrows(IllegalStateException.class, () -> graph.execute(executor, (stage, message) -> { },
+                (stage, millis, failure) -> finished.add(stage + ":" + (failure == null ? "ok" : "hata"))));
+
+        assertEquals(List.of("EXTRACTING_TEXT:ok", "PROCESSING_CV:hata"), finished);
+    }
+
+    private static String awaitOther(CountDownLatch latch) throws InterruptedException {
+        latch.countDown();
+        return latch.await(5, TimeUnit.SECONDS) ? "ok" : "timeout";
+    }
+}
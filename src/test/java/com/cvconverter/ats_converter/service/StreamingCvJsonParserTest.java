@@ -0,0 +1,110 @@
+package com.cvconverter.ats_converter.service;
+
+import com.cvconverter.ats_converter.dto.EducationDto;
+import com.cvconverter.ats_converter.dto.ExperienceDto;
+import com.cvconverter.ats_converter.dto.PersonalInfoDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * StreamingCvJsonParser için birim testleri.
+ */
+class StreamingCvJsonParserTest {
+
+    private static final String CV_JSON = "{\"kisisel_bilgiler\":{\"isim\":\"Ayşe Yılmaz\",\"email\":\"ayse@example.com\"},"
+            + "\"ozet\":{\"not\":[1,2]},"
+            + "\"is_deneyimleri\":[{\"unvan\":\"Kıdemli Yazılım Mühendisi\",\"sirket\":\"Örnek A.Ş.\"},"
+            + "{\"unvan\":\"Yazılım Geliştirici\",\"sirket\":\"Deneme Ltd.\"}],"
+            + "\"egitim_bilgileri\":[{\"okul\":\"ODTÜ\",\"bolum\":\"Bilgisayar Mühendisliği\"}],"
+            + "\"yetenekler\":[\"Java\",\"Görüntü işleme\"]}";
+
+    private final List<String> events = new ArrayList<>();
+
+    private final CvSectionListener recorder = new CvSectionListener() {
+        @Override
+        public void onPersonalInfo(PersonalInfoDto personalInfo) {
+            events.add("kişisel:" + personalInfo.getIsim());
+        }
+
+        @Override
+        public void onExperience(ExperienceDto experience) {
+            events.add("deneyim:" + experience.getUnvan());
+        }
+
+        @Override
+        public void onEducation(EducationDto education) {
+            events.add("eğitim:" + education.getOkul());
+        }
+
+        @Override
+        public void onSkills(List<String> skills) {
+            events.add("yetenekler:" + skills);
+        }
+
+        @Override
+        public void onSectionComplete(PdfGenerationService.Section section) {
+            events.add("bitti:" + section);
+        }
+    };
+
+    @Test
+    void feed_ShouldEmitEachSectionAsSoonAsItIsComplete() {
+        // 1. Hazırlık: model cevabı markdown çiti içinde ve küçük parçalar halinde geliyor.
+        String response = "```json\n" + CV_JSON + "\n```";
+        StreamingCvJsonParser parser = new StreamingCvJsonParser(new ObjectMapper(), recorder);
+        int firstExperienceEnd = response.indexOf("Örnek A.Ş.\"}") + "Örnek A.Ş.\"}".length();
+
+        // 2. Eylem
+        for (int i = 0; i < response.length(); i += 7) {
+            parser.feed(response.substring(i, Math.min(response.length(), i + 7)));
+            if (i + 7 >= firstExperienceEnd && i < firstExperienceEnd) {
+                // İlk kayıt, JSON'un geri kalanı gelmeden iletilmiş olmalı.
+                assertEquals(List.of("kişisel:Ayşe Yılmaz", "bitti:PERSONAL_INFO", "deneyim:Kıdemli Yazılım Mühendisi"), events);
+            }
+        }
+        String json = parser.finish();
+
+        // 3. Doğrulama
+        assertEquals(CV_JSON, json);
+        assertEquals(List.of(
+                "kişisel:Ayşe Yılmaz", "bitti:PERSONAL_INFO",
+                "deneyim:Kıdemli Yazılım Mühendisi", "deneyim:Yazılım Geliştirici", "bitti:EXPERIENCE",
+                "eğitim:ODTÜ", "bitti:EDUCATION",
+                "yetenekler:[Java, Görüntü işleme]", "bitti:SKILLS"), events);
+        assertTrue(parser.hasEmittedSections());
+    }
+
+    @Test
+    void finish_WhenSectionsAreMissing_ShouldCompleteThem() {
+        StreamingCvJsonParser parser = new StreamingCvJsonParser(new ObjectMapper(), recorder);
+
+        parser.feed("{\"kisisel_bilgiler\":null,\"yetenekler\":[\"SQL\"]}");
+        parser.finish();
+
+        assertEquals(List.of("bitti:PERSONAL_INFO", "yetenekler:[SQL]", "bitti:SKILLS", "bitti:EXPERIENCE", "bitti:EDUCATION"),
+                events);
+    }
+
+    @Test
+    void finish_WhenJsonIsIncomplete_ShouldThrow() {
+        StreamingCvJsonParser parser = new StreamingCvJsonParser(new ObjectMapper(), recorder);
+        parser.feed("{\"kisisel_bilgiler\":{\"isim\":\"Ayşe\"},\"is_deneyimleri\":[{\"unvan\":");
+
+        RuntimeException exception = assertThrows(RuntimeException.class, parser::finish);
+
+        assertEquals("Yapay zekadan gelen JSON verisi anlaşılamadı.", exception.getMessage());
+    }
+
+    @Test
+    void feed_WhenResponseIsNotJson_ShouldThrow() {
+        StreamingCvJsonParser parser = new StreamingCvJsonParser(new ObjectMapper(), recorder);
+
+        assertThrows(RuntimeException.class, () -> parser.feed("{bu json değil}"));
+        assertFalse(parser.hasEmittedSections());
+    }
+}
@@ -0,0 +1,114 @@
+package com.cvconverter.ats_converter.service;
+
+import com.cvconverter.ats_converter.metrics.CvMetrics;
+import com.cvconverter.ats_converter.util.HashUtils;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.encryption.AccessPermission;
+import org.apache.pdfbox.pdmodel.encryption.StandardProtectionPolicy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * UploadSpoolService için testler: diske alma, özet ve ön kontrolde reddetme.
+ */
+class UploadSpoolServiceTest {
+
+    @TempDir
+    Path spoolDirectory;
+
+    private SimpleMeterRegistry meterRegistry;
+    private UploadSpoolService uploadSpoolService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        meterRegistry = new SimpleMeterRegistry();
+        uploadSpoolService = new UploadSpoolService(64 * 1024, 3, spoolDirectory.toString(), new CvMetrics(meterRegistry));
+    }
+
+    @Test
+    void spool_WhenPdfIsValid_ShouldCopyFileAndReturnHashAndPageCount() throws IOException {
+        // 1. Hazırlık
+        byte[] pdf = pdf(2, false);
+
+        // 2. Eylem
+        UploadSpoolService.SpooledUpload upload = uploadSpoolService.spool(upload("cv.pdf", pdf));
+
+        // 3. Doğrulama
+        assertEquals(2, upload.pageCount());
+        assertEquals(pdf.length, upload.size());
+        assertEquals(HashUtils.sha256Hex(pdf), upload.sha256());
+        assertArrayEquals(pdf, Files.readAllBytes(upload.path()));
+        uploadSpoolService.discard(upload);
+        assertFalse(Files.exists(upload.path()));
+    }
+
+    @Test
+    void spool_WhenFileIsNotPdf_ShouldRejectAndLeaveNoFile() throws IOException {
+        byte[] notPdf = "Bu bir PDF değil".repeat(200).getBytes(StandardCharsets.UTF_8);
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> uploadSpoolService.spool(upload("cv.pdf", notPdf)));
+
+        assertEquals("Yüklenen dosya bir PDF değil.", exception.getMessage());
+        assertEquals(1, meterRegistry.counter("cv.upload.rejected", "reason", "not_pdf").count());
+        try (var files = Files.list(spoolDirectory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void spool_WhenPdfIsEncryptedOrHasTooManyPages_ShouldReject() throws IOException {
+        byte[] encrypted = pdf(1, true);
+        byte[] tooManyPages = pdf(4, false);
+
+        assertThrows(IllegalArgumentException.class, () -> uploadSpoolService.spool(upload("sifreli.pdf", encrypted)));
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> uploadSpoolService.spool(upload("uzun.pdf", tooManyPages)));
+
+        assertTrue(exception.getMessage().contains("(4)"));
+        assertEquals(1, meterRegistry.counter("cv.upload.rejected", "reason", "encrypted").count());
+        assertEquals(1, meterRegistry.counter("cv.upload.rejected", "reason", "too_many_pages").count());
+    }
+
+    @Test
+    void spool_WhenFileExceedsSizeLimit_ShouldReject() {
+        byte[] large = new byte[64 * 1024 + 1];
+        byte[] magic = "%PDF-1.7\n".getBytes(StandardCharsets.US_ASCII);
+        System.arraycopy(magic, 0, large, 0, magic.length);
+
+        assertThrows(IllegalArgumentException.class, () -> uploadSpoolService.spool(upload("buyuk.pdf", large)));
+
+        assertEquals(1, meterRegistry.counter("cv.upload.rejected", "reason", "too_large").count());
+    }
+
+    private static MockMultipartFile upload(String fileName, byte[] content) {
+        return new MockMultipartFile("file", fileName, "application/pdf", content);
+    }
+
+    private static byte[] pdf(int pageCount, boolean encrypted) throws IOException {
+        try (PDDocument document = new PDDocument(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            for (int i = 0; i < pageCount; i++) {
+                document.addPage(new PDPage());
+            }
+            if (encrypted) {
+                StandardProtectionPolicy policy = new StandardProtectionPolicy("sahip", "kullanici", new AccessPermission());
+                policy.setEncryptionKeyLength(128);
+                document.protect(policy);
+            }
+            document.save(out);
+            return out.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.cvconverter.ats_converter.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ZipService için birim testleri.
+ */
+class ZipServiceTest {
+
+    private final ZipService zipService = new ZipService(6, "pdf,zip");
+
+    @Test
+    void writeZip_ShouldStorePdfAndDeflateText() throws IOException {
+        // 1. Hazırlık
+        byte[] pdf = "%PDF-1.4 sahte içerik".getBytes(StandardCharsets.UTF_8);
+        byte[] text = "Sayın Yetkili, ".repeat(200).getBytes(StandardCharsets.UTF_8);
+        List<ZipService.ZipItem> items = List.of(
+                zipService.item("ATS_Uyumlu_CV.pdf", pdf),
+                zipService.item("On_Yazi.txt", text));
+
+        // 2. Eylem
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        zipService.writeZip(items, out);
+
+        // 3. Doğrulama
+        Map<String, ZipEntry> entries = new HashMap<>();
+        Map<String, byte[]> contents = readZip(out.toByteArray(), entries);
+        assertEquals(ZipEntry.STORED, entries.get("ATS_Uyumlu_CV.pdf").getMethod());
+        assertEquals(ZipEntry.DEFLATED, entries.get("On_Yazi.txt").getMethod());
+        assertArrayEquals(pdf, contents.get("ATS_Uyumlu_CV.pdf"));
+        assertArrayEquals(text, contents.get("On_Yazi.txt"));
+    }
+
+    @Test
+    void writeZip_ShouldHonourPerEntryLevel() throws IOException {
+        byte[] text = "tekrar eden satır\n".repeat(500).getBytes(StandardCharsets.UTF_8);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        zipService.writeZip(List.of(new ZipService.ZipItem("notlar.txt", text, ZipService.STORED)), out);
+
+        Map<String, ZipEntry> entries = new HashMap<>();
+        assertArrayEquals(text, readZip(out.toByteArray(), entries).get("notlar.txt"));
+        assertEquals(ZipEntry.STORED, entries.get("notlar.txt").getMethod());
+    }
+
+    @Test
+    void createZipFile_ShouldKeepByteArrayContract() throws IOException {
+        byte[] zip = zipService.createZipFile(Map.of("a.txt", new byte[]{1, 2, 3}));
+
+        assertArrayEquals(new byte[]{1, 2, 3}, readZip(zip, new HashMap<>()).get("a.txt"));
+    }
+
+    private static Map<String, byte[]> readZip(byte[] zip, Map<String, ZipEntry> entries) throws IOException {
+        Map<String, byte[]> contents = new HashMap<>();
+        try (ZipInputStream zis = new ZipInputStream(new ByteArrayInputStream(zip))) {
+            ZipEntry entry;
+            while ((entry = zis.getNextEntry()) != null) {
+                entries.put(entry.getName(), entry);
+                contents.put(entry.getName(), zis.readAllBytes());
+            }
+        }
+        return contents;
+    }
+}